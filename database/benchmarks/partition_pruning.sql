@@ -0,0 +1,115 @@
+-- Benchmark: date-range queries on a partitioned vs an unpartitioned expense
+-- table holding several years of data.
+--
+-- Usage (against a scratch database, not production):
+--   mysql -u USER -p --database=expense_bench < database/benchmarks/partition_pruning.sql
+--
+-- Builds two copies of the expense layout with identical rows and indexes,
+-- bench_expense_flat and bench_expense_part (monthly RANGE COLUMNS partitions),
+-- then runs the DAO's query shapes against both and prints the elapsed time of
+-- each. Repeat the script a few times and compare the warm runs; EXPLAIN
+-- output shows which partitions each query reads.
+--
+-- Tune the dataset with @years, @users and @rows_per_user_day below. The
+-- defaults give 6 years x 20 users x 10 rows = ~438k rows per table.
+
+SET @years = 6;
+SET @users = 20;
+SET @rows_per_user_day = 10;
+SET SESSION cte_max_recursion_depth = 100000;
+
+DROP TABLE IF EXISTS bench_expense_flat;
+DROP TABLE IF EXISTS bench_expense_part;
+
+CREATE TABLE bench_expense_flat (
+    id BIGINT AUTO_INCREMENT,
+    user_id INT NOT NULL,
+    category_id INT NOT NULL,
+    expense_date DATE NOT NULL,
+    amount DECIMAL(12,2) NOT NULL,
+    payment_method VARCHAR(20) NOT NULL,
+    description VARCHAR(255),
+    PRIMARY KEY (id, expense_date),
+    KEY idx_user_date (user_id, expense_date),
+    KEY idx_user_category_date (user_id, category_id, expense_date)
+) ENGINE=InnoDB;
+
+CREATE TABLE bench_expense_part LIKE bench_expense_flat;
+
+-- Monthly partitions from 2019-01 through 2025-12
+SET @months = (
+    WITH RECURSIVE m(d) AS (
+        SELECT DATE('2019-01-01')
+        UNION ALL SELECT d + INTERVAL 1 MONTH FROM m WHERE d < '2025-12-01'
+    )
+    SELECT GROUP_CONCAT(CONCAT('PARTITION p', DATE_FORMAT(d, '%Y%m'), ' VALUES LESS THAN (''',
+            d + INTERVAL 1 MONTH, ''')') ORDER BY d SEPARATOR ', ')
+    FROM m
+);
+SET @ddl = CONCAT('ALTER TABLE bench_expense_part PARTITION BY RANGE COLUMNS(expense_date) (',
+        @months, ', PARTITION pmax VALUES LESS THAN (MAXVALUE))');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+INSERT INTO bench_expense_flat(user_id, category_id, expense_date, amount, payment_method, description)
+WITH RECURSIVE
+    days(d) AS (
+        SELECT DATE('2025-12-31') - INTERVAL @years YEAR + INTERVAL 1 DAY
+        UNION ALL SELECT d + INTERVAL 1 DAY FROM days WHERE d < '2025-12-31'
+    ),
+    users(u) AS (SELECT 1 UNION ALL SELECT u + 1 FROM users WHERE u < @users),
+    n(i) AS (SELECT 1 UNION ALL SELECT i + 1 FROM n WHERE i < @rows_per_user_day)
+SELECT u, 1 + (i % 8), d, ROUND(1 + RAND() * 200, 2),
+       ELT(1 + (i % 3), 'CASH', 'CARD', 'OTHER'), CONCAT('bench row ', i)
+FROM days CROSS JOIN users CROSS JOIN n;
+
+INSERT INTO bench_expense_part SELECT * FROM bench_expense_flat;
+ANALYZE TABLE bench_expense_flat, bench_expense_part;
+
+-- Runs one query shape against a table and reports the elapsed milliseconds
+DROP PROCEDURE IF EXISTS bench_run;
+DELIMITER //
+CREATE PROCEDURE bench_run(IN label VARCHAR(64), IN query TEXT, IN repetitions INT)
+BEGIN
+    DECLARE i INT DEFAULT 0;
+    DECLARE started DATETIME(6);
+    SET @bench_sql = query;
+    PREPARE q FROM @bench_sql;
+    SET started = NOW(6);
+    WHILE i < repetitions DO
+        EXECUTE q;
+        SET i = i + 1;
+    END WHILE;
+    DEALLOCATE PREPARE q;
+    SELECT label AS query, repetitions,
+           ROUND(TIMESTAMPDIFF(MICROSECOND, started, NOW(6)) / 1000 / repetitions, 2) AS avg_ms;
+END //
+DELIMITER ;
+
+-- 1. One user's month (report / rollup range shape)
+CALL bench_run('flat: user month', 'SELECT SUM(amount) INTO @x FROM bench_expense_flat WHERE user_id = 7 AND expense_date BETWEEN ''2024-03-01'' AND ''2024-03-31''', 200);
+CALL bench_run('part: user month', 'SELECT SUM(amount) INTO @x FROM bench_expense_part WHERE user_id = 7 AND expense_date BETWEEN ''2024-03-01'' AND ''2024-03-31''', 200);
+
+-- 2. One user's category over a quarter (findByCategory shape)
+CALL bench_run('flat: user category quarter', 'SELECT SUM(amount) INTO @x FROM bench_expense_flat WHERE user_id = 7 AND category_id = 3 AND expense_date BETWEEN ''2024-01-01'' AND ''2024-03-31''', 200);
+CALL bench_run('part: user category quarter', 'SELECT SUM(amount) INTO @x FROM bench_expense_part WHERE user_id = 7 AND category_id = 3 AND expense_date BETWEEN ''2024-01-01'' AND ''2024-03-31''', 200);
+
+-- 3. Description filter over a month (LIKE search shape: the index cannot
+--    narrow by description, so the range decides how many rows are read)
+CALL bench_run('flat: user month LIKE', 'SELECT COUNT(*) INTO @x FROM bench_expense_flat WHERE user_id = 7 AND expense_date BETWEEN ''2024-03-01'' AND ''2024-03-31'' AND LOWER(description) LIKE ''%row 3%''', 200);
+CALL bench_run('part: user month LIKE', 'SELECT COUNT(*) INTO @x FROM bench_expense_part WHERE user_id = 7 AND expense_date BETWEEN ''2024-03-01'' AND ''2024-03-31'' AND LOWER(description) LIKE ''%row 3%''', 200);
+
+-- 4. All users' month (rollup backfill / maintenance shape, no user_id prefix:
+--    the flat table has no usable index and scans everything)
+CALL bench_run('flat: all users month', 'SELECT SUM(amount) INTO @x FROM bench_expense_flat WHERE expense_date BETWEEN ''2024-03-01'' AND ''2024-03-31''', 20);
+CALL bench_run('part: all users month', 'SELECT SUM(amount) INTO @x FROM bench_expense_part WHERE expense_date BETWEEN ''2024-03-01'' AND ''2024-03-31''', 20);
+
+-- Which partitions each shape touches (expect p202403 only)
+EXPLAIN SELECT SUM(amount) FROM bench_expense_part WHERE user_id = 7 AND expense_date BETWEEN '2024-03-01' AND '2024-03-31';
+EXPLAIN SELECT SUM(amount) FROM bench_expense_part WHERE expense_date BETWEEN '2024-03-01' AND '2024-03-31';
+-- Wrapping the column in a function defeats pruning (all partitions listed)
+EXPLAIN SELECT SUM(amount) FROM bench_expense_part WHERE YEAR(expense_date) = 2024 AND MONTH(expense_date) = 3;
+
+DROP PROCEDURE bench_run;
+-- DROP TABLE bench_expense_flat, bench_expense_part;
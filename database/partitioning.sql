@@ -0,0 +1,49 @@
+-- Optional: RANGE partitioning of expense by expense_date
+--
+-- Run after schema.sql on installations with years of history. Date-range
+-- queries (reports, imports' fingerprint lookups, search) then only touch the
+-- partitions covering their range, and old years can be archived with
+-- ALTER TABLE ... EXCHANGE/DROP PARTITION instead of row-by-row deletes.
+--
+-- MySQL restrictions on partitioned InnoDB tables shape this script:
+--   * every unique key must contain the partitioning column, so the primary
+--     key becomes (id, expense_date) and the import fingerprint key gains
+--     expense_date (the fingerprint already hashes the date, so de-duplication
+--     is unchanged);
+--   * foreign keys are not supported, so fk_expense_user/fk_expense_category
+--     are dropped and ownership/category integrity is left to the application
+--     (CategoryService refuses to delete a category that still has expenses);
+--   * FULLTEXT indexes are not supported; ExpenseJdbcDAO detects the missing
+--     index and searches with LIKE (or use the in-memory search index).
+--
+-- Partitions are named after the first period they hold (p2023, p202501) and
+-- bounded with RANGE COLUMNS so WHERE expense_date BETWEEN ? AND ? prunes
+-- directly. Adjust the historical partitions to cover your oldest expense.
+-- PartitionMaintenanceService (started with the background services) keeps
+-- splitting pmax so that -Dexpensetracker.partitions.ahead (default 3) future
+-- partitions of -Dexpensetracker.partitions.interval (MONTH or YEAR, default
+-- MONTH) always exist; pmax should stay empty.
+
+ALTER TABLE expense DROP FOREIGN KEY fk_expense_user, DROP FOREIGN KEY fk_expense_category;
+DROP INDEX ft_expense_description ON expense;
+
+ALTER TABLE expense
+    DROP PRIMARY KEY, ADD PRIMARY KEY (id, expense_date),
+    DROP INDEX uq_expense_fingerprint, ADD UNIQUE KEY uq_expense_fingerprint (user_id, fingerprint, expense_date);
+
+-- Yearly partitions for history, monthly from the current year on
+ALTER TABLE expense PARTITION BY RANGE COLUMNS(expense_date) (
+    PARTITION p2020 VALUES LESS THAN ('2021-01-01'),
+    PARTITION p2021 VALUES LESS THAN ('2022-01-01'),
+    PARTITION p2022 VALUES LESS THAN ('2023-01-01'),
+    PARTITION p2023 VALUES LESS THAN ('2024-01-01'),
+    PARTITION p2024 VALUES LESS THAN ('2025-01-01'),
+    PARTITION p202501 VALUES LESS THAN ('2025-02-01'),
+    PARTITION pmax VALUES LESS THAN (MAXVALUE)
+);
+
+-- Verify pruning: the "partitions" column should list only p2024
+-- EXPLAIN SELECT COUNT(*) FROM expense WHERE user_id = 1 AND expense_date BETWEEN '2024-03-01' AND '2024-03-31';
+--
+-- Undo (restores an unpartitioned table; re-add the keys and indexes from schema.sql):
+-- ALTER TABLE expense REMOVE PARTITIONING;
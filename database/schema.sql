@@ -1,52 +1,140 @@
 -- Expense Tracker Database Schema
 -- Generated initial draft
 
+-- User authentication (added later for login feature). Created first because
+-- every user-owned table below references it.
+CREATE TABLE IF NOT EXISTS user_account (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    username VARCHAR(50) NOT NULL UNIQUE,
+    -- Case-folded username for indexed, case-insensitive login lookups
+    username_key VARCHAR(50) AS (LOWER(username)) STORED NOT NULL,
+    password_hash VARCHAR(128) NOT NULL,
+    salt VARCHAR(64) NOT NULL,
+    role ENUM('ADMIN','USER') NOT NULL DEFAULT 'USER',
+    active BOOLEAN NOT NULL DEFAULT TRUE,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    UNIQUE KEY uq_user_account_username_key (username_key)
+) ENGINE=InnoDB;
+
+-- Upgrading an existing database for indexed username lookups (fails if two
+-- names differ only in case; rename one first):
+-- ALTER TABLE user_account ADD COLUMN username_key VARCHAR(50) AS (LOWER(username)) STORED NOT NULL AFTER username,
+--     ADD UNIQUE KEY uq_user_account_username_key (username_key);
+
+INSERT INTO user_account(username, password_hash, salt, role)
+VALUES ('admin', 'PLACEHOLDER_HASH', 'PLACEHOLDER_SALT', 'ADMIN')
+ON DUPLICATE KEY UPDATE username=username;
+
+-- Categories, expenses, templates and rollups are owned by one user; every DAO
+-- query filters on user_id, so each index below leads with it.
 CREATE TABLE IF NOT EXISTS category (
     id INT AUTO_INCREMENT PRIMARY KEY,
-    name VARCHAR(100) NOT NULL UNIQUE,
+    user_id INT NOT NULL,
+    name VARCHAR(100) NOT NULL,
+    -- Case-folded name; names are unique per user regardless of case
+    name_key VARCHAR(100) AS (LOWER(name)) STORED NOT NULL,
     monthly_budget_limit DECIMAL(12,2) NULL,
-    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    UNIQUE KEY uq_category_user_name_key (user_id, name_key),
+    CONSTRAINT fk_category_user FOREIGN KEY (user_id) REFERENCES user_account(id) ON DELETE CASCADE
 ) ENGINE=InnoDB;
 
 CREATE TABLE IF NOT EXISTS expense (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id INT NOT NULL,
     category_id INT NOT NULL,
     expense_date DATE NOT NULL,
     amount DECIMAL(12,2) NOT NULL CHECK (amount > 0),
     payment_method VARCHAR(20) NOT NULL,
     description VARCHAR(255),
+    -- SHA-256 of imported row content; NULL for expenses entered by hand
+    fingerprint CHAR(64) NULL,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP NULL ON UPDATE CURRENT_TIMESTAMP,
+    UNIQUE KEY uq_expense_fingerprint (user_id, fingerprint),
+    CONSTRAINT fk_expense_user FOREIGN KEY (user_id) REFERENCES user_account(id) ON DELETE CASCADE,
     CONSTRAINT fk_expense_category FOREIGN KEY (category_id) REFERENCES category(id) ON DELETE RESTRICT
 ) ENGINE=InnoDB;
 
 CREATE TABLE IF NOT EXISTS recurring_expense_template (
     id INT AUTO_INCREMENT PRIMARY KEY,
+    user_id INT NOT NULL,
     category_id INT NOT NULL,
     amount DECIMAL(12,2) NOT NULL CHECK (amount > 0),
     payment_method VARCHAR(20) NOT NULL,
     description VARCHAR(255),
     frequency ENUM('DAILY','WEEKLY','MONTHLY') NOT NULL,
     next_occurrence DATE NOT NULL,
+    -- Day of month MONTHLY occurrences fall on (clamped to shorter months)
+    anchor_day TINYINT NOT NULL CHECK (anchor_day BETWEEN 1 AND 31),
     active BOOLEAN NOT NULL DEFAULT TRUE,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_recurring_user FOREIGN KEY (user_id) REFERENCES user_account(id) ON DELETE CASCADE,
     CONSTRAINT fk_recurring_category FOREIGN KEY (category_id) REFERENCES category(id) ON DELETE RESTRICT
 ) ENGINE=InnoDB;
 
-CREATE INDEX idx_expense_date ON expense(expense_date);
-CREATE INDEX idx_expense_category_date ON expense(category_id, expense_date);
+-- Upgrading an existing database for import de-duplication:
+-- ALTER TABLE expense ADD COLUMN fingerprint CHAR(64) NULL AFTER description,
+--     ADD UNIQUE KEY uq_expense_fingerprint (fingerprint);
 
--- User authentication (added later for login feature)
-CREATE TABLE IF NOT EXISTS user_account (
-    id INT AUTO_INCREMENT PRIMARY KEY,
-    username VARCHAR(50) NOT NULL UNIQUE,
-    password_hash VARCHAR(128) NOT NULL,
-    salt VARCHAR(64) NOT NULL,
-    role ENUM('ADMIN','USER') NOT NULL DEFAULT 'USER',
-    active BOOLEAN NOT NULL DEFAULT TRUE,
-    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+-- Upgrading an existing single-user database to per-user ownership (existing
+-- rows go to the admin account; rebuild the rollup afterwards):
+-- SET @owner = (SELECT id FROM user_account WHERE username = 'admin');
+-- ALTER TABLE category ADD COLUMN user_id INT NULL AFTER id;
+-- UPDATE category SET user_id = @owner;
+-- ALTER TABLE category MODIFY user_id INT NOT NULL, DROP INDEX name,
+--     ADD UNIQUE KEY uq_category_user_name (user_id, name),
+--     ADD CONSTRAINT fk_category_user FOREIGN KEY (user_id) REFERENCES user_account(id) ON DELETE CASCADE;
+-- ALTER TABLE expense ADD COLUMN user_id INT NULL AFTER id;
+-- UPDATE expense SET user_id = @owner;
+-- ALTER TABLE expense MODIFY user_id INT NOT NULL, DROP INDEX uq_expense_fingerprint,
+--     ADD UNIQUE KEY uq_expense_fingerprint (user_id, fingerprint),
+--     DROP INDEX idx_expense_date, DROP INDEX idx_expense_category_date,
+--     ADD CONSTRAINT fk_expense_user FOREIGN KEY (user_id) REFERENCES user_account(id) ON DELETE CASCADE;
+-- ALTER TABLE recurring_expense_template ADD COLUMN user_id INT NULL AFTER id;
+-- UPDATE recurring_expense_template SET user_id = @owner;
+-- ALTER TABLE recurring_expense_template MODIFY user_id INT NOT NULL,
+--     ADD CONSTRAINT fk_recurring_user FOREIGN KEY (user_id) REFERENCES user_account(id) ON DELETE CASCADE;
+-- DROP TABLE expense_daily_rollup;  -- then re-run the CREATE and backfill below
+
+-- Upgrading an existing database for month-end recurring templates (a
+-- template that already slipped, e.g. from the 31st to the 28th, keeps the
+-- later day; correct anchor_day by hand):
+-- ALTER TABLE recurring_expense_template ADD COLUMN anchor_day TINYINT NULL AFTER next_occurrence;
+-- UPDATE recurring_expense_template SET anchor_day = DAY(next_occurrence);
+-- ALTER TABLE recurring_expense_template MODIFY anchor_day TINYINT NOT NULL CHECK (anchor_day BETWEEN 1 AND 31);
+
+-- Upgrading an existing database for indexed category name lookups (fails if
+-- a user has two names differing only in case; rename one first):
+-- ALTER TABLE category ADD COLUMN name_key VARCHAR(100) AS (LOWER(name)) STORED NOT NULL AFTER name,
+--     ADD UNIQUE KEY uq_category_user_name_key (user_id, name_key), DROP INDEX uq_category_user_name;
+
+CREATE INDEX idx_expense_user_date ON expense(user_id, expense_date);
+CREATE INDEX idx_expense_user_category_date ON expense(user_id, category_id, expense_date);
+-- Word index for description search (MATCH ... AGAINST in ExpenseJdbcDAO.search);
+-- without it the DAO falls back to a LIKE scan
+CREATE FULLTEXT INDEX ft_expense_description ON expense(description);
+-- Due-template lookup for the recurring expense materializer (runs across all users)
+CREATE INDEX idx_recurring_due ON recurring_expense_template(active, next_occurrence);
+CREATE INDEX idx_recurring_user ON recurring_expense_template(user_id);
+
+-- Pre-aggregated daily totals, maintained transactionally by ExpenseJdbcDAO
+-- writes. Range summaries read at most (days x categories x methods) rows.
+CREATE TABLE IF NOT EXISTS expense_daily_rollup (
+    user_id INT NOT NULL,
+    rollup_date DATE NOT NULL,
+    category_id INT NOT NULL,
+    payment_method VARCHAR(20) NOT NULL,
+    expense_count INT NOT NULL,
+    total_amount DECIMAL(14,2) NOT NULL,
+    PRIMARY KEY (user_id, rollup_date, category_id, payment_method),
+    CONSTRAINT fk_rollup_user FOREIGN KEY (user_id) REFERENCES user_account(id) ON DELETE CASCADE,
+    CONSTRAINT fk_rollup_category FOREIGN KEY (category_id) REFERENCES category(id) ON DELETE CASCADE
 ) ENGINE=InnoDB;
 
-INSERT INTO user_account(username, password_hash, salt, role)
-VALUES ('admin', 'PLACEHOLDER_HASH', 'PLACEHOLDER_SALT', 'ADMIN')
-ON DUPLICATE KEY UPDATE username=username;
+-- Backfill / resync from raw rows (idempotent; DailyRollupDAO.rebuild runs the same per user)
+INSERT INTO expense_daily_rollup(user_id, rollup_date, category_id, payment_method, expense_count, total_amount)
+SELECT user_id, expense_date, category_id, payment_method, COUNT(*), SUM(amount)
+FROM expense
+GROUP BY user_id, expense_date, category_id, payment_method
+ON DUPLICATE KEY UPDATE expense_count = VALUES(expense_count), total_amount = VALUES(total_amount);
@@ -0,0 +1,63 @@
+package com.expensetracker.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.expensetracker.security.LegacySha256HashScheme;
+import com.expensetracker.security.Pbkdf2HashScheme;
+
+/**
+ * Cost of one login check at candidate PBKDF2 iteration counts, next to the
+ * legacy single SHA-256. Use it to pick
+ * {@code -Dexpensetracker.password.targetMillis} for the target hardware,
+ * and run with {@code -t 4} to see the cost under concurrent logins.
+ * <p>
+ * {@code mvn -Pjmh compile exec:exec -Dexec.executable=java
+ * "-Dexec.args=-cp %classpath org.openjdk.jmh.Main PasswordHashBenchmark"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(1)
+public class PasswordHashBenchmark {
+
+    @Param({"100000", "310000", "600000"})
+    public int iterations;
+
+    private Pbkdf2HashScheme pbkdf2;
+    private String pbkdf2Hash;
+    private final LegacySha256HashScheme legacy = new LegacySha256HashScheme();
+    private String legacyHash;
+
+    @Setup
+    public void setUp() {
+        pbkdf2 = new Pbkdf2HashScheme(iterations);
+        pbkdf2Hash = pbkdf2.hash("correct horse battery staple", "bench-salt");
+        legacyHash = legacy.hash("correct horse battery staple", "bench-salt");
+    }
+
+    @Benchmark
+    public boolean verifyPbkdf2() {
+        return pbkdf2.verify("correct horse battery staple", "bench-salt", pbkdf2Hash);
+    }
+
+    @Benchmark
+    public boolean verifyLegacySha256() {
+        return legacy.verify("correct horse battery staple", "bench-salt", legacyHash);
+    }
+}
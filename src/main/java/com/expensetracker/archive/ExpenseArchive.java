@@ -0,0 +1,212 @@
+package com.expensetracker.archive;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import com.expensetracker.model.Category;
+import com.expensetracker.model.Expense;
+import com.expensetracker.model.PaymentMethod;
+
+/**
+ * Cold storage for old expenses: one gzip-compressed file per user and month
+ * ({@code user-<id>/expenses-<yyyy-MM>.bin.gz}). Archived expenses are read
+ * only; a month file is rewritten as a whole when more rows are archived into
+ * it, and replaced atomically so readers never see a partial file.
+ * <p>
+ * Categories are stored as id and name as of archival; readers should prefer
+ * the live category when it still exists. Each row keeps the fingerprint it
+ * had in the live table. Files written before fingerprints were kept
+ * ("EXA1") are still read, with no fingerprints, and are upgraded when
+ * their month is rewritten.
+ */
+public class ExpenseArchive {
+
+    private static final int FORMAT_MAGIC = 0x45584132; // "EXA2"
+    private static final int FORMAT_MAGIC_V1 = 0x45584131; // "EXA1", without fingerprints
+    private static final Pattern MONTH_FILE = Pattern.compile("expenses-(\\d{4}-\\d{2})\\.bin\\.gz");
+
+    private final Path root;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public ExpenseArchive(Path root) {
+        this.root = root;
+    }
+
+    /**
+     * Months archived for the user, in ascending order.
+     */
+    public List<YearMonth> months(int userId) throws IOException {
+        Path dir = userDir(userId);
+        List<YearMonth> months = new ArrayList<>();
+        lock.readLock().lock();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+            for (Path file : files) {
+                Matcher m = MONTH_FILE.matcher(file.getFileName().toString());
+                if (m.matches()) {
+                    months.add(YearMonth.parse(m.group(1)));
+                }
+            }
+        } catch (NoSuchFileException e) {
+            return months;
+        } finally {
+            lock.readLock().unlock();
+        }
+        months.sort(null);
+        return months;
+    }
+
+    /**
+     * Archived expenses of one month in date order; empty if the month has
+     * no archive file.
+     */
+    public List<Expense> read(int userId, YearMonth month) throws IOException {
+        lock.readLock().lock();
+        try {
+            return readFile(monthFile(userId, month));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Every archived expense of the user in date order, read under one lock
+     * so a concurrent archival run is seen entirely or not at all.
+     */
+    public List<Expense> readAll(int userId) throws IOException {
+        lock.readLock().lock();
+        try {
+            List<Expense> rows = new ArrayList<>();
+            for (YearMonth month : months(userId)) {
+                rows.addAll(readFile(monthFile(userId, month)));
+            }
+            return rows;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Add expenses to a month's archive file. Rows whose id is already
+     * archived are replaced, so re-running an interrupted archival is safe.
+     */
+    public void write(int userId, YearMonth month, List<Expense> expenses) throws IOException {
+        Path file = monthFile(userId, month);
+        lock.writeLock().lock();
+        try {
+            Map<Long, Expense> byId = new LinkedHashMap<>();
+            for (Expense expense : readFile(file)) {
+                byId.put(expense.getId(), expense);
+            }
+            for (Expense expense : expenses) {
+                if (!YearMonth.from(expense.getDate()).equals(month)) {
+                    throw new IllegalArgumentException("Expense " + expense.getId() + " is not dated in " + month);
+                }
+                byId.put(expense.getId(), expense);
+            }
+            List<Expense> rows = new ArrayList<>(byId.values());
+            rows.sort(Comparator.comparing(Expense::getDate).thenComparing(Expense::getId));
+
+            Files.createDirectories(file.getParent());
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(temp))))) {
+                out.writeInt(FORMAT_MAGIC);
+                out.writeInt(rows.size());
+                for (Expense expense : rows) {
+                    writeExpense(out, expense);
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Path userDir(int userId) {
+        return root.resolve("user-" + userId);
+    }
+
+    private Path monthFile(int userId, YearMonth month) {
+        return userDir(userId).resolve("expenses-" + month + ".bin.gz");
+    }
+
+    private static List<Expense> readFile(Path file) throws IOException {
+        List<Expense> rows = new ArrayList<>();
+        if (!Files.exists(file)) {
+            return rows;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(file))))) {
+            int magic = in.readInt();
+            if (magic != FORMAT_MAGIC && magic != FORMAT_MAGIC_V1) {
+                throw new IOException("Not an expense archive: " + file);
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                rows.add(readExpense(in, magic == FORMAT_MAGIC));
+            }
+        }
+        return rows;
+    }
+
+    private static void writeExpense(DataOutputStream out, Expense expense) throws IOException {
+        out.writeLong(expense.getId());
+        out.writeLong(expense.getDate().toEpochDay());
+        out.writeInt(expense.getCategory().getId());
+        out.writeUTF(expense.getCategory().getName());
+        out.writeUTF(expense.getAmount().toPlainString());
+        out.writeUTF(expense.getPaymentMethod().name());
+        writeNullable(out, expense.getDescription());
+        writeNullable(out, expense.getCreatedAt() == null ? null : expense.getCreatedAt().toString());
+        writeNullable(out, expense.getUpdatedAt() == null ? null : expense.getUpdatedAt().toString());
+        writeNullable(out, expense.getFingerprint());
+    }
+
+    private static Expense readExpense(DataInputStream in, boolean withFingerprint) throws IOException {
+        long id = in.readLong();
+        LocalDate date = LocalDate.ofEpochDay(in.readLong());
+        Category category = new Category(in.readInt(), in.readUTF(), null, null);
+        BigDecimal amount = new BigDecimal(in.readUTF());
+        PaymentMethod method = PaymentMethod.valueOf(in.readUTF());
+        String description = readNullable(in);
+        String created = readNullable(in);
+        String updated = readNullable(in);
+        Expense expense = Expense.create(category, date, amount, method, description);
+        expense.markPersisted(id, created == null ? null : LocalDateTime.parse(created), updated == null ? null : LocalDateTime.parse(updated));
+        if (withFingerprint) {
+            expense.setFingerprint(readNullable(in));
+        }
+        return expense;
+    }
+
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
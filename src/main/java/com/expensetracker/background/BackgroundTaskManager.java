@@ -1,5 +1,6 @@
 package com.expensetracker.background;
 
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -24,10 +25,14 @@ public class BackgroundTaskManager {
 
     private final ScheduledExecutorService scheduler;
     private final ExecutorService taskExecutor;
+    private final ThreadPoolExecutor reportExecutor;
     private final AtomicBoolean isShutdown = new AtomicBoolean(false);
 
     private static final int CORE_POOL_SIZE = 2;
     private static final int MAX_POOL_SIZE = 4;
+    // Reports are CPU-bound once the rows are read: one thread per core
+    private static final int REPORT_POOL_SIZE = Runtime.getRuntime().availableProcessors();
+    private static final int REPORT_QUEUE_CAPACITY = 64;
 
     private BackgroundTaskManager() {
         // Create a scheduled executor for periodic tasks
@@ -61,6 +66,27 @@ public class BackgroundTaskManager {
             }
         });
 
+        // Separate from the task executor so report fan-out neither queues behind nor starves other work;
+        // when the bounded queue is full the submitting thread runs the task itself
+        this.reportExecutor = new ThreadPoolExecutor(
+                REPORT_POOL_SIZE,
+                REPORT_POOL_SIZE,
+                60L,
+                TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(REPORT_QUEUE_CAPACITY),
+                new ThreadFactory() {
+            private int counter = 0;
+
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "ExpenseTracker-Report-" + (++counter));
+                t.setDaemon(true);
+                return t;
+            }
+        },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.reportExecutor.allowCoreThreadTimeOut(true);
+
         LoggerUtil.info("Background task manager initialized");
     }
 
@@ -83,7 +109,7 @@ public class BackgroundTaskManager {
             throw new IllegalStateException("TaskManager has been shut down");
         }
 
-        LoggerUtil.debug("Scheduling periodic task with initial delay: " + initialDelay + " " + unit);
+        LoggerUtil.debug("Scheduling periodic task with initial delay: {} {}", initialDelay, unit);
         return scheduler.scheduleAtFixedRate(new SafeRunnable(task), initialDelay, period, unit);
     }
 
@@ -95,7 +121,7 @@ public class BackgroundTaskManager {
             throw new IllegalStateException("TaskManager has been shut down");
         }
 
-        LoggerUtil.debug("Scheduling one-time task with delay: " + delay + " " + unit);
+        LoggerUtil.debug("Scheduling one-time task with delay: {} {}", delay, unit);
         return scheduler.schedule(new SafeRunnable(task), delay, unit);
     }
 
@@ -111,6 +137,19 @@ public class BackgroundTaskManager {
         return taskExecutor.submit(new SafeCallable<>(task));
     }
 
+    /**
+     * Submit one part of a report to the report pool: up to one task per
+     * available processor runs at a time, independent of other background
+     * work. Must not be called from a report pool thread.
+     */
+    public <T> Future<T> submitReport(Callable<T> task) {
+        if (isShutdown.get()) {
+            throw new IllegalStateException("TaskManager has been shut down");
+        }
+
+        return reportExecutor.submit(new SafeCallable<>(task));
+    }
+
     /**
      * Submit a runnable task for execution
      */
@@ -147,6 +186,7 @@ public class BackgroundTaskManager {
 
         scheduler.shutdown();
         taskExecutor.shutdown();
+        reportExecutor.shutdown();
 
         try {
             // Wait for termination
@@ -160,6 +200,11 @@ public class BackgroundTaskManager {
                 taskExecutor.shutdownNow();
             }
 
+            if (!reportExecutor.awaitTermination(10, TimeUnit.SECONDS)) {
+                LoggerUtil.warn("Report executor did not terminate gracefully, forcing shutdown");
+                reportExecutor.shutdownNow();
+            }
+
             LoggerUtil.info("Background task manager shut down successfully");
         } catch (InterruptedException e) {
             LoggerUtil.warn("Interrupted while shutting down task manager", e);
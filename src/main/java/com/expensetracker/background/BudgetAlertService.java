@@ -3,15 +3,25 @@ package com.expensetracker.background;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import com.expensetracker.dao.CategoryDAO;
+import com.expensetracker.dao.DailyRollupDAO;
 import com.expensetracker.dao.ExpenseDAO;
+import com.expensetracker.event.ChangeEvent;
 import com.expensetracker.model.Category;
+import com.expensetracker.model.DailyRollup;
 import com.expensetracker.model.Expense;
+import com.expensetracker.model.Role;
+import com.expensetracker.model.UserAccount;
 import com.expensetracker.util.LoggerUtil;
+import com.expensetracker.util.SessionContext;
 
 /**
  * Background service for monitoring budget limits and sending alerts
@@ -20,6 +30,7 @@ public class BudgetAlertService {
 
     private final CategoryDAO categoryDAO;
     private final ExpenseDAO expenseDAO;
+    private final DailyRollupDAO rollupDAO; // nullable: falls back to raw expense rows
     private final BackgroundTaskManager taskManager;
     private ScheduledFuture<?> alertTask;
 
@@ -28,8 +39,13 @@ public class BudgetAlertService {
     private static final double CRITICAL_THRESHOLD = 0.95; // 95%
 
     public BudgetAlertService(CategoryDAO categoryDAO, ExpenseDAO expenseDAO) {
+        this(categoryDAO, expenseDAO, null);
+    }
+
+    public BudgetAlertService(CategoryDAO categoryDAO, ExpenseDAO expenseDAO, DailyRollupDAO rollupDAO) {
         this.categoryDAO = categoryDAO;
         this.expenseDAO = expenseDAO;
+        this.rollupDAO = rollupDAO;
         this.taskManager = BackgroundTaskManager.getInstance();
     }
 
@@ -60,6 +76,36 @@ public class BudgetAlertService {
         }
     }
 
+    /**
+     * Re-check budgets once per user with changes in the batch (subscribe
+     * asynchronously: the checks run on the delivering thread, each as the
+     * user who owns the changes). Only changes that can move spend or limits
+     * count; a new category without a limit does not.
+     */
+    public void onChanges(List<ChangeEvent> batch) {
+        Map<Integer, List<ChangeEvent>> byUser = batch.stream()
+                .collect(Collectors.groupingBy(ChangeEvent::userId, LinkedHashMap::new, Collectors.toList()));
+        byUser.forEach((userId, events) -> {
+            boolean relevant = events.stream().anyMatch(event -> !(event instanceof ChangeEvent.CategoryChanged changed)
+                    || (changed.category() != null && changed.category().getMonthlyBudgetLimit() != null));
+            // User id 0: raised without a signed-in user, so there are no budgets to check
+            if (relevant && userId != 0) {
+                SessionContext.getInstance().callAs(owner(userId), () -> {
+                    checkBudgetLimits();
+                    return null;
+                });
+            }
+        });
+    }
+
+    /**
+     * Stand-in principal for a user known only by id; DAO queries are
+     * scoped by the id alone.
+     */
+    private static UserAccount owner(int userId) {
+        return new UserAccount(userId, null, null, null, Role.USER, true, null);
+    }
+
     /**
      * Manually trigger a budget check
      */
@@ -71,6 +117,10 @@ public class BudgetAlertService {
      * Check all category budget limits for the current month
      */
     private void checkBudgetLimits() {
+        // Budgets belong to the signed-in user; nothing to check without one
+        if (!SessionContext.getInstance().isAuthenticated()) {
+            return;
+        }
         try {
             LoggerUtil.debug("Checking budget limits for current month");
 
@@ -83,8 +133,13 @@ public class BudgetAlertService {
                     .filter(category -> category.getMonthlyBudgetLimit().compareTo(BigDecimal.ZERO) > 0)
                     .toList();
 
+            if (categoriesWithBudgets.isEmpty()) {
+                return;
+            }
+
+            Map<Integer, BigDecimal> spentByCategory = monthlySpendByCategory(monthStart, monthEnd);
             for (Category category : categoriesWithBudgets) {
-                checkCategoryBudget(category, monthStart, monthEnd);
+                checkCategoryBudget(category, spentByCategory.getOrDefault(category.getId(), BigDecimal.ZERO));
             }
 
         } catch (Exception e) {
@@ -92,26 +147,36 @@ public class BudgetAlertService {
         }
     }
 
+    /**
+     * Total spend per category id for the month, read once for all
+     * categories (from the daily rollup when available).
+     */
+    private Map<Integer, BigDecimal> monthlySpendByCategory(LocalDate monthStart, LocalDate monthEnd) {
+        Map<Integer, BigDecimal> totals = new HashMap<>();
+        if (rollupDAO != null) {
+            for (DailyRollup rollup : rollupDAO.findByDateRange(monthStart, monthEnd)) {
+                totals.merge(rollup.getCategoryId(), rollup.getTotal(), BigDecimal::add);
+            }
+        } else {
+            for (Expense expense : expenseDAO.findByDateRange(monthStart, monthEnd)) {
+                totals.merge(expense.getCategory().getId(), expense.getAmount(), BigDecimal::add);
+            }
+        }
+        return totals;
+    }
+
     /**
      * Check budget for a specific category
      */
-    private void checkCategoryBudget(Category category, LocalDate monthStart, LocalDate monthEnd) {
+    private void checkCategoryBudget(Category category, BigDecimal totalSpent) {
         try {
-            // Get total expenses for this category in the current month
-            List<Expense> monthlyExpenses = expenseDAO.findByDateRange(monthStart, monthEnd)
-                    .stream()
-                    .filter(expense -> expense.getCategory().getId().equals(category.getId()))
-                    .toList();
-
-            BigDecimal totalSpent = monthlyExpenses.stream()
-                    .map(Expense::getAmount)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-
             BigDecimal budgetLimit = category.getMonthlyBudgetLimit();
             double percentageUsed = totalSpent.divide(budgetLimit, 4, java.math.RoundingMode.HALF_UP).doubleValue();
 
-            LoggerUtil.debug(String.format("Category '%s': $%.2f / $%.2f (%.1f%%)",
-                    category.getName(), totalSpent, budgetLimit, percentageUsed * 100));
+            if (LoggerUtil.isDebugEnabled()) {
+                LoggerUtil.debug(String.format("Category '%s': $%.2f / $%.2f (%.1f%%)",
+                        category.getName(), totalSpent, budgetLimit, percentageUsed * 100));
+            }
 
             // Check thresholds and generate alerts
             if (percentageUsed >= 1.0) {
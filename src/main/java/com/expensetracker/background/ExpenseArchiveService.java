@@ -0,0 +1,119 @@
+package com.expensetracker.background;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import com.expensetracker.archive.ExpenseArchive;
+import com.expensetracker.dao.ExpenseDAO;
+import com.expensetracker.model.Expense;
+import com.expensetracker.util.LoggerUtil;
+import com.expensetracker.util.SessionContext;
+
+/**
+ * Background service that moves the signed-in user's expenses older than a
+ * horizon (in whole months) from the live table into the
+ * {@link ExpenseArchive}. Each month file is written before any row is
+ * deleted, so an interrupted run leaves rows in both tiers and the next run
+ * simply rewrites them. Rows edited after they were read stay live (the
+ * purge matches updated_at) and are archived again by the next run.
+ */
+public class ExpenseArchiveService {
+
+    // Earliest value MySQL accepts for a DATE column
+    private static final LocalDate MIN_DATE = LocalDate.of(1000, 1, 1);
+
+    private final ExpenseDAO liveDAO;
+    private final ExpenseArchive archive;
+    private final int horizonMonths;
+    private final BackgroundTaskManager taskManager;
+    private ScheduledFuture<?> archiveTask;
+
+    /**
+     * @param liveDAO       the live table itself, not a tiered view of it
+     * @param horizonMonths months kept live besides the current one; 0
+     *                      disables archival
+     */
+    public ExpenseArchiveService(ExpenseDAO liveDAO, ExpenseArchive archive, int horizonMonths) {
+        this.liveDAO = liveDAO;
+        this.archive = archive;
+        this.horizonMonths = horizonMonths;
+        this.taskManager = BackgroundTaskManager.getInstance();
+    }
+
+    /**
+     * Archive shortly after start-up and then once a day.
+     */
+    public void startArchiving() {
+        if (horizonMonths <= 0) {
+            LoggerUtil.info("Expense archival disabled");
+            return;
+        }
+        LoggerUtil.info("Starting expense archival (keeping {} months live)", horizonMonths);
+        archiveTask = taskManager.scheduleAtFixedRate(() -> {
+            if (SessionContext.getInstance().isAuthenticated()) {
+                archiveOlderThanHorizon(LocalDate.now());
+            }
+        }, 5, 24 * 60, TimeUnit.MINUTES);
+    }
+
+    public void stopArchiving() {
+        if (archiveTask != null && !archiveTask.isCancelled()) {
+            archiveTask.cancel(false);
+            LoggerUtil.info("Expense archival stopped");
+        }
+    }
+
+    /**
+     * Archive every live expense dated before the first day of the month
+     * {@code horizonMonths} before today's.
+     *
+     * @return number of expenses moved to the archive
+     */
+    public int archiveOlderThanHorizon(LocalDate today) {
+        if (horizonMonths <= 0) {
+            return 0;
+        }
+        int userId = SessionContext.getInstance().requireCurrentUserId();
+        LocalDate cutoff = YearMonth.from(today).minusMonths(horizonMonths).atDay(1);
+        long started = System.nanoTime();
+
+        List<Expense> archived = new ArrayList<>();
+        List<Expense> monthRows = new ArrayList<>();
+        liveDAO.forEachInDateRange(MIN_DATE, cutoff.minusDays(1), expense -> {
+            if (!monthRows.isEmpty() && !YearMonth.from(expense.getDate()).equals(YearMonth.from(monthRows.get(0).getDate()))) {
+                writeMonth(userId, monthRows, archived);
+            }
+            monthRows.add(expense);
+        });
+        if (!monthRows.isEmpty()) {
+            writeMonth(userId, monthRows, archived);
+        }
+        if (archived.isEmpty()) {
+            LoggerUtil.debug("No expenses older than {} to archive", cutoff);
+            return 0;
+        }
+
+        int purged = liveDAO.purgeArchived(archived);
+        LoggerUtil.info("Archived {} expenses dated before {} in {} ms", purged, cutoff, (System.nanoTime() - started) / 1_000_000);
+        if (purged < archived.size()) {
+            LoggerUtil.info("{} expenses changed while being archived; they stay live until the next run", archived.size() - purged);
+        }
+        return purged;
+    }
+
+    private void writeMonth(int userId, List<Expense> monthRows, List<Expense> archived) {
+        YearMonth month = YearMonth.from(monthRows.get(0).getDate());
+        try {
+            archive.write(userId, month, monthRows);
+        } catch (IOException e) {
+            throw new RuntimeException("Error archiving expenses for " + month, e);
+        }
+        archived.addAll(monthRows);
+        monthRows.clear();
+    }
+}
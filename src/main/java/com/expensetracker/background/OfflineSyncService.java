@@ -0,0 +1,90 @@
+package com.expensetracker.background;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import com.expensetracker.offline.ConnectivityState;
+import com.expensetracker.offline.OfflineStore;
+import com.expensetracker.offline.OfflineSynchronizer;
+import com.expensetracker.offline.SyncResult;
+import com.expensetracker.util.LoggerUtil;
+import com.expensetracker.util.SessionContext;
+
+/**
+ * Background service behind offline mode. While offline it probes the
+ * database every {@value #CHECK_INTERVAL_SECONDS} seconds; once it answers,
+ * pending offline changes are synced, the snapshot is refreshed and the app
+ * goes back online. While online it syncs changes left over from an earlier
+ * run and keeps the snapshot no older than {@value #SNAPSHOT_MAX_AGE_MINUTES}
+ * minutes.
+ */
+public class OfflineSyncService {
+
+    private static final long CHECK_INTERVAL_SECONDS = 30;
+    private static final long SNAPSHOT_MAX_AGE_MINUTES = 60;
+
+    private final OfflineSynchronizer synchronizer;
+    private final OfflineStore store;
+    private final ConnectivityState connectivity;
+    private final BooleanSupplier databaseReachable;
+    private final Runnable onSynced;
+    private final BackgroundTaskManager taskManager;
+    private ScheduledFuture<?> syncTask;
+
+    /**
+     * @param onSynced run after offline changes reached the database
+     */
+    public OfflineSyncService(OfflineSynchronizer synchronizer, OfflineStore store, ConnectivityState connectivity,
+            BooleanSupplier databaseReachable, Runnable onSynced) {
+        this.synchronizer = synchronizer;
+        this.store = store;
+        this.connectivity = connectivity;
+        this.databaseReachable = databaseReachable;
+        this.onSynced = onSynced;
+        this.taskManager = BackgroundTaskManager.getInstance();
+    }
+
+    public void startSync() {
+        LoggerUtil.info("Starting offline sync checks every {} s", CHECK_INTERVAL_SECONDS);
+        syncTask = taskManager.scheduleAtFixedRate(this::check, 5, CHECK_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    public void stopSync() {
+        if (syncTask != null && !syncTask.isCancelled()) {
+            syncTask.cancel(false);
+            LoggerUtil.info("Offline sync stopped");
+        }
+    }
+
+    /**
+     * One round of the checks described above, for the signed-in user.
+     */
+    public void check() {
+        if (!SessionContext.getInstance().isAuthenticated()) {
+            return;
+        }
+        boolean wasOffline = !connectivity.isOnline();
+        if (wasOffline && !databaseReachable.getAsBoolean()) {
+            return;
+        }
+        try {
+            SyncResult result = synchronizer.sync();
+            LocalDateTime snapshotTakenAt = store.snapshotTakenAt();
+            if (wasOffline || snapshotTakenAt == null || snapshotTakenAt.isBefore(LocalDateTime.now().minusMinutes(SNAPSHOT_MAX_AGE_MINUTES))) {
+                synchronizer.refreshSnapshot(LocalDate.now());
+            }
+            connectivity.wentOnline();
+            if (result.getApplied() > 0 || !result.getConflicts().isEmpty()) {
+                onSynced.run();
+            }
+        } catch (RuntimeException e) {
+            if (!ConnectivityState.isConnectionFailure(e)) {
+                throw e;
+            }
+            connectivity.wentOffline(e);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.expensetracker.background;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import com.expensetracker.dao.ExpensePartitionDAO;
+import com.expensetracker.util.LoggerUtil;
+
+/**
+ * Background service that keeps empty expense partitions ready ahead of the
+ * current date, so new rows never land in the MAXVALUE catch-all (where they
+ * would defeat pruning and make the next split expensive). Does nothing when
+ * the expense table is not partitioned.
+ */
+public class PartitionMaintenanceService {
+
+    /**
+     * Width of each partition created by this service.
+     */
+    public enum Interval {
+        MONTH(DateTimeFormatter.ofPattern("'p'yyyyMM")),
+        YEAR(DateTimeFormatter.ofPattern("'p'yyyy"));
+
+        private final DateTimeFormatter nameFormat;
+
+        Interval(DateTimeFormatter nameFormat) {
+            this.nameFormat = nameFormat;
+        }
+
+        /**
+         * First interval boundary strictly after the given date.
+         */
+        LocalDate nextBoundAfter(LocalDate date) {
+            return this == MONTH ? date.withDayOfMonth(1).plusMonths(1) : date.withDayOfYear(1).plusYears(1);
+        }
+
+        String partitionName(LocalDate start) {
+            return nameFormat.format(start);
+        }
+    }
+
+    private final ExpensePartitionDAO partitionDAO;
+    private final Interval interval;
+    private final int partitionsAhead;
+    private final BackgroundTaskManager taskManager;
+    private ScheduledFuture<?> maintenanceTask;
+
+    /**
+     * @param partitionsAhead complete intervals to keep ready after the
+     *                        current one
+     */
+    public PartitionMaintenanceService(ExpensePartitionDAO partitionDAO, Interval interval, int partitionsAhead) {
+        this.partitionDAO = partitionDAO;
+        this.interval = interval;
+        this.partitionsAhead = partitionsAhead;
+        this.taskManager = BackgroundTaskManager.getInstance();
+    }
+
+    /**
+     * Check now and then once a day.
+     */
+    public void startMaintenance() {
+        LoggerUtil.info("Starting expense partition maintenance ({} partitions, {} ahead)", interval, partitionsAhead);
+        maintenanceTask = taskManager.scheduleAtFixedRate(() -> ensureUpcomingPartitions(LocalDate.now()), 0, 1, TimeUnit.DAYS);
+    }
+
+    public void stopMaintenance() {
+        if (maintenanceTask != null && !maintenanceTask.isCancelled()) {
+            maintenanceTask.cancel(false);
+            LoggerUtil.info("Expense partition maintenance stopped");
+        }
+    }
+
+    /**
+     * Create every missing partition up to the end of the interval
+     * {@code partitionsAhead} intervals after the one containing today.
+     *
+     * @return number of partitions created
+     */
+    public int ensureUpcomingPartitions(LocalDate today) {
+        List<LocalDate> bounds = partitionDAO.findPartitionBounds();
+        if (bounds.isEmpty()) {
+            LoggerUtil.debug("Expense table is not partitioned; nothing to maintain");
+            return 0;
+        }
+
+        LocalDate target = interval.nextBoundAfter(today);
+        for (int i = 0; i < partitionsAhead; i++) {
+            target = interval.nextBoundAfter(target);
+        }
+
+        int created = 0;
+        LocalDate last = bounds.get(bounds.size() - 1);
+        while (last.isBefore(target)) {
+            LocalDate next = interval.nextBoundAfter(last);
+            String name = interval.partitionName(last);
+            partitionDAO.addPartition(name, next);
+            LoggerUtil.info("Created expense partition {} for dates before {}", name, next);
+            last = next;
+            created++;
+        }
+        return created;
+    }
+}
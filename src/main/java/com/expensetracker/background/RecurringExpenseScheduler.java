@@ -0,0 +1,73 @@
+package com.expensetracker.background;
+
+import java.time.LocalDate;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import com.expensetracker.dao.RecurringExpenseDAO;
+import com.expensetracker.util.LoggerUtil;
+
+/**
+ * Background service that turns due recurring expense templates into
+ * expenses. Each run catches up on every missed occurrence in a single
+ * batched transaction, so returning after months offline costs one run.
+ */
+public class RecurringExpenseScheduler {
+
+    // Guards against runaway catch-up (e.g. a DAILY template dated years back)
+    private static final int MAX_OCCURRENCES_PER_RUN = 3660;
+
+    private final RecurringExpenseDAO recurringExpenseDAO;
+    private final Runnable onMaterialized;
+    private final BackgroundTaskManager taskManager;
+    private ScheduledFuture<?> materializeTask;
+
+    /**
+     * @param onMaterialized invoked after a run that created at least one
+     *                       expense (e.g. to invalidate caches)
+     */
+    public RecurringExpenseScheduler(RecurringExpenseDAO recurringExpenseDAO, Runnable onMaterialized) {
+        this.recurringExpenseDAO = recurringExpenseDAO;
+        this.onMaterialized = onMaterialized;
+        this.taskManager = BackgroundTaskManager.getInstance();
+    }
+
+    /**
+     * Start materializing immediately and then every few hours so a date
+     * change while the app stays open is picked up.
+     */
+    public void startScheduling() {
+        LoggerUtil.info("Starting recurring expense scheduler");
+        materializeTask = taskManager.scheduleAtFixedRate(this::materializeDue, 0, 6, TimeUnit.HOURS);
+    }
+
+    /**
+     * Stop the recurring expense scheduler
+     */
+    public void stopScheduling() {
+        if (materializeTask != null && !materializeTask.isCancelled()) {
+            materializeTask.cancel(false);
+            LoggerUtil.info("Recurring expense scheduler stopped");
+        }
+    }
+
+    /**
+     * Materialize all occurrences due up to today.
+     *
+     * @return number of expenses created
+     */
+    public int materializeDue() {
+        int created = recurringExpenseDAO.materializeDue(LocalDate.now(), MAX_OCCURRENCES_PER_RUN);
+        if (created > 0) {
+            LoggerUtil.info("Materialized {} recurring expenses", created);
+            onMaterialized.run();
+        } else {
+            LoggerUtil.debug("No recurring expenses due");
+        }
+        return created;
+    }
+
+    public boolean isScheduling() {
+        return materializeTask != null && !materializeTask.isCancelled();
+    }
+}
@@ -0,0 +1,303 @@
+package com.expensetracker.cli;
+
+import java.io.BufferedWriter;
+import java.io.Console;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import com.expensetracker.controller.HeadlessServices;
+import com.expensetracker.importer.ExpenseCsvExporter;
+import com.expensetracker.report.AbstractReport;
+import com.expensetracker.report.CsvExportStrategy;
+import com.expensetracker.report.MonthlyReportRequest;
+import com.expensetracker.report.SummaryReportRequest;
+import com.expensetracker.report.WeeklyReportRequest;
+import com.expensetracker.server.JsonWriter;
+import com.expensetracker.server.ModelJson;
+import com.expensetracker.util.FileManager;
+import com.expensetracker.util.LoggerUtil;
+
+/**
+ * Command line entry point for scheduled jobs: generates reports and exports
+ * data without starting the UI (no AWT/Swing classes are loaded).
+ *
+ * <pre>
+ * report daily   --date D
+ * report weekly  --date D | --from D --to D
+ * report monthly --month yyyy-MM
+ * report summary --from D --to D
+ *     [--format csv|json] [--out FILE]
+ * export snapshot [--from D] [--to D] [--format csv|json] [--out FILE]
+ * </pre>
+ *
+ * Every command signs in as {@code --user} (or {@code EXPENSETRACKER_USER})
+ * with the password from {@code EXPENSETRACKER_PASSWORD}, or prompted for
+ * when a console is attached. Output goes to stdout unless {@code --out} is
+ * given; files are written next to the target and moved into place only
+ * once complete. A CSV snapshot uses the bulk import format.
+ * <p>
+ * Exit codes: 0 success, 1 failure (database, I/O), 2 bad usage, 3 sign-in
+ * failed.
+ */
+public class ExpenseCli {
+
+    public static final int EXIT_OK = 0;
+    public static final int EXIT_FAILURE = 1;
+    public static final int EXIT_USAGE = 2;
+    public static final int EXIT_AUTH = 3;
+
+    // Earliest and latest dates a MySQL DATE column holds
+    private static final LocalDate ALL_FROM = LocalDate.of(1000, 1, 1);
+    private static final LocalDate ALL_TO = LocalDate.of(9999, 12, 31);
+
+    private static final String USAGE = """
+            Usage: expense-cli [--user NAME] <command> [options]
+              report daily   --date yyyy-MM-dd
+              report weekly  --date yyyy-MM-dd | --from yyyy-MM-dd --to yyyy-MM-dd
+              report monthly --month yyyy-MM
+              report summary --from yyyy-MM-dd --to yyyy-MM-dd
+              export snapshot [--from yyyy-MM-dd] [--to yyyy-MM-dd]
+            Common options: --format csv|json (default csv), --out FILE (default stdout)
+            Password: EXPENSETRACKER_PASSWORD, or prompted on a console""";
+
+    private final Supplier<HeadlessServices> servicesFactory;
+    private final Map<String, String> env;
+    private final PrintStream out;
+    private final PrintStream err;
+
+    public ExpenseCli(Supplier<HeadlessServices> servicesFactory, Map<String, String> env, PrintStream out, PrintStream err) {
+        this.servicesFactory = servicesFactory;
+        this.env = env;
+        this.out = out;
+        this.err = err;
+    }
+
+    public static void main(String[] args) {
+        if (Boolean.parseBoolean(System.getProperty("expensetracker.log.async", "true"))) {
+            // Keep stderr for errors meant for whoever reads the cron mail
+            LoggerUtil.enableAsyncFileLogging(FileManager.getInstance().getLogsDir());
+        }
+        int code = new ExpenseCli(HeadlessServices::new, System.getenv(), System.out, System.err).run(args);
+        System.exit(code);
+    }
+
+    public int run(String[] args) {
+        Command command;
+        try {
+            command = Command.parse(args);
+        } catch (IllegalArgumentException e) {
+            err.println("error: " + e.getMessage());
+            err.println(USAGE);
+            return EXIT_USAGE;
+        }
+        if (command.words.isEmpty() || command.options.containsKey("help")) {
+            (command.options.containsKey("help") ? out : err).println(USAGE);
+            return command.options.containsKey("help") ? EXIT_OK : EXIT_USAGE;
+        }
+        try {
+            Action action = action(command);
+            String username = command.options.getOrDefault("user", env.get("EXPENSETRACKER_USER"));
+            if (username == null) {
+                throw new IllegalArgumentException("--user (or EXPENSETRACKER_USER) is required");
+            }
+            String password = password();
+            if (password == null) {
+                throw new IllegalArgumentException("EXPENSETRACKER_PASSWORD is not set and no console to prompt on");
+            }
+            HeadlessServices services = servicesFactory.get();
+            if (!services.getAuthService().login(username, password)) {
+                err.println("error: sign-in failed for " + username);
+                return EXIT_AUTH;
+            }
+            try {
+                write(command.options.get("out"), writer -> action.run(services, writer));
+            } finally {
+                services.getAuthService().logout();
+            }
+            return EXIT_OK;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            err.println("error: " + e.getMessage());
+            err.println(USAGE);
+            return EXIT_USAGE;
+        } catch (IOException | UncheckedIOException e) {
+            err.println("error: " + e.getMessage());
+            return EXIT_FAILURE;
+        } catch (RuntimeException e) {
+            LoggerUtil.error("Command failed", e);
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            err.println("error: " + e.getMessage() + (cause != e ? " (" + cause.getMessage() + ")" : ""));
+            return EXIT_FAILURE;
+        }
+    }
+
+    /**
+     * Validates the command and its options before anything connects to the
+     * database.
+     */
+    private Action action(Command command) {
+        String format = command.options.getOrDefault("format", "csv");
+        if (!format.equals("csv") && !format.equals("json")) {
+            throw new IllegalArgumentException("Unknown format '" + format + "'");
+        }
+        boolean json = format.equals("json");
+        List<String> words = command.words;
+        String what = words.size() > 1 ? words.get(1) : "";
+        if (words.size() > 2) {
+            throw new IllegalArgumentException("Unexpected argument '" + words.get(2) + "'");
+        }
+        switch (words.get(0)) {
+            case "report" -> {
+                ReportAction report = switch (what) {
+                    case "daily" -> {
+                        LocalDate date = command.date("date");
+                        yield services -> services.getDailyReportGenerator().generate(date);
+                    }
+                    case "weekly" -> {
+                        WeeklyReportRequest request = command.options.containsKey("date")
+                                ? new WeeklyReportRequest(command.date("date"))
+                                : new WeeklyReportRequest(command.date("from"), command.date("to"));
+                        yield services -> services.getWeeklyReportGenerator().generate(request);
+                    }
+                    case "monthly" -> {
+                        MonthlyReportRequest request = new MonthlyReportRequest(YearMonth.parse(command.require("month")));
+                        yield services -> services.getMonthlyReportGenerator().generate(request);
+                    }
+                    case "summary" -> {
+                        SummaryReportRequest request = new SummaryReportRequest(command.date("from"), command.date("to"));
+                        yield services -> services.getSummaryReportGenerator().generate(request);
+                    }
+                    default -> throw new IllegalArgumentException("Unknown report '" + what + "'");
+                };
+                return (services, writer) -> {
+                    AbstractReport generated = report.generate(services);
+                    if (json) {
+                        JsonWriter jsonWriter = new JsonWriter(writer);
+                        ModelJson.report(jsonWriter, generated);
+                        writer.write('\n');
+                    } else {
+                        new CsvExportStrategy().export(generated, writer);
+                    }
+                };
+            }
+            case "export" -> {
+                if (!what.equals("snapshot")) {
+                    throw new IllegalArgumentException("Unknown export '" + what + "'");
+                }
+                LocalDate from = command.options.containsKey("from") ? command.date("from") : ALL_FROM;
+                LocalDate to = command.options.containsKey("to") ? command.date("to") : ALL_TO;
+                return (services, writer) -> {
+                    if (json) {
+                        JsonWriter jsonWriter = new JsonWriter(writer).beginArray();
+                        services.getExpenseService().forEachInDateRange(from, to, e -> ModelJson.expense(jsonWriter, e));
+                        jsonWriter.endArray();
+                        writer.write('\n');
+                    } else {
+                        long rows = new ExpenseCsvExporter(services.getExpenseDAO()).export(from, to, writer);
+                        LoggerUtil.info("Exported {} expenses", rows);
+                    }
+                };
+            }
+            default -> throw new IllegalArgumentException("Unknown command '" + words.get(0) + "'");
+        }
+    }
+
+    private String password() {
+        String password = env.get("EXPENSETRACKER_PASSWORD");
+        if (password != null) {
+            return password;
+        }
+        Console console = System.console();
+        if (console == null) {
+            return null;
+        }
+        char[] typed = console.readPassword("Password: ");
+        return typed == null ? null : new String(typed);
+    }
+
+    private void write(String target, Action.Body body) throws IOException {
+        if (target == null) {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            body.writeTo(writer);
+            writer.flush();
+            return;
+        }
+        Path file = Path.of(target).toAbsolutePath();
+        Path partial = file.resolveSibling(file.getFileName() + ".partial");
+        try (Writer writer = Files.newBufferedWriter(partial, StandardCharsets.UTF_8)) {
+            body.writeTo(writer);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(partial);
+            throw e;
+        }
+        Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @FunctionalInterface
+    private interface ReportAction {
+        AbstractReport generate(HeadlessServices services);
+    }
+
+    @FunctionalInterface
+    private interface Action {
+
+        void run(HeadlessServices services, Writer writer) throws IOException;
+
+        @FunctionalInterface
+        interface Body {
+            void writeTo(Writer writer) throws IOException;
+        }
+    }
+
+    /**
+     * Positional words followed or interleaved with {@code --name value}
+     * options ({@code --help} takes no value).
+     */
+    private record Command(List<String> words, Map<String, String> options) {
+
+        static Command parse(String[] args) {
+            List<String> words = new ArrayList<>();
+            Map<String, String> options = new HashMap<>();
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                if (arg.equals("--help") || arg.equals("-h")) {
+                    options.put("help", "");
+                } else if (arg.startsWith("--")) {
+                    if (i + 1 >= args.length) {
+                        throw new IllegalArgumentException("Option " + arg + " needs a value");
+                    }
+                    options.put(arg.substring(2), args[++i]);
+                } else {
+                    words.add(arg);
+                }
+            }
+            return new Command(words, options);
+        }
+
+        String require(String name) {
+            String value = options.get(name);
+            if (value == null) {
+                throw new IllegalArgumentException("--" + name + " is required");
+            }
+            return value;
+        }
+
+        LocalDate date(String name) {
+            return LocalDate.parse(require(name));
+        }
+    }
+}
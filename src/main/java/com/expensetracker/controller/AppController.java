@@ -1,28 +1,77 @@
 package com.expensetracker.controller;
 
 import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 
+import com.expensetracker.archive.ExpenseArchive;
 import com.expensetracker.background.BackgroundTaskManager;
 import com.expensetracker.background.BudgetAlertService;
+import com.expensetracker.background.ExpenseArchiveService;
+import com.expensetracker.background.OfflineSyncService;
+import com.expensetracker.background.PartitionMaintenanceService;
+import com.expensetracker.background.RecurringExpenseScheduler;
+import com.expensetracker.dao.CategoryDAO;
+import com.expensetracker.dao.DailyRollupDAO;
+import com.expensetracker.dao.ExpenseDAO;
+import com.expensetracker.dao.UnitOfWork;
+import com.expensetracker.dao.UserAccountDAO;
+import com.expensetracker.dao.impl.CachingUserAccountDAO;
 import com.expensetracker.dao.impl.CategoryJdbcDAO;
+import com.expensetracker.dao.impl.DailyRollupJdbcDAO;
 import com.expensetracker.dao.impl.ExpenseJdbcDAO;
+import com.expensetracker.dao.impl.ExpensePartitionJdbcDAO;
+import com.expensetracker.dao.impl.FailoverCategoryDAO;
+import com.expensetracker.dao.impl.FailoverExpenseDAO;
+import com.expensetracker.dao.impl.JdbcUnitOfWork;
+import com.expensetracker.dao.impl.RecurringExpenseJdbcDAO;
+import com.expensetracker.dao.impl.TieredExpenseDAO;
 import com.expensetracker.dao.impl.UserAccountJdbcDAO;
+import com.expensetracker.dao.impl.WriteBehindExpenseDAO;
+import com.expensetracker.event.ChangeEventBus;
+import com.expensetracker.importer.ExpenseImportPipeline;
+import com.expensetracker.importer.ImportProgress;
+import com.expensetracker.importer.ImportResult;
 import com.expensetracker.model.Category;
 import com.expensetracker.model.Expense;
 import com.expensetracker.model.PaymentMethod;
+import com.expensetracker.offline.ConnectivityState;
+import com.expensetracker.offline.OfflineStore;
+import com.expensetracker.offline.OfflineSynchronizer;
+import com.expensetracker.report.AbstractReport;
+import com.expensetracker.report.BatchReportEngine;
+import com.expensetracker.report.CachingReportGenerator;
 import com.expensetracker.report.CsvExportStrategy;
 import com.expensetracker.report.DailyReport;
 import com.expensetracker.report.DailyReportGenerator;
+import com.expensetracker.report.MonthlyReport;
+import com.expensetracker.report.MonthlyReportGenerator;
+import com.expensetracker.report.MonthlyReportRequest;
+import com.expensetracker.report.ReportCache;
+import com.expensetracker.report.ReportGenerator;
+import com.expensetracker.report.SummaryReport;
+import com.expensetracker.report.SummaryReportGenerator;
+import com.expensetracker.report.SummaryReportRequest;
 import com.expensetracker.report.WeeklyReport;
 import com.expensetracker.report.WeeklyReportGenerator;
 import com.expensetracker.report.WeeklyReportRequest;
 import com.expensetracker.service.AuthService;
 import com.expensetracker.service.CategoryService;
+import com.expensetracker.service.DashboardService;
+import com.expensetracker.service.DataVersion;
+import com.expensetracker.service.ExpenseSearchIndex;
 import com.expensetracker.service.ExpenseService;
+import com.expensetracker.util.DBConnectionManager;
 import com.expensetracker.util.FileManager;
+import com.expensetracker.util.Lazy;
 import com.expensetracker.util.LoggerUtil;
+import com.expensetracker.util.SessionContext;
 
 /**
  * Enhanced central application controller with background services and file
@@ -34,20 +83,40 @@ public class AppController {
     private final CategoryService categoryService;
     private final ExpenseService expenseService;
     private final AuthService authService;
+    private final ExpenseSearchIndex searchIndex;
+    private final DashboardService dashboardService;
+    // Expense and category changes made through the services
+    private final ChangeEventBus eventBus;
 
-    // Background services
+    // Background services (built on first use; the maintenance services only once started)
     private final BackgroundTaskManager taskManager;
-    private final BudgetAlertService budgetAlertService;
+    private final Lazy<BudgetAlertService> budgetAlertService;
+    private RecurringExpenseScheduler recurringExpenseScheduler;
+    private PartitionMaintenanceService partitionMaintenanceService;
+    private ExpenseArchiveService expenseArchiveService;
 
-    // Report generators
-    private final DailyReportGenerator dailyReportGenerator;
-    private final WeeklyReportGenerator weeklyReportGenerator;
+    // Report generators, built when the first report is requested
+    private final Lazy<Reports> reports;
 
     // File management
     private final FileManager fileManager;
 
+    // Raw rows (index rebuilds, imports) and pre-aggregated reporting data
+    private final CategoryDAO categoryDAO;
+    private final ExpenseDAO expenseDAO;
+    private final ExpenseJdbcDAO liveExpenseDAO;
+    private final ExpenseArchive archive;
+    private final DailyRollupDAO rollupDAO;
+    // Journaled insert buffer in front of the expense table; null unless enabled
+    private final WriteBehindExpenseDAO writeBehindDAO;
+    // Local fallback while the database is unreachable; null if offline mode is disabled
+    private final OfflineStore offlineStore;
+    private final OfflineSyncService offlineSyncService;
+
     // Application state
     private boolean backgroundServicesStarted = false;
+    // Set once stopped (sign-out or exit); a start still queued behind the stop must not run
+    private boolean servicesStopped;
 
     public AppController() {
         LoggerUtil.info("Initializing enhanced AppController");
@@ -55,36 +124,142 @@ public class AppController {
         // Initialize file manager
         this.fileManager = FileManager.getInstance();
 
-        // Initialize DAOs
-        CategoryJdbcDAO categoryDAO = new CategoryJdbcDAO();
-        ExpenseJdbcDAO expenseDAO = new ExpenseJdbcDAO();
-        UserAccountJdbcDAO userAccountDAO = new UserAccountJdbcDAO();
+        // Move logging off the calling threads (-Dexpensetracker.log.async=false keeps stderr output)
+        if (Boolean.parseBoolean(System.getProperty("expensetracker.log.async", "true"))) {
+            LoggerUtil.enableAsyncFileLogging(fileManager.getLogsDir());
+        }
 
-        // Initialize services
-        this.categoryService = new CategoryService(categoryDAO);
-        this.expenseService = new ExpenseService(expenseDAO);
+        // Initialize DAOs
+        CategoryJdbcDAO liveCategoryDAO = new CategoryJdbcDAO();
+        // -Dexpensetracker.search.fulltext=false forces the LIKE scan for description search
+        this.liveExpenseDAO = new ExpenseJdbcDAO(Boolean.parseBoolean(System.getProperty("expensetracker.search.fulltext", "true")));
+        // Range reads also cover expenses moved to the cold archive
+        this.archive = new ExpenseArchive(fileManager.getBackupDir().resolve("archive"));
+        // -Dexpensetracker.writeBehind=true acknowledges inserts once journaled locally and writes them in batches;
+        // a journal left over from an earlier run is always drained
+        Path journalFile = fileManager.getBackupDir().resolve("journal").resolve("expense-writes.journal");
+        ExpenseDAO onlineExpenseDAO = liveExpenseDAO;
+        if (Boolean.getBoolean("expensetracker.writeBehind") || journalFile.toFile().length() > 0) {
+            this.writeBehindDAO = new WriteBehindExpenseDAO(liveExpenseDAO, journalFile,
+                    Integer.getInteger("expensetracker.writeBehind.batchSize", 100), this::afterWriteBehindFlush);
+            onlineExpenseDAO = writeBehindDAO;
+        } else {
+            this.writeBehindDAO = null;
+        }
+        // Multi-step writes (sync batches, budget moves) commit once on one connection
+        UnitOfWork unitOfWork = new JdbcUnitOfWork();
+        // While MySQL is unreachable, serve reads from a local snapshot and journal changes for a later sync
+        // (-Dexpensetracker.offline=false disables)
+        if (Boolean.parseBoolean(System.getProperty("expensetracker.offline", "true"))) {
+            ConnectivityState connectivity = new ConnectivityState(DBConnectionManager.getInstance().getTransactionScope());
+            this.offlineStore = new OfflineStore(fileManager.getBackupDir().resolve("offline"));
+            this.categoryDAO = new FailoverCategoryDAO(liveCategoryDAO, offlineStore, connectivity);
+            onlineExpenseDAO = new FailoverExpenseDAO(onlineExpenseDAO, offlineStore, connectivity);
+            OfflineSynchronizer synchronizer = new OfflineSynchronizer(liveExpenseDAO, liveCategoryDAO, offlineStore, unitOfWork,
+                    Integer.getInteger("expensetracker.offline.syncBatchSize", 200), Integer.getInteger("expensetracker.offline.snapshotMonths", 12));
+            this.offlineSyncService = new OfflineSyncService(synchronizer, offlineStore, connectivity,
+                    () -> DBConnectionManager.getInstance().isReachable(), this::afterBulkExpenseWrite);
+        } else {
+            this.offlineStore = null;
+            this.offlineSyncService = null;
+            this.categoryDAO = liveCategoryDAO;
+        }
+        this.expenseDAO = new TieredExpenseDAO(onlineExpenseDAO, categoryDAO, archive);
+        UserAccountDAO userAccountDAO = new CachingUserAccountDAO(new UserAccountJdbcDAO(),
+                Duration.ofSeconds(Long.getLong("expensetracker.userCache.ttlSeconds", 60)));
+        this.rollupDAO = new DailyRollupJdbcDAO();
+
+        // Initialize services (sharing one data version for cache invalidation)
+        DataVersion dataVersion = new DataVersion();
+        this.eventBus = new ChangeEventBus();
+        this.categoryService = new CategoryService(categoryDAO, expenseDAO, dataVersion, eventBus, unitOfWork);
+        // Indexes and cached reports are per user, like the rows they come from
+        SessionContext session = SessionContext.getInstance();
+        this.searchIndex = new ExpenseSearchIndex(session::requireCurrentUserId);
+        this.dashboardService = new DashboardService(categoryDAO, rollupDAO);
+        this.expenseService = new ExpenseService(expenseDAO, dataVersion, searchIndex, eventBus);
         this.authService = new AuthService(userAccountDAO);
 
         // Initialize background services
         this.taskManager = BackgroundTaskManager.getInstance();
-        this.budgetAlertService = new BudgetAlertService(categoryDAO, expenseDAO);
+        this.budgetAlertService = new Lazy<>(() -> new BudgetAlertService(categoryDAO, expenseDAO, rollupDAO));
+
+        // Search and dashboard reflect a write before it returns; budget checks run once per batch of writes
+        eventBus.subscribe("search-index", searchIndex::apply);
+        eventBus.subscribe("dashboard", dashboardService::apply);
+        eventBus.subscribeAsync("budget-alerts", batch -> budgetAlertService.get().onChanges(batch));
+
+        // Report generators and their cache stay unloaded until a report is asked for
+        this.reports = new Lazy<>(() -> new Reports(expenseDAO, rollupDAO,
+                new ReportCache(dataVersion::current, session::requireCurrentUserId, ReportCache.DEFAULT_MAX_BYTES)));
 
-        // Initialize report generators
-        this.dailyReportGenerator = new DailyReportGenerator(expenseDAO);
-        this.weeklyReportGenerator = new WeeklyReportGenerator(expenseDAO);
+        if (writeBehindDAO != null) {
+            writeBehindDAO.start();
+        }
+        if (offlineSyncService != null) {
+            offlineSyncService.startSync();
+        }
+        // Dashboard tiles are computed now and kept current; the dashboard itself never queries
+        dashboardService.startRefreshing(Duration.ofMinutes(Long.getLong("expensetracker.dashboard.refreshMinutes", 15)));
+        // The controller is built after sign-in; searches hit the database until the index is ready
+        if (session.isAuthenticated()) {
+            taskManager.execute(() -> searchIndex.rebuild(expenseDAO));
+        }
 
         LoggerUtil.info("AppController initialized successfully");
     }
 
     /**
-     * Start background services
+     * Sign the current user out, first writing any expenses still buffered
+     * for them (they need the session to be written under its user).
+     */
+    public void signOut() {
+        dashboardService.stopRefreshing();
+        // The next sign-in builds a new controller that starts its own
+        stopScheduledServices();
+        for (ChangeEventBus.SubscriberStats stats : eventBus.stats()) {
+            LoggerUtil.info("Change events for {}: {} published, {} delivered, {} failed, max lag {} ms",
+                    stats.name(), stats.published(), stats.delivered(), stats.failed(), stats.maxLagMillis());
+        }
+        if (writeBehindDAO != null) {
+            writeBehindDAO.close();
+        }
+        if (offlineSyncService != null) {
+            offlineSyncService.stopSync();
+            offlineStore.close();
+        }
+        authService.logout();
+    }
+
+    /**
+     * Start background services; MainApp calls this once the controller is
+     * built.
      */
-    public void startBackgroundServices() {
-        if (!backgroundServicesStarted) {
+    public synchronized void startBackgroundServices() {
+        if (!backgroundServicesStarted && !servicesStopped) {
             LoggerUtil.info("Starting background services");
 
+            if (recurringExpenseScheduler == null) {
+                this.recurringExpenseScheduler = new RecurringExpenseScheduler(new RecurringExpenseJdbcDAO(), this::afterBulkExpenseWrite);
+                // Only acts on a partitioned expense table (database/partitioning.sql)
+                this.partitionMaintenanceService = new PartitionMaintenanceService(new ExpensePartitionJdbcDAO(),
+                        PartitionMaintenanceService.Interval.valueOf(System.getProperty("expensetracker.partitions.interval", "MONTH")),
+                        Integer.getInteger("expensetracker.partitions.ahead", 3));
+                // -Dexpensetracker.archive.horizonMonths=N moves expenses older than N months to the archive (off by default)
+                this.expenseArchiveService = new ExpenseArchiveService(liveExpenseDAO, archive, Integer.getInteger("expensetracker.archive.horizonMonths", 0));
+            }
+
             // Start budget monitoring
-            budgetAlertService.startMonitoring();
+            budgetAlertService.get().startMonitoring();
+
+            // Materialize recurring expenses (catches up on anything missed while offline)
+            recurringExpenseScheduler.startScheduling();
+
+            // Keep empty partitions ready ahead of today
+            partitionMaintenanceService.startMaintenance();
+
+            // Move expenses past the horizon to compressed month files
+            expenseArchiveService.startArchiving();
 
             // Schedule periodic file cleanup
             taskManager.schedule(() -> {
@@ -101,15 +276,30 @@ public class AppController {
     /**
      * Stop background services gracefully
      */
-    public void stopBackgroundServices() {
+    public synchronized void stopBackgroundServices() {
         if (backgroundServicesStarted) {
             LoggerUtil.info("Stopping background services");
 
-            budgetAlertService.stopMonitoring();
+            stopScheduledServices();
             taskManager.shutdown();
 
-            backgroundServicesStarted = false;
             LoggerUtil.info("Background services stopped");
+            LoggerUtil.disableAsyncFileLogging();
+        }
+    }
+
+    /**
+     * Stop this controller's scheduled services, leaving the shared task
+     * manager running.
+     */
+    private synchronized void stopScheduledServices() {
+        servicesStopped = true;
+        if (backgroundServicesStarted) {
+            budgetAlertService.get().stopMonitoring();
+            recurringExpenseScheduler.stopScheduling();
+            partitionMaintenanceService.stopMaintenance();
+            expenseArchiveService.stopArchiving();
+            backgroundServicesStarted = false;
         }
     }
 
@@ -130,17 +320,118 @@ public class AppController {
         return fileManager;
     }
 
+    public ChangeEventBus getEventBus() {
+        return eventBus;
+    }
+
+    public DashboardService getDashboardService() {
+        return dashboardService;
+    }
+
     public BudgetAlertService getBudgetAlertService() {
-        return budgetAlertService;
+        return budgetAlertService.get();
     }
 
     // Report generation
     public DailyReport generateDailyReport(LocalDate date) {
-        return dailyReportGenerator.generate(date);
+        return reports.get().daily.generate(date);
     }
 
     public WeeklyReport generateWeeklyReport(LocalDate startDate, LocalDate endDate) {
-        return weeklyReportGenerator.generate(new WeeklyReportRequest(startDate, endDate));
+        return reports.get().weekly.generate(new WeeklyReportRequest(startDate, endDate));
+    }
+
+    public MonthlyReport generateMonthlyReport(YearMonth month) {
+        return reports.get().monthly.generate(new MonthlyReportRequest(month));
+    }
+
+    /**
+     * Generate all months of a year in parallel; must be called off the
+     * background task pool (e.g. from the EDT or a SwingWorker).
+     */
+    public List<MonthlyReport> generateYearReport(int year) {
+        return MonthlyReportGenerator.generateInParallel(reports.get().monthly, MonthlyReportRequest.forYear(year));
+    }
+
+    /**
+     * Daily, weekly and monthly reports for the periods containing the given
+     * date, built from one shared scan of the month.
+     */
+    public List<AbstractReport> generatePeriodReports(LocalDate date) {
+        Reports r = reports.get();
+        return r.batchEngine.run(List.of(
+                r.dailySource.accumulator(date),
+                r.weeklySource.accumulator(new WeeklyReportRequest(date)),
+                r.monthlySource.accumulator(new MonthlyReportRequest(YearMonth.from(date)))));
+    }
+
+    public SummaryReport generateSummaryReport(LocalDate startDate, LocalDate endDate) {
+        return reports.get().summary.generate(new SummaryReportRequest(startDate, endDate));
+    }
+
+    /**
+     * Recompute the daily rollup table from raw expenses (e.g. after a manual
+     * bulk load outside the application). Archived months are recomputed
+     * from the archive files.
+     */
+    public Future<Integer> rebuildDailyRollup() {
+        return taskManager.submit(() -> {
+            LoggerUtil.info("Rebuilding daily rollup");
+            int rows = rollupDAO.rebuild(archive.readAll(SessionContext.getInstance().requireCurrentUserId()));
+            expenseService.getDataVersion().increment();
+            dashboardService.requestRefresh();
+            LoggerUtil.info("Daily rollup rebuilt with {} rows", rows);
+            return rows;
+        });
+    }
+
+    /**
+     * Import expenses from a CSV file in the background. Rejected rows are
+     * written next to the input as {@code <name>.rejected.csv}; progress is
+     * reported on the importer's writer thread. With {@code deduplicate},
+     * rows stored by an earlier import of an overlapping statement are
+     * skipped.
+     */
+    public Future<ImportResult> importExpenses(Path csvFile, boolean deduplicate, Consumer<ImportProgress> progressListener) {
+        return taskManager.submit(() -> {
+            Path rejectFile = csvFile.resolveSibling(csvFile.getFileName() + ".rejected.csv");
+            ExpenseImportPipeline pipeline = new ExpenseImportPipeline(expenseDAO, categoryDAO, deduplicate);
+            try {
+                return pipeline.importFile(csvFile, rejectFile, progressListener);
+            } finally {
+                // Rows from a failed import may have been committed in earlier batches
+                afterBulkExpenseWrite();
+            }
+        });
+    }
+
+    /**
+     * Expenses written straight through the DAO (recurring materialization,
+     * imports) bypass ExpenseService, so refresh everything derived from them.
+     */
+    private void afterBulkExpenseWrite() {
+        expenseService.getDataVersion().increment();
+        // Recurring materialization also runs with nobody signed in; the next
+        // user's controller builds its own index when it is created
+        if (SessionContext.getInstance().isAuthenticated()) {
+            dashboardService.requestRefresh();
+            budgetAlertService.get().checkBudgetLimitsNow();
+            taskManager.execute(() -> searchIndex.rebuild(expenseDAO));
+        }
+    }
+
+    /**
+     * Buffered inserts reached the database: rollup-based reports change now,
+     * and indexed expenses move from their provisional ids to real ones.
+     */
+    private void afterWriteBehindFlush(Map<Long, Expense> persisted) {
+        expenseService.getDataVersion().increment();
+        persisted.forEach((provisionalId, expense) -> {
+            searchIndex.remove(provisionalId);
+            searchIndex.add(expense);
+        });
+        dashboardService.requestRefresh();
+        budgetAlertService.get().checkBudgetLimitsNow();
     }
 
     public void exportDailyReportToCsv(DailyReport report) {
@@ -160,7 +451,7 @@ public class AppController {
 
     public void exportWeeklyReportToCsv(WeeklyReport report) {
         CsvExportStrategy exportStrategy = new CsvExportStrategy();
-        weeklyReportGenerator.exportReport(report, exportStrategy);
+        reports.get().weeklySource.exportReport(report, exportStrategy);
     }
 
     // Enhanced convenience methods for UI
@@ -169,14 +460,8 @@ public class AppController {
     }
 
     public Category addCategory(String name, BigDecimal monthlyLimit) {
-        Category category = categoryService.createCategory(name, monthlyLimit);
-
-        // Trigger budget check if this category has a limit
-        if (monthlyLimit != null && monthlyLimit.compareTo(BigDecimal.ZERO) > 0) {
-            budgetAlertService.checkBudgetLimitsNow();
-        }
-
-        return category;
+        // Budget checks and dashboard follow through the change event
+        return categoryService.createCategory(name, monthlyLimit);
     }
 
     public void addCategory(Category category) {
@@ -188,27 +473,48 @@ public class AppController {
     }
 
     public Expense addExpense(Category category, LocalDate date, BigDecimal amount, PaymentMethod paymentMethod, String description) {
-        Expense expense = expenseService.addExpense(category, date, amount, paymentMethod, description);
-
-        // Trigger budget check after adding expense
-        budgetAlertService.checkBudgetLimitsNow();
-
-        return expense;
+        // Budget checks and dashboard follow through the change event
+        return expenseService.addExpense(category, date, amount, paymentMethod, description);
     }
 
     public void addExpense(Expense expense) {
         expenseService.addExpense(expense.getCategory(), expense.getDate(),
                 expense.getAmount(), expense.getPaymentMethod(), expense.getDescription());
-
-        // Trigger budget check after adding expense
-        budgetAlertService.checkBudgetLimitsNow();
     }
 
     public List<Expense> getExpensesByDateRange(LocalDate startDate, LocalDate endDate) {
         return expenseService.findByDateRange(startDate, endDate);
     }
 
-    public boolean isBackgroundServicesStarted() {
+    public synchronized boolean isBackgroundServicesStarted() {
         return backgroundServicesStarted;
     }
+
+    /**
+     * Report generators over the same DAOs: cached ones for the UI, uncached
+     * sources for export and shared-scan batches.
+     */
+    private static final class Reports {
+
+        final DailyReportGenerator dailySource;
+        final WeeklyReportGenerator weeklySource;
+        final MonthlyReportGenerator monthlySource;
+        final BatchReportEngine batchEngine;
+
+        final ReportGenerator<DailyReport, LocalDate> daily;
+        final ReportGenerator<WeeklyReport, WeeklyReportRequest> weekly;
+        final ReportGenerator<MonthlyReport, MonthlyReportRequest> monthly;
+        final ReportGenerator<SummaryReport, SummaryReportRequest> summary;
+
+        Reports(ExpenseDAO expenseDAO, DailyRollupDAO rollupDAO, ReportCache reportCache) {
+            this.dailySource = new DailyReportGenerator(expenseDAO);
+            this.weeklySource = new WeeklyReportGenerator(expenseDAO);
+            this.monthlySource = new MonthlyReportGenerator(rollupDAO);
+            this.batchEngine = new BatchReportEngine(expenseDAO);
+            this.daily = CachingReportGenerator.daily(dailySource, reportCache);
+            this.weekly = CachingReportGenerator.weekly(weeklySource, reportCache);
+            this.monthly = CachingReportGenerator.monthly(monthlySource, reportCache);
+            this.summary = CachingReportGenerator.summary(new SummaryReportGenerator(rollupDAO), reportCache);
+        }
+    }
 }
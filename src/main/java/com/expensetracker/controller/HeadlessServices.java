@@ -0,0 +1,116 @@
+package com.expensetracker.controller;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+import com.expensetracker.archive.ExpenseArchive;
+import com.expensetracker.dao.CategoryDAO;
+import com.expensetracker.dao.DailyRollupDAO;
+import com.expensetracker.dao.ExpenseDAO;
+import com.expensetracker.dao.UnitOfWork;
+import com.expensetracker.dao.impl.CachingUserAccountDAO;
+import com.expensetracker.dao.impl.CategoryJdbcDAO;
+import com.expensetracker.dao.impl.DailyRollupJdbcDAO;
+import com.expensetracker.dao.impl.ExpenseJdbcDAO;
+import com.expensetracker.dao.impl.TieredExpenseDAO;
+import com.expensetracker.dao.impl.UserAccountJdbcDAO;
+import com.expensetracker.report.CachingReportGenerator;
+import com.expensetracker.report.DailyReport;
+import com.expensetracker.report.DailyReportGenerator;
+import com.expensetracker.report.MonthlyReport;
+import com.expensetracker.report.MonthlyReportGenerator;
+import com.expensetracker.report.MonthlyReportRequest;
+import com.expensetracker.report.ReportCache;
+import com.expensetracker.report.ReportGenerator;
+import com.expensetracker.report.SummaryReport;
+import com.expensetracker.report.SummaryReportGenerator;
+import com.expensetracker.report.SummaryReportRequest;
+import com.expensetracker.report.WeeklyReport;
+import com.expensetracker.report.WeeklyReportGenerator;
+import com.expensetracker.report.WeeklyReportRequest;
+import com.expensetracker.service.AuthService;
+import com.expensetracker.service.CategoryService;
+import com.expensetracker.service.DataVersion;
+import com.expensetracker.service.ExpenseService;
+import com.expensetracker.util.FileManager;
+import com.expensetracker.util.SessionContext;
+
+/**
+ * Services wired straight to the database for the entry points without a
+ * UI (API server, command line). Unlike {@link AppController} there is no
+ * write-behind buffer, offline store, search index or background service:
+ * those assume one desktop user, while these callers may serve several users
+ * at once or run for only a moment. Nothing here loads AWT or Swing.
+ */
+public class HeadlessServices {
+
+    private final ExpenseDAO expenseDAO;
+    private final AuthService authService;
+    private final CategoryService categoryService;
+    private final ExpenseService expenseService;
+
+    private final ReportGenerator<DailyReport, LocalDate> dailyReportGenerator;
+    private final ReportGenerator<WeeklyReport, WeeklyReportRequest> weeklyReportGenerator;
+    private final ReportGenerator<MonthlyReport, MonthlyReportRequest> monthlyReportGenerator;
+    private final ReportGenerator<SummaryReport, SummaryReportRequest> summaryReportGenerator;
+
+    public HeadlessServices() {
+        this(new CategoryJdbcDAO(), liveExpenseDAO(), new DailyRollupJdbcDAO(),
+                new AuthService(new CachingUserAccountDAO(new UserAccountJdbcDAO(),
+                        Duration.ofSeconds(Long.getLong("expensetracker.userCache.ttlSeconds", 60)))));
+    }
+
+    public HeadlessServices(CategoryDAO categoryDAO, ExpenseDAO expenseDAO, DailyRollupDAO rollupDAO, AuthService authService) {
+        this.expenseDAO = expenseDAO;
+        this.authService = authService;
+        DataVersion dataVersion = new DataVersion();
+        this.categoryService = new CategoryService(categoryDAO, expenseDAO, dataVersion, null, UnitOfWork.NONE);
+        this.expenseService = new ExpenseService(expenseDAO, dataVersion);
+
+        ReportCache reportCache = new ReportCache(dataVersion::current, SessionContext.getInstance()::requireCurrentUserId,
+                ReportCache.DEFAULT_MAX_BYTES);
+        this.dailyReportGenerator = CachingReportGenerator.daily(new DailyReportGenerator(expenseDAO), reportCache);
+        this.weeklyReportGenerator = CachingReportGenerator.weekly(new WeeklyReportGenerator(expenseDAO), reportCache);
+        this.monthlyReportGenerator = CachingReportGenerator.monthly(new MonthlyReportGenerator(rollupDAO), reportCache);
+        this.summaryReportGenerator = CachingReportGenerator.summary(new SummaryReportGenerator(rollupDAO), reportCache);
+    }
+
+    // Live table plus the cold archive, like the desktop's range reads
+    private static ExpenseDAO liveExpenseDAO() {
+        ExpenseJdbcDAO live = new ExpenseJdbcDAO(Boolean.parseBoolean(System.getProperty("expensetracker.search.fulltext", "true")));
+        return new TieredExpenseDAO(live, new CategoryJdbcDAO(),
+                new ExpenseArchive(FileManager.getInstance().getBackupDir().resolve("archive")));
+    }
+
+    public ExpenseDAO getExpenseDAO() {
+        return expenseDAO;
+    }
+
+    public AuthService getAuthService() {
+        return authService;
+    }
+
+    public CategoryService getCategoryService() {
+        return categoryService;
+    }
+
+    public ExpenseService getExpenseService() {
+        return expenseService;
+    }
+
+    public ReportGenerator<DailyReport, LocalDate> getDailyReportGenerator() {
+        return dailyReportGenerator;
+    }
+
+    public ReportGenerator<WeeklyReport, WeeklyReportRequest> getWeeklyReportGenerator() {
+        return weeklyReportGenerator;
+    }
+
+    public ReportGenerator<MonthlyReport, MonthlyReportRequest> getMonthlyReportGenerator() {
+        return monthlyReportGenerator;
+    }
+
+    public ReportGenerator<SummaryReport, SummaryReportRequest> getSummaryReportGenerator() {
+        return summaryReportGenerator;
+    }
+}
@@ -14,6 +14,15 @@ public interface CategoryDAO {
 
     Optional<Category> findById(int id);
 
+    /**
+     * Like {@link #findById}, but locks the row until the enclosing
+     * transaction ends so a read-modify-write of it cannot lose a concurrent
+     * update. Outside of a transaction it is a plain read.
+     */
+    default Optional<Category> lockById(int id) {
+        return findById(id);
+    }
+
     Optional<Category> findByName(String name);
 
     List<Category> findAll();
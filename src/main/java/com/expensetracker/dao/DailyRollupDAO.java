@@ -0,0 +1,25 @@
+package com.expensetracker.dao;
+
+import com.expensetracker.model.DailyRollup;
+import com.expensetracker.model.Expense;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Read and maintenance access to the expense_daily_rollup table, scoped to
+ * the signed-in user. Incremental maintenance happens inside ExpenseDAO writes.
+ */
+public interface DailyRollupDAO {
+
+    List<DailyRollup> findByDateRange(LocalDate start, LocalDate end);
+
+    /**
+     * Recompute the signed-in user's rollup rows from their raw expense rows
+     * plus the given archived expenses, which are no longer in the raw rows.
+     * An archived expense whose row is still live (archival interrupted
+     * before the purge) is counted once.
+     *
+     * @return number of rollup rows the user has afterwards
+     */
+    int rebuild(List<Expense> archived);
+}
@@ -3,12 +3,77 @@ package com.expensetracker.dao;
 import com.expensetracker.model.Expense;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 public interface ExpenseDAO {
 
     Expense insert(Expense expense);
 
+    /**
+     * Insert many expenses at once, returning how many were stored. Generated
+     * ids are not read back, so the passed objects stay unpersisted.
+     */
+    default int insertBatch(List<Expense> expenses) {
+        expenses.forEach(this::insert);
+        return expenses.size();
+    }
+
+    /**
+     * Batch insert tagging each expense with a content fingerprint; rows
+     * whose fingerprint already exists are skipped. Returns how many rows
+     * were actually inserted.
+     */
+    default int upsertBatch(List<Expense> expenses, List<String> fingerprints) {
+        throw new UnsupportedOperationException("Fingerprinted inserts not supported");
+    }
+
+    /**
+     * Insert one expense keyed by an idempotency token: repeating the call
+     * with the same token (e.g. after a lost acknowledgement) stores no
+     * second row. Returns the stored expense.
+     */
+    default Expense insertOnce(Expense expense, String token) {
+        upsertBatch(List.of(expense), List.of(token));
+        Long id = findIdsByFingerprint(List.of(token)).get(token);
+        if (id == null) {
+            throw new RuntimeException("Inserted expense not found for token " + token);
+        }
+        Expense persisted = Expense.create(expense.getCategory(), expense.getDate(), expense.getAmount(), expense.getPaymentMethod(), expense.getDescription());
+        persisted.markPersisted(id, expense.getCreatedAt(), null);
+        return persisted;
+    }
+
+    /**
+     * Fingerprints of previously imported expenses dated within the range.
+     */
+    default Set<String> findFingerprints(LocalDate start, LocalDate end) {
+        throw new UnsupportedOperationException("Fingerprinted inserts not supported");
+    }
+
+    /**
+     * Ids of stored expenses by fingerprint; fingerprints without a row are
+     * left out.
+     */
+    default Map<String, Long> findIdsByFingerprint(List<String> fingerprints) {
+        throw new UnsupportedOperationException("Fingerprinted inserts not supported");
+    }
+
+    /**
+     * Delete expenses that were copied to cold storage. Unlike
+     * {@link #delete}, the daily rollup keeps their totals, so rollup-based
+     * reports still cover archived months. A row updated since it was read
+     * for archiving (its updated_at no longer matches the archived copy) is
+     * kept, so the edit is not lost.
+     *
+     * @return number of rows deleted
+     */
+    default int purgeArchived(List<Expense> archived) {
+        throw new UnsupportedOperationException("Archival not supported");
+    }
+
     boolean update(Expense expense);
 
     boolean delete(long id);
@@ -17,8 +82,23 @@ public interface ExpenseDAO {
 
     List<Expense> findByDateRange(LocalDate start, LocalDate end);
 
+    /**
+     * Visit every expense in the range in date order without materializing
+     * the whole result. Implementations should stream rows from the driver.
+     */
+    default void forEachInDateRange(LocalDate start, LocalDate end, Consumer<Expense> consumer) {
+        findByDateRange(start, end).forEach(consumer);
+    }
+
     List<Expense> findByCategory(int categoryId, LocalDate start, LocalDate end);
 
+    /**
+     * Whether any of the user's expenses is filed under the category.
+     */
+    default boolean existsInCategory(int categoryId) {
+        return !findByCategory(categoryId, LocalDate.of(1000, 1, 1), LocalDate.of(9999, 12, 31)).isEmpty();
+    }
+
     List<Expense> search(String keyword, LocalDate start, LocalDate end);
 
     List<Expense> listRecent(int limit);
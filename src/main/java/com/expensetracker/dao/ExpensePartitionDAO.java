@@ -0,0 +1,27 @@
+package com.expensetracker.dao;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Maintenance access to the RANGE COLUMNS(expense_date) partitions of the
+ * expense table (see database/partitioning.sql). Partitioning is optional;
+ * on an unpartitioned table every method is a no-op.
+ */
+public interface ExpensePartitionDAO {
+
+    /**
+     * Exclusive upper bounds of the existing date partitions in ascending
+     * order, not counting the MAXVALUE catch-all.
+     *
+     * @return empty list if the expense table is not partitioned
+     */
+    List<LocalDate> findPartitionBounds();
+
+    /**
+     * Add a partition holding dates from the current last bound up to (not
+     * including) upperBound. When a MAXVALUE catch-all exists it is split,
+     * which is cheap while the catch-all is still empty.
+     */
+    void addPartition(String name, LocalDate upperBound);
+}
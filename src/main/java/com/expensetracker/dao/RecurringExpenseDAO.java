@@ -0,0 +1,33 @@
+package com.expensetracker.dao;
+
+import com.expensetracker.model.RecurringExpenseTemplate;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Recurring expense templates of the signed-in user.
+ */
+public interface RecurringExpenseDAO {
+
+    RecurringExpenseTemplate insert(RecurringExpenseTemplate template);
+
+    boolean update(RecurringExpenseTemplate template);
+
+    boolean delete(int id);
+
+    List<RecurringExpenseTemplate> findAll();
+
+    List<RecurringExpenseTemplate> findDue(LocalDate asOf);
+
+    /**
+     * Insert every missed occurrence (up to and including asOf) of all due
+     * active templates and advance their next_occurrence, in one transaction.
+     * Unlike the other methods this is a system job covering every user's
+     * templates; each expense is owned by its template's user.
+     *
+     * @param maxPerTemplate safety cap on occurrences generated per template
+     *                       per call
+     * @return number of expenses created
+     */
+    int materializeDue(LocalDate asOf, int maxPerTemplate);
+}
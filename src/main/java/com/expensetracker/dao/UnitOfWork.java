@@ -0,0 +1,42 @@
+package com.expensetracker.dao;
+
+import java.util.function.Supplier;
+
+/**
+ * Runs a group of DAO calls as one transaction: they share a connection and
+ * commit together, or leave nothing behind if the work throws.
+ */
+public interface UnitOfWork {
+
+    /**
+     * Runs the work as is, each DAO call committing on its own (for DAOs
+     * without a database behind them, e.g. in tests).
+     */
+    UnitOfWork NONE = new UnitOfWork() {
+        @Override
+        public <T> T execute(Supplier<T> work) {
+            return work.get();
+        }
+
+        @Override
+        public boolean isAtomic() {
+            return false;
+        }
+    };
+
+    <T> T execute(Supplier<T> work);
+
+    default void run(Runnable work) {
+        execute(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Whether work that throws leaves none of its writes behind.
+     */
+    default boolean isAtomic() {
+        return true;
+    }
+}
@@ -8,4 +8,10 @@ public interface UserAccountDAO {
     UserAccount insert(UserAccount user);
 
     Optional<UserAccount> findByUsername(String username);
+
+    /**
+     * Replace a user's stored password hash and salt (hash upgrades at
+     * login).
+     */
+    boolean updatePasswordHash(int userId, String passwordHash, String salt);
 }
@@ -0,0 +1,94 @@
+package com.expensetracker.dao.impl;
+
+import com.expensetracker.dao.UserAccountDAO;
+import com.expensetracker.model.UserAccount;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * UserAccountDAO that remembers active accounts found by username for a
+ * short time, so repeated logins and role checks do not hit the database.
+ * Writes made through this DAO drop the affected entries; changes made
+ * elsewhere (e.g. deactivating an account in SQL) show up once the entry
+ * expires. Unknown and inactive names are never cached. Callers get copies,
+ * never the cached objects.
+ */
+public class CachingUserAccountDAO implements UserAccountDAO {
+
+    public static final int MAX_ENTRIES = 256;
+
+    private final UserAccountDAO delegate;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public CachingUserAccountDAO(UserAccountDAO delegate, Duration ttl) {
+        this(delegate, ttl, System::nanoTime);
+    }
+
+    public CachingUserAccountDAO(UserAccountDAO delegate, Duration ttl, LongSupplier nanoClock) {
+        this.delegate = delegate;
+        this.ttlNanos = ttl.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    @Override
+    public UserAccount insert(UserAccount user) {
+        UserAccount inserted = delegate.insert(user);
+        entries.remove(key(user.getUsername()));
+        return inserted;
+    }
+
+    @Override
+    public Optional<UserAccount> findByUsername(String username) {
+        String key = key(username);
+        long now = nanoClock.getAsLong();
+        Entry entry = entries.get(key);
+        if (entry != null && now - entry.loadedAt < ttlNanos) {
+            return Optional.of(copy(entry.account));
+        }
+        Optional<UserAccount> found = delegate.findByUsername(username);
+        if (found.isPresent() && found.get().isActive()) {
+            if (entries.size() >= MAX_ENTRIES) {
+                entries.values().removeIf(e -> now - e.loadedAt >= ttlNanos);
+                if (entries.size() >= MAX_ENTRIES) {
+                    entries.clear();
+                }
+            }
+            entries.put(key, new Entry(copy(found.get()), now));
+        } else {
+            entries.remove(key);
+        }
+        return found;
+    }
+
+    @Override
+    public boolean updatePasswordHash(int userId, String passwordHash, String salt) {
+        boolean updated = delegate.updatePasswordHash(userId, passwordHash, salt);
+        invalidate(userId);
+        return updated;
+    }
+
+    /**
+     * Forget a user, e.g. after changing the account outside this DAO.
+     */
+    public void invalidate(int userId) {
+        entries.values().removeIf(e -> e.account.getId() == userId);
+    }
+
+    // Same folding as the username_key column (LOWER(username))
+    private static String key(String username) {
+        return username == null ? "" : username.toLowerCase(Locale.ROOT);
+    }
+
+    private static UserAccount copy(UserAccount u) {
+        return new UserAccount(u.getId(), u.getUsername(), u.getPasswordHash(), u.getSalt(), u.getRole(), u.isActive(), u.getCreatedAt());
+    }
+
+    private record Entry(UserAccount account, long loadedAt) {
+    }
+}
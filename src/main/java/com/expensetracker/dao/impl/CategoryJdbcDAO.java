@@ -3,6 +3,7 @@ package com.expensetracker.dao.impl;
 import com.expensetracker.dao.CategoryDAO;
 import com.expensetracker.model.Category;
 import com.expensetracker.util.DBConnectionManager;
+import com.expensetracker.util.SessionContext;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
@@ -11,23 +12,26 @@ import java.util.Optional;
 public class CategoryJdbcDAO implements CategoryDAO {
 
     private final DBConnectionManager connectionManager = DBConnectionManager.getInstance();
+    private final SessionContext session = SessionContext.getInstance();
 
-    private static final String INSERT_SQL = "INSERT INTO category(name, monthly_budget_limit) VALUES(?, ?)";
-    private static final String UPDATE_SQL = "UPDATE category SET name = ?, monthly_budget_limit = ? WHERE id = ?";
-    private static final String DELETE_SQL = "DELETE FROM category WHERE id = ?";
-    private static final String FIND_BY_ID_SQL = "SELECT id, name, monthly_budget_limit, created_at FROM category WHERE id = ?";
-    private static final String FIND_BY_NAME_SQL = "SELECT id, name, monthly_budget_limit, created_at FROM category WHERE LOWER(name) = LOWER(?)";
-    private static final String FIND_ALL_SQL = "SELECT id, name, monthly_budget_limit, created_at FROM category ORDER BY name";
-    private static final String COUNT_SQL = "SELECT COUNT(*) FROM category";
+    private static final String INSERT_SQL = "INSERT INTO category(user_id, name, monthly_budget_limit) VALUES(?, ?, ?)";
+    private static final String UPDATE_SQL = "UPDATE category SET name = ?, monthly_budget_limit = ? WHERE id = ? AND user_id = ?";
+    private static final String DELETE_SQL = "DELETE FROM category WHERE id = ? AND user_id = ?";
+    private static final String FIND_BY_ID_SQL = "SELECT id, name, monthly_budget_limit, created_at FROM category WHERE user_id = ? AND id = ?";
+    // Seek on uq_category_user_name_key; name_key is the stored LOWER(name)
+    private static final String FIND_BY_NAME_SQL = "SELECT id, name, monthly_budget_limit, created_at FROM category WHERE user_id = ? AND name_key = LOWER(?)";
+    private static final String FIND_ALL_SQL = "SELECT id, name, monthly_budget_limit, created_at FROM category WHERE user_id = ? ORDER BY name";
+    private static final String COUNT_SQL = "SELECT COUNT(*) FROM category WHERE user_id = ?";
 
     @Override
     public Category insert(Category category) {
         try (Connection con = connectionManager.getConnection(); PreparedStatement ps = con.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
-            ps.setString(1, category.getName());
+            ps.setInt(1, session.requireCurrentUserId());
+            ps.setString(2, category.getName());
             if (category.getMonthlyBudgetLimit() == null) {
-                ps.setNull(2, Types.DECIMAL);
+                ps.setNull(3, Types.DECIMAL);
             } else {
-                ps.setBigDecimal(2, category.getMonthlyBudgetLimit());
+                ps.setBigDecimal(3, category.getMonthlyBudgetLimit());
             }
             ps.executeUpdate();
             try (ResultSet rs = ps.getGeneratedKeys()) {
@@ -51,6 +55,7 @@ public class CategoryJdbcDAO implements CategoryDAO {
                 ps.setBigDecimal(2, category.getMonthlyBudgetLimit());
             }
             ps.setInt(3, category.getId());
+            ps.setInt(4, session.requireCurrentUserId());
             return ps.executeUpdate() == 1;
         } catch (SQLException e) {
             throw new RuntimeException("Error updating category", e);
@@ -61,6 +66,7 @@ public class CategoryJdbcDAO implements CategoryDAO {
     public boolean delete(int id) {
         try (Connection con = connectionManager.getConnection(); PreparedStatement ps = con.prepareStatement(DELETE_SQL)) {
             ps.setInt(1, id);
+            ps.setInt(2, session.requireCurrentUserId());
             return ps.executeUpdate() == 1;
         } catch (SQLException e) {
             throw new RuntimeException("Error deleting category", e);
@@ -69,8 +75,18 @@ public class CategoryJdbcDAO implements CategoryDAO {
 
     @Override
     public Optional<Category> findById(int id) {
-        try (Connection con = connectionManager.getConnection(); PreparedStatement ps = con.prepareStatement(FIND_BY_ID_SQL)) {
-            ps.setInt(1, id);
+        return findById(FIND_BY_ID_SQL, id);
+    }
+
+    @Override
+    public Optional<Category> lockById(int id) {
+        return findById(FIND_BY_ID_SQL + " FOR UPDATE", id);
+    }
+
+    private Optional<Category> findById(String sql, int id) {
+        try (Connection con = connectionManager.getConnection(); PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setInt(1, session.requireCurrentUserId());
+            ps.setInt(2, id);
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
                     return Optional.of(mapRow(rs));
@@ -85,7 +101,8 @@ public class CategoryJdbcDAO implements CategoryDAO {
     @Override
     public Optional<Category> findByName(String name) {
         try (Connection con = connectionManager.getConnection(); PreparedStatement ps = con.prepareStatement(FIND_BY_NAME_SQL)) {
-            ps.setString(1, name);
+            ps.setInt(1, session.requireCurrentUserId());
+            ps.setString(2, name);
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
                     return Optional.of(mapRow(rs));
@@ -100,9 +117,12 @@ public class CategoryJdbcDAO implements CategoryDAO {
     @Override
     public List<Category> findAll() {
         List<Category> list = new ArrayList<>();
-        try (Connection con = connectionManager.getConnection(); PreparedStatement ps = con.prepareStatement(FIND_ALL_SQL); ResultSet rs = ps.executeQuery()) {
-            while (rs.next()) {
-                list.add(mapRow(rs));
+        try (Connection con = connectionManager.getConnection(); PreparedStatement ps = con.prepareStatement(FIND_ALL_SQL)) {
+            ps.setInt(1, session.requireCurrentUserId());
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    list.add(mapRow(rs));
+                }
             }
         } catch (SQLException e) {
             throw new RuntimeException("Error listing categories", e);
@@ -112,11 +132,11 @@ public class CategoryJdbcDAO implements CategoryDAO {
 
     @Override
     public long count() {
-        try (Connection con = connectionManager.getConnection(); PreparedStatement ps = con.prepareStatement(COUNT_SQL); ResultSet rs = ps.executeQuery()) {
-            if (rs.next()) {
-                return rs.getLong(1);
+        try (Connection con = connectionManager.getConnection(); PreparedStatement ps = con.prepareStatement(COUNT_SQL)) {
+            ps.setInt(1, session.requireCurrentUserId());
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
             }
-            return 0;
         } catch (SQLException e) {
             throw new RuntimeException("Error counting categories", e);
         }
@@ -0,0 +1,146 @@
+package com.expensetracker.dao.impl;
+
+import com.expensetracker.dao.DailyRollupDAO;
+import com.expensetracker.dao.impl.ExpenseJdbcDAO.RollupBucket;
+import com.expensetracker.dao.impl.ExpenseJdbcDAO.RollupDelta;
+import com.expensetracker.model.DailyRollup;
+import com.expensetracker.model.Expense;
+import com.expensetracker.model.PaymentMethod;
+import com.expensetracker.util.DBConnectionManager;
+import com.expensetracker.util.SessionContext;
+import com.expensetracker.util.TransactionScope;
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class DailyRollupJdbcDAO implements DailyRollupDAO {
+
+    private final TransactionScope.ConnectionSource connections;
+    private final SessionContext session = SessionContext.getInstance();
+
+    public DailyRollupJdbcDAO() {
+        this(DBConnectionManager.getInstance()::getConnection);
+    }
+
+    /**
+     * @param connections where every call gets its connection; the shared
+     * {@link DBConnectionManager} unless a test supplies its own
+     */
+    public DailyRollupJdbcDAO(TransactionScope.ConnectionSource connections) {
+        this.connections = connections;
+    }
+
+    private static final String BY_DATE_RANGE_SQL = "SELECT r.rollup_date, r.category_id, c.name, r.payment_method, r.expense_count, r.total_amount FROM expense_daily_rollup r JOIN category c ON r.category_id = c.id WHERE r.user_id = ? AND r.rollup_date BETWEEN ? AND ? ORDER BY r.rollup_date";
+    private static final String CLEAR_SQL = "DELETE FROM expense_daily_rollup WHERE user_id = ?";
+    private static final String REBUILD_SQL = "INSERT INTO expense_daily_rollup(user_id, rollup_date, category_id, payment_method, expense_count, total_amount) SELECT user_id, expense_date, category_id, payment_method, COUNT(*), SUM(amount) FROM expense WHERE user_id = ? GROUP BY expense_date, category_id, payment_method";
+    private static final String LIVE_IDS_SQL = "SELECT id FROM expense WHERE user_id = ? AND expense_date BETWEEN ? AND ?";
+    private static final String COUNT_SQL = "SELECT COUNT(*) FROM expense_daily_rollup WHERE user_id = ?";
+
+    @Override
+    public List<DailyRollup> findByDateRange(LocalDate start, LocalDate end) {
+        List<DailyRollup> list = new ArrayList<>();
+        try (Connection con = connections.open(); PreparedStatement ps = con.prepareStatement(BY_DATE_RANGE_SQL)) {
+            ps.setInt(1, session.requireCurrentUserId());
+            ps.setDate(2, Date.valueOf(start));
+            ps.setDate(3, Date.valueOf(end));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    list.add(new DailyRollup(
+                            rs.getDate(1).toLocalDate(),
+                            rs.getInt(2),
+                            rs.getString(3),
+                            PaymentMethod.valueOf(rs.getString(4)),
+                            rs.getInt(5),
+                            rs.getBigDecimal(6)));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error querying daily rollups", e);
+        }
+        return list;
+    }
+
+    @Override
+    public int rebuild(List<Expense> archived) {
+        int userId = session.requireCurrentUserId();
+        try (Connection con = connections.open()) {
+            con.setAutoCommit(false);
+            try {
+                try (PreparedStatement clear = con.prepareStatement(CLEAR_SQL); PreparedStatement rebuild = con.prepareStatement(REBUILD_SQL)) {
+                    clear.setInt(1, userId);
+                    clear.executeUpdate();
+                    rebuild.setInt(1, userId);
+                    rebuild.executeUpdate();
+                }
+                addArchived(con, userId, archived);
+                int rows;
+                try (PreparedStatement count = con.prepareStatement(COUNT_SQL)) {
+                    count.setInt(1, userId);
+                    try (ResultSet rs = count.executeQuery()) {
+                        rows = rs.next() ? rs.getInt(1) : 0;
+                    }
+                }
+                con.commit();
+                return rows;
+            } catch (SQLException | RuntimeException e) {
+                con.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error rebuilding daily rollup", e);
+        }
+    }
+
+    /**
+     * Adds archived expenses to the freshly rebuilt buckets, one upsert per
+     * bucket, skipping those still in the live table.
+     */
+    private void addArchived(Connection con, int userId, List<Expense> archived) throws SQLException {
+        if (archived.isEmpty()) {
+            return;
+        }
+        LocalDate first = archived.get(0).getDate();
+        LocalDate last = first;
+        for (Expense expense : archived) {
+            first = expense.getDate().isBefore(first) ? expense.getDate() : first;
+            last = expense.getDate().isAfter(last) ? expense.getDate() : last;
+        }
+        Set<Long> liveIds = new HashSet<>();
+        try (PreparedStatement ps = con.prepareStatement(LIVE_IDS_SQL)) {
+            ps.setInt(1, userId);
+            ps.setDate(2, Date.valueOf(first));
+            ps.setDate(3, Date.valueOf(last));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    liveIds.add(rs.getLong(1));
+                }
+            }
+        }
+
+        Map<RollupBucket, RollupDelta> deltas = new HashMap<>();
+        for (Expense expense : archived) {
+            if (!liveIds.contains(expense.getId())) {
+                deltas.merge(new RollupBucket(expense.getDate(), expense.getCategory().getId(), expense.getPaymentMethod().name()),
+                        new RollupDelta(1, expense.getAmount()), RollupDelta::plus);
+            }
+        }
+        try (PreparedStatement rollup = con.prepareStatement(ExpenseJdbcDAO.UPSERT_ROLLUP_SQL)) {
+            for (Map.Entry<RollupBucket, RollupDelta> entry : deltas.entrySet()) {
+                RollupBucket bucket = entry.getKey();
+                rollup.setInt(1, userId);
+                rollup.setDate(2, Date.valueOf(bucket.date()));
+                rollup.setInt(3, bucket.categoryId());
+                rollup.setString(4, bucket.paymentMethod());
+                rollup.setInt(5, entry.getValue().count());
+                rollup.setBigDecimal(6, entry.getValue().total());
+                rollup.addBatch();
+            }
+            rollup.executeBatch();
+        }
+    }
+}
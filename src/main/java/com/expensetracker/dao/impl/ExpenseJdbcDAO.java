@@ -5,60 +5,282 @@ import com.expensetracker.model.Category;
 import com.expensetracker.model.Expense;
 import com.expensetracker.model.PaymentMethod;
 import com.expensetracker.util.DBConnectionManager;
+import com.expensetracker.util.LoggerUtil;
+import com.expensetracker.util.SessionContext;
+import com.expensetracker.util.TransactionScope;
 import java.math.BigDecimal;
 import java.sql.*;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 public class ExpenseJdbcDAO implements ExpenseDAO {
 
-    private final DBConnectionManager connectionManager = DBConnectionManager.getInstance();
+    private final TransactionScope.ConnectionSource connections;
+    private final SessionContext session = SessionContext.getInstance();
 
-    private static final String INSERT_SQL = "INSERT INTO expense(category_id, expense_date, amount, payment_method, description) VALUES(?,?,?,?,?)";
-    private static final String UPDATE_SQL = "UPDATE expense SET category_id=?, expense_date=?, amount=?, payment_method=?, description=? WHERE id=?";
-    private static final String DELETE_SQL = "DELETE FROM expense WHERE id=?";
-    private static final String FIND_BY_ID_SQL = "SELECT e.id, e.category_id, e.expense_date, e.amount, e.payment_method, e.description, e.created_at, e.updated_at, c.name, c.monthly_budget_limit, c.created_at AS c_created_at FROM expense e JOIN category c ON e.category_id = c.id WHERE e.id=?";
-    private static final String BY_DATE_RANGE_SQL = "SELECT e.id, e.category_id, e.expense_date, e.amount, e.payment_method, e.description, e.created_at, e.updated_at, c.name, c.monthly_budget_limit, c.created_at AS c_created_at FROM expense e JOIN category c ON e.category_id = c.id WHERE e.expense_date BETWEEN ? AND ? ORDER BY e.expense_date";
-    private static final String BY_CATEGORY_SQL = BY_DATE_RANGE_SQL + " AND e.category_id=?"; // appended differently when used
-    private static final String SEARCH_SQL = "SELECT e.id, e.category_id, e.expense_date, e.amount, e.payment_method, e.description, e.created_at, e.updated_at, c.name, c.monthly_budget_limit, c.created_at AS c_created_at FROM expense e JOIN category c ON e.category_id = c.id WHERE e.expense_date BETWEEN ? AND ? AND LOWER(e.description) LIKE ? ORDER BY e.expense_date";
-    private static final String LIST_RECENT_SQL = "SELECT e.id, e.category_id, e.expense_date, e.amount, e.payment_method, e.description, e.created_at, e.updated_at, c.name, c.monthly_budget_limit, c.created_at AS c_created_at FROM expense e JOIN category c ON e.category_id = c.id ORDER BY e.created_at DESC LIMIT ?";
-    private static final String COUNT_SQL = "SELECT COUNT(*) FROM expense";
+    // FULLTEXT search state; null until the index has been probed
+    private final boolean fullTextSearchEnabled;
+    private volatile Boolean fullTextIndexPresent;
+
+    public ExpenseJdbcDAO() {
+        this(true);
+    }
+
+    /**
+     * @param fullTextSearchEnabled use MATCH ... AGAINST on the FULLTEXT
+     * description index when it exists; the LIKE scan is used otherwise
+     */
+    public ExpenseJdbcDAO(boolean fullTextSearchEnabled) {
+        this(fullTextSearchEnabled, DBConnectionManager.getInstance()::getConnection);
+    }
+
+    /**
+     * @param connections where every call gets its connection; the shared
+     * {@link DBConnectionManager} unless a test supplies its own
+     */
+    public ExpenseJdbcDAO(boolean fullTextSearchEnabled, TransactionScope.ConnectionSource connections) {
+        this.fullTextSearchEnabled = fullTextSearchEnabled;
+        this.connections = connections;
+    }
+
+    private static final String INSERT_SQL = "INSERT INTO expense(user_id, category_id, expense_date, amount, payment_method, description) VALUES(?,?,?,?,?,?)";
+    private static final String UPSERT_FINGERPRINTED_SQL = "INSERT INTO expense(user_id, category_id, expense_date, amount, payment_method, description, fingerprint) VALUES(?,?,?,?,?,?,?) ON DUPLICATE KEY UPDATE id = id";
+    private static final String FINGERPRINTS_SQL = "SELECT fingerprint FROM expense WHERE user_id=? AND expense_date BETWEEN ? AND ? AND fingerprint IS NOT NULL";
+    private static final String IDS_BY_FINGERPRINT_SQL = "SELECT fingerprint, id FROM expense WHERE user_id=? AND fingerprint IN ";
+    private static final String UPDATE_SQL = "UPDATE expense SET category_id=?, expense_date=?, amount=?, payment_method=?, description=? WHERE id=? AND user_id=?";
+    private static final String DELETE_SQL = "DELETE FROM expense WHERE id=? AND user_id=?";
+    private static final int PURGE_CHUNK_SIZE = 1000;
+    // Every read is scoped to the signed-in user and served by an index led by user_id.
+    // Date filters compare the bare expense_date column so that MySQL can prune
+    // partitions when the table is partitioned (database/partitioning.sql).
+    private static final String SELECT_SQL = "SELECT e.id, e.category_id, e.expense_date, e.amount, e.payment_method, e.description, e.created_at, e.updated_at, e.fingerprint, c.name, c.monthly_budget_limit, c.created_at AS c_created_at FROM expense e JOIN category c ON e.category_id = c.id WHERE e.user_id=?";
+    private static final String FIND_BY_ID_SQL = SELECT_SQL + " AND e.id=?";
+    private static final String BY_DATE_RANGE_SQL = SELECT_SQL + " AND e.expense_date BETWEEN ? AND ? ORDER BY e.expense_date";
+    private static final String BY_CATEGORY_SQL = SELECT_SQL + " AND e.category_id=? AND e.expense_date BETWEEN ? AND ? ORDER BY e.expense_date";
+    private static final String SEARCH_SQL = SELECT_SQL + " AND e.expense_date BETWEEN ? AND ? AND LOWER(e.description) LIKE ? ORDER BY e.expense_date";
+    private static final String FULLTEXT_SEARCH_SQL = SELECT_SQL + " AND MATCH(e.description) AGAINST (? IN BOOLEAN MODE) AND e.expense_date BETWEEN ? AND ? ORDER BY e.expense_date";
+    private static final String HAS_FULLTEXT_INDEX_SQL = "SELECT 1 FROM information_schema.statistics WHERE table_schema = DATABASE() AND table_name = 'expense' AND column_name = 'description' AND index_type = 'FULLTEXT' LIMIT 1";
+    private static final String LIST_RECENT_SQL = SELECT_SQL + " ORDER BY e.created_at DESC LIMIT ?";
+    private static final String COUNT_SQL = "SELECT COUNT(*) FROM expense WHERE user_id=?";
+    private static final String EXISTS_IN_CATEGORY_SQL = "SELECT 1 FROM expense WHERE user_id=? AND category_id=? LIMIT 1";
+    private static final String LOCK_FOR_ROLLUP_SQL = "SELECT expense_date, category_id, payment_method, amount FROM expense WHERE id=? AND user_id=? FOR UPDATE";
+    // MySQL error "Can't find FULLTEXT index matching the column list"
+    private static final int ER_FT_MATCHING_KEY_NOT_FOUND = 1191;
+    // InnoDB default innodb_ft_min_token_size; shorter words are never indexed
+    static final int MIN_FULLTEXT_TOKEN_LENGTH = 3;
+    static final String UPSERT_ROLLUP_SQL = "INSERT INTO expense_daily_rollup(user_id, rollup_date, category_id, payment_method, expense_count, total_amount) VALUES(?,?,?,?,?,?) ON DUPLICATE KEY UPDATE expense_count = expense_count + VALUES(expense_count), total_amount = total_amount + VALUES(total_amount)";
+    private static final String PRUNE_ROLLUP_SQL = "DELETE FROM expense_daily_rollup WHERE user_id=? AND rollup_date=? AND category_id=? AND payment_method=? AND expense_count <= 0";
 
     @Override
     public Expense insert(Expense expense) {
-        try (Connection con = connectionManager.getConnection(); PreparedStatement ps = con.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
-            ps.setInt(1, expense.getCategory().getId());
-            ps.setDate(2, Date.valueOf(expense.getDate()));
-            ps.setBigDecimal(3, expense.getAmount());
-            ps.setString(4, expense.getPaymentMethod().name());
-            ps.setString(5, expense.getDescription());
-            ps.executeUpdate();
-            try (ResultSet rs = ps.getGeneratedKeys()) {
-                if (rs.next()) {
-                    long id = rs.getLong(1);
-                    Expense persisted = Expense.create(expense.getCategory(), expense.getDate(), expense.getAmount(), expense.getPaymentMethod(), expense.getDescription());
-                    persisted.markPersisted(id, expense.getCreatedAt(), null);
-                    return persisted;
+        int userId = session.requireCurrentUserId();
+        try (Connection con = connections.open()) {
+            con.setAutoCommit(false);
+            try (PreparedStatement ps = con.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                ps.setInt(1, userId);
+                ps.setInt(2, expense.getCategory().getId());
+                ps.setDate(3, Date.valueOf(expense.getDate()));
+                ps.setBigDecimal(4, expense.getAmount());
+                ps.setString(5, expense.getPaymentMethod().name());
+                ps.setString(6, expense.getDescription());
+                ps.executeUpdate();
+                try (ResultSet rs = ps.getGeneratedKeys()) {
+                    if (rs.next()) {
+                        long id = rs.getLong(1);
+                        applyRollupDelta(con, userId, expense.getDate(), expense.getCategory().getId(), expense.getPaymentMethod().name(), 1, expense.getAmount());
+                        con.commit();
+                        Expense persisted = Expense.create(expense.getCategory(), expense.getDate(), expense.getAmount(), expense.getPaymentMethod(), expense.getDescription());
+                        persisted.markPersisted(id, expense.getCreatedAt(), null);
+                        return persisted;
+                    }
                 }
+                con.rollback();
+                throw new RuntimeException("Failed to retrieve generated key for expense");
+            } catch (SQLException | RuntimeException e) {
+                con.rollback();
+                throw e;
             }
-            throw new RuntimeException("Failed to retrieve generated key for expense");
         } catch (SQLException e) {
             throw new RuntimeException("Error inserting expense", e);
         }
     }
 
+    /**
+     * One transaction per call: a single batched INSERT (rewritten into
+     * multi-row statements by the driver) plus one rollup upsert per touched
+     * bucket rather than per row.
+     */
+    @Override
+    public int insertBatch(List<Expense> expenses) {
+        return writeBatch(expenses, null);
+    }
+
+    /**
+     * Like {@link #insertBatch} but rows colliding on the unique fingerprint
+     * are left untouched ({@code ON DUPLICATE KEY UPDATE id = id}), kept out
+     * of the rollup and not counted, so resending rows that already landed is
+     * harmless.
+     */
+    @Override
+    public int upsertBatch(List<Expense> expenses, List<String> fingerprints) {
+        return writeBatch(expenses, fingerprints);
+    }
+
+    @Override
+    public Set<String> findFingerprints(LocalDate start, LocalDate end) {
+        Set<String> fingerprints = new HashSet<>();
+        try (Connection con = connections.open(); PreparedStatement ps = con.prepareStatement(FINGERPRINTS_SQL)) {
+            ps.setInt(1, session.requireCurrentUserId());
+            ps.setDate(2, Date.valueOf(start));
+            ps.setDate(3, Date.valueOf(end));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    fingerprints.add(rs.getString(1));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error loading expense fingerprints", e);
+        }
+        return fingerprints;
+    }
+
+    @Override
+    public Map<String, Long> findIdsByFingerprint(List<String> fingerprints) {
+        if (fingerprints.isEmpty()) {
+            return new HashMap<>();
+        }
+        try (Connection con = connections.open()) {
+            return findIdsByFingerprint(con, session.requireCurrentUserId(), fingerprints);
+        } catch (SQLException e) {
+            throw new RuntimeException("Error finding expenses by fingerprint", e);
+        }
+    }
+
+    private Map<String, Long> findIdsByFingerprint(Connection con, int userId, List<String> fingerprints) throws SQLException {
+        Map<String, Long> ids = new HashMap<>();
+        String sql = IDS_BY_FINGERPRINT_SQL + "(" + "?,".repeat(fingerprints.size() - 1) + "?)";
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setInt(1, userId);
+            for (int i = 0; i < fingerprints.size(); i++) {
+                ps.setString(i + 2, fingerprints.get(i));
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    ids.put(rs.getString(1), rs.getLong(2));
+                }
+            }
+        }
+        return ids;
+    }
+
+    private int writeBatch(List<Expense> expenses, List<String> fingerprints) {
+        if (expenses.isEmpty()) {
+            return 0;
+        }
+        int userId = session.requireCurrentUserId();
+        try (Connection con = connections.open()) {
+            con.setAutoCommit(false);
+            try {
+                // Update counts cannot tell a skipped duplicate from an insert:
+                // rewritten batches report SUCCESS_NO_INFO for every row and a
+                // no-op ON DUPLICATE KEY UPDATE still counts as found. Compare the
+                // stored fingerprints before and after instead, both read in this
+                // transaction's snapshot.
+                Set<String> before = fingerprints == null ? Set.of() : findIdsByFingerprint(con, userId, fingerprints).keySet();
+                try (PreparedStatement ps = con.prepareStatement(fingerprints == null ? INSERT_SQL : UPSERT_FINGERPRINTED_SQL)) {
+                    for (int i = 0; i < expenses.size(); i++) {
+                        Expense expense = expenses.get(i);
+                        ps.setInt(1, userId);
+                        ps.setInt(2, expense.getCategory().getId());
+                        ps.setDate(3, Date.valueOf(expense.getDate()));
+                        ps.setBigDecimal(4, expense.getAmount());
+                        ps.setString(5, expense.getPaymentMethod().name());
+                        ps.setString(6, expense.getDescription());
+                        if (fingerprints != null) {
+                            ps.setString(7, fingerprints.get(i));
+                        }
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                }
+                Set<String> after = fingerprints == null ? Set.of() : findIdsByFingerprint(con, userId, fingerprints).keySet();
+
+                int inserted = 0;
+                Set<String> landed = new HashSet<>();
+                Map<RollupBucket, RollupDelta> rollupDeltas = new HashMap<>();
+                for (int i = 0; i < expenses.size(); i++) {
+                    if (fingerprints != null) {
+                        // A fingerprint repeated within the batch inserts one row
+                        String fingerprint = fingerprints.get(i);
+                        if (before.contains(fingerprint) || !after.contains(fingerprint) || !landed.add(fingerprint)) {
+                            continue;
+                        }
+                    }
+                    Expense expense = expenses.get(i);
+                    rollupDeltas.merge(new RollupBucket(expense.getDate(), expense.getCategory().getId(), expense.getPaymentMethod().name()),
+                            new RollupDelta(1, expense.getAmount()), RollupDelta::plus);
+                    inserted++;
+                }
+                try (PreparedStatement rollup = con.prepareStatement(UPSERT_ROLLUP_SQL)) {
+                    for (Map.Entry<RollupBucket, RollupDelta> entry : rollupDeltas.entrySet()) {
+                        RollupBucket bucket = entry.getKey();
+                        rollup.setInt(1, userId);
+                        rollup.setDate(2, Date.valueOf(bucket.date()));
+                        rollup.setInt(3, bucket.categoryId());
+                        rollup.setString(4, bucket.paymentMethod());
+                        rollup.setInt(5, entry.getValue().count());
+                        rollup.setBigDecimal(6, entry.getValue().total());
+                        rollup.addBatch();
+                    }
+                    rollup.executeBatch();
+                }
+                con.commit();
+                return inserted;
+            } catch (SQLException | RuntimeException e) {
+                con.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error batch inserting expenses", e);
+        }
+    }
+
     @Override
     public boolean update(Expense expense) {
-        try (Connection con = connectionManager.getConnection(); PreparedStatement ps = con.prepareStatement(UPDATE_SQL)) {
-            ps.setInt(1, expense.getCategory().getId());
-            ps.setDate(2, Date.valueOf(expense.getDate()));
-            ps.setBigDecimal(3, expense.getAmount());
-            ps.setString(4, expense.getPaymentMethod().name());
-            ps.setString(5, expense.getDescription());
-            ps.setLong(6, expense.getId());
-            return ps.executeUpdate() == 1;
+        int userId = session.requireCurrentUserId();
+        try (Connection con = connections.open()) {
+            con.setAutoCommit(false);
+            try {
+                RollupKey old = lockRollupKey(con, userId, expense.getId());
+                if (old == null) {
+                    con.rollback();
+                    return false;
+                }
+                try (PreparedStatement ps = con.prepareStatement(UPDATE_SQL)) {
+                    ps.setInt(1, expense.getCategory().getId());
+                    ps.setDate(2, Date.valueOf(expense.getDate()));
+                    ps.setBigDecimal(3, expense.getAmount());
+                    ps.setString(4, expense.getPaymentMethod().name());
+                    ps.setString(5, expense.getDescription());
+                    ps.setLong(6, expense.getId());
+                    ps.setInt(7, userId);
+                    ps.executeUpdate();
+                }
+                applyRollupDelta(con, userId, old.date, old.categoryId, old.paymentMethod, -1, old.amount.negate());
+                applyRollupDelta(con, userId, expense.getDate(), expense.getCategory().getId(), expense.getPaymentMethod().name(), 1, expense.getAmount());
+                con.commit();
+                return true;
+            } catch (SQLException | RuntimeException e) {
+                con.rollback();
+                throw e;
+            }
         } catch (SQLException e) {
             throw new RuntimeException("Error updating expense", e);
         }
@@ -66,18 +288,78 @@ public class ExpenseJdbcDAO implements ExpenseDAO {
 
     @Override
     public boolean delete(long id) {
-        try (Connection con = connectionManager.getConnection(); PreparedStatement ps = con.prepareStatement(DELETE_SQL)) {
-            ps.setLong(1, id);
-            return ps.executeUpdate() == 1;
+        int userId = session.requireCurrentUserId();
+        try (Connection con = connections.open()) {
+            con.setAutoCommit(false);
+            try {
+                RollupKey old = lockRollupKey(con, userId, id);
+                if (old == null) {
+                    con.rollback();
+                    return false;
+                }
+                try (PreparedStatement ps = con.prepareStatement(DELETE_SQL)) {
+                    ps.setLong(1, id);
+                    ps.setInt(2, userId);
+                    ps.executeUpdate();
+                }
+                applyRollupDelta(con, userId, old.date, old.categoryId, old.paymentMethod, -1, old.amount.negate());
+                con.commit();
+                return true;
+            } catch (SQLException | RuntimeException e) {
+                con.rollback();
+                throw e;
+            }
         } catch (SQLException e) {
             throw new RuntimeException("Error deleting expense", e);
         }
     }
 
+    /**
+     * Deletes in chunks of {@value #PURGE_CHUNK_SIZE} rows per statement, one
+     * transaction for the whole list. A row only matches while its
+     * updated_at is still the archived copy's.
+     */
+    @Override
+    public int purgeArchived(List<Expense> archived) {
+        if (archived.isEmpty()) {
+            return 0;
+        }
+        int userId = session.requireCurrentUserId();
+        try (Connection con = connections.open()) {
+            con.setAutoCommit(false);
+            try {
+                int deleted = 0;
+                for (int from = 0; from < archived.size(); from += PURGE_CHUNK_SIZE) {
+                    List<Expense> chunk = archived.subList(from, Math.min(archived.size(), from + PURGE_CHUNK_SIZE));
+                    // <=> so that a never-updated row (updated_at NULL) matches NULL
+                    String sql = "DELETE FROM expense WHERE user_id=? AND (" + "(id=? AND updated_at <=> ?) OR ".repeat(chunk.size() - 1)
+                            + "(id=? AND updated_at <=> ?))";
+                    try (PreparedStatement ps = con.prepareStatement(sql)) {
+                        ps.setInt(1, userId);
+                        for (int i = 0; i < chunk.size(); i++) {
+                            Expense expense = chunk.get(i);
+                            ps.setLong(2 * i + 2, expense.getId());
+                            ps.setTimestamp(2 * i + 3, expense.getUpdatedAt() == null ? null : Timestamp.valueOf(expense.getUpdatedAt()));
+                        }
+                        deleted += ps.executeUpdate();
+                    }
+                }
+                con.commit();
+                return deleted;
+            } catch (SQLException | RuntimeException e) {
+                con.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error purging archived expenses", e);
+        }
+    }
+
     @Override
     public Optional<Expense> findById(long id) {
-        try (Connection con = connectionManager.getConnection(); PreparedStatement ps = con.prepareStatement(FIND_BY_ID_SQL)) {
-            ps.setLong(1, id);
+        try (Connection con = connections.open(); PreparedStatement ps = con.prepareStatement(FIND_BY_ID_SQL)) {
+            ps.setInt(1, session.requireCurrentUserId());
+            ps.setLong(2, id);
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
                     return Optional.of(mapRow(rs));
@@ -92,9 +374,10 @@ public class ExpenseJdbcDAO implements ExpenseDAO {
     @Override
     public List<Expense> findByDateRange(LocalDate start, LocalDate end) {
         List<Expense> list = new ArrayList<>();
-        try (Connection con = connectionManager.getConnection(); PreparedStatement ps = con.prepareStatement(BY_DATE_RANGE_SQL)) {
-            ps.setDate(1, Date.valueOf(start));
-            ps.setDate(2, Date.valueOf(end));
+        try (Connection con = connections.open(); PreparedStatement ps = con.prepareStatement(BY_DATE_RANGE_SQL)) {
+            ps.setInt(1, session.requireCurrentUserId());
+            ps.setDate(2, Date.valueOf(start));
+            ps.setDate(3, Date.valueOf(end));
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
                     list.add(mapRow(rs));
@@ -106,14 +389,33 @@ public class ExpenseJdbcDAO implements ExpenseDAO {
         return list;
     }
 
+    @Override
+    public void forEachInDateRange(LocalDate start, LocalDate end, Consumer<Expense> consumer) {
+        try (Connection con = connections.open();
+                PreparedStatement ps = con.prepareStatement(BY_DATE_RANGE_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            // Connector/J streams row-by-row instead of buffering the full result
+            ps.setFetchSize(Integer.MIN_VALUE);
+            ps.setInt(1, session.requireCurrentUserId());
+            ps.setDate(2, Date.valueOf(start));
+            ps.setDate(3, Date.valueOf(end));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    consumer.accept(mapRow(rs));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error streaming expenses by date range", e);
+        }
+    }
+
     @Override
     public List<Expense> findByCategory(int categoryId, LocalDate start, LocalDate end) {
         List<Expense> list = new ArrayList<>();
-        String sql = BY_DATE_RANGE_SQL + " AND e.category_id=?"; // adapt
-        try (Connection con = connectionManager.getConnection(); PreparedStatement ps = con.prepareStatement(sql)) {
-            ps.setDate(1, Date.valueOf(start));
-            ps.setDate(2, Date.valueOf(end));
-            ps.setInt(3, categoryId);
+        try (Connection con = connections.open(); PreparedStatement ps = con.prepareStatement(BY_CATEGORY_SQL)) {
+            ps.setInt(1, session.requireCurrentUserId());
+            ps.setInt(2, categoryId);
+            ps.setDate(3, Date.valueOf(start));
+            ps.setDate(4, Date.valueOf(end));
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
                     list.add(mapRow(rs));
@@ -125,13 +427,111 @@ public class ExpenseJdbcDAO implements ExpenseDAO {
         return list;
     }
 
+    @Override
+    public boolean existsInCategory(int categoryId) {
+        try (Connection con = connections.open(); PreparedStatement ps = con.prepareStatement(EXISTS_IN_CATEGORY_SQL)) {
+            ps.setInt(1, session.requireCurrentUserId());
+            ps.setInt(2, categoryId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next();
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error checking expenses in category", e);
+        }
+    }
+
     @Override
     public List<Expense> search(String keyword, LocalDate start, LocalDate end) {
+        String booleanQuery = fullTextSearchEnabled ? toBooleanModeQuery(keyword) : null;
+        if (booleanQuery != null && hasFullTextIndex()) {
+            try {
+                return fullTextSearch(booleanQuery, start, end);
+            } catch (SQLException e) {
+                if (e.getErrorCode() != ER_FT_MATCHING_KEY_NOT_FOUND) {
+                    throw new RuntimeException("Error searching expenses", e);
+                }
+                // Index dropped since the probe; stop trying until restart
+                fullTextIndexPresent = false;
+                LoggerUtil.warn("FULLTEXT index on expense.description not found, falling back to LIKE search");
+            }
+        }
+        return likeSearch(keyword, start, end);
+    }
+
+    private List<Expense> fullTextSearch(String booleanQuery, LocalDate start, LocalDate end) throws SQLException {
         List<Expense> list = new ArrayList<>();
-        try (Connection con = connectionManager.getConnection(); PreparedStatement ps = con.prepareStatement(SEARCH_SQL)) {
-            ps.setDate(1, Date.valueOf(start));
-            ps.setDate(2, Date.valueOf(end));
-            ps.setString(3, "%" + keyword.toLowerCase() + "%");
+        try (Connection con = connections.open(); PreparedStatement ps = con.prepareStatement(FULLTEXT_SEARCH_SQL)) {
+            ps.setInt(1, session.requireCurrentUserId());
+            ps.setString(2, booleanQuery);
+            ps.setDate(3, Date.valueOf(start));
+            ps.setDate(4, Date.valueOf(end));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    list.add(mapRow(rs));
+                }
+            }
+        }
+        return list;
+    }
+
+    private boolean hasFullTextIndex() {
+        Boolean present = fullTextIndexPresent;
+        if (present == null) {
+            try (Connection con = connections.open(); PreparedStatement ps = con.prepareStatement(HAS_FULLTEXT_INDEX_SQL); ResultSet rs = ps.executeQuery()) {
+                present = rs.next();
+            } catch (SQLException e) {
+                LoggerUtil.warn("Could not check for FULLTEXT index, using LIKE search: {}", e.getMessage());
+                present = false;
+            }
+            fullTextIndexPresent = present;
+            if (!present) {
+                LoggerUtil.info("No FULLTEXT index on expense.description; searches use LIKE");
+            }
+        }
+        return present;
+    }
+
+    /**
+     * Turn free text into a boolean-mode query requiring every word as a
+     * prefix ("+coff* +team*"). Returns null when the text has no words or a
+     * word is shorter than the FULLTEXT minimum token length, since such words
+     * are not in the index and only the LIKE scan can find them.
+     */
+    static String toBooleanModeQuery(String keyword) {
+        if (keyword == null) {
+            return null;
+        }
+        StringBuilder query = new StringBuilder();
+        int length = keyword.length();
+        int i = 0;
+        while (i < length) {
+            while (i < length && !Character.isLetterOrDigit(keyword.charAt(i))) {
+                i++;
+            }
+            int wordStart = i;
+            while (i < length && Character.isLetterOrDigit(keyword.charAt(i))) {
+                i++;
+            }
+            if (i > wordStart) {
+                if (i - wordStart < MIN_FULLTEXT_TOKEN_LENGTH) {
+                    return null;
+                }
+                if (query.length() > 0) {
+                    query.append(' ');
+                }
+                query.append('+').append(keyword, wordStart, i).append('*');
+            }
+        }
+        return query.length() == 0 ? null : query.toString();
+    }
+
+    private List<Expense> likeSearch(String keyword, LocalDate start, LocalDate end) {
+        List<Expense> list = new ArrayList<>();
+        try (Connection con = connections.open(); PreparedStatement ps = con.prepareStatement(SEARCH_SQL)) {
+            ps.setInt(1, session.requireCurrentUserId());
+            ps.setDate(2, Date.valueOf(start));
+            ps.setDate(3, Date.valueOf(end));
+            ps.setString(4, "%" + keyword.toLowerCase() + "%");
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
                     list.add(mapRow(rs));
@@ -146,8 +546,9 @@ public class ExpenseJdbcDAO implements ExpenseDAO {
     @Override
     public List<Expense> listRecent(int limit) {
         List<Expense> list = new ArrayList<>();
-        try (Connection con = connectionManager.getConnection(); PreparedStatement ps = con.prepareStatement(LIST_RECENT_SQL)) {
-            ps.setInt(1, limit);
+        try (Connection con = connections.open(); PreparedStatement ps = con.prepareStatement(LIST_RECENT_SQL)) {
+            ps.setInt(1, session.requireCurrentUserId());
+            ps.setInt(2, limit);
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
                     list.add(mapRow(rs));
@@ -161,16 +562,74 @@ public class ExpenseJdbcDAO implements ExpenseDAO {
 
     @Override
     public long count() {
-        try (Connection con = connectionManager.getConnection(); PreparedStatement ps = con.prepareStatement(COUNT_SQL); ResultSet rs = ps.executeQuery()) {
-            if (rs.next()) {
-                return rs.getLong(1);
+        try (Connection con = connections.open(); PreparedStatement ps = con.prepareStatement(COUNT_SQL)) {
+            ps.setInt(1, session.requireCurrentUserId());
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
             }
-            return 0;
         } catch (SQLException e) {
             throw new RuntimeException("Error counting expenses", e);
         }
     }
 
+    /**
+     * Reads (and row-locks) the rollup bucket an existing expense currently
+     * contributes to, or null if the expense does not exist or belongs to
+     * another user.
+     */
+    private RollupKey lockRollupKey(Connection con, int userId, long id) throws SQLException {
+        try (PreparedStatement ps = con.prepareStatement(LOCK_FOR_ROLLUP_SQL)) {
+            ps.setLong(1, id);
+            ps.setInt(2, userId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    return new RollupKey(rs.getDate(1).toLocalDate(), rs.getInt(2), rs.getString(3), rs.getBigDecimal(4));
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Adds the given count/amount delta to a daily rollup bucket, dropping the
+     * bucket once it no longer holds any expenses.
+     */
+    private void applyRollupDelta(Connection con, int userId, LocalDate date, int categoryId, String paymentMethod, int countDelta, BigDecimal amountDelta) throws SQLException {
+        try (PreparedStatement ps = con.prepareStatement(UPSERT_ROLLUP_SQL)) {
+            ps.setInt(1, userId);
+            ps.setDate(2, Date.valueOf(date));
+            ps.setInt(3, categoryId);
+            ps.setString(4, paymentMethod);
+            ps.setInt(5, countDelta);
+            ps.setBigDecimal(6, amountDelta);
+            ps.executeUpdate();
+        }
+        if (countDelta < 0) {
+            try (PreparedStatement ps = con.prepareStatement(PRUNE_ROLLUP_SQL)) {
+                ps.setInt(1, userId);
+                ps.setDate(2, Date.valueOf(date));
+                ps.setInt(3, categoryId);
+                ps.setString(4, paymentMethod);
+                ps.executeUpdate();
+            }
+        }
+    }
+
+    record RollupBucket(LocalDate date, int categoryId, String paymentMethod) {
+
+    }
+
+    record RollupDelta(int count, BigDecimal total) {
+
+        RollupDelta plus(RollupDelta other) {
+            return new RollupDelta(count + other.count, total.add(other.total));
+        }
+    }
+
+    private record RollupKey(LocalDate date, int categoryId, String paymentMethod, BigDecimal amount) {
+
+    }
+
     private Expense mapRow(ResultSet rs) throws SQLException {
         long id = rs.getLong("id");
         int categoryId = rs.getInt("category_id");
@@ -185,6 +644,7 @@ public class ExpenseJdbcDAO implements ExpenseDAO {
         Category category = new Category(categoryId, categoryName, limit, rs.getTimestamp("c_created_at").toLocalDateTime());
         Expense e = Expense.create(category, date.toLocalDate(), amount, method, description);
         e.markPersisted(id, created.toLocalDateTime(), updated != null ? updated.toLocalDateTime() : null);
+        e.setFingerprint(rs.getString("fingerprint"));
         return e;
     }
 }
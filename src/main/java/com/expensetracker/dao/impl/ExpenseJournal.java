@@ -0,0 +1,171 @@
+package com.expensetracker.dao.impl;
+
+import com.expensetracker.model.Category;
+import com.expensetracker.model.Expense;
+import com.expensetracker.model.PaymentMethod;
+import com.expensetracker.util.LoggerUtil;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only, fsynced file of expense inserts not yet written to the
+ * database. Each record is framed as length, CRC32 and payload; a torn record
+ * at the tail (crash mid-append) is detected on replay and cut off.
+ * Not thread-safe; {@link WriteBehindExpenseDAO} serializes access.
+ */
+class ExpenseJournal implements Closeable {
+
+    private static final int HEADER_BYTES = Integer.BYTES + Long.BYTES;
+
+    private final Path file;
+    private FileChannel channel;
+
+    ExpenseJournal(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Open the journal, returning the entries it still holds in append order.
+     */
+    List<Entry> open() throws IOException {
+        Files.createDirectories(file.getParent());
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        List<Entry> entries = new ArrayList<>();
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        long position = 0;
+        long size = channel.size();
+        while (position + HEADER_BYTES <= size) {
+            header.clear();
+            channel.read(header, position);
+            header.flip();
+            int length = header.getInt();
+            long crc = header.getLong();
+            if (length <= 0 || position + HEADER_BYTES + length > size) {
+                break;
+            }
+            ByteBuffer payload = ByteBuffer.allocate(length);
+            channel.read(payload, position + HEADER_BYTES);
+            if (checksum(payload.array()) != crc) {
+                break;
+            }
+            entries.add(decode(payload.array()));
+            position += HEADER_BYTES + length;
+        }
+        if (position < size) {
+            LoggerUtil.warn("Discarding {} bytes of incomplete journal tail in {}", size - position, file);
+            channel.truncate(position);
+        }
+        channel.position(position);
+        return entries;
+    }
+
+    /**
+     * Append one entry and force it to disk before returning.
+     */
+    void append(Entry entry) throws IOException {
+        channel.write(frame(entry));
+        channel.force(false);
+    }
+
+    /**
+     * Replace the journal with exactly these entries (compaction after a
+     * flush). The new file is written beside the old one and moved over it.
+     */
+    void rewrite(Collection<Entry> entries) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            for (Entry entry : entries) {
+                out.write(frame(entry));
+            }
+            out.force(false);
+        }
+        channel.close();
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        channel.position(channel.size());
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    private static ByteBuffer frame(Entry entry) throws IOException {
+        byte[] payload = encode(entry);
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + payload.length);
+        buffer.putInt(payload.length).putLong(checksum(payload)).put(payload);
+        buffer.flip();
+        return buffer;
+    }
+
+    private static long checksum(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return crc.getValue();
+    }
+
+    private static byte[] encode(Entry entry) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            Expense expense = entry.expense();
+            out.writeLong(entry.provisionalId());
+            out.writeUTF(entry.token());
+            out.writeInt(entry.userId());
+            out.writeInt(expense.getCategory().getId());
+            out.writeUTF(expense.getCategory().getName());
+            out.writeLong(expense.getDate().toEpochDay());
+            out.writeUTF(expense.getAmount().toPlainString());
+            out.writeUTF(expense.getPaymentMethod().name());
+            out.writeBoolean(expense.getDescription() != null);
+            if (expense.getDescription() != null) {
+                out.writeUTF(expense.getDescription());
+            }
+            out.writeUTF(expense.getCreatedAt().toString());
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Entry decode(byte[] payload) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            long provisionalId = in.readLong();
+            String token = in.readUTF();
+            int userId = in.readInt();
+            Category category = new Category(in.readInt(), in.readUTF(), null, null);
+            LocalDate date = LocalDate.ofEpochDay(in.readLong());
+            BigDecimal amount = new BigDecimal(in.readUTF());
+            PaymentMethod method = PaymentMethod.valueOf(in.readUTF());
+            String description = in.readBoolean() ? in.readUTF() : null;
+            LocalDateTime createdAt = LocalDateTime.parse(in.readUTF());
+            Expense expense = Expense.create(category, date, amount, method, description);
+            expense.markPersisted(provisionalId, createdAt, null);
+            return new Entry(provisionalId, token, userId, expense);
+        }
+    }
+
+    /**
+     * A buffered insert: the expense (carrying its provisional id), the
+     * owning user and the idempotency token stored with the row.
+     */
+    record Entry(long provisionalId, String token, int userId, Expense expense) {
+
+    }
+}
@@ -0,0 +1,79 @@
+package com.expensetracker.dao.impl;
+
+import com.expensetracker.dao.ExpensePartitionDAO;
+import com.expensetracker.util.DBConnectionManager;
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+public class ExpensePartitionJdbcDAO implements ExpensePartitionDAO {
+
+    private final DBConnectionManager connectionManager = DBConnectionManager.getInstance();
+
+    private static final String PARTITIONS_SQL = "SELECT partition_name, partition_description FROM information_schema.partitions WHERE table_schema = DATABASE() AND table_name = 'expense' AND partition_name IS NOT NULL ORDER BY partition_ordinal_position";
+    private static final String MAXVALUE = "MAXVALUE";
+    // Partition names end up in DDL, where they cannot be bound as parameters
+    private static final Pattern PARTITION_NAME = Pattern.compile("p[0-9]{4,6}");
+
+    @Override
+    public List<LocalDate> findPartitionBounds() {
+        List<LocalDate> bounds = new ArrayList<>();
+        for (Partition partition : findPartitions()) {
+            if (!partition.isCatchAll()) {
+                bounds.add(parseBound(partition.description()));
+            }
+        }
+        return bounds;
+    }
+
+    @Override
+    public void addPartition(String name, LocalDate upperBound) {
+        if (!PARTITION_NAME.matcher(name).matches()) {
+            throw new IllegalArgumentException("Invalid partition name: " + name);
+        }
+        String catchAll = null;
+        for (Partition partition : findPartitions()) {
+            if (partition.isCatchAll()) {
+                catchAll = partition.name();
+            }
+        }
+        String definition = "PARTITION " + name + " VALUES LESS THAN ('" + upperBound + "')";
+        String sql = catchAll == null
+                ? "ALTER TABLE expense ADD PARTITION (" + definition + ")"
+                : "ALTER TABLE expense REORGANIZE PARTITION " + catchAll + " INTO (" + definition
+                        + ", PARTITION " + catchAll + " VALUES LESS THAN (MAXVALUE))";
+        try (Connection con = connectionManager.getConnection(); Statement st = con.createStatement()) {
+            st.executeUpdate(sql);
+        } catch (SQLException e) {
+            throw new RuntimeException("Error adding expense partition " + name, e);
+        }
+    }
+
+    private List<Partition> findPartitions() {
+        List<Partition> partitions = new ArrayList<>();
+        try (Connection con = connectionManager.getConnection(); PreparedStatement ps = con.prepareStatement(PARTITIONS_SQL); ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                partitions.add(new Partition(rs.getString(1), rs.getString(2)));
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error listing expense partitions", e);
+        }
+        return partitions;
+    }
+
+    /**
+     * RANGE COLUMNS bounds are reported as quoted literals, e.g. {@code '2025-01-01'}.
+     */
+    static LocalDate parseBound(String description) {
+        return LocalDate.parse(description.replace("'", "").trim());
+    }
+
+    private record Partition(String name, String description) {
+
+        boolean isCatchAll() {
+            return MAXVALUE.equals(description);
+        }
+    }
+}
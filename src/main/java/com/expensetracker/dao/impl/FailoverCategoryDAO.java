@@ -0,0 +1,81 @@
+package com.expensetracker.dao.impl;
+
+import com.expensetracker.dao.CategoryDAO;
+import com.expensetracker.model.Category;
+import com.expensetracker.offline.ConnectivityState;
+import com.expensetracker.offline.OfflineStore;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * CategoryDAO counterpart of {@link FailoverExpenseDAO}: database while
+ * reachable, {@link OfflineStore} after a connection failure.
+ */
+public class FailoverCategoryDAO implements CategoryDAO {
+
+    private final CategoryDAO online;
+    private final OfflineStore store;
+    private final ConnectivityState connectivity;
+
+    public FailoverCategoryDAO(CategoryDAO online, OfflineStore store, ConnectivityState connectivity) {
+        this.online = online;
+        this.store = store;
+        this.connectivity = connectivity;
+    }
+
+    @Override
+    public Category insert(Category category) {
+        return connectivity.route(() -> {
+            Category saved = online.insert(category);
+            connectivity.afterCommit(() -> store.mirrorCategory(saved));
+            return saved;
+        }, () -> store.addCategory(category));
+    }
+
+    @Override
+    public boolean update(Category category) {
+        return connectivity.route(() -> {
+            boolean updated = online.update(category);
+            if (updated) {
+                connectivity.afterCommit(() -> store.mirrorCategory(category));
+            }
+            return updated;
+        }, () -> store.updateCategory(category));
+    }
+
+    @Override
+    public boolean delete(int id) {
+        return connectivity.route(() -> {
+            boolean deleted = online.delete(id);
+            if (deleted) {
+                connectivity.afterCommit(() -> store.mirrorCategoryDeleted(id));
+            }
+            return deleted;
+        }, () -> store.deleteCategory(id));
+    }
+
+    @Override
+    public Optional<Category> findById(int id) {
+        return connectivity.route(() -> online.findById(id), () -> store.category(id));
+    }
+
+    @Override
+    public Optional<Category> lockById(int id) {
+        return connectivity.route(() -> online.lockById(id), () -> store.category(id));
+    }
+
+    @Override
+    public Optional<Category> findByName(String name) {
+        return connectivity.route(() -> online.findByName(name), () -> store.categoryByName(name));
+    }
+
+    @Override
+    public List<Category> findAll() {
+        return connectivity.route(online::findAll, store::categories);
+    }
+
+    @Override
+    public long count() {
+        return connectivity.route(online::count, () -> (long) store.categories().size());
+    }
+}
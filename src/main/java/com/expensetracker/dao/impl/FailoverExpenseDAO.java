@@ -0,0 +1,173 @@
+package com.expensetracker.dao.impl;
+
+import com.expensetracker.dao.ExpenseDAO;
+import com.expensetracker.model.Expense;
+import com.expensetracker.offline.ConnectivityState;
+import com.expensetracker.offline.OfflineStore;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * ExpenseDAO that goes to the database while it is reachable and to the
+ * {@link OfflineStore} once a call fails with a connection error (the failed
+ * call is retried offline, except inside a unit of work). Successful online
+ * writes are mirrored into the store once they commit, so it stays current.
+ * Bulk operations (imports, archival) need the database and fail while
+ * offline.
+ */
+public class FailoverExpenseDAO implements ExpenseDAO {
+
+    private final ExpenseDAO online;
+    private final OfflineStore store;
+    private final ConnectivityState connectivity;
+
+    public FailoverExpenseDAO(ExpenseDAO online, OfflineStore store, ConnectivityState connectivity) {
+        this.online = online;
+        this.store = store;
+        this.connectivity = connectivity;
+    }
+
+    /**
+     * The online insert and its offline retry share one idempotency token:
+     * if the connection drops after the insert committed, the sync finds the
+     * row by its token instead of adding the expense a second time.
+     */
+    @Override
+    public Expense insert(Expense expense) {
+        String token = OfflineStore.newToken();
+        return connectivity.route(() -> {
+            Expense saved = online.insertOnce(expense, token);
+            connectivity.afterCommit(() -> store.mirrorExpense(saved));
+            return saved;
+        }, () -> store.addExpense(expense, token));
+    }
+
+    @Override
+    public int insertBatch(List<Expense> expenses) {
+        return onlineOnly(() -> online.insertBatch(expenses));
+    }
+
+    @Override
+    public int upsertBatch(List<Expense> expenses, List<String> fingerprints) {
+        return onlineOnly(() -> online.upsertBatch(expenses, fingerprints));
+    }
+
+    @Override
+    public Set<String> findFingerprints(LocalDate start, LocalDate end) {
+        return onlineOnly(() -> online.findFingerprints(start, end));
+    }
+
+    @Override
+    public Map<String, Long> findIdsByFingerprint(List<String> fingerprints) {
+        return onlineOnly(() -> online.findIdsByFingerprint(fingerprints));
+    }
+
+    @Override
+    public int purgeArchived(List<Expense> archived) {
+        return onlineOnly(() -> online.purgeArchived(archived));
+    }
+
+    @Override
+    public boolean update(Expense expense) {
+        return connectivity.route(() -> {
+            boolean updated = online.update(expense);
+            if (updated) {
+                connectivity.afterCommit(() -> store.mirrorExpense(expense));
+            }
+            return updated;
+        }, () -> store.updateExpense(expense));
+    }
+
+    @Override
+    public boolean delete(long id) {
+        return connectivity.route(() -> {
+            boolean deleted = online.delete(id);
+            if (deleted) {
+                connectivity.afterCommit(() -> store.mirrorExpenseDeleted(id));
+            }
+            return deleted;
+        }, () -> store.deleteExpense(id));
+    }
+
+    @Override
+    public Optional<Expense> findById(long id) {
+        return connectivity.route(() -> online.findById(id), () -> store.expense(id));
+    }
+
+    @Override
+    public List<Expense> findByDateRange(LocalDate start, LocalDate end) {
+        return connectivity.route(() -> online.findByDateRange(start, end), () -> store.expenses(start, end, e -> true));
+    }
+
+    /**
+     * Falls back to the store only if the database failed before delivering
+     * any row; a stream broken halfway fails rather than repeating rows.
+     */
+    @Override
+    public void forEachInDateRange(LocalDate start, LocalDate end, Consumer<Expense> consumer) {
+        long[] delivered = {0};
+        connectivity.route(() -> {
+            online.forEachInDateRange(start, end, expense -> {
+                delivered[0]++;
+                consumer.accept(expense);
+            });
+            return null;
+        }, () -> {
+            if (delivered[0] > 0) {
+                throw new RuntimeException("Database connection lost while reading expenses");
+            }
+            store.expenses(start, end, e -> true).forEach(consumer);
+            return null;
+        });
+    }
+
+    @Override
+    public List<Expense> findByCategory(int categoryId, LocalDate start, LocalDate end) {
+        return connectivity.route(() -> online.findByCategory(categoryId, start, end),
+                () -> store.expenses(start, end, e -> e.getCategory().getId() == categoryId));
+    }
+
+    /**
+     * Offline, only the snapshot's months can be checked; the delete is
+     * checked again against the server when it is synced.
+     */
+    @Override
+    public boolean existsInCategory(int categoryId) {
+        return connectivity.route(() -> online.existsInCategory(categoryId),
+                () -> !store.expenses(LocalDate.MIN, LocalDate.MAX, e -> e.getCategory().getId() == categoryId).isEmpty());
+    }
+
+    @Override
+    public List<Expense> search(String keyword, LocalDate start, LocalDate end) {
+        String needle = keyword.toLowerCase(Locale.ROOT);
+        return connectivity.route(() -> online.search(keyword, start, end), () -> store.expenses(start, end,
+                e -> e.getDescription() != null && e.getDescription().toLowerCase(Locale.ROOT).contains(needle)));
+    }
+
+    @Override
+    public List<Expense> listRecent(int limit) {
+        return connectivity.route(() -> online.listRecent(limit), () -> store.recentExpenses(limit));
+    }
+
+    @Override
+    public long count() {
+        return connectivity.route(online::count, store::expenseCount);
+    }
+
+    private <T> T onlineOnly(Supplier<T> onlineCall) {
+        try {
+            return onlineCall.get();
+        } catch (RuntimeException e) {
+            if (ConnectivityState.isConnectionFailure(e)) {
+                connectivity.wentOffline(e);
+            }
+            throw e;
+        }
+    }
+}
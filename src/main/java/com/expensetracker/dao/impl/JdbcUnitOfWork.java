@@ -0,0 +1,20 @@
+package com.expensetracker.dao.impl;
+
+import com.expensetracker.dao.UnitOfWork;
+import com.expensetracker.util.DBConnectionManager;
+import com.expensetracker.util.TransactionScope;
+import java.util.function.Supplier;
+
+/**
+ * Unit of work for the JDBC DAOs: one database transaction on a connection
+ * bound to the calling thread.
+ */
+public class JdbcUnitOfWork implements UnitOfWork {
+
+    private final TransactionScope transactions = DBConnectionManager.getInstance().getTransactionScope();
+
+    @Override
+    public <T> T execute(Supplier<T> work) {
+        return transactions.execute(work);
+    }
+}
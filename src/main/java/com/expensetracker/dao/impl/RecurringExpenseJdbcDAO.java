@@ -0,0 +1,225 @@
+package com.expensetracker.dao.impl;
+
+import com.expensetracker.dao.RecurringExpenseDAO;
+import com.expensetracker.model.Category;
+import com.expensetracker.model.PaymentMethod;
+import com.expensetracker.model.RecurrenceFrequency;
+import com.expensetracker.model.RecurringExpenseTemplate;
+import com.expensetracker.util.DBConnectionManager;
+import com.expensetracker.util.SessionContext;
+import java.math.BigDecimal;
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class RecurringExpenseJdbcDAO implements RecurringExpenseDAO {
+
+    private final DBConnectionManager connectionManager = DBConnectionManager.getInstance();
+    private final SessionContext session = SessionContext.getInstance();
+
+    private static final String COLUMNS = "t.id, t.user_id, t.category_id, t.amount, t.payment_method, t.description, t.frequency, t.next_occurrence, t.anchor_day, t.active, c.name, c.monthly_budget_limit, c.created_at AS c_created_at FROM recurring_expense_template t JOIN category c ON t.category_id = c.id";
+    private static final String INSERT_SQL = "INSERT INTO recurring_expense_template(category_id, amount, payment_method, description, frequency, next_occurrence, active, anchor_day, user_id) VALUES(?,?,?,?,?,?,?,?,?)";
+    private static final String UPDATE_SQL = "UPDATE recurring_expense_template SET category_id=?, amount=?, payment_method=?, description=?, frequency=?, next_occurrence=?, active=?, anchor_day=? WHERE id=? AND user_id=?";
+    private static final String DELETE_SQL = "DELETE FROM recurring_expense_template WHERE id=? AND user_id=?";
+    private static final String FIND_ALL_SQL = "SELECT " + COLUMNS + " WHERE t.user_id = ? ORDER BY t.next_occurrence";
+    private static final String FIND_DUE_SQL = "SELECT " + COLUMNS + " WHERE t.active = TRUE AND t.next_occurrence <= ? AND t.user_id = ? ORDER BY t.id";
+    // All users' due templates, served by idx_recurring_due(active, next_occurrence)
+    private static final String FIND_ALL_DUE_SQL = "SELECT " + COLUMNS + " WHERE t.active = TRUE AND t.next_occurrence <= ? ORDER BY t.id";
+    private static final String INSERT_EXPENSE_SQL = "INSERT INTO expense(user_id, category_id, expense_date, amount, payment_method, description) VALUES(?,?,?,?,?,?)";
+    private static final String ADVANCE_SQL = "UPDATE recurring_expense_template SET next_occurrence=? WHERE id=?";
+
+    @Override
+    public RecurringExpenseTemplate insert(RecurringExpenseTemplate template) {
+        try (Connection con = connectionManager.getConnection(); PreparedStatement ps = con.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+            bindTemplate(ps, template);
+            ps.setInt(9, session.requireCurrentUserId());
+            ps.executeUpdate();
+            try (ResultSet rs = ps.getGeneratedKeys()) {
+                if (rs.next()) {
+                    template.setId(rs.getInt(1));
+                }
+            }
+            return template;
+        } catch (SQLException e) {
+            throw new RuntimeException("Error inserting recurring expense template", e);
+        }
+    }
+
+    @Override
+    public boolean update(RecurringExpenseTemplate template) {
+        try (Connection con = connectionManager.getConnection(); PreparedStatement ps = con.prepareStatement(UPDATE_SQL)) {
+            bindTemplate(ps, template);
+            ps.setInt(9, template.getId());
+            ps.setInt(10, session.requireCurrentUserId());
+            return ps.executeUpdate() == 1;
+        } catch (SQLException e) {
+            throw new RuntimeException("Error updating recurring expense template", e);
+        }
+    }
+
+    @Override
+    public boolean delete(int id) {
+        try (Connection con = connectionManager.getConnection(); PreparedStatement ps = con.prepareStatement(DELETE_SQL)) {
+            ps.setInt(1, id);
+            ps.setInt(2, session.requireCurrentUserId());
+            return ps.executeUpdate() == 1;
+        } catch (SQLException e) {
+            throw new RuntimeException("Error deleting recurring expense template", e);
+        }
+    }
+
+    @Override
+    public List<RecurringExpenseTemplate> findAll() {
+        List<RecurringExpenseTemplate> list = new ArrayList<>();
+        try (Connection con = connectionManager.getConnection(); PreparedStatement ps = con.prepareStatement(FIND_ALL_SQL)) {
+            ps.setInt(1, session.requireCurrentUserId());
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    list.add(mapRow(rs));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error listing recurring expense templates", e);
+        }
+        return list;
+    }
+
+    @Override
+    public List<RecurringExpenseTemplate> findDue(LocalDate asOf) {
+        try (Connection con = connectionManager.getConnection(); PreparedStatement ps = con.prepareStatement(FIND_DUE_SQL)) {
+            ps.setInt(2, session.requireCurrentUserId());
+            List<RecurringExpenseTemplate> list = new ArrayList<>();
+            for (DueTemplate due : queryDue(ps, asOf)) {
+                list.add(due.template());
+            }
+            return list;
+        } catch (SQLException e) {
+            throw new RuntimeException("Error finding due recurring expense templates", e);
+        }
+    }
+
+    @Override
+    public int materializeDue(LocalDate asOf, int maxPerTemplate) {
+        try (Connection con = connectionManager.getConnection()) {
+            con.setAutoCommit(false);
+            try {
+                // Lock due templates so concurrent runs cannot materialize the same occurrence twice
+                List<DueTemplate> due;
+                try (PreparedStatement ps = con.prepareStatement(FIND_ALL_DUE_SQL + " FOR UPDATE")) {
+                    due = queryDue(ps, asOf);
+                }
+                if (due.isEmpty()) {
+                    con.commit();
+                    return 0;
+                }
+
+                int created = 0;
+                Map<RollupBucket, RollupDelta> rollupDeltas = new HashMap<>();
+                try (PreparedStatement insert = con.prepareStatement(INSERT_EXPENSE_SQL);
+                        PreparedStatement advance = con.prepareStatement(ADVANCE_SQL)) {
+                    for (DueTemplate d : due) {
+                        RecurringExpenseTemplate t = d.template();
+                        List<LocalDate> occurrences = t.dueOccurrences(asOf, maxPerTemplate);
+                        LocalDate next = t.getNextOccurrence();
+                        for (LocalDate date : occurrences) {
+                            insert.setInt(1, d.userId());
+                            insert.setInt(2, t.getCategory().getId());
+                            insert.setDate(3, Date.valueOf(date));
+                            insert.setBigDecimal(4, t.getAmount());
+                            insert.setString(5, t.getPaymentMethod().name());
+                            insert.setString(6, t.getDescription());
+                            insert.addBatch();
+                            rollupDeltas.merge(new RollupBucket(d.userId(), date, t.getCategory().getId(), t.getPaymentMethod().name()),
+                                    new RollupDelta(1, t.getAmount()), RollupDelta::plus);
+                            next = t.nextAfter(date);
+                            created++;
+                        }
+                        advance.setDate(1, Date.valueOf(next));
+                        advance.setInt(2, t.getId());
+                        advance.addBatch();
+                        t.setNextOccurrence(next);
+                    }
+                    insert.executeBatch();
+                    advance.executeBatch();
+                }
+
+                try (PreparedStatement rollup = con.prepareStatement(ExpenseJdbcDAO.UPSERT_ROLLUP_SQL)) {
+                    for (Map.Entry<RollupBucket, RollupDelta> entry : rollupDeltas.entrySet()) {
+                        RollupBucket bucket = entry.getKey();
+                        rollup.setInt(1, bucket.userId());
+                        rollup.setDate(2, Date.valueOf(bucket.date()));
+                        rollup.setInt(3, bucket.categoryId());
+                        rollup.setString(4, bucket.paymentMethod());
+                        rollup.setInt(5, entry.getValue().count());
+                        rollup.setBigDecimal(6, entry.getValue().total());
+                        rollup.addBatch();
+                    }
+                    rollup.executeBatch();
+                }
+
+                con.commit();
+                return created;
+            } catch (SQLException | RuntimeException e) {
+                con.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error materializing recurring expenses", e);
+        }
+    }
+
+    private List<DueTemplate> queryDue(PreparedStatement ps, LocalDate asOf) throws SQLException {
+        List<DueTemplate> list = new ArrayList<>();
+        ps.setDate(1, Date.valueOf(asOf));
+        try (ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                list.add(new DueTemplate(mapRow(rs), rs.getInt("user_id")));
+            }
+        }
+        return list;
+    }
+
+    private void bindTemplate(PreparedStatement ps, RecurringExpenseTemplate template) throws SQLException {
+        ps.setInt(1, template.getCategory().getId());
+        ps.setBigDecimal(2, template.getAmount());
+        ps.setString(3, template.getPaymentMethod().name());
+        ps.setString(4, template.getDescription());
+        ps.setString(5, template.getFrequency().name());
+        ps.setDate(6, Date.valueOf(template.getNextOccurrence()));
+        ps.setBoolean(7, template.isActive());
+        ps.setInt(8, template.getAnchorDay());
+    }
+
+    private RecurringExpenseTemplate mapRow(ResultSet rs) throws SQLException {
+        Category category = new Category(rs.getInt("category_id"), rs.getString("name"),
+                rs.getBigDecimal("monthly_budget_limit"), rs.getTimestamp("c_created_at").toLocalDateTime());
+        return new RecurringExpenseTemplate(
+                rs.getInt("id"),
+                category,
+                rs.getBigDecimal("amount"),
+                PaymentMethod.valueOf(rs.getString("payment_method")),
+                rs.getString("description"),
+                RecurrenceFrequency.valueOf(rs.getString("frequency")),
+                rs.getDate("next_occurrence").toLocalDate(),
+                rs.getInt("anchor_day"),
+                rs.getBoolean("active"));
+    }
+
+    private record DueTemplate(RecurringExpenseTemplate template, int userId) {
+
+    }
+
+    private record RollupBucket(int userId, LocalDate date, int categoryId, String paymentMethod) {
+
+    }
+
+    private record RollupDelta(int count, BigDecimal total) {
+
+        RollupDelta plus(RollupDelta other) {
+            return new RollupDelta(count + other.count, total.add(other.total));
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package com.expensetracker.dao.impl;
+
+import com.expensetracker.archive.ExpenseArchive;
+import com.expensetracker.dao.CategoryDAO;
+import com.expensetracker.dao.ExpenseDAO;
+import com.expensetracker.model.Category;
+import com.expensetracker.model.Expense;
+import com.expensetracker.util.SessionContext;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * ExpenseDAO over two tiers: the live table (any ExpenseDAO) and the
+ * compressed month files of an {@link ExpenseArchive}. Range reads consult
+ * only the archive months overlapping the range and merge both tiers in date
+ * order; everything else goes to the live tier. Archived expenses are read
+ * only, so update/delete/findById do not see them.
+ */
+public class TieredExpenseDAO implements ExpenseDAO {
+
+    private final ExpenseDAO live;
+    private final CategoryDAO categoryDAO;
+    private final ExpenseArchive archive;
+    private final SessionContext session = SessionContext.getInstance();
+
+    public TieredExpenseDAO(ExpenseDAO live, CategoryDAO categoryDAO, ExpenseArchive archive) {
+        this.live = live;
+        this.categoryDAO = categoryDAO;
+        this.archive = archive;
+    }
+
+    @Override
+    public Expense insert(Expense expense) {
+        return live.insert(expense);
+    }
+
+    @Override
+    public int insertBatch(List<Expense> expenses) {
+        return live.insertBatch(expenses);
+    }
+
+    @Override
+    public int upsertBatch(List<Expense> expenses, List<String> fingerprints) {
+        return live.upsertBatch(expenses, fingerprints);
+    }
+
+    /**
+     * Archived rows contribute the fingerprint column they had in the live
+     * table, so both tiers report the same set.
+     */
+    @Override
+    public Set<String> findFingerprints(LocalDate start, LocalDate end) {
+        Set<String> fingerprints = new HashSet<>(live.findFingerprints(start, end));
+        for (Expense expense : archived(start, end, e -> e.getFingerprint() != null)) {
+            fingerprints.add(expense.getFingerprint());
+        }
+        return fingerprints;
+    }
+
+    @Override
+    public Map<String, Long> findIdsByFingerprint(List<String> fingerprints) {
+        return live.findIdsByFingerprint(fingerprints);
+    }
+
+    @Override
+    public int purgeArchived(List<Expense> archived) {
+        return live.purgeArchived(archived);
+    }
+
+    @Override
+    public boolean update(Expense expense) {
+        return live.update(expense);
+    }
+
+    @Override
+    public boolean delete(long id) {
+        return live.delete(id);
+    }
+
+    @Override
+    public Optional<Expense> findById(long id) {
+        return live.findById(id);
+    }
+
+    @Override
+    public List<Expense> findByDateRange(LocalDate start, LocalDate end) {
+        return merge(archived(start, end, e -> true), live.findByDateRange(start, end));
+    }
+
+    /**
+     * Archived rows for the range are loaded up front (cold data is read a
+     * month file at a time anyway); live rows are still streamed.
+     */
+    @Override
+    public void forEachInDateRange(LocalDate start, LocalDate end, Consumer<Expense> consumer) {
+        List<Expense> cold = archived(start, end, e -> true);
+        if (cold.isEmpty()) {
+            live.forEachInDateRange(start, end, consumer);
+            return;
+        }
+        Set<Long> coldIds = idsOf(cold);
+        int[] next = {0};
+        live.forEachInDateRange(start, end, expense -> {
+            if (coldIds.contains(expense.getId())) {
+                return;
+            }
+            while (next[0] < cold.size() && !cold.get(next[0]).getDate().isAfter(expense.getDate())) {
+                consumer.accept(cold.get(next[0]++));
+            }
+            consumer.accept(expense);
+        });
+        while (next[0] < cold.size()) {
+            consumer.accept(cold.get(next[0]++));
+        }
+    }
+
+    @Override
+    public List<Expense> findByCategory(int categoryId, LocalDate start, LocalDate end) {
+        return merge(archived(start, end, e -> e.getCategory().getId() == categoryId), live.findByCategory(categoryId, start, end));
+    }
+
+    /**
+     * Archived rows count too; without this check a category could be
+     * deleted while month files still refer to it.
+     */
+    @Override
+    public boolean existsInCategory(int categoryId) {
+        if (live.existsInCategory(categoryId)) {
+            return true;
+        }
+        int userId = session.requireCurrentUserId();
+        try {
+            for (YearMonth month : archive.months(userId)) {
+                for (Expense expense : archive.read(userId, month)) {
+                    if (expense.getCategory().getId() == categoryId) {
+                        return true;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Error reading expense archive", e);
+        }
+        return false;
+    }
+
+    /**
+     * Archived descriptions are matched as a case-insensitive substring, like
+     * the live tier's LIKE fallback.
+     */
+    @Override
+    public List<Expense> search(String keyword, LocalDate start, LocalDate end) {
+        String needle = keyword.toLowerCase(Locale.ROOT);
+        return merge(archived(start, end, e -> e.getDescription() != null && e.getDescription().toLowerCase(Locale.ROOT).contains(needle)),
+                live.search(keyword, start, end));
+    }
+
+    @Override
+    public List<Expense> listRecent(int limit) {
+        return live.listRecent(limit);
+    }
+
+    /**
+     * Live rows only; counting the archive would mean decompressing it.
+     */
+    @Override
+    public long count() {
+        return live.count();
+    }
+
+    /**
+     * Archived expenses in the range that match the filter, in date order,
+     * with categories refreshed from the live category table where they
+     * still exist.
+     */
+    private List<Expense> archived(LocalDate start, LocalDate end, Predicate<Expense> filter) {
+        int userId = session.requireCurrentUserId();
+        List<Expense> result = new ArrayList<>();
+        try {
+            YearMonth first = YearMonth.from(start);
+            YearMonth last = YearMonth.from(end);
+            Map<Integer, Category> categories = null;
+            for (YearMonth month : archive.months(userId)) {
+                if (month.isBefore(first) || month.isAfter(last)) {
+                    continue;
+                }
+                if (categories == null) {
+                    categories = new HashMap<>();
+                    for (Category category : categoryDAO.findAll()) {
+                        categories.put(category.getId(), category);
+                    }
+                }
+                for (Expense expense : archive.read(userId, month)) {
+                    if (!expense.getDate().isBefore(start) && !expense.getDate().isAfter(end) && filter.test(expense)) {
+                        Category current = categories.get(expense.getCategory().getId());
+                        if (current != null) {
+                            expense.setCategory(current);
+                        }
+                        result.add(expense);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Error reading expense archive", e);
+        }
+        return result;
+    }
+
+    /**
+     * Merge two date-ordered lists. A row present in both tiers (archival
+     * interrupted before the purge) is taken from the archive.
+     */
+    static List<Expense> merge(List<Expense> cold, List<Expense> hot) {
+        if (cold.isEmpty()) {
+            return hot;
+        }
+        Set<Long> coldIds = idsOf(cold);
+        List<Expense> merged = new ArrayList<>(cold.size() + hot.size());
+        int c = 0;
+        for (Expense expense : hot) {
+            if (coldIds.contains(expense.getId())) {
+                continue;
+            }
+            while (c < cold.size() && !cold.get(c).getDate().isAfter(expense.getDate())) {
+                merged.add(cold.get(c++));
+            }
+            merged.add(expense);
+        }
+        merged.addAll(cold.subList(c, cold.size()));
+        return merged;
+    }
+
+    private static Set<Long> idsOf(List<Expense> expenses) {
+        Set<Long> ids = new HashSet<>();
+        for (Expense expense : expenses) {
+            ids.add(expense.getId());
+        }
+        return ids;
+    }
+}
@@ -13,7 +13,9 @@ public class UserAccountJdbcDAO implements UserAccountDAO {
     private final DBConnectionManager cm = DBConnectionManager.getInstance();
 
     private static final String INSERT_SQL = "INSERT INTO user_account(username, password_hash, salt, role) VALUES(?,?,?,?)";
-    private static final String FIND_SQL = "SELECT id, username, password_hash, salt, role, active, created_at FROM user_account WHERE LOWER(username)=LOWER(?)";
+    // username_key is the stored LOWER(username) with its own unique index; LOWER(username)=LOWER(?) scanned the table
+    private static final String FIND_SQL = "SELECT id, username, password_hash, salt, role, active, created_at FROM user_account WHERE username_key=LOWER(?)";
+    private static final String UPDATE_HASH_SQL = "UPDATE user_account SET password_hash=?, salt=? WHERE id=?";
 
     @Override
     public UserAccount insert(UserAccount user) {
@@ -55,4 +57,16 @@ public class UserAccountJdbcDAO implements UserAccountDAO {
             throw new RuntimeException("Error finding user by username", e);
         }
     }
+
+    @Override
+    public boolean updatePasswordHash(int userId, String passwordHash, String salt) {
+        try (Connection con = cm.getConnection(); PreparedStatement ps = con.prepareStatement(UPDATE_HASH_SQL)) {
+            ps.setString(1, passwordHash);
+            ps.setString(2, salt);
+            ps.setInt(3, userId);
+            return ps.executeUpdate() == 1;
+        } catch (SQLException e) {
+            throw new RuntimeException("Error updating password hash", e);
+        }
+    }
 }
@@ -0,0 +1,442 @@
+package com.expensetracker.dao.impl;
+
+import com.expensetracker.background.BackgroundTaskManager;
+import com.expensetracker.dao.ExpenseDAO;
+import com.expensetracker.model.Expense;
+import com.expensetracker.util.LoggerUtil;
+import com.expensetracker.util.SessionContext;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Write-behind ExpenseDAO: {@link #insert} only appends the expense to a
+ * local fsynced {@link ExpenseJournal} and returns it with a provisional
+ * (negative) id; a background task writes buffered expenses to the delegate
+ * in batches. Reads merge buffered expenses into the delegate's results, so a
+ * user always sees their own writes.
+ * <p>
+ * Each buffered row carries a random token stored in the fingerprint column
+ * and inserted with {@link ExpenseDAO#upsertBatch}, so replaying the journal
+ * after a crash never duplicates rows that had already reached the database,
+ * nor adds them to the daily rollup a second time.
+ * Updates and deletes of a still-buffered expense flush first and then go to
+ * the delegate. Bulk operations bypass the buffer.
+ */
+public class WriteBehindExpenseDAO implements ExpenseDAO, Closeable {
+
+    private static final String TOKEN_PREFIX = "wb-";
+    private static final long FLUSH_INTERVAL_MILLIS = 2000;
+    private static final Comparator<Expense> BY_DATE = Comparator.comparing(Expense::getDate);
+
+    private final ExpenseDAO delegate;
+    private final ExpenseJournal journal;
+    private final int batchSize;
+    private final Consumer<Map<Long, Expense>> onFlushed;
+    private final BackgroundTaskManager taskManager;
+    private final SessionContext session = SessionContext.getInstance();
+
+    // Buffered inserts by provisional id, in insertion order (guarded by bufferLock)
+    private final Object bufferLock = new Object();
+    private final LinkedHashMap<Long, ExpenseJournal.Entry> pending = new LinkedHashMap<>();
+    private long nextProvisionalId = -1;
+
+    // Readers hold the read lock across buffer snapshot and delegate query so
+    // a concurrent flush cannot make a row show up in both
+    private final ReentrantReadWriteLock flushLock = new ReentrantReadWriteLock();
+    private final Map<Long, Long> persistedIds = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushQueued = new AtomicBoolean();
+    private ScheduledFuture<?> flushTask;
+
+    /**
+     * Opens the journal and takes over any expenses a previous run left in
+     * it; they are written on the first flush made while their user is
+     * signed in.
+     *
+     * @param onFlushed receives the written expenses by provisional id (now
+     *                  carrying their database ids); may be null
+     */
+    public WriteBehindExpenseDAO(ExpenseDAO delegate, Path journalFile, int batchSize, Consumer<Map<Long, Expense>> onFlushed) {
+        this.delegate = delegate;
+        this.journal = new ExpenseJournal(journalFile);
+        this.batchSize = batchSize;
+        this.onFlushed = onFlushed;
+        this.taskManager = BackgroundTaskManager.getInstance();
+        try {
+            for (ExpenseJournal.Entry entry : journal.open()) {
+                pending.put(entry.provisionalId(), entry);
+                nextProvisionalId = Math.min(nextProvisionalId, entry.provisionalId() - 1);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Error opening expense journal " + journalFile, e);
+        }
+        if (!pending.isEmpty()) {
+            LoggerUtil.info("Recovered {} journaled expenses awaiting write", pending.size());
+        }
+    }
+
+    /**
+     * Start flushing every {@value #FLUSH_INTERVAL_MILLIS} ms (and whenever
+     * a full batch is buffered).
+     */
+    public void start() {
+        flushTask = taskManager.scheduleAtFixedRate(this::flushInBackground, FLUSH_INTERVAL_MILLIS, FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Expense insert(Expense expense) {
+        int userId = session.requireCurrentUserId();
+        Expense buffered = Expense.create(expense.getCategory(), expense.getDate(), expense.getAmount(), expense.getPaymentMethod(), expense.getDescription());
+        int buffersize;
+        synchronized (bufferLock) {
+            long id = nextProvisionalId--;
+            buffered.markPersisted(id, expense.getCreatedAt(), null);
+            ExpenseJournal.Entry entry = new ExpenseJournal.Entry(id, TOKEN_PREFIX + UUID.randomUUID(), userId, buffered);
+            try {
+                journal.append(entry);
+            } catch (IOException e) {
+                throw new RuntimeException("Error journaling expense", e);
+            }
+            pending.put(id, entry);
+            buffersize = pending.size();
+        }
+        if (buffersize >= batchSize && flushQueued.compareAndSet(false, true)) {
+            taskManager.execute(() -> {
+                flushQueued.set(false);
+                flushInBackground();
+            });
+        }
+        return buffered;
+    }
+
+    /**
+     * Write the signed-in user's buffered expenses to the delegate now.
+     *
+     * @return number of expenses written
+     */
+    public int flush() {
+        if (!session.isAuthenticated()) {
+            return 0;
+        }
+        int userId = session.requireCurrentUserId();
+        Map<Long, Expense> persisted = new LinkedHashMap<>();
+        flushLock.writeLock().lock();
+        try {
+            List<ExpenseJournal.Entry> batch;
+            while (!(batch = nextBatch(userId)).isEmpty()) {
+                List<Expense> expenses = new ArrayList<>(batch.size());
+                List<String> tokens = new ArrayList<>(batch.size());
+                for (ExpenseJournal.Entry entry : batch) {
+                    expenses.add(entry.expense());
+                    tokens.add(entry.token());
+                }
+                delegate.upsertBatch(expenses, tokens);
+                Map<String, Long> ids = delegate.findIdsByFingerprint(tokens);
+
+                synchronized (bufferLock) {
+                    for (ExpenseJournal.Entry entry : batch) {
+                        Long id = ids.get(entry.token());
+                        if (id == null) {
+                            throw new RuntimeException("Flushed expense not found for token " + entry.token());
+                        }
+                        entry.expense().markPersisted(id, null, null);
+                        persistedIds.put(entry.provisionalId(), id);
+                        pending.remove(entry.provisionalId());
+                        persisted.put(entry.provisionalId(), entry.expense());
+                    }
+                    try {
+                        journal.rewrite(pending.values());
+                    } catch (IOException e) {
+                        // Rows stay in the old journal; replaying them later is harmless
+                        throw new RuntimeException("Error compacting expense journal", e);
+                    }
+                }
+            }
+        } finally {
+            flushLock.writeLock().unlock();
+            if (!persisted.isEmpty() && onFlushed != null) {
+                onFlushed.accept(persisted);
+            }
+        }
+        return persisted.size();
+    }
+
+    /**
+     * Number of buffered expenses (all users) not yet written.
+     */
+    public int pendingCount() {
+        synchronized (bufferLock) {
+            return pending.size();
+        }
+    }
+
+    /**
+     * Stop the flush task, flush the signed-in user's expenses and close the
+     * journal. Anything left stays journaled for the next run.
+     */
+    @Override
+    public void close() {
+        if (flushTask != null) {
+            flushTask.cancel(false);
+        }
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            LoggerUtil.warn("Final write-behind flush failed, {} expenses stay journaled: {}", pendingCount(), e.getMessage());
+        }
+        synchronized (bufferLock) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                LoggerUtil.warn("Error closing expense journal: {}", e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public int insertBatch(List<Expense> expenses) {
+        return delegate.insertBatch(expenses);
+    }
+
+    /**
+     * Journaled like any insert: the journal entry carries its own token,
+     * so the later flush is idempotent already.
+     */
+    @Override
+    public Expense insertOnce(Expense expense, String token) {
+        return insert(expense);
+    }
+
+    @Override
+    public int upsertBatch(List<Expense> expenses, List<String> fingerprints) {
+        return delegate.upsertBatch(expenses, fingerprints);
+    }
+
+    @Override
+    public Set<String> findFingerprints(LocalDate start, LocalDate end) {
+        return delegate.findFingerprints(start, end);
+    }
+
+    @Override
+    public Map<String, Long> findIdsByFingerprint(List<String> fingerprints) {
+        return delegate.findIdsByFingerprint(fingerprints);
+    }
+
+    @Override
+    public int purgeArchived(List<Expense> archived) {
+        return delegate.purgeArchived(archived);
+    }
+
+    @Override
+    public boolean update(Expense expense) {
+        if (expense.getId() != null && expense.getId() < 0) {
+            expense.markPersisted(resolveId(expense.getId()), null, expense.getUpdatedAt());
+        }
+        return delegate.update(expense);
+    }
+
+    @Override
+    public boolean delete(long id) {
+        return delegate.delete(id < 0 ? resolveId(id) : id);
+    }
+
+    @Override
+    public Optional<Expense> findById(long id) {
+        if (id >= 0) {
+            return delegate.findById(id);
+        }
+        synchronized (bufferLock) {
+            ExpenseJournal.Entry entry = pending.get(id);
+            if (entry != null) {
+                return Optional.of(entry.expense());
+            }
+        }
+        Long persisted = persistedIds.get(id);
+        return persisted == null ? Optional.empty() : delegate.findById(persisted);
+    }
+
+    @Override
+    public List<Expense> findByDateRange(LocalDate start, LocalDate end) {
+        flushLock.readLock().lock();
+        try {
+            return withPending(delegate.findByDateRange(start, end), inRange(start, end));
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void forEachInDateRange(LocalDate start, LocalDate end, Consumer<Expense> consumer) {
+        flushLock.readLock().lock();
+        try {
+            List<Expense> buffered = pendingMatching(inRange(start, end));
+            int[] next = {0};
+            delegate.forEachInDateRange(start, end, expense -> {
+                while (next[0] < buffered.size() && buffered.get(next[0]).getDate().isBefore(expense.getDate())) {
+                    consumer.accept(buffered.get(next[0]++));
+                }
+                consumer.accept(expense);
+            });
+            while (next[0] < buffered.size()) {
+                consumer.accept(buffered.get(next[0]++));
+            }
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Expense> findByCategory(int categoryId, LocalDate start, LocalDate end) {
+        flushLock.readLock().lock();
+        try {
+            return withPending(delegate.findByCategory(categoryId, start, end),
+                    inRange(start, end).and(e -> e.getCategory().getId() == categoryId));
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean existsInCategory(int categoryId) {
+        flushLock.readLock().lock();
+        try {
+            return !pendingMatching(e -> e.getCategory().getId() == categoryId).isEmpty() || delegate.existsInCategory(categoryId);
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Buffered descriptions are matched as a case-insensitive substring, like
+     * the database's LIKE fallback.
+     */
+    @Override
+    public List<Expense> search(String keyword, LocalDate start, LocalDate end) {
+        String needle = keyword.toLowerCase(Locale.ROOT);
+        flushLock.readLock().lock();
+        try {
+            return withPending(delegate.search(keyword, start, end), inRange(start, end)
+                    .and(e -> e.getDescription() != null && e.getDescription().toLowerCase(Locale.ROOT).contains(needle)));
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Buffered expenses are the newest, so they come first.
+     */
+    @Override
+    public List<Expense> listRecent(int limit) {
+        flushLock.readLock().lock();
+        try {
+            List<Expense> recent = new ArrayList<>(pendingMatching(e -> true));
+            recent.sort(Comparator.comparing(Expense::getId));
+            if (recent.size() < limit) {
+                recent.addAll(delegate.listRecent(limit - recent.size()));
+            }
+            return recent.size() > limit ? recent.subList(0, limit) : recent;
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public long count() {
+        flushLock.readLock().lock();
+        try {
+            return delegate.count() + pendingMatching(e -> true).size();
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    private List<ExpenseJournal.Entry> nextBatch(int userId) {
+        List<ExpenseJournal.Entry> batch = new ArrayList<>();
+        synchronized (bufferLock) {
+            for (ExpenseJournal.Entry entry : pending.values()) {
+                if (entry.userId() == userId) {
+                    batch.add(entry);
+                    if (batch.size() == batchSize) {
+                        break;
+                    }
+                }
+            }
+        }
+        return batch;
+    }
+
+    /**
+     * The signed-in user's buffered expenses matching the filter, in date
+     * order.
+     */
+    private List<Expense> pendingMatching(Predicate<Expense> filter) {
+        int userId = session.requireCurrentUserId();
+        List<Expense> matches = new ArrayList<>();
+        synchronized (bufferLock) {
+            for (ExpenseJournal.Entry entry : pending.values()) {
+                if (entry.userId() == userId && filter.test(entry.expense())) {
+                    matches.add(entry.expense());
+                }
+            }
+        }
+        matches.sort(BY_DATE);
+        return matches;
+    }
+
+    private List<Expense> withPending(List<Expense> stored, Predicate<Expense> filter) {
+        List<Expense> buffered = pendingMatching(filter);
+        if (buffered.isEmpty()) {
+            return stored;
+        }
+        List<Expense> merged = new ArrayList<>(stored.size() + buffered.size());
+        merged.addAll(stored);
+        merged.addAll(buffered);
+        // Stable, and both parts are already in date order
+        merged.sort(BY_DATE);
+        return merged;
+    }
+
+    private static Predicate<Expense> inRange(LocalDate start, LocalDate end) {
+        return e -> !e.getDate().isBefore(start) && !e.getDate().isAfter(end);
+    }
+
+    /**
+     * Database id of a buffered expense, flushing it first if needed.
+     */
+    private long resolveId(long provisionalId) {
+        Long id = persistedIds.get(provisionalId);
+        if (id == null) {
+            flush();
+            id = persistedIds.get(provisionalId);
+        }
+        if (id == null) {
+            throw new RuntimeException("Expense " + provisionalId + " has not been written to the database");
+        }
+        return id;
+    }
+
+    private void flushInBackground() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            LoggerUtil.warn("Write-behind flush failed, {} expenses stay journaled: {}", pendingCount(), e.getMessage());
+        }
+    }
+}
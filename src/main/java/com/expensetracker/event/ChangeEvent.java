@@ -0,0 +1,51 @@
+package com.expensetracker.event;
+
+import com.expensetracker.model.Category;
+import com.expensetracker.model.Expense;
+import com.expensetracker.model.UserAccount;
+import com.expensetracker.util.SessionContext;
+
+/**
+ * A change to an expense or category accepted by the service layer and
+ * published on {@link ChangeEventBus}. Accepted is not necessarily durable:
+ * with write-behind the expense is still buffered (under a provisional
+ * negative id), and offline it is journaled locally until the next sync.
+ * Events carry the id of the user who owns the row, since async subscribers
+ * run without that user's session.
+ */
+public sealed interface ChangeEvent {
+
+    int userId();
+
+    record ExpenseCreated(int userId, Expense expense) implements ChangeEvent {
+    }
+
+    /**
+     * The expense as stored after the update; the previous values are not
+     * known to the service.
+     */
+    record ExpenseUpdated(int userId, Expense expense) implements ChangeEvent {
+    }
+
+    record ExpenseDeleted(int userId, long expenseId) implements ChangeEvent {
+    }
+
+    /**
+     * @param category the category as stored; null when deleted
+     */
+    record CategoryChanged(int userId, int categoryId, Category category, Change change) implements ChangeEvent {
+
+        public enum Change {
+            CREATED, UPDATED, DELETED
+        }
+    }
+
+    /**
+     * Owner for events raised now: the user of the current session, or 0 if
+     * nobody is signed in.
+     */
+    static int currentUserId() {
+        UserAccount user = SessionContext.getInstance().getCurrentUser();
+        return user != null && user.getId() != null ? user.getId() : 0;
+    }
+}
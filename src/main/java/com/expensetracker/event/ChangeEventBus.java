@@ -0,0 +1,238 @@
+package com.expensetracker.event;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import com.expensetracker.background.BackgroundTaskManager;
+import com.expensetracker.util.LoggerUtil;
+
+/**
+ * In-process publish/subscribe for {@link ChangeEvent}s. Publishing takes no
+ * locks: the subscriber list is an array swapped by compare-and-set, and
+ * each async subscriber has its own lock-free queue.
+ * <p>
+ * Synchronous subscribers run on the publishing thread before
+ * {@link #publish} returns (use them for state that must reflect the write
+ * immediately, like the search index). Async subscribers receive events in
+ * publish order, in batches of up to {@code maxBatch}, on the executor; at
+ * most one batch per subscriber runs at a time. A subscriber that throws is
+ * logged and keeps its subscription.
+ */
+public class ChangeEventBus {
+
+    public static final int DEFAULT_MAX_BATCH = 256;
+
+    private final Executor executor;
+    private final AtomicReference<Subscriber[]> subscribers = new AtomicReference<>(new Subscriber[0]);
+
+    public ChangeEventBus() {
+        this(task -> BackgroundTaskManager.getInstance().execute(task));
+    }
+
+    /**
+     * @param executor runs async subscribers' batches
+     */
+    public ChangeEventBus(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Subscription handle; closing it stops delivery (an async batch already
+     * running completes).
+     */
+    public interface Subscription extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+
+    /**
+     * Statistics for one subscriber. {@code pending} events are published but
+     * not yet handed to it; lag is the time the oldest event of a batch
+     * waited before delivery.
+     */
+    public record SubscriberStats(String name, boolean async, long published, long delivered, long failed,
+            long pending, long lastLagMillis, long maxLagMillis) {
+    }
+
+    public Subscription subscribe(String name, Consumer<? super ChangeEvent> handler) {
+        return add(new SyncSubscriber(name, handler));
+    }
+
+    public Subscription subscribeAsync(String name, Consumer<? super List<ChangeEvent>> handler) {
+        return subscribeAsync(name, handler, DEFAULT_MAX_BATCH);
+    }
+
+    public Subscription subscribeAsync(String name, Consumer<? super List<ChangeEvent>> handler, int maxBatch) {
+        if (maxBatch < 1) {
+            throw new IllegalArgumentException("maxBatch must be positive");
+        }
+        return add(new AsyncSubscriber(name, handler, maxBatch));
+    }
+
+    public void publish(ChangeEvent event) {
+        for (Subscriber subscriber : subscribers.get()) {
+            subscriber.offer(event);
+        }
+    }
+
+    public List<SubscriberStats> stats() {
+        return Arrays.stream(subscribers.get()).map(Subscriber::stats).toList();
+    }
+
+    private Subscription add(Subscriber subscriber) {
+        subscribers.updateAndGet(current -> {
+            Subscriber[] next = Arrays.copyOf(current, current.length + 1);
+            next[current.length] = subscriber;
+            return next;
+        });
+        LoggerUtil.debug("Subscribed {} to change events", subscriber.name);
+        return () -> remove(subscriber);
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscriber.active = false;
+        subscribers.updateAndGet(current -> Arrays.stream(current).filter(s -> s != subscriber).toArray(Subscriber[]::new));
+    }
+
+    private abstract static class Subscriber {
+
+        final String name;
+        final LongAdder published = new LongAdder();
+        final LongAdder delivered = new LongAdder();
+        final LongAdder failed = new LongAdder();
+        final AtomicLong lastLagNanos = new AtomicLong();
+        final AtomicLong maxLagNanos = new AtomicLong();
+        volatile boolean active = true;
+
+        Subscriber(String name) {
+            this.name = name;
+        }
+
+        abstract void offer(ChangeEvent event);
+
+        abstract boolean isAsync();
+
+        void recordLag(long lagNanos) {
+            lastLagNanos.set(lagNanos);
+            maxLagNanos.accumulateAndGet(lagNanos, Math::max);
+        }
+
+        SubscriberStats stats() {
+            long deliveredCount = delivered.sum();
+            long publishedCount = published.sum();
+            return new SubscriberStats(name, isAsync(), publishedCount, deliveredCount, failed.sum(),
+                    Math.max(0, publishedCount - deliveredCount),
+                    TimeUnit.NANOSECONDS.toMillis(lastLagNanos.get()), TimeUnit.NANOSECONDS.toMillis(maxLagNanos.get()));
+        }
+    }
+
+    private static final class SyncSubscriber extends Subscriber {
+
+        private final Consumer<? super ChangeEvent> handler;
+
+        SyncSubscriber(String name, Consumer<? super ChangeEvent> handler) {
+            super(name);
+            this.handler = handler;
+        }
+
+        @Override
+        void offer(ChangeEvent event) {
+            published.increment();
+            try {
+                handler.accept(event);
+            } catch (RuntimeException e) {
+                failed.increment();
+                LoggerUtil.error("Change event subscriber " + name + " failed", e);
+            }
+            delivered.increment();
+        }
+
+        @Override
+        boolean isAsync() {
+            return false;
+        }
+    }
+
+    private final class AsyncSubscriber extends Subscriber {
+
+        private final Consumer<? super List<ChangeEvent>> handler;
+        private final int maxBatch;
+        private final ConcurrentLinkedQueue<Envelope> queue = new ConcurrentLinkedQueue<>();
+        // Set while a drain is scheduled or running
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        AsyncSubscriber(String name, Consumer<? super List<ChangeEvent>> handler, int maxBatch) {
+            super(name);
+            this.handler = handler;
+            this.maxBatch = maxBatch;
+        }
+
+        @Override
+        void offer(ChangeEvent event) {
+            published.increment();
+            queue.offer(new Envelope(event, System.nanoTime()));
+            if (draining.compareAndSet(false, true)) {
+                schedule();
+            }
+        }
+
+        private void schedule() {
+            try {
+                executor.execute(this::drain);
+            } catch (RuntimeException e) {
+                // Left queued; the next publish tries again
+                draining.set(false);
+                LoggerUtil.warn("Change event delivery to {} not scheduled: {}", name, e.getMessage());
+            }
+        }
+
+        private void drain() {
+            List<ChangeEvent> batch = new ArrayList<>();
+            while (true) {
+                Envelope first = queue.poll();
+                if (first == null) {
+                    draining.set(false);
+                    // An event offered after the poll but before the reset would otherwise wait for the next publish
+                    if (queue.isEmpty() || !draining.compareAndSet(false, true)) {
+                        return;
+                    }
+                    continue;
+                }
+                recordLag(System.nanoTime() - first.publishedAt());
+                batch.add(first.event());
+                Envelope next;
+                while (batch.size() < maxBatch && (next = queue.poll()) != null) {
+                    batch.add(next.event());
+                }
+                if (active) {
+                    try {
+                        handler.accept(List.copyOf(batch));
+                    } catch (RuntimeException e) {
+                        failed.add(batch.size());
+                        LoggerUtil.error("Change event subscriber " + name + " failed on a batch of " + batch.size(), e);
+                    }
+                }
+                delivered.add(batch.size());
+                batch.clear();
+            }
+        }
+
+        @Override
+        boolean isAsync() {
+            return true;
+        }
+    }
+
+    private record Envelope(ChangeEvent event, long publishedAt) {
+    }
+}
@@ -0,0 +1,40 @@
+package com.expensetracker.importer;
+
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.expensetracker.dao.CategoryDAO;
+import com.expensetracker.model.Category;
+
+/**
+ * Thread-safe, case-insensitive category name lookup for import workers.
+ * All categories are loaded up front; a name that is still unknown is looked
+ * up in the database once and the answer (including "not found") is cached
+ * for the rest of the import.
+ */
+public class CategoryLookup {
+
+    private final CategoryDAO categoryDAO;
+    private final ConcurrentMap<String, Optional<Category>> byName = new ConcurrentHashMap<>();
+
+    public CategoryLookup(CategoryDAO categoryDAO) {
+        this.categoryDAO = categoryDAO;
+        for (Category category : categoryDAO.findAll()) {
+            byName.put(key(category.getName()), Optional.of(category));
+        }
+    }
+
+    public Optional<Category> find(String name) {
+        if (name == null || name.isBlank()) {
+            return Optional.empty();
+        }
+        String trimmed = name.trim();
+        return byName.computeIfAbsent(key(trimmed), k -> categoryDAO.findByName(trimmed));
+    }
+
+    private static String key(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,114 @@
+package com.expensetracker.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads a UTF-8 text file line by line through a {@link FileChannel}, decoding
+ * one fixed-size chunk at a time. Multi-byte characters and lines that straddle
+ * a chunk boundary are carried over to the next chunk.
+ */
+final class ChunkedLineReader implements Closeable {
+
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+    private final FileChannel channel;
+    private final long size;
+    private final ByteBuffer bytes;
+    private final CharBuffer chars;
+    private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private final StringBuilder carry = new StringBuilder(256);
+    private long bytesRead;
+    private boolean eof;
+    private boolean firstLine = true;
+
+    ChunkedLineReader(Path file, int chunkBytes) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.size = channel.size();
+        this.bytes = ByteBuffer.allocate(chunkBytes);
+        // UTF-8 never decodes to more chars than bytes, so one chunk always fits
+        this.chars = CharBuffer.allocate(chunkBytes);
+        this.chars.flip();
+    }
+
+    /**
+     * Next line without its terminator ({@code \n} or {@code \r\n}), or null
+     * at end of file.
+     */
+    String readLine() throws IOException {
+        while (true) {
+            char[] buffer = chars.array();
+            int start = chars.position();
+            int limit = chars.limit();
+            for (int i = start; i < limit; i++) {
+                if (buffer[i] == '\n') {
+                    carry.append(buffer, start, i - start);
+                    chars.position(i + 1);
+                    return takeLine();
+                }
+            }
+            carry.append(buffer, start, limit - start);
+            chars.position(limit);
+
+            if (eof) {
+                return carry.length() > 0 ? takeLine() : null;
+            }
+            fill();
+        }
+    }
+
+    long bytesRead() {
+        return bytesRead;
+    }
+
+    long size() {
+        return size;
+    }
+
+    private void fill() throws IOException {
+        chars.clear();
+        int n = channel.read(bytes);
+        bytes.flip();
+        if (n < 0) {
+            eof = true;
+            decoder.decode(bytes, chars, true);
+            decoder.flush(chars);
+        } else {
+            bytesRead += n;
+            decoder.decode(bytes, chars, false);
+        }
+        bytes.compact();
+        chars.flip();
+    }
+
+    private String takeLine() {
+        int length = carry.length();
+        if (length > 0 && carry.charAt(length - 1) == '\r') {
+            carry.setLength(length - 1);
+        }
+        if (firstLine) {
+            firstLine = false;
+            if (carry.length() > 0 && carry.charAt(0) == BYTE_ORDER_MARK) {
+                carry.deleteCharAt(0);
+            }
+        }
+        String line = carry.toString();
+        carry.setLength(0);
+        return line;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
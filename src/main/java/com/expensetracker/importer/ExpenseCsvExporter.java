@@ -0,0 +1,59 @@
+package com.expensetracker.importer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.time.LocalDate;
+
+import com.expensetracker.dao.ExpenseDAO;
+import com.expensetracker.model.Expense;
+
+/**
+ * Writes expenses in the format {@link ExpenseImportPipeline} reads
+ * ({@code date,category,amount,payment_method,description} with a header
+ * row), so an export can be imported again elsewhere. Rows are streamed from
+ * the DAO as they are written. Line breaks in descriptions become spaces,
+ * since the importer reads one row per line.
+ */
+public class ExpenseCsvExporter {
+
+    public static final String HEADER = "date,category,amount,payment_method,description";
+
+    private final ExpenseDAO expenseDAO;
+
+    public ExpenseCsvExporter(ExpenseDAO expenseDAO) {
+        this.expenseDAO = expenseDAO;
+    }
+
+    /**
+     * @return number of expenses written
+     */
+    public long export(LocalDate start, LocalDate end, Writer out) throws IOException {
+        out.write(HEADER);
+        out.write('\n');
+        long[] count = {0};
+        try {
+            expenseDAO.forEachInDateRange(start, end, expense -> {
+                try {
+                    out.write(line(expense));
+                    out.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                count[0]++;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return count[0];
+    }
+
+    static String line(Expense expense) {
+        String description = expense.getDescription() == null ? null : expense.getDescription().replaceAll("[\r\n]+", " ");
+        return expense.getDate() + ","
+                + CsvLineParser.quote(expense.getCategory().getName()) + ","
+                + expense.getAmount().toPlainString() + ","
+                + expense.getPaymentMethod() + ","
+                + CsvLineParser.quote(description);
+    }
+}
@@ -0,0 +1,53 @@
+package com.expensetracker.importer;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+
+import com.expensetracker.model.Expense;
+
+/**
+ * Content fingerprints used to recognise rows that were already imported.
+ * The fingerprint covers date, amount, category and the whitespace- and
+ * case-normalised description; payment method is left out because
+ * statements from different sources label it inconsistently.
+ * <p>
+ * Identical rows inside one statement (two equal coffees on the same day)
+ * are told apart by their occurrence number, so re-importing the statement
+ * skips both while a first import keeps both.
+ */
+public final class ExpenseFingerprint {
+
+    private static final HexFormat HEX = HexFormat.of();
+
+    private ExpenseFingerprint() {
+    }
+
+    /**
+     * Fingerprint of the first occurrence of this content.
+     */
+    public static String of(Expense expense) {
+        String description = expense.getDescription() == null ? ""
+                : expense.getDescription().trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        return sha256(expense.getDate() + "|" + expense.getAmount().toPlainString() + "|"
+                + expense.getCategory().getId() + "|" + description);
+    }
+
+    /**
+     * Fingerprint of the n-th (0-based) occurrence of a content fingerprint.
+     */
+    public static String withOccurrence(String fingerprint, int occurrence) {
+        return occurrence == 0 ? fingerprint : sha256(fingerprint + "#" + occurrence);
+    }
+
+    private static String sha256(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HEX.formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,438 @@
+package com.expensetracker.importer;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import com.expensetracker.dao.CategoryDAO;
+import com.expensetracker.dao.ExpenseDAO;
+import com.expensetracker.model.Category;
+import com.expensetracker.model.Expense;
+import com.expensetracker.model.PaymentMethod;
+import com.expensetracker.util.LoggerUtil;
+
+/**
+ * Multi-stage CSV import:
+ * <ol>
+ * <li>the calling thread reads the file in chunks and hands out blocks of
+ * lines,</li>
+ * <li>parse workers split, validate (through {@link Expense#create}) and
+ * resolve categories through a shared {@link CategoryLookup},</li>
+ * <li>a single writer thread inserts valid rows in batches and appends bad
+ * rows to a reject file.</li>
+ * </ol>
+ * Stages are connected by bounded queues, so a slow database throttles
+ * parsing and reading instead of buffering the whole file in memory.
+ * <p>
+ * Expected columns: {@code date,category,amount[,payment_method[,description]]}
+ * with ISO dates. A leading header row, blank lines and {@code #} comment
+ * lines are skipped. Rows are not necessarily inserted in file order.
+ * <p>
+ * In de-duplication mode every row gets an {@link ExpenseFingerprint}. The
+ * fingerprints already stored for a month are loaded into memory the first
+ * time a row from that month is seen, matching rows are skipped without a
+ * query each, and the rest are written with a fingerprinted upsert so a
+ * concurrent import of the same statement cannot slip duplicates in either.
+ */
+public class ExpenseImportPipeline {
+
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+    private static final int CHUNK_BYTES = 1 << 20;
+    private static final int LINES_PER_BLOCK = 1000;
+    private static final long OFFER_TIMEOUT_MS = 100;
+
+    private static final LineBlock END_OF_LINES = new LineBlock(List.of(), new long[0]);
+    private static final ParsedBlock END_OF_PARSED = new ParsedBlock(List.of(), null, List.of());
+
+    private final ExpenseDAO expenseDAO;
+    private final CategoryLookup categoryLookup;
+    private final int workerCount;
+    private final int batchSize;
+    private final boolean deduplicate;
+
+    public ExpenseImportPipeline(ExpenseDAO expenseDAO, CategoryDAO categoryDAO) {
+        this(expenseDAO, categoryDAO, false);
+    }
+
+    /**
+     * @param deduplicate skip rows that an earlier import already stored
+     */
+    public ExpenseImportPipeline(ExpenseDAO expenseDAO, CategoryDAO categoryDAO, boolean deduplicate) {
+        this(expenseDAO, new CategoryLookup(categoryDAO),
+                Math.max(1, Runtime.getRuntime().availableProcessors() - 1), DEFAULT_BATCH_SIZE, deduplicate);
+    }
+
+    public ExpenseImportPipeline(ExpenseDAO expenseDAO, CategoryLookup categoryLookup, int workerCount, int batchSize) {
+        this(expenseDAO, categoryLookup, workerCount, batchSize, false);
+    }
+
+    public ExpenseImportPipeline(ExpenseDAO expenseDAO, CategoryLookup categoryLookup, int workerCount, int batchSize, boolean deduplicate) {
+        this.expenseDAO = expenseDAO;
+        this.categoryLookup = categoryLookup;
+        this.workerCount = workerCount;
+        this.batchSize = batchSize;
+        this.deduplicate = deduplicate;
+    }
+
+    /**
+     * Import every row of the file. Blocks until the import is complete.
+     *
+     * @param rejectFile where rejected rows are written (line number, reason,
+     * original text); only created if a row is rejected
+     * @param progressListener called on the writer thread after every batch;
+     * may be null
+     */
+    public ImportResult importFile(Path input, Path rejectFile, Consumer<ImportProgress> progressListener) throws IOException {
+        long started = System.nanoTime();
+        BlockingQueue<LineBlock> lineQueue = new ArrayBlockingQueue<>(workerCount * 2);
+        BlockingQueue<ParsedBlock> parsedQueue = new ArrayBlockingQueue<>(workerCount * 2);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        AtomicLong bytesRead = new AtomicLong();
+        long rowsRead = 0;
+
+        ExecutorService executor = Executors.newFixedThreadPool(workerCount + 1, new ThreadFactory() {
+            private int counter = 0;
+
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "ExpenseTracker-Import-" + (++counter));
+                t.setDaemon(true);
+                return t;
+            }
+        });
+
+        try (ChunkedLineReader reader = new ChunkedLineReader(input, CHUNK_BYTES)) {
+            long totalBytes = reader.size();
+            InsertStage inserter = new InsertStage(parsedQueue, rejectFile, totalBytes, bytesRead, progressListener, failure);
+            Future<?> inserterResult = executor.submit(() -> runStage(inserter::run, failure));
+            for (int i = 0; i < workerCount; i++) {
+                executor.submit(() -> runStage(() -> parseLoop(lineQueue, parsedQueue, failure), failure));
+            }
+
+            try {
+                rowsRead = readLoop(reader, lineQueue, bytesRead, failure);
+                for (int i = 0; i < workerCount; i++) {
+                    offer(lineQueue, END_OF_LINES, failure);
+                }
+                inserterResult.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failure.compareAndSet(null, e);
+            } catch (ExecutionException | CancellationException e) {
+                failure.compareAndSet(null, e);
+            }
+
+            Throwable error = failure.get();
+            if (error != null) {
+                LoggerUtil.error("Import of {} failed", input, error);
+                if (error instanceof IOException io) {
+                    throw io;
+                }
+                if (error instanceof RuntimeException re) {
+                    throw re;
+                }
+                throw new IOException("Import failed", error);
+            }
+
+            long elapsed = (System.nanoTime() - started) / 1_000_000;
+            ImportResult result = new ImportResult(rowsRead, inserter.imported, inserter.rejected, inserter.duplicates,
+                    inserter.rejected > 0 ? rejectFile : null, elapsed);
+            LoggerUtil.info("Imported {}: {}", input.getFileName(), result);
+            return result;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private long readLoop(ChunkedLineReader reader, BlockingQueue<LineBlock> lineQueue, AtomicLong bytesRead,
+            AtomicReference<Throwable> failure) throws IOException, InterruptedException {
+        long lineNumber = 0;
+        long rows = 0;
+        boolean headerChecked = false;
+        List<String> lines = new ArrayList<>(LINES_PER_BLOCK);
+        long[] lineNumbers = new long[LINES_PER_BLOCK];
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            if (!headerChecked) {
+                headerChecked = true;
+                if (line.regionMatches(true, 0, "date", 0, 4)) {
+                    continue;
+                }
+            }
+            lineNumbers[lines.size()] = lineNumber;
+            lines.add(line);
+            rows++;
+            if (lines.size() == LINES_PER_BLOCK) {
+                bytesRead.set(reader.bytesRead());
+                offer(lineQueue, new LineBlock(lines, lineNumbers), failure);
+                lines = new ArrayList<>(LINES_PER_BLOCK);
+                lineNumbers = new long[LINES_PER_BLOCK];
+            }
+        }
+        bytesRead.set(reader.bytesRead());
+        if (!lines.isEmpty()) {
+            offer(lineQueue, new LineBlock(lines, lineNumbers), failure);
+        }
+        return rows;
+    }
+
+    private void parseLoop(BlockingQueue<LineBlock> lineQueue, BlockingQueue<ParsedBlock> parsedQueue,
+            AtomicReference<Throwable> failure) throws InterruptedException {
+        while (true) {
+            LineBlock block = lineQueue.take();
+            if (block == END_OF_LINES) {
+                offer(parsedQueue, END_OF_PARSED, failure);
+                return;
+            }
+            List<Expense> valid = new ArrayList<>(block.lines().size());
+            List<String> fingerprints = deduplicate ? new ArrayList<>(block.lines().size()) : null;
+            List<String> rejects = new ArrayList<>();
+            for (int i = 0; i < block.lines().size(); i++) {
+                String line = block.lines().get(i);
+                try {
+                    Expense expense = parseRow(line);
+                    valid.add(expense);
+                    if (fingerprints != null) {
+                        fingerprints.add(ExpenseFingerprint.of(expense));
+                    }
+                } catch (IllegalArgumentException | DateTimeParseException e) {
+                    rejects.add(block.lineNumbers()[i] + "," + CsvLineParser.quote(e.getMessage()) + "," + CsvLineParser.quote(line));
+                }
+            }
+            offer(parsedQueue, new ParsedBlock(valid, fingerprints, rejects), failure);
+        }
+    }
+
+    /**
+     * Parse and validate one data row. Validation messages come from the
+     * {@link Expense} setters so imports enforce the same rules as the UI.
+     */
+    Expense parseRow(String line) {
+        List<String> fields = CsvLineParser.parse(line);
+        if (fields.size() < 3) {
+            throw new IllegalArgumentException("Expected date,category,amount[,payment_method[,description]]");
+        }
+        LocalDate date;
+        try {
+            date = LocalDate.parse(fields.get(0).trim());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date: " + fields.get(0).trim());
+        }
+        String categoryName = fields.get(1);
+        Category category = categoryLookup.find(categoryName)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown category: " + categoryName.trim()));
+        BigDecimal amount;
+        try {
+            amount = new BigDecimal(fields.get(2).trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid amount: " + fields.get(2).trim());
+        }
+        PaymentMethod method = null;
+        if (fields.size() > 3 && !fields.get(3).isBlank()) {
+            try {
+                method = PaymentMethod.valueOf(fields.get(3).trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown payment method: " + fields.get(3).trim());
+            }
+        }
+        String description = fields.size() > 4 && !fields.get(4).isBlank() ? fields.get(4).trim() : null;
+        return Expense.create(category, date, amount, method, description);
+    }
+
+    private static void runStage(StageBody body, AtomicReference<Throwable> failure) {
+        try {
+            body.run();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure.compareAndSet(null, e);
+        } catch (Exception | Error e) {
+            failure.compareAndSet(null, e);
+        }
+    }
+
+    /**
+     * Blocking put that gives up once another stage has failed, so a dead
+     * consumer cannot leave producers waiting on a full queue forever.
+     */
+    private static <T> void offer(BlockingQueue<T> queue, T item, AtomicReference<Throwable> failure) throws InterruptedException {
+        while (!queue.offer(item, OFFER_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+            if (failure.get() != null) {
+                throw new CancellationException("Import aborted");
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface StageBody {
+
+        void run() throws Exception;
+    }
+
+    private record LineBlock(List<String> lines, long[] lineNumbers) {
+
+    }
+
+    /**
+     * Valid rows, their content fingerprints (null unless de-duplicating)
+     * and formatted reject lines.
+     */
+    private record ParsedBlock(List<Expense> expenses, List<String> fingerprints, List<String> rejects) {
+
+    }
+
+    /**
+     * Final stage: batched inserts and the reject file. Runs on one thread.
+     */
+    private final class InsertStage {
+
+        private final BlockingQueue<ParsedBlock> parsedQueue;
+        private final Path rejectFile;
+        private final long totalBytes;
+        private final AtomicLong bytesRead;
+        private final Consumer<ImportProgress> progressListener;
+        private final AtomicReference<Throwable> failure;
+        // Written only by the insert thread; read after its Future completes
+        private long imported;
+        private long rejected;
+        private long duplicates;
+
+        // De-duplication state: stored fingerprints of the months seen so far,
+        // and how often each content fingerprint has occurred in this file
+        private final Set<String> storedFingerprints = new HashSet<>();
+        private final Set<YearMonth> loadedMonths = new HashSet<>();
+        private final Map<String, Integer> occurrences = new HashMap<>();
+        private final List<String> pendingFingerprints = new ArrayList<>();
+
+        InsertStage(BlockingQueue<ParsedBlock> parsedQueue, Path rejectFile, long totalBytes, AtomicLong bytesRead,
+                Consumer<ImportProgress> progressListener, AtomicReference<Throwable> failure) {
+            this.parsedQueue = parsedQueue;
+            this.rejectFile = rejectFile;
+            this.totalBytes = totalBytes;
+            this.bytesRead = bytesRead;
+            this.progressListener = progressListener;
+            this.failure = failure;
+        }
+
+        void run() throws IOException, InterruptedException {
+            List<Expense> pending = new ArrayList<>(batchSize * 2);
+            BufferedWriter rejects = null;
+            try {
+                int finishedWorkers = 0;
+                while (finishedWorkers < workerCount) {
+                    ParsedBlock block = parsedQueue.poll(OFFER_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                    if (block == null) {
+                        // A worker that died never sends its end marker
+                        if (failure.get() != null) {
+                            throw new CancellationException("Import aborted");
+                        }
+                        continue;
+                    }
+                    if (block == END_OF_PARSED) {
+                        finishedWorkers++;
+                        continue;
+                    }
+                    if (!block.rejects().isEmpty()) {
+                        if (rejects == null) {
+                            rejects = Files.newBufferedWriter(rejectFile, StandardCharsets.UTF_8);
+                            rejects.write("line,reason,row");
+                            rejects.newLine();
+                        }
+                        for (String reject : block.rejects()) {
+                            rejects.write(reject);
+                            rejects.newLine();
+                        }
+                        rejected += block.rejects().size();
+                    }
+                    if (deduplicate) {
+                        for (int i = 0; i < block.expenses().size(); i++) {
+                            addIfNew(pending, block.expenses().get(i), block.fingerprints().get(i));
+                        }
+                    } else {
+                        pending.addAll(block.expenses());
+                    }
+                    while (pending.size() >= batchSize) {
+                        flush(pending.subList(0, batchSize));
+                        reportProgress();
+                    }
+                }
+                if (!pending.isEmpty()) {
+                    flush(pending);
+                }
+                reportProgress();
+            } finally {
+                if (rejects != null) {
+                    rejects.close();
+                }
+            }
+        }
+
+        private void addIfNew(List<Expense> pending, Expense expense, String contentFingerprint) {
+            int occurrence = occurrences.merge(contentFingerprint, 1, Integer::sum) - 1;
+            String fingerprint = ExpenseFingerprint.withOccurrence(contentFingerprint, occurrence);
+            YearMonth month = YearMonth.from(expense.getDate());
+            if (loadedMonths.add(month)) {
+                storedFingerprints.addAll(expenseDAO.findFingerprints(month.atDay(1), month.atEndOfMonth()));
+            }
+            if (storedFingerprints.contains(fingerprint)) {
+                duplicates++;
+                return;
+            }
+            pending.add(expense);
+            pendingFingerprints.add(fingerprint);
+        }
+
+        /**
+         * Write the given leading slice of the pending rows and remove it.
+         */
+        private void flush(List<Expense> batch) {
+            int size = batch.size();
+            if (deduplicate) {
+                List<String> fingerprints = pendingFingerprints.subList(0, size);
+                int inserted = expenseDAO.upsertBatch(batch, fingerprints);
+                imported += inserted;
+                // Rows another writer stored since the month was loaded
+                duplicates += size - inserted;
+                fingerprints.clear();
+            } else {
+                imported += expenseDAO.insertBatch(batch);
+            }
+            batch.clear();
+        }
+
+        private void reportProgress() {
+            if (progressListener != null) {
+                progressListener.accept(new ImportProgress(bytesRead.get(), totalBytes, imported, rejected));
+            }
+        }
+    }
+}
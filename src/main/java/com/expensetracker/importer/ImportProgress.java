@@ -0,0 +1,47 @@
+package com.expensetracker.importer;
+
+/**
+ * Snapshot of a running import, published after every insert batch.
+ */
+public class ImportProgress {
+
+    private final long bytesRead;
+    private final long totalBytes;
+    private final long imported;
+    private final long rejected;
+
+    public ImportProgress(long bytesRead, long totalBytes, long imported, long rejected) {
+        this.bytesRead = bytesRead;
+        this.totalBytes = totalBytes;
+        this.imported = imported;
+        this.rejected = rejected;
+    }
+
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    /**
+     * Share of the file read so far, 0-100.
+     */
+    public int getPercentRead() {
+        return totalBytes == 0 ? 100 : (int) (bytesRead * 100 / totalBytes);
+    }
+
+    @Override
+    public String toString() {
+        return getPercentRead() + "% read, " + imported + " imported, " + rejected + " rejected";
+    }
+}
@@ -0,0 +1,65 @@
+package com.expensetracker.importer;
+
+import java.nio.file.Path;
+
+/**
+ * Outcome of an expense import.
+ */
+public class ImportResult {
+
+    private final long rowsRead;
+    private final long imported;
+    private final long rejected;
+    private final long duplicates;
+    private final Path rejectFile;
+    private final long elapsedMillis;
+
+    public ImportResult(long rowsRead, long imported, long rejected, long duplicates, Path rejectFile, long elapsedMillis) {
+        this.rowsRead = rowsRead;
+        this.imported = imported;
+        this.rejected = rejected;
+        this.duplicates = duplicates;
+        this.rejectFile = rejectFile;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /**
+     * Data rows seen, excluding the header, comments and blank lines.
+     */
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    /**
+     * Valid rows skipped because an earlier import already stored them
+     * (de-duplication mode only).
+     */
+    public long getDuplicates() {
+        return duplicates;
+    }
+
+    /**
+     * File listing every rejected row with its reason, or null if nothing
+     * was rejected.
+     */
+    public Path getRejectFile() {
+        return rejectFile;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return imported + " imported, " + rejected + " rejected, " + duplicates + " duplicates of " + rowsRead + " rows in " + elapsedMillis + " ms";
+    }
+}
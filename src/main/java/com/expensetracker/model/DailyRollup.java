@@ -0,0 +1,56 @@
+package com.expensetracker.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Pre-aggregated expense count and sum for one (date, category, payment
+ * method) bucket.
+ */
+public class DailyRollup {
+
+    private final LocalDate date;
+    private final int categoryId;
+    private final String categoryName;
+    private final PaymentMethod paymentMethod;
+    private final int count;
+    private final BigDecimal total;
+
+    public DailyRollup(LocalDate date, int categoryId, String categoryName, PaymentMethod paymentMethod, int count, BigDecimal total) {
+        this.date = date;
+        this.categoryId = categoryId;
+        this.categoryName = categoryName;
+        this.paymentMethod = paymentMethod;
+        this.count = count;
+        this.total = total;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public int getCategoryId() {
+        return categoryId;
+    }
+
+    public String getCategoryName() {
+        return categoryName;
+    }
+
+    public PaymentMethod getPaymentMethod() {
+        return paymentMethod;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public BigDecimal getTotal() {
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        return date + " - " + categoryName + "/" + paymentMethod + ": " + count + " x " + total;
+    }
+}
@@ -18,6 +18,7 @@ public class Expense {
     private String description; // optional
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private String fingerprint; // set by fingerprinted inserts (imports, write-behind, offline sync)
 
     private Expense() {
     }
@@ -115,6 +116,14 @@ public class Expense {
         this.updatedAt = updatedAt;
     }
 
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public void setFingerprint(String fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
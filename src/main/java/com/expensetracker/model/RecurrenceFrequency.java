@@ -0,0 +1,31 @@
+package com.expensetracker.model;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+/**
+ * How often a recurring expense template produces an expense.
+ */
+public enum RecurrenceFrequency {
+    DAILY,
+    WEEKLY,
+    MONTHLY;
+
+    /**
+     * The occurrence following the given one. Monthly occurrences fall on
+     * {@code anchorDay}, or the month's last day when it is shorter, so a
+     * schedule on the 31st returns to the 31st after February.
+     */
+    public LocalDate next(LocalDate occurrence, int anchorDay) {
+        return switch (this) {
+            case DAILY ->
+                occurrence.plusDays(1);
+            case WEEKLY ->
+                occurrence.plusWeeks(1);
+            case MONTHLY -> {
+                YearMonth month = YearMonth.from(occurrence).plusMonths(1);
+                yield month.atDay(Math.min(anchorDay, month.lengthOfMonth()));
+            }
+        };
+    }
+}
@@ -0,0 +1,167 @@
+package com.expensetracker.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Template that materializes into a regular expense on every occurrence.
+ */
+public class RecurringExpenseTemplate {
+
+    private Integer id; // null until persisted
+    private Category category;
+    private BigDecimal amount;
+    private PaymentMethod paymentMethod;
+    private String description;
+    private RecurrenceFrequency frequency;
+    private LocalDate nextOccurrence;
+    private int anchorDay; // day of month monthly occurrences fall on
+    private boolean active = true;
+
+    public RecurringExpenseTemplate(Category category, BigDecimal amount, PaymentMethod paymentMethod, String description,
+            RecurrenceFrequency frequency, LocalDate nextOccurrence) {
+        setCategory(category);
+        setAmount(amount);
+        this.paymentMethod = paymentMethod == null ? PaymentMethod.OTHER : paymentMethod;
+        setDescription(description);
+        setFrequency(frequency);
+        setNextOccurrence(nextOccurrence);
+        this.anchorDay = nextOccurrence.getDayOfMonth();
+    }
+
+    public RecurringExpenseTemplate(Integer id, Category category, BigDecimal amount, PaymentMethod paymentMethod, String description,
+            RecurrenceFrequency frequency, LocalDate nextOccurrence, int anchorDay, boolean active) {
+        this(category, amount, paymentMethod, description, frequency, nextOccurrence);
+        if (anchorDay < 1 || anchorDay > 31) {
+            throw new IllegalArgumentException("Anchor day must be between 1 and 31");
+        }
+        this.id = id;
+        this.anchorDay = anchorDay;
+        this.active = active;
+    }
+
+    /**
+     * All occurrences from next_occurrence up to and including asOf, capped
+     * at maxOccurrences. Does not modify the template.
+     */
+    public List<LocalDate> dueOccurrences(LocalDate asOf, int maxOccurrences) {
+        List<LocalDate> dates = new ArrayList<>();
+        LocalDate occurrence = nextOccurrence;
+        while (!occurrence.isAfter(asOf) && dates.size() < maxOccurrences) {
+            dates.add(occurrence);
+            occurrence = nextAfter(occurrence);
+        }
+        return dates;
+    }
+
+    /**
+     * The occurrence following the given one.
+     */
+    public LocalDate nextAfter(LocalDate occurrence) {
+        return frequency.next(occurrence, anchorDay);
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public Category getCategory() {
+        return category;
+    }
+
+    public void setCategory(Category category) {
+        if (category == null) {
+            throw new IllegalArgumentException("Category required");
+        }
+        this.category = category;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        if (amount == null || amount.signum() <= 0) {
+            throw new IllegalArgumentException("Amount must be positive");
+        }
+        this.amount = amount.setScale(2, java.math.RoundingMode.HALF_UP);
+    }
+
+    public PaymentMethod getPaymentMethod() {
+        return paymentMethod;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        if (description != null && description.length() > 255) {
+            throw new IllegalArgumentException("Description too long (max 255)");
+        }
+        this.description = description;
+    }
+
+    public RecurrenceFrequency getFrequency() {
+        return frequency;
+    }
+
+    public void setFrequency(RecurrenceFrequency frequency) {
+        if (frequency == null) {
+            throw new IllegalArgumentException("Frequency required");
+        }
+        this.frequency = frequency;
+    }
+
+    public LocalDate getNextOccurrence() {
+        return nextOccurrence;
+    }
+
+    public void setNextOccurrence(LocalDate nextOccurrence) {
+        if (nextOccurrence == null) {
+            throw new IllegalArgumentException("Next occurrence required");
+        }
+        this.nextOccurrence = nextOccurrence;
+    }
+
+    public int getAnchorDay() {
+        return anchorDay;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public void setActive(boolean active) {
+        this.active = active;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof RecurringExpenseTemplate)) {
+            return false;
+        }
+        RecurringExpenseTemplate that = (RecurringExpenseTemplate) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+
+    @Override
+    public String toString() {
+        return category.getName() + ": " + amount + " " + frequency + " (next " + nextOccurrence + ")";
+    }
+}
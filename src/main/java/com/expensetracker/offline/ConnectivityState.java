@@ -0,0 +1,108 @@
+package com.expensetracker.offline;
+
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLTransientConnectionException;
+import java.util.function.Supplier;
+
+import com.expensetracker.util.LoggerUtil;
+import com.expensetracker.util.TransactionScope;
+
+/**
+ * Whether the database is currently considered reachable. DAOs switch to
+ * offline mode when a call fails with a connection error; the sync service
+ * switches back once the database answers again and offline changes have
+ * been synced.
+ * <p>
+ * Inside an active unit of work there is no offline fallback: the unit's
+ * earlier statements are rolled back with the connection, so finishing the
+ * rest offline would commit only half of it. The failure is rethrown and
+ * the unit fails as a whole.
+ */
+public class ConnectivityState {
+
+    private final TransactionScope transactions;
+    private volatile boolean online = true;
+
+    public ConnectivityState() {
+        this(null);
+    }
+
+    public ConnectivityState(TransactionScope transactions) {
+        this.transactions = transactions;
+    }
+
+    public boolean isOnline() {
+        return online;
+    }
+
+    public void wentOffline(Throwable cause) {
+        if (online) {
+            online = false;
+            LoggerUtil.warn("Database unreachable, switching to offline mode: {}", cause.getMessage());
+        }
+    }
+
+    public void wentOnline() {
+        if (!online) {
+            online = true;
+            LoggerUtil.info("Database reachable again, back online");
+        }
+    }
+
+    /**
+     * Run the online call while online; if it fails with a connection error,
+     * switch to offline mode and run the offline call instead. Inside a unit
+     * of work the online call always runs and a connection error is rethrown.
+     */
+    public <T> T route(Supplier<T> onlineCall, Supplier<T> offlineCall) {
+        boolean inUnit = inUnitOfWork();
+        if (online || inUnit) {
+            try {
+                return onlineCall.get();
+            } catch (RuntimeException e) {
+                if (!isConnectionFailure(e)) {
+                    throw e;
+                }
+                wentOffline(e);
+                if (inUnit) {
+                    throw e;
+                }
+            }
+        }
+        return offlineCall.get();
+    }
+
+    /**
+     * Run a side effect of an online write (mirroring it offline) once the
+     * enclosing unit of work commits, or right away outside of one.
+     */
+    public void afterCommit(Runnable action) {
+        if (transactions == null) {
+            action.run();
+        } else {
+            transactions.afterCommit(action);
+        }
+    }
+
+    private boolean inUnitOfWork() {
+        return transactions != null && transactions.isActive();
+    }
+
+    /**
+     * True if the exception (or any cause) is a JDBC connection failure:
+     * SQLState class 08, as MySQL Connector/J reports for an unreachable or
+     * dropped server, or one of the JDBC connection exception types.
+     */
+    public static boolean isConnectionFailure(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof SQLTransientConnectionException || t instanceof SQLNonTransientConnectionException) {
+                return true;
+            }
+            if (t instanceof SQLException sql && sql.getSQLState() != null && sql.getSQLState().startsWith("08")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,132 @@
+package com.expensetracker.offline;
+
+import java.util.Map;
+
+import com.expensetracker.model.Category;
+import com.expensetracker.model.Expense;
+
+/**
+ * One change made while offline, as recorded in the journal. Updates and
+ * deletes keep the row as it was when the change was made ({@code before}),
+ * which is what sync compares the database row against to detect
+ * conflicting changes made elsewhere in the meantime. Adds carry a random
+ * token so an expense add that reached the database before a crash is not
+ * inserted twice.
+ */
+public final class Mutation {
+
+    public enum Type {
+        ADD_EXPENSE, UPDATE_EXPENSE, DELETE_EXPENSE, ADD_CATEGORY, UPDATE_CATEGORY, DELETE_CATEGORY
+    }
+
+    private final Type type;
+    private final String token;
+    private final Expense expenseBefore;
+    private final Expense expenseAfter;
+    private final Category categoryBefore;
+    private final Category categoryAfter;
+
+    Mutation(Type type, String token, Expense expenseBefore, Expense expenseAfter, Category categoryBefore, Category categoryAfter) {
+        this.type = type;
+        this.token = token;
+        this.expenseBefore = expenseBefore;
+        this.expenseAfter = expenseAfter;
+        this.categoryBefore = categoryBefore;
+        this.categoryAfter = categoryAfter;
+    }
+
+    static Mutation addExpense(String token, Expense added) {
+        return new Mutation(Type.ADD_EXPENSE, token, null, added, null, null);
+    }
+
+    static Mutation updateExpense(Expense before, Expense after) {
+        return new Mutation(Type.UPDATE_EXPENSE, null, before, after, null, null);
+    }
+
+    static Mutation deleteExpense(Expense before) {
+        return new Mutation(Type.DELETE_EXPENSE, null, before, null, null, null);
+    }
+
+    static Mutation addCategory(Category added) {
+        return new Mutation(Type.ADD_CATEGORY, null, null, null, null, added);
+    }
+
+    static Mutation updateCategory(Category before, Category after) {
+        return new Mutation(Type.UPDATE_CATEGORY, null, null, null, before, after);
+    }
+
+    static Mutation deleteCategory(Category before) {
+        return new Mutation(Type.DELETE_CATEGORY, null, null, null, before, null);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Idempotency token of an expense add; null for other types.
+     */
+    public String getToken() {
+        return token;
+    }
+
+    public Expense getExpenseBefore() {
+        return expenseBefore;
+    }
+
+    public Expense getExpenseAfter() {
+        return expenseAfter;
+    }
+
+    public Category getCategoryBefore() {
+        return categoryBefore;
+    }
+
+    public Category getCategoryAfter() {
+        return categoryAfter;
+    }
+
+    /**
+     * Id of the expense or category this mutation targets.
+     */
+    public long targetId() {
+        return switch (type) {
+            case ADD_EXPENSE, UPDATE_EXPENSE -> expenseAfter.getId();
+            case DELETE_EXPENSE -> expenseBefore.getId();
+            case ADD_CATEGORY, UPDATE_CATEGORY -> categoryAfter.getId();
+            case DELETE_CATEGORY -> categoryBefore.getId();
+        };
+    }
+
+    /**
+     * Copy with provisional ids replaced by the database ids they were
+     * synced under; ids not in the maps are kept.
+     */
+    Mutation remap(Map<Long, Long> expenseIds, Map<Integer, Integer> categoryIds) {
+        return new Mutation(type, token, remap(expenseBefore, expenseIds, categoryIds), remap(expenseAfter, expenseIds, categoryIds),
+                remap(categoryBefore, categoryIds), remap(categoryAfter, categoryIds));
+    }
+
+    private static Expense remap(Expense expense, Map<Long, Long> expenseIds, Map<Integer, Integer> categoryIds) {
+        if (expense == null) {
+            return null;
+        }
+        Expense copy = OfflineCodec.copy(expense);
+        copy.setCategory(remap(expense.getCategory(), categoryIds));
+        copy.markPersisted(expenseIds.getOrDefault(expense.getId(), expense.getId()), null, expense.getUpdatedAt());
+        return copy;
+    }
+
+    private static Category remap(Category category, Map<Integer, Integer> categoryIds) {
+        if (category == null) {
+            return null;
+        }
+        return new Category(categoryIds.getOrDefault(category.getId(), category.getId()), category.getName(),
+                category.getMonthlyBudgetLimit(), category.getCreatedAt());
+    }
+
+    @Override
+    public String toString() {
+        return type + " " + targetId();
+    }
+}
@@ -0,0 +1,142 @@
+package com.expensetracker.offline;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import com.expensetracker.util.LoggerUtil;
+
+/**
+ * Append-only file of {@link Mutation}s made while offline. Records are
+ * framed as length, CRC32 and payload; a torn record at the tail is cut off
+ * on replay. Appends are not forced individually: the owner calls
+ * {@link #force()} to fsync everything appended since the last call, so a
+ * burst of edits costs one fsync. Not thread-safe.
+ */
+class MutationJournal implements Closeable {
+
+    private static final int HEADER_BYTES = Integer.BYTES + Long.BYTES;
+
+    private final Path file;
+    private FileChannel channel;
+    private int unforced;
+
+    MutationJournal(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Open the journal, returning the mutations it holds in append order.
+     */
+    List<Mutation> open() throws IOException {
+        Files.createDirectories(file.getParent());
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        List<Mutation> mutations = new ArrayList<>();
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        long position = 0;
+        long size = channel.size();
+        while (position + HEADER_BYTES <= size) {
+            header.clear();
+            channel.read(header, position);
+            header.flip();
+            int length = header.getInt();
+            long crc = header.getLong();
+            if (length <= 0 || position + HEADER_BYTES + length > size) {
+                break;
+            }
+            ByteBuffer payload = ByteBuffer.allocate(length);
+            channel.read(payload, position + HEADER_BYTES);
+            if (checksum(payload.array()) != crc) {
+                break;
+            }
+            try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload.array()))) {
+                mutations.add(OfflineCodec.readMutation(in));
+            }
+            position += HEADER_BYTES + length;
+        }
+        if (position < size) {
+            LoggerUtil.warn("Discarding {} bytes of incomplete journal tail in {}", size - position, file);
+            channel.truncate(position);
+        }
+        channel.position(position);
+        return mutations;
+    }
+
+    void append(Mutation mutation) throws IOException {
+        channel.write(frame(mutation));
+        unforced++;
+    }
+
+    /**
+     * Mutations appended since the last {@link #force()}.
+     */
+    int unforced() {
+        return unforced;
+    }
+
+    void force() throws IOException {
+        if (unforced > 0) {
+            channel.force(false);
+            unforced = 0;
+        }
+    }
+
+    /**
+     * Replace the journal with exactly these mutations (after a partial
+     * sync), via a temp file moved over the old one.
+     */
+    void rewrite(Collection<Mutation> mutations) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            for (Mutation mutation : mutations) {
+                out.write(frame(mutation));
+            }
+            out.force(false);
+        }
+        channel.close();
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        channel.position(channel.size());
+        unforced = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            force();
+            channel.close();
+            channel = null;
+        }
+    }
+
+    private static ByteBuffer frame(Mutation mutation) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            OfflineCodec.writeMutation(out, mutation);
+        }
+        byte[] payload = bytes.toByteArray();
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + payload.length);
+        buffer.putInt(payload.length).putLong(checksum(payload)).put(payload);
+        buffer.flip();
+        return buffer;
+    }
+
+    private static long checksum(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return crc.getValue();
+    }
+}
@@ -0,0 +1,115 @@
+package com.expensetracker.offline;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import com.expensetracker.model.Category;
+import com.expensetracker.model.Expense;
+import com.expensetracker.model.PaymentMethod;
+
+/**
+ * Binary encoding of categories, expenses and mutations shared by the
+ * snapshot file and the mutation journal, plus defensive copies.
+ */
+final class OfflineCodec {
+
+    private OfflineCodec() {
+    }
+
+    static Expense copy(Expense expense) {
+        Expense copy = Expense.create(copy(expense.getCategory()), expense.getDate(), expense.getAmount(), expense.getPaymentMethod(), expense.getDescription());
+        copy.markPersisted(expense.getId(), expense.getCreatedAt(), expense.getUpdatedAt());
+        return copy;
+    }
+
+    static Category copy(Category category) {
+        return new Category(category.getId(), category.getName(), category.getMonthlyBudgetLimit(), category.getCreatedAt());
+    }
+
+    static void writeMutation(DataOutputStream out, Mutation mutation) throws IOException {
+        out.writeUTF(mutation.getType().name());
+        writeNullable(out, mutation.getToken());
+        writeExpense(out, mutation.getExpenseBefore());
+        writeExpense(out, mutation.getExpenseAfter());
+        writeCategory(out, mutation.getCategoryBefore());
+        writeCategory(out, mutation.getCategoryAfter());
+    }
+
+    static Mutation readMutation(DataInputStream in) throws IOException {
+        Mutation.Type type = Mutation.Type.valueOf(in.readUTF());
+        String token = readNullable(in);
+        return new Mutation(type, token, readExpense(in), readExpense(in), readCategory(in), readCategory(in));
+    }
+
+    /**
+     * Writes a nullable expense, including its category.
+     */
+    static void writeExpense(DataOutputStream out, Expense expense) throws IOException {
+        out.writeBoolean(expense != null);
+        if (expense == null) {
+            return;
+        }
+        out.writeLong(expense.getId());
+        writeCategory(out, expense.getCategory());
+        out.writeLong(expense.getDate().toEpochDay());
+        out.writeUTF(expense.getAmount().toPlainString());
+        out.writeUTF(expense.getPaymentMethod().name());
+        writeNullable(out, expense.getDescription());
+        writeNullable(out, expense.getCreatedAt() == null ? null : expense.getCreatedAt().toString());
+        writeNullable(out, expense.getUpdatedAt() == null ? null : expense.getUpdatedAt().toString());
+    }
+
+    static Expense readExpense(DataInputStream in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        long id = in.readLong();
+        Category category = readCategory(in);
+        LocalDate date = LocalDate.ofEpochDay(in.readLong());
+        BigDecimal amount = new BigDecimal(in.readUTF());
+        PaymentMethod method = PaymentMethod.valueOf(in.readUTF());
+        String description = readNullable(in);
+        String created = readNullable(in);
+        String updated = readNullable(in);
+        Expense expense = Expense.create(category, date, amount, method, description);
+        expense.markPersisted(id, created == null ? null : LocalDateTime.parse(created), updated == null ? null : LocalDateTime.parse(updated));
+        return expense;
+    }
+
+    static void writeCategory(DataOutputStream out, Category category) throws IOException {
+        out.writeBoolean(category != null);
+        if (category == null) {
+            return;
+        }
+        out.writeInt(category.getId());
+        out.writeUTF(category.getName());
+        writeNullable(out, category.getMonthlyBudgetLimit() == null ? null : category.getMonthlyBudgetLimit().toPlainString());
+        writeNullable(out, category.getCreatedAt() == null ? null : category.getCreatedAt().toString());
+    }
+
+    static Category readCategory(DataInputStream in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        int id = in.readInt();
+        String name = in.readUTF();
+        String limit = readNullable(in);
+        String created = readNullable(in);
+        return new Category(id, name, limit == null ? null : new BigDecimal(limit), created == null ? null : LocalDateTime.parse(created));
+    }
+
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
@@ -0,0 +1,473 @@
+package com.expensetracker.offline;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+
+import com.expensetracker.background.BackgroundTaskManager;
+import com.expensetracker.model.Category;
+import com.expensetracker.model.Expense;
+import com.expensetracker.util.LoggerUtil;
+import com.expensetracker.util.SessionContext;
+
+/**
+ * Local copy of the signed-in user's categories and recent expenses, used
+ * while the database is unreachable. It consists of a snapshot of the
+ * server's rows ({@code user-<id>/snapshot.bin}) plus a {@link MutationJournal}
+ * of changes made offline ({@code user-<id>/mutations.journal}); the
+ * in-memory view is the snapshot with the journal applied on top.
+ * <p>
+ * Rows created offline get provisional negative ids until they are synced.
+ * Journal appends are fsynced in groups: after {@value #FORCE_BATCH}
+ * unforced changes or {@value #FORCE_DELAY_MILLIS} ms after the first one,
+ * whichever comes first. All reads return copies.
+ */
+public class OfflineStore {
+
+    private static final int SNAPSHOT_MAGIC = 0x45584f31; // "EXO1"
+    private static final String TOKEN_PREFIX = "off-";
+    private static final int FORCE_BATCH = 32;
+    private static final long FORCE_DELAY_MILLIS = 50;
+
+    private final Path root;
+    private final SessionContext session = SessionContext.getInstance();
+    private final AtomicBoolean forceScheduled = new AtomicBoolean();
+
+    // State of the loaded user (guarded by this)
+    private Integer loadedUser;
+    private final Map<Integer, Category> categories = new HashMap<>();
+    private final Map<Long, Expense> expenses = new HashMap<>();
+    private final List<Mutation> pending = new ArrayList<>();
+    private MutationJournal journal;
+    private LocalDateTime snapshotTakenAt;
+    private long nextExpenseId = -1;
+    private int nextCategoryId = -1;
+
+    public OfflineStore(Path root) {
+        this.root = root;
+    }
+
+    // ---- offline changes ----
+
+    /**
+     * Idempotency token for an expense add; the sync inserts the expense
+     * under it, so an add that already reached the server is not repeated.
+     */
+    public static String newToken() {
+        return TOKEN_PREFIX + UUID.randomUUID();
+    }
+
+    public Expense addExpense(Expense expense) {
+        return addExpense(expense, newToken());
+    }
+
+    public synchronized Expense addExpense(Expense expense, String token) {
+        ensureLoaded();
+        Expense added = OfflineCodec.copy(expense);
+        added.markPersisted(nextExpenseId--, expense.getCreatedAt(), null);
+        record(Mutation.addExpense(token, added));
+        return OfflineCodec.copy(added);
+    }
+
+    public synchronized boolean updateExpense(Expense expense) {
+        ensureLoaded();
+        Expense before = expenses.get(expense.getId());
+        if (before == null) {
+            return false;
+        }
+        Expense after = OfflineCodec.copy(expense);
+        after.markPersisted(before.getId(), before.getCreatedAt(), before.getUpdatedAt());
+        record(Mutation.updateExpense(OfflineCodec.copy(before), after));
+        return true;
+    }
+
+    public synchronized boolean deleteExpense(long id) {
+        ensureLoaded();
+        Expense before = expenses.get(id);
+        if (before == null) {
+            return false;
+        }
+        record(Mutation.deleteExpense(OfflineCodec.copy(before)));
+        return true;
+    }
+
+    public synchronized Category addCategory(Category category) {
+        ensureLoaded();
+        Category added = new Category(nextCategoryId--, category.getName(), category.getMonthlyBudgetLimit(), LocalDateTime.now());
+        record(Mutation.addCategory(added));
+        category.setId(added.getId());
+        return category;
+    }
+
+    public synchronized boolean updateCategory(Category category) {
+        ensureLoaded();
+        Category before = categories.get(category.getId());
+        if (before == null) {
+            return false;
+        }
+        record(Mutation.updateCategory(OfflineCodec.copy(before), OfflineCodec.copy(category)));
+        return true;
+    }
+
+    /**
+     * Like the database, refuses to delete a category expenses still use.
+     */
+    public synchronized boolean deleteCategory(int id) {
+        ensureLoaded();
+        Category before = categories.get(id);
+        if (before == null) {
+            return false;
+        }
+        if (expenses.values().stream().anyMatch(e -> e.getCategory().getId() == id)) {
+            throw new RuntimeException("Error deleting category: still used by expenses");
+        }
+        record(Mutation.deleteCategory(OfflineCodec.copy(before)));
+        return true;
+    }
+
+    // ---- reads ----
+
+    /**
+     * Expenses dated within the range that match the filter, in date order.
+     */
+    public synchronized List<Expense> expenses(LocalDate start, LocalDate end, Predicate<Expense> filter) {
+        ensureLoaded();
+        List<Expense> result = new ArrayList<>();
+        for (Expense expense : expenses.values()) {
+            if (!expense.getDate().isBefore(start) && !expense.getDate().isAfter(end) && filter.test(expense)) {
+                result.add(copyOut(expense));
+            }
+        }
+        result.sort(Comparator.comparing(Expense::getDate).thenComparing(Expense::getId));
+        return result;
+    }
+
+    public synchronized Optional<Expense> expense(long id) {
+        ensureLoaded();
+        return Optional.ofNullable(expenses.get(id)).map(this::copyOut);
+    }
+
+    /**
+     * Most recently created expenses first.
+     */
+    public synchronized List<Expense> recentExpenses(int limit) {
+        ensureLoaded();
+        return expenses.values().stream()
+                .sorted(Comparator.comparing(Expense::getCreatedAt, Comparator.nullsFirst(Comparator.<LocalDateTime>naturalOrder())).reversed())
+                .limit(limit)
+                .map(this::copyOut)
+                .toList();
+    }
+
+    public synchronized long expenseCount() {
+        ensureLoaded();
+        return expenses.size();
+    }
+
+    /**
+     * Categories ordered by name.
+     */
+    public synchronized List<Category> categories() {
+        ensureLoaded();
+        return categories.values().stream()
+                .sorted(Comparator.comparing(Category::getName))
+                .map(OfflineCodec::copy)
+                .toList();
+    }
+
+    public synchronized Optional<Category> category(int id) {
+        ensureLoaded();
+        return Optional.ofNullable(categories.get(id)).map(OfflineCodec::copy);
+    }
+
+    /**
+     * Case-insensitive, like the database's default collation.
+     */
+    public synchronized Optional<Category> categoryByName(String name) {
+        ensureLoaded();
+        return categories.values().stream()
+                .filter(c -> c.getName().equalsIgnoreCase(name))
+                .findFirst()
+                .map(OfflineCodec::copy);
+    }
+
+    // ---- keeping the copy current while online ----
+
+    /**
+     * Reflect a row written to the database while online, so a later switch
+     * to offline starts from it. Ignored unless the signed-in user's store is
+     * loaded.
+     */
+    public synchronized void mirrorExpense(Expense expense) {
+        if (isLoadedForCurrentUser() && expense.getId() != null && expense.getId() >= 0) {
+            expenses.put(expense.getId(), OfflineCodec.copy(expense));
+        }
+    }
+
+    public synchronized void mirrorExpenseDeleted(long id) {
+        if (isLoadedForCurrentUser()) {
+            expenses.remove(id);
+        }
+    }
+
+    public synchronized void mirrorCategory(Category category) {
+        if (isLoadedForCurrentUser() && category.getId() != null && category.getId() >= 0) {
+            categories.put(category.getId(), OfflineCodec.copy(category));
+        }
+    }
+
+    public synchronized void mirrorCategoryDeleted(int id) {
+        if (isLoadedForCurrentUser()) {
+            categories.remove(id);
+        }
+    }
+
+    // ---- sync support ----
+
+    /**
+     * Offline changes not yet synced, oldest first.
+     */
+    public synchronized List<Mutation> pendingMutations() {
+        ensureLoaded();
+        return new ArrayList<>(pending);
+    }
+
+    /**
+     * Drop the first {@code count} pending mutations (synced or given up as
+     * conflicts) and move rows created offline to the database ids they were
+     * synced under, in memory and in the journal.
+     */
+    public synchronized void acknowledge(int count, Map<Long, Long> expenseIds, Map<Integer, Integer> categoryIds) {
+        ensureLoaded();
+        List<Mutation> remaining = new ArrayList<>();
+        for (Mutation mutation : pending.subList(count, pending.size())) {
+            remaining.add(mutation.remap(expenseIds, categoryIds));
+        }
+        try {
+            journal.rewrite(remaining);
+        } catch (IOException e) {
+            throw new RuntimeException("Error compacting offline journal", e);
+        }
+        pending.clear();
+        pending.addAll(remaining);
+
+        categoryIds.forEach((provisional, id) -> {
+            Category category = categories.remove(provisional);
+            if (category != null) {
+                category.setId(id);
+                categories.put(id, category);
+            }
+        });
+        expenseIds.forEach((provisional, id) -> {
+            Expense expense = expenses.remove(provisional);
+            if (expense != null) {
+                expense.markPersisted(id, null, expense.getUpdatedAt());
+                expenses.put(id, expense);
+            }
+        });
+        if (!categoryIds.isEmpty()) {
+            for (Expense expense : expenses.values()) {
+                Integer id = categoryIds.get(expense.getCategory().getId());
+                if (id != null) {
+                    Category category = OfflineCodec.copy(expense.getCategory());
+                    category.setId(id);
+                    expense.setCategory(category);
+                }
+            }
+        }
+    }
+
+    /**
+     * Replace the local copy with rows just read from the database, keep any
+     * still-pending offline changes on top, and save the snapshot.
+     */
+    public synchronized void replaceSnapshot(List<Category> serverCategories, List<Expense> serverExpenses) {
+        ensureLoaded();
+        categories.clear();
+        expenses.clear();
+        serverCategories.forEach(c -> categories.put(c.getId(), OfflineCodec.copy(c)));
+        serverExpenses.forEach(e -> expenses.put(e.getId(), OfflineCodec.copy(e)));
+        snapshotTakenAt = LocalDateTime.now();
+        try {
+            writeSnapshot(loadedUser);
+        } catch (IOException e) {
+            throw new RuntimeException("Error saving offline snapshot", e);
+        }
+        pending.forEach(this::apply);
+    }
+
+    /**
+     * When the signed-in user's snapshot was last replaced; null if never.
+     */
+    public synchronized LocalDateTime snapshotTakenAt() {
+        ensureLoaded();
+        return snapshotTakenAt;
+    }
+
+    /**
+     * Fsync any journaled changes not yet forced.
+     */
+    public synchronized void forceJournal() {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.force();
+        } catch (IOException e) {
+            LoggerUtil.warn("Error forcing offline journal: {}", e.getMessage());
+        }
+    }
+
+    public synchronized void close() {
+        closeJournal();
+        loadedUser = null;
+    }
+
+    // ---- internals ----
+
+    private boolean isLoadedForCurrentUser() {
+        return loadedUser != null && session.isAuthenticated() && loadedUser == session.requireCurrentUserId();
+    }
+
+    private void ensureLoaded() {
+        int userId = session.requireCurrentUserId();
+        if (loadedUser != null && loadedUser == userId) {
+            return;
+        }
+        closeJournal();
+        loadedUser = null;
+        categories.clear();
+        expenses.clear();
+        pending.clear();
+        snapshotTakenAt = null;
+        try {
+            readSnapshot(userId);
+            journal = new MutationJournal(userDir(userId).resolve("mutations.journal"));
+            for (Mutation mutation : journal.open()) {
+                pending.add(mutation);
+                apply(mutation);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Error loading offline data for user " + userId, e);
+        }
+        loadedUser = userId;
+        nextExpenseId = Math.min(-1, expenses.keySet().stream().mapToLong(Long::longValue).min().orElse(0) - 1);
+        nextCategoryId = Math.min(-1, categories.keySet().stream().mapToInt(Integer::intValue).min().orElse(0) - 1);
+        if (!pending.isEmpty()) {
+            LoggerUtil.info("Loaded {} unsynced offline changes", pending.size());
+        }
+    }
+
+    private void record(Mutation mutation) {
+        try {
+            journal.append(mutation);
+        } catch (IOException e) {
+            throw new RuntimeException("Error journaling offline change", e);
+        }
+        pending.add(mutation);
+        apply(mutation);
+        if (journal.unforced() >= FORCE_BATCH) {
+            forceJournal();
+        } else if (forceScheduled.compareAndSet(false, true)) {
+            BackgroundTaskManager.getInstance().schedule(() -> {
+                forceScheduled.set(false);
+                forceJournal();
+            }, FORCE_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void apply(Mutation mutation) {
+        switch (mutation.getType()) {
+            case ADD_EXPENSE, UPDATE_EXPENSE -> expenses.put(mutation.getExpenseAfter().getId(), OfflineCodec.copy(mutation.getExpenseAfter()));
+            case DELETE_EXPENSE -> expenses.remove(mutation.getExpenseBefore().getId());
+            case ADD_CATEGORY, UPDATE_CATEGORY -> categories.put(mutation.getCategoryAfter().getId(), OfflineCodec.copy(mutation.getCategoryAfter()));
+            case DELETE_CATEGORY -> categories.remove(mutation.getCategoryBefore().getId());
+        }
+    }
+
+    /**
+     * Copy of a stored expense carrying the current version of its category.
+     */
+    private Expense copyOut(Expense expense) {
+        Expense copy = OfflineCodec.copy(expense);
+        Category current = categories.get(expense.getCategory().getId());
+        if (current != null) {
+            copy.setCategory(OfflineCodec.copy(current));
+        }
+        return copy;
+    }
+
+    private void closeJournal() {
+        if (journal != null) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                LoggerUtil.warn("Error closing offline journal: {}", e.getMessage());
+            }
+            journal = null;
+        }
+    }
+
+    private Path userDir(int userId) {
+        return root.resolve("user-" + userId);
+    }
+
+    private void readSnapshot(int userId) throws IOException {
+        Path file = userDir(userId).resolve("snapshot.bin");
+        if (!Files.exists(file)) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                throw new IOException("Not an offline snapshot: " + file);
+            }
+            snapshotTakenAt = LocalDateTime.parse(in.readUTF());
+            int categoryCount = in.readInt();
+            for (int i = 0; i < categoryCount; i++) {
+                Category category = OfflineCodec.readCategory(in);
+                categories.put(category.getId(), category);
+            }
+            int expenseCount = in.readInt();
+            for (int i = 0; i < expenseCount; i++) {
+                Expense expense = OfflineCodec.readExpense(in);
+                expenses.put(expense.getId(), expense);
+            }
+        }
+    }
+
+    private void writeSnapshot(int userId) throws IOException {
+        Path file = userDir(userId).resolve("snapshot.bin");
+        Files.createDirectories(file.getParent());
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeUTF(snapshotTakenAt.toString());
+            out.writeInt(categories.size());
+            for (Category category : categories.values()) {
+                OfflineCodec.writeCategory(out, category);
+            }
+            out.writeInt(expenses.size());
+            for (Expense expense : expenses.values()) {
+                OfflineCodec.writeExpense(out, expense);
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,312 @@
+package com.expensetracker.offline;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import com.expensetracker.dao.CategoryDAO;
+import com.expensetracker.dao.ExpenseDAO;
+import com.expensetracker.dao.UnitOfWork;
+import com.expensetracker.model.Category;
+import com.expensetracker.model.Expense;
+import com.expensetracker.util.LoggerUtil;
+import com.expensetracker.util.TransactionScope;
+
+/**
+ * Replays the {@link OfflineStore}'s pending changes against the database
+ * and refreshes its snapshot.
+ * <p>
+ * Changes are sent in journal order, in batches of {@code batchSize}; runs
+ * of expense adds go in one upsert keyed by their tokens, so a batch resent
+ * after a dropped connection inserts nothing twice and adds nothing to the
+ * daily rollup twice. Each batch is sent in
+ * one unit of work and removed from the journal once committed (with a
+ * non-atomic unit of work, the part sent before a failure is removed too). An update or delete is only applied if the
+ * database row still equals the row the offline change was made to;
+ * otherwise the server's version wins and the offline change is reported as
+ * a conflict. A category added offline under a name that exists on the
+ * server is merged into the existing one.
+ */
+public class OfflineSynchronizer {
+
+    // Latest value MySQL accepts for a DATE column
+    private static final LocalDate MAX_DATE = LocalDate.of(9999, 12, 31);
+
+    private final ExpenseDAO expenseDAO;
+    private final CategoryDAO categoryDAO;
+    private final OfflineStore store;
+    private final UnitOfWork unitOfWork;
+    private final int batchSize;
+    private final int snapshotMonths;
+
+    /**
+     * @param expenseDAO     the database DAO itself, not a failover view
+     * @param snapshotMonths months of expenses (besides the current one)
+     *                       kept in the offline snapshot
+     */
+    public OfflineSynchronizer(ExpenseDAO expenseDAO, CategoryDAO categoryDAO, OfflineStore store, int batchSize, int snapshotMonths) {
+        this(expenseDAO, categoryDAO, store, UnitOfWork.NONE, batchSize, snapshotMonths);
+    }
+
+    /**
+     * @param unitOfWork transaction each batch is sent in
+     */
+    public OfflineSynchronizer(ExpenseDAO expenseDAO, CategoryDAO categoryDAO, OfflineStore store, UnitOfWork unitOfWork,
+            int batchSize, int snapshotMonths) {
+        this.expenseDAO = expenseDAO;
+        this.categoryDAO = categoryDAO;
+        this.store = store;
+        this.unitOfWork = unitOfWork;
+        this.batchSize = batchSize;
+        this.snapshotMonths = snapshotMonths;
+    }
+
+    /**
+     * Send every pending change for the signed-in user. A connection failure
+     * propagates; batches already sent stay synced and the rest is retried
+     * next time.
+     */
+    public SyncResult sync() {
+        long started = System.nanoTime();
+        int applied = 0;
+        List<String> conflicts = new ArrayList<>();
+        List<Mutation> pending;
+        while (!(pending = store.pendingMutations()).isEmpty()) {
+            Batch batch = new Batch(pending.subList(0, Math.min(batchSize, pending.size())));
+            boolean committed = false;
+            try {
+                unitOfWork.run(() -> send(batch, conflicts));
+                committed = true;
+            } finally {
+                int sent = committed || !unitOfWork.isAtomic() ? batch.done : 0;
+                if (sent > 0) {
+                    store.acknowledge(sent, batch.expenseIds, batch.categoryIds);
+                }
+            }
+            applied += batch.applied;
+        }
+        long elapsed = (System.nanoTime() - started) / 1_000_000;
+        if (applied > 0 || !conflicts.isEmpty()) {
+            LoggerUtil.info("Synced {} offline changes ({} conflicts) in {} ms", applied, conflicts.size(), elapsed);
+        }
+        return new SyncResult(applied, conflicts, elapsed);
+    }
+
+    private void send(Batch batch, List<String> conflicts) {
+        List<Mutation> mutations = batch.mutations;
+        while (batch.done < mutations.size()) {
+            if (mutations.get(batch.done).getType() == Mutation.Type.ADD_EXPENSE) {
+                List<Mutation> adds = new ArrayList<>();
+                while (batch.done + adds.size() < mutations.size() && mutations.get(batch.done + adds.size()).getType() == Mutation.Type.ADD_EXPENSE) {
+                    adds.add(mutations.get(batch.done + adds.size()).remap(batch.expenseIds, batch.categoryIds));
+                }
+                batch.applied += addExpenses(adds, batch.expenseIds, conflicts);
+                batch.done += adds.size();
+            } else {
+                Mutation mutation = mutations.get(batch.done).remap(batch.expenseIds, batch.categoryIds);
+                String conflict = apply(mutation, batch.categoryIds);
+                if (conflict == null) {
+                    batch.applied++;
+                } else {
+                    conflicts.add(conflict(mutation, conflict));
+                }
+                batch.done++;
+            }
+        }
+    }
+
+    /**
+     * Replace the offline snapshot with the signed-in user's categories and
+     * expenses from the start of the month {@code snapshotMonths} before
+     * today's.
+     */
+    public void refreshSnapshot(LocalDate today) {
+        List<Category> categories = categoryDAO.findAll();
+        List<Expense> expenses = expenseDAO.findByDateRange(today.minusMonths(snapshotMonths).withDayOfMonth(1), MAX_DATE);
+        store.replaceSnapshot(categories, expenses);
+        LoggerUtil.debug("Offline snapshot refreshed: {} categories, {} expenses", categories.size(), expenses.size());
+    }
+
+    private int addExpenses(List<Mutation> adds, Map<Long, Long> expenseIds, List<String> conflicts) {
+        List<Expense> expenses = new ArrayList<>(adds.size());
+        List<String> tokens = new ArrayList<>(adds.size());
+        for (Mutation add : adds) {
+            expenses.add(add.getExpenseAfter());
+            tokens.add(add.getToken());
+        }
+        try {
+            expenseDAO.upsertBatch(expenses, tokens);
+        } catch (RuntimeException e) {
+            if (mustRetry(e) || adds.size() == 1) {
+                throw e;
+            }
+            // One bad row (e.g. its category was rejected) fails the whole batch; retry row by row
+            for (Mutation add : adds) {
+                try {
+                    expenseDAO.upsertBatch(List.of(add.getExpenseAfter()), List.of(add.getToken()));
+                } catch (RuntimeException rowFailure) {
+                    if (mustRetry(rowFailure)) {
+                        throw rowFailure;
+                    }
+                    conflicts.add(conflict(add, "rejected by the server: " + rowFailure.getMessage()));
+                }
+            }
+        }
+        int added = 0;
+        Map<String, Long> ids = expenseDAO.findIdsByFingerprint(tokens);
+        for (Mutation add : adds) {
+            Long id = ids.get(add.getToken());
+            if (id != null) {
+                expenseIds.put(add.getExpenseAfter().getId(), id);
+                added++;
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Apply one non-add change (or merge a category add).
+     *
+     * @return null if applied, otherwise why it was dropped
+     */
+    private String apply(Mutation mutation, Map<Integer, Integer> categoryIds) {
+        try {
+            switch (mutation.getType()) {
+                case UPDATE_EXPENSE -> {
+                    Expense after = mutation.getExpenseAfter();
+                    if (after.getId() < 0) {
+                        return "expense was never created on the server";
+                    }
+                    Optional<Expense> current = expenseDAO.findById(after.getId());
+                    if (current.isEmpty()) {
+                        return "deleted on the server";
+                    }
+                    if (sameExpense(current.get(), after)) {
+                        return null;
+                    }
+                    if (!sameExpense(current.get(), mutation.getExpenseBefore())) {
+                        return "changed on the server";
+                    }
+                    expenseDAO.update(after);
+                }
+                case DELETE_EXPENSE -> {
+                    Expense before = mutation.getExpenseBefore();
+                    Optional<Expense> current = before.getId() < 0 ? Optional.empty() : expenseDAO.findById(before.getId());
+                    if (current.isEmpty()) {
+                        return null;
+                    }
+                    if (!sameExpense(current.get(), before)) {
+                        return "changed on the server";
+                    }
+                    expenseDAO.delete(before.getId());
+                }
+                case ADD_CATEGORY -> {
+                    Category added = mutation.getCategoryAfter();
+                    int provisionalId = added.getId();
+                    Optional<Category> existing = categoryDAO.findByName(added.getName());
+                    if (existing.isPresent()) {
+                        LoggerUtil.info("Offline category '{}' merged into the existing one", added.getName());
+                        categoryIds.put(provisionalId, existing.get().getId());
+                    } else {
+                        added.setId(null);
+                        categoryIds.put(provisionalId, categoryDAO.insert(added).getId());
+                    }
+                }
+                case UPDATE_CATEGORY -> {
+                    Category after = mutation.getCategoryAfter();
+                    if (after.getId() < 0) {
+                        return "category was never created on the server";
+                    }
+                    Optional<Category> current = categoryDAO.findById(after.getId());
+                    if (current.isEmpty()) {
+                        return "deleted on the server";
+                    }
+                    if (sameCategory(current.get(), after)) {
+                        return null;
+                    }
+                    if (!sameCategory(current.get(), mutation.getCategoryBefore())) {
+                        return "changed on the server";
+                    }
+                    categoryDAO.update(after);
+                }
+                case DELETE_CATEGORY -> {
+                    Category before = mutation.getCategoryBefore();
+                    Optional<Category> current = before.getId() < 0 ? Optional.empty() : categoryDAO.findById(before.getId());
+                    if (current.isEmpty()) {
+                        return null;
+                    }
+                    if (!sameCategory(current.get(), before)) {
+                        return "changed on the server";
+                    }
+                    if (expenseDAO.existsInCategory(before.getId())) {
+                        return "still has expenses on the server";
+                    }
+                    categoryDAO.delete(before.getId());
+                }
+                case ADD_EXPENSE -> throw new IllegalArgumentException("Expense adds are sent in batches");
+            }
+            return null;
+        } catch (RuntimeException e) {
+            if (mustRetry(e)) {
+                throw e;
+            }
+            return "rejected by the server: " + e.getMessage();
+        }
+    }
+
+    /**
+     * Failures that say nothing about the change itself: a lost connection,
+     * or a deadlock that undid the batch's transaction so far.
+     */
+    private static boolean mustRetry(RuntimeException e) {
+        return ConnectivityState.isConnectionFailure(e) || TransactionScope.isTransactionRollback(e);
+    }
+
+    private static String conflict(Mutation mutation, String reason) {
+        Expense expense = mutation.getExpenseAfter() != null ? mutation.getExpenseAfter() : mutation.getExpenseBefore();
+        Category category = mutation.getCategoryAfter() != null ? mutation.getCategoryAfter() : mutation.getCategoryBefore();
+        String row = expense != null
+                ? expense.getDate() + " " + expense.getAmount() + " " + expense.getCategory().getName() + " '" + expense.getDescription() + "'"
+                : "'" + category.getName() + "' limit " + category.getMonthlyBudgetLimit();
+        String description = mutation + " (" + row + "): " + reason;
+        LoggerUtil.warn("Offline change dropped: {}", description);
+        return description;
+    }
+
+    private static boolean sameExpense(Expense a, Expense b) {
+        return a.getCategory().getId().equals(b.getCategory().getId())
+                && a.getDate().equals(b.getDate())
+                && a.getAmount().compareTo(b.getAmount()) == 0
+                && a.getPaymentMethod() == b.getPaymentMethod()
+                && Objects.equals(a.getDescription(), b.getDescription());
+    }
+
+    private static boolean sameCategory(Category a, Category b) {
+        return a.getName().equals(b.getName()) && sameAmount(a.getMonthlyBudgetLimit(), b.getMonthlyBudgetLimit());
+    }
+
+    private static boolean sameAmount(BigDecimal a, BigDecimal b) {
+        return a == null ? b == null : b != null && a.compareTo(b) == 0;
+    }
+
+    /**
+     * One batch of journal entries and how far sending it got.
+     */
+    private static final class Batch {
+
+        final List<Mutation> mutations;
+        final Map<Long, Long> expenseIds = new HashMap<>();
+        final Map<Integer, Integer> categoryIds = new HashMap<>();
+        int done;
+        int applied;
+
+        Batch(List<Mutation> mutations) {
+            this.mutations = mutations;
+        }
+    }
+}
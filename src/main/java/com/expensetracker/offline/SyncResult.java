@@ -0,0 +1,38 @@
+package com.expensetracker.offline;
+
+import java.util.List;
+
+/**
+ * Outcome of syncing offline changes to the database.
+ */
+public class SyncResult {
+
+    private final int applied;
+    private final List<String> conflicts;
+    private final long elapsedMillis;
+
+    public SyncResult(int applied, List<String> conflicts, long elapsedMillis) {
+        this.applied = applied;
+        this.conflicts = List.copyOf(conflicts);
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /**
+     * Offline changes now reflected in the database.
+     */
+    public int getApplied() {
+        return applied;
+    }
+
+    /**
+     * Offline changes dropped because the row had changed on the server (or
+     * the server rejected them), one description each.
+     */
+    public List<String> getConflicts() {
+        return conflicts;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+}
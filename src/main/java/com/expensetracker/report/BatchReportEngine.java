@@ -0,0 +1,65 @@
+package com.expensetracker.report;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.expensetracker.dao.ExpenseDAO;
+import com.expensetracker.util.LoggerUtil;
+
+/**
+ * Generates several reports from one streaming scan of the expense table.
+ * The engine computes the range covering every accumulator, reads it once in
+ * date order and pushes each row to every accumulator whose range contains
+ * it, instead of letting each generator re-query its own range.
+ */
+public class BatchReportEngine {
+
+    private final ExpenseDAO expenseDAO;
+
+    public BatchReportEngine(ExpenseDAO expenseDAO) {
+        this.expenseDAO = expenseDAO;
+    }
+
+    /**
+     * Run all accumulators over a single shared scan.
+     *
+     * @return finished reports in the same order as the accumulators
+     */
+    public List<AbstractReport> run(List<? extends ReportAccumulator<?>> accumulators) {
+        if (accumulators.isEmpty()) {
+            return List.of();
+        }
+
+        LocalDate start = accumulators.get(0).getStartDate();
+        LocalDate end = accumulators.get(0).getEndDate();
+        for (ReportAccumulator<?> acc : accumulators) {
+            if (acc.getStartDate().isBefore(start)) {
+                start = acc.getStartDate();
+            }
+            if (acc.getEndDate().isAfter(end)) {
+                end = acc.getEndDate();
+            }
+        }
+
+        LoggerUtil.info("Batch report scan from {} to {} for {} reports", start, end, accumulators.size());
+        ReportAccumulator<?>[] targets = accumulators.toArray(new ReportAccumulator<?>[0]);
+        long[] rowCount = new long[1];
+        expenseDAO.forEachInDateRange(start, end, expense -> {
+            rowCount[0]++;
+            LocalDate date = expense.getDate();
+            for (ReportAccumulator<?> acc : targets) {
+                if (!date.isBefore(acc.getStartDate()) && !date.isAfter(acc.getEndDate())) {
+                    acc.accept(expense);
+                }
+            }
+        });
+        LoggerUtil.debug("Batch report scan read {} rows", rowCount[0]);
+
+        List<AbstractReport> reports = new ArrayList<>(targets.length);
+        for (ReportAccumulator<?> acc : targets) {
+            reports.add(acc.finish());
+        }
+        return reports;
+    }
+}
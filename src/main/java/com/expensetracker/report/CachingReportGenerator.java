@@ -0,0 +1,73 @@
+package com.expensetracker.report;
+
+import java.time.LocalDate;
+import java.util.function.Function;
+
+import com.expensetracker.util.LoggerUtil;
+
+/**
+ * Decorator that serves repeated requests for an unchanged date range from a
+ * shared {@link ReportCache} instead of re-querying and re-rendering.
+ */
+public class CachingReportGenerator<R extends AbstractReport, Q> implements ReportGenerator<R, Q> {
+
+    private final ReportGenerator<R, Q> delegate;
+    private final Function<Q, ReportCache.Key> keyFunction;
+    private final Class<R> reportClass;
+    private final ReportCache cache;
+
+    public CachingReportGenerator(Class<R> reportClass, ReportGenerator<R, Q> delegate,
+            Function<Q, ReportCache.Key> keyFunction, ReportCache cache) {
+        this.reportClass = reportClass;
+        this.delegate = delegate;
+        this.keyFunction = keyFunction;
+        this.cache = cache;
+    }
+
+    @Override
+    public R generate(Q request) {
+        ReportCache.Key key = keyFunction.apply(request);
+        AbstractReport cached = cache.get(key);
+        if (reportClass.isInstance(cached)) {
+            LoggerUtil.debug("Report cache hit for {}", key);
+            return reportClass.cast(cached);
+        }
+        // Capture the version before querying so a concurrent write marks the result stale
+        long version = cache.currentVersion();
+        R report = delegate.generate(request);
+        cache.put(key, report, version);
+        return report;
+    }
+
+    /**
+     * Cached generator for single-day reports.
+     */
+    public static CachingReportGenerator<DailyReport, LocalDate> daily(DailyReportGenerator delegate, ReportCache cache) {
+        return new CachingReportGenerator<>(DailyReport.class, delegate,
+                date -> new ReportCache.Key("daily", date, date), cache);
+    }
+
+    /**
+     * Cached generator for weekly (arbitrary range) reports.
+     */
+    public static CachingReportGenerator<WeeklyReport, WeeklyReportRequest> weekly(WeeklyReportGenerator delegate, ReportCache cache) {
+        return new CachingReportGenerator<>(WeeklyReport.class, delegate,
+                request -> new ReportCache.Key("weekly", request.getStartDate(), request.getEndDate()), cache);
+    }
+
+    /**
+     * Cached generator for rollup-backed range summaries.
+     */
+    public static CachingReportGenerator<SummaryReport, SummaryReportRequest> summary(SummaryReportGenerator delegate, ReportCache cache) {
+        return new CachingReportGenerator<>(SummaryReport.class, delegate,
+                request -> new ReportCache.Key("summary", request.getStartDate(), request.getEndDate()), cache);
+    }
+
+    /**
+     * Cached generator for calendar-month reports.
+     */
+    public static CachingReportGenerator<MonthlyReport, MonthlyReportRequest> monthly(MonthlyReportGenerator delegate, ReportCache cache) {
+        return new CachingReportGenerator<>(MonthlyReport.class, delegate,
+                request -> new ReportCache.Key("monthly", request.getStartDate(), request.getEndDate()), cache);
+    }
+}
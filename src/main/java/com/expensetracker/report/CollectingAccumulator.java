@@ -0,0 +1,46 @@
+package com.expensetracker.report;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import com.expensetracker.model.Expense;
+
+/**
+ * Accumulator for reports that list individual transactions: keeps the rows
+ * of its own range and hands them to the generator's report builder.
+ */
+class CollectingAccumulator<R extends AbstractReport> implements ReportAccumulator<R> {
+
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+    private final Function<List<Expense>, R> builder;
+    private final List<Expense> rows = new ArrayList<>();
+
+    CollectingAccumulator(LocalDate startDate, LocalDate endDate, Function<List<Expense>, R> builder) {
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.builder = builder;
+    }
+
+    @Override
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    @Override
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    @Override
+    public void accept(Expense expense) {
+        rows.add(expense);
+    }
+
+    @Override
+    public R finish() {
+        return builder.apply(rows);
+    }
+}
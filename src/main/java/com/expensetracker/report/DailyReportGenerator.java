@@ -23,7 +23,17 @@ public class DailyReportGenerator implements ReportGenerator<DailyReport, LocalD
 
     @Override
     public DailyReport generate(LocalDate date) {
-        List<Expense> expenses = expenseDAO.findByDateRange(date, date);
+        return buildReport(date, expenseDAO.findByDateRange(date, date));
+    }
+
+    /**
+     * Accumulator producing the same report from a shared batch scan.
+     */
+    public ReportAccumulator<DailyReport> accumulator(LocalDate date) {
+        return new CollectingAccumulator<>(date, date, rows -> buildReport(date, rows));
+    }
+
+    private DailyReport buildReport(LocalDate date, List<Expense> expenses) {
         BigDecimal total = expenses.stream().map(Expense::getAmount).reduce(BigDecimal.ZERO, BigDecimal::add);
         Map<String, BigDecimal> perCategory = new LinkedHashMap<>();
         expenses.forEach(e -> perCategory.merge(e.getCategory().getName(), e.getAmount(), BigDecimal::add));
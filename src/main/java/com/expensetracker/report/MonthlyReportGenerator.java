@@ -0,0 +1,193 @@
+package com.expensetracker.report;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.WeekFields;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import com.expensetracker.background.BackgroundTaskManager;
+import com.expensetracker.dao.DailyRollupDAO;
+import com.expensetracker.model.DailyRollup;
+import com.expensetracker.model.Expense;
+import com.expensetracker.util.LoggerUtil;
+
+/**
+ * Generates monthly expense reports from the daily rollup. Weekly and
+ * per-category totals are accumulated in a single pass over the month's
+ * rollup rows.
+ */
+public class MonthlyReportGenerator implements ReportGenerator<MonthlyReport, MonthlyReportRequest> {
+
+    private final DailyRollupDAO rollupDAO;
+
+    public MonthlyReportGenerator(DailyRollupDAO rollupDAO) {
+        this.rollupDAO = rollupDAO;
+    }
+
+    @Override
+    public MonthlyReport generate(MonthlyReportRequest request) {
+        YearMonth month = request.getMonth();
+        LoggerUtil.info("Generating monthly report for {}", month);
+
+        try {
+            List<DailyRollup> rollups = rollupDAO.findByDateRange(request.getStartDate(), request.getEndDate());
+
+            MonthlyTotals totals = new MonthlyTotals();
+            for (DailyRollup r : rollups) {
+                totals.add(r.getDate(), r.getCategoryName(), r.getCount(), r.getTotal());
+            }
+
+            MonthlyReport report = buildReport(month, totals);
+            LoggerUtil.info("Monthly report for {} generated with {} expenses", month, totals.count);
+            return report;
+
+        } catch (Exception e) {
+            LoggerUtil.error("Failed to generate monthly report", e);
+            throw new RuntimeException("Failed to generate monthly report", e);
+        }
+    }
+
+    /**
+     * Accumulator producing the same report from raw rows of a shared batch
+     * scan, reducing them as they stream past.
+     */
+    public ReportAccumulator<MonthlyReport> accumulator(MonthlyReportRequest request) {
+        YearMonth month = request.getMonth();
+        MonthlyTotals totals = new MonthlyTotals();
+        return new ReportAccumulator<>() {
+            @Override
+            public LocalDate getStartDate() {
+                return request.getStartDate();
+            }
+
+            @Override
+            public LocalDate getEndDate() {
+                return request.getEndDate();
+            }
+
+            @Override
+            public void accept(Expense expense) {
+                totals.add(expense.getDate(), expense.getCategory().getName(), 1, expense.getAmount());
+            }
+
+            @Override
+            public MonthlyReport finish() {
+                return buildReport(month, totals);
+            }
+        };
+    }
+
+    private MonthlyReport buildReport(YearMonth month, MonthlyTotals totals) {
+        List<String> lines = generateReportLines(month, totals.total, totals.count, totals.categoryTotals, totals.weeklyTotals);
+        return new MonthlyReport(month.getYear(), month.getMonthValue(), totals.total, totals.count,
+                totals.categoryTotals, totals.weeklyTotals, lines);
+    }
+
+    /**
+     * Generate all twelve months of a year in parallel on the report pool.
+     */
+    public List<MonthlyReport> generateYear(int year) {
+        return generateInParallel(this, MonthlyReportRequest.forYear(year));
+    }
+
+    /**
+     * Run each request through the given generator on the report pool and
+     * return the reports in request order. Up to one month per available
+     * processor is generated at a time (all twelve on a machine with twelve
+     * or more cores). Must not be called from a report pool thread.
+     */
+    public static List<MonthlyReport> generateInParallel(ReportGenerator<MonthlyReport, MonthlyReportRequest> generator,
+            List<MonthlyReportRequest> requests) {
+        BackgroundTaskManager taskManager = BackgroundTaskManager.getInstance();
+        List<Future<MonthlyReport>> futures = new ArrayList<>(requests.size());
+        for (MonthlyReportRequest request : requests) {
+            futures.add(taskManager.submitReport(() -> generator.generate(request)));
+        }
+
+        List<MonthlyReport> reports = new ArrayList<>(requests.size());
+        try {
+            for (Future<MonthlyReport> future : futures) {
+                reports.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            futures.forEach(f -> f.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while generating monthly reports", e);
+        } catch (ExecutionException e) {
+            futures.forEach(f -> f.cancel(true));
+            throw new RuntimeException("Failed to generate monthly reports", e.getCause());
+        }
+        return reports;
+    }
+
+    private List<String> generateReportLines(YearMonth month, BigDecimal total, int count,
+            Map<String, BigDecimal> categoryTotals, Map<Integer, BigDecimal> weeklyTotals) {
+        List<String> lines = new ArrayList<>();
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMMM yyyy");
+
+        // Header
+        lines.add("Monthly Expense Report");
+        lines.add("Report Period: " + month.atDay(1).format(formatter));
+        lines.add("");
+
+        // Summary
+        lines.add("SUMMARY");
+        lines.add("=======");
+        lines.add("Total Expenses: $" + String.format("%.2f", total));
+        lines.add("Total Transactions: " + count);
+        lines.add("Daily Average: $" + String.format("%.2f",
+                total.divide(BigDecimal.valueOf(month.lengthOfMonth()), 2, java.math.RoundingMode.HALF_UP)));
+        lines.add("");
+
+        // Category breakdown
+        lines.add("BY CATEGORY");
+        lines.add("===========");
+        categoryTotals.entrySet().stream()
+                .sorted(Map.Entry.<String, BigDecimal>comparingByValue().reversed())
+                .forEach(entry -> {
+                    double percentage = total.compareTo(BigDecimal.ZERO) > 0
+                            ? entry.getValue().divide(total, 4, java.math.RoundingMode.HALF_UP).doubleValue() * 100 : 0;
+                    lines.add(String.format("%-20s $%8.2f (%5.1f%%)",
+                            entry.getKey(), entry.getValue(), percentage));
+                });
+        lines.add("");
+
+        // Weekly breakdown
+        lines.add("WEEKLY BREAKDOWN");
+        lines.add("================");
+        WeekFields weekFields = WeekFields.of(Locale.getDefault());
+        int lastWeek = month.atEndOfMonth().get(weekFields.weekOfMonth());
+        for (int week = month.atDay(1).get(weekFields.weekOfMonth()); week <= lastWeek; week++) {
+            lines.add(String.format("Week %-10d $%8.2f", week, weeklyTotals.getOrDefault(week, BigDecimal.ZERO)));
+        }
+
+        return lines;
+    }
+
+    /**
+     * Running per-category and per-week-of-month totals for one month.
+     */
+    private static final class MonthlyTotals {
+
+        private final WeekFields weekFields = WeekFields.of(Locale.getDefault());
+        private final Map<String, BigDecimal> categoryTotals = new TreeMap<>();
+        private final Map<Integer, BigDecimal> weeklyTotals = new TreeMap<>();
+        private BigDecimal total = BigDecimal.ZERO;
+        private int count;
+
+        void add(LocalDate date, String categoryName, int expenseCount, BigDecimal amount) {
+            total = total.add(amount);
+            count += expenseCount;
+            categoryTotals.merge(categoryName, amount, BigDecimal::add);
+            weeklyTotals.merge(date.get(weekFields.weekOfMonth()), amount, BigDecimal::add);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.expensetracker.report;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Request object for generating monthly reports
+ */
+public class MonthlyReportRequest {
+
+    private final YearMonth month;
+
+    public MonthlyReportRequest(int year, int month) {
+        this.month = YearMonth.of(year, month);
+    }
+
+    public MonthlyReportRequest(YearMonth month) {
+        this.month = month;
+    }
+
+    /**
+     * One request per calendar month of the given year.
+     */
+    public static List<MonthlyReportRequest> forYear(int year) {
+        List<MonthlyReportRequest> requests = new ArrayList<>(12);
+        for (int m = 1; m <= 12; m++) {
+            requests.add(new MonthlyReportRequest(year, m));
+        }
+        return requests;
+    }
+
+    public YearMonth getMonth() {
+        return month;
+    }
+
+    public LocalDate getStartDate() {
+        return month.atDay(1);
+    }
+
+    public LocalDate getEndDate() {
+        return month.atEndOfMonth();
+    }
+}
@@ -0,0 +1,21 @@
+package com.expensetracker.report;
+
+import java.time.LocalDate;
+
+import com.expensetracker.model.Expense;
+
+/**
+ * Incrementally builds one report from expense rows pushed to it by a shared
+ * scan. The {@link BatchReportEngine} only forwards rows that fall inside
+ * {@link #getStartDate()}..{@link #getEndDate()}.
+ */
+public interface ReportAccumulator<R extends AbstractReport> {
+
+    LocalDate getStartDate();
+
+    LocalDate getEndDate();
+
+    void accept(Expense expense);
+
+    R finish();
+}
@@ -0,0 +1,203 @@
+package com.expensetracker.report;
+
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * Memory-bounded LRU cache of generated reports keyed by owner, report type
+ * and date range. The owner (the signed-in user) is added to every key by the
+ * cache itself, so one user never sees another's reports while all users share
+ * the memory budget. Every entry is tagged with the data version it was
+ * generated at; a lookup under a different version is treated as a miss and
+ * the entry is dropped.
+ */
+public class ReportCache {
+
+    public static final long DEFAULT_MAX_BYTES = 8L * 1024 * 1024;
+
+    private static final int ENTRY_OVERHEAD_BYTES = 256;
+    private static final int LINE_OVERHEAD_BYTES = 56;
+
+    private final long maxBytes;
+    private final LongSupplier versionSupplier;
+    private final IntSupplier ownerSupplier;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long currentBytes;
+    private long hits;
+    private long misses;
+
+    public ReportCache(LongSupplier versionSupplier) {
+        this(versionSupplier, () -> 0, DEFAULT_MAX_BYTES);
+    }
+
+    public ReportCache(LongSupplier versionSupplier, long maxBytes) {
+        this(versionSupplier, () -> 0, maxBytes);
+    }
+
+    /**
+     * @param ownerSupplier id of the user whose reports are being requested
+     */
+    public ReportCache(LongSupplier versionSupplier, IntSupplier ownerSupplier, long maxBytes) {
+        this.versionSupplier = versionSupplier;
+        this.ownerSupplier = ownerSupplier;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Current data version as seen by this cache.
+     */
+    public long currentVersion() {
+        return versionSupplier.getAsLong();
+    }
+
+    /**
+     * Returns the cached report for the key if it was generated at the
+     * current data version, otherwise null.
+     */
+    public synchronized AbstractReport get(Key key) {
+        key = key.withOwner(ownerSupplier.getAsInt());
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        if (entry.version != versionSupplier.getAsLong()) {
+            remove(key);
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.report;
+    }
+
+    /**
+     * Stores a report generated at the given data version. Reports larger than
+     * the whole budget are not cached.
+     */
+    public synchronized void put(Key key, AbstractReport report, long version) {
+        long size = estimateBytes(report);
+        if (size > maxBytes) {
+            return;
+        }
+        key = key.withOwner(ownerSupplier.getAsInt());
+        remove(key);
+        entries.put(key, new Entry(report, version, size));
+        currentBytes += size;
+        evictToBudget();
+    }
+
+    public synchronized void invalidateAll() {
+        entries.clear();
+        currentBytes = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getCurrentBytes() {
+        return currentBytes;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    private void remove(Key key) {
+        Entry old = entries.remove(key);
+        if (old != null) {
+            currentBytes -= old.sizeBytes;
+        }
+    }
+
+    private void evictToBudget() {
+        Iterator<Map.Entry<Key, Entry>> it = entries.entrySet().iterator();
+        while (currentBytes > maxBytes && it.hasNext()) {
+            currentBytes -= it.next().getValue().sizeBytes;
+            it.remove();
+        }
+    }
+
+    /**
+     * Rough retained-size estimate: report lines dominate, other fields are
+     * covered by a fixed per-entry overhead.
+     */
+    static long estimateBytes(AbstractReport report) {
+        long bytes = ENTRY_OVERHEAD_BYTES + 2L * report.getTitle().length();
+        for (String line : report.getLines()) {
+            bytes += LINE_OVERHEAD_BYTES + 2L * line.length();
+        }
+        return bytes;
+    }
+
+    /**
+     * Cache key: report type plus the inclusive date range it covers. The
+     * owner is filled in by the cache.
+     */
+    public static final class Key {
+
+        private final int owner;
+        private final String type;
+        private final LocalDate start;
+        private final LocalDate end;
+
+        public Key(String type, LocalDate start, LocalDate end) {
+            this(0, type, start, end);
+        }
+
+        private Key(int owner, String type, LocalDate start, LocalDate end) {
+            this.owner = owner;
+            this.type = type;
+            this.start = start;
+            this.end = end;
+        }
+
+        private Key withOwner(int owner) {
+            return owner == this.owner ? this : new Key(owner, type, start, end);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return owner == key.owner && type.equals(key.type) && start.equals(key.start) && end.equals(key.end);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(owner, type, start, end);
+        }
+
+        @Override
+        public String toString() {
+            return owner + ":" + type + "[" + start + ".." + end + "]";
+        }
+    }
+
+    private static final class Entry {
+
+        private final AbstractReport report;
+        private final long version;
+        private final long sizeBytes;
+
+        private Entry(AbstractReport report, long version, long sizeBytes) {
+            this.report = report;
+            this.version = version;
+            this.sizeBytes = sizeBytes;
+        }
+    }
+}
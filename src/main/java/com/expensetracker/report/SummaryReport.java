@@ -0,0 +1,69 @@
+package com.expensetracker.report;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+
+import com.expensetracker.model.PaymentMethod;
+
+/**
+ * Aggregate-only report over an arbitrary date range (no per-expense lines).
+ */
+public class SummaryReport extends AbstractReport {
+
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+    private final BigDecimal total;
+    private final int count;
+    private final Map<String, BigDecimal> categoryTotals;
+    private final Map<PaymentMethod, BigDecimal> paymentMethodTotals;
+    private final Map<LocalDate, BigDecimal> dailyTotals;
+
+    public SummaryReport(LocalDate startDate, LocalDate endDate, BigDecimal total, int count,
+            Map<String, BigDecimal> categoryTotals, Map<PaymentMethod, BigDecimal> paymentMethodTotals,
+            Map<LocalDate, BigDecimal> dailyTotals, List<String> lines) {
+        super(generateTitle(startDate, endDate), lines);
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.total = total;
+        this.count = count;
+        this.categoryTotals = categoryTotals;
+        this.paymentMethodTotals = paymentMethodTotals;
+        this.dailyTotals = dailyTotals;
+    }
+
+    private static String generateTitle(LocalDate startDate, LocalDate endDate) {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM dd, yyyy");
+        return String.format("Summary Report (%s - %s)", startDate.format(formatter), endDate.format(formatter));
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public BigDecimal getTotal() {
+        return total;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public Map<String, BigDecimal> getCategoryTotals() {
+        return categoryTotals;
+    }
+
+    public Map<PaymentMethod, BigDecimal> getPaymentMethodTotals() {
+        return paymentMethodTotals;
+    }
+
+    public Map<LocalDate, BigDecimal> getDailyTotals() {
+        return dailyTotals;
+    }
+}
@@ -0,0 +1,82 @@
+package com.expensetracker.report;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.expensetracker.dao.DailyRollupDAO;
+import com.expensetracker.model.DailyRollup;
+import com.expensetracker.model.PaymentMethod;
+import com.expensetracker.util.LoggerUtil;
+
+/**
+ * Generates range summaries from the pre-aggregated daily rollup, so a
+ * year-long summary reads at most one row per (day, category, payment
+ * method) instead of every expense.
+ */
+public class SummaryReportGenerator implements ReportGenerator<SummaryReport, SummaryReportRequest> {
+
+    private final DailyRollupDAO rollupDAO;
+
+    public SummaryReportGenerator(DailyRollupDAO rollupDAO) {
+        this.rollupDAO = rollupDAO;
+    }
+
+    @Override
+    public SummaryReport generate(SummaryReportRequest request) {
+        LocalDate start = request.getStartDate();
+        LocalDate end = request.getEndDate();
+        LoggerUtil.info("Generating summary report from {} to {}", start, end);
+
+        List<DailyRollup> rollups = rollupDAO.findByDateRange(start, end);
+
+        BigDecimal total = BigDecimal.ZERO;
+        int count = 0;
+        Map<String, BigDecimal> categoryTotals = new TreeMap<>();
+        Map<PaymentMethod, BigDecimal> methodTotals = new EnumMap<>(PaymentMethod.class);
+        Map<LocalDate, BigDecimal> dailyTotals = new TreeMap<>();
+        for (DailyRollup r : rollups) {
+            total = total.add(r.getTotal());
+            count += r.getCount();
+            categoryTotals.merge(r.getCategoryName(), r.getTotal(), BigDecimal::add);
+            methodTotals.merge(r.getPaymentMethod(), r.getTotal(), BigDecimal::add);
+            dailyTotals.merge(r.getDate(), r.getTotal(), BigDecimal::add);
+        }
+
+        List<String> lines = generateReportLines(start, end, total, count, categoryTotals, methodTotals);
+        LoggerUtil.info("Summary report built from {} rollup rows ({} expenses)", rollups.size(), count);
+        return new SummaryReport(start, end, total, count, categoryTotals, methodTotals, dailyTotals, lines);
+    }
+
+    private List<String> generateReportLines(LocalDate start, LocalDate end, BigDecimal total, int count,
+            Map<String, BigDecimal> categoryTotals, Map<PaymentMethod, BigDecimal> methodTotals) {
+        List<String> lines = new ArrayList<>();
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM dd, yyyy");
+        long days = java.time.temporal.ChronoUnit.DAYS.between(start, end) + 1;
+
+        lines.add("Expense Summary");
+        lines.add("Report Period: " + start.format(formatter) + " to " + end.format(formatter));
+        lines.add("");
+        lines.add("SUMMARY");
+        lines.add("=======");
+        lines.add("Total Expenses: $" + String.format("%.2f", total));
+        lines.add("Total Transactions: " + count);
+        lines.add("Daily Average: $" + String.format("%.2f", total.divide(BigDecimal.valueOf(days), 2, java.math.RoundingMode.HALF_UP)));
+        lines.add("");
+        lines.add("BY CATEGORY");
+        lines.add("===========");
+        categoryTotals.entrySet().stream()
+                .sorted(Map.Entry.<String, BigDecimal>comparingByValue().reversed())
+                .forEach(entry -> lines.add(String.format("%-20s $%10.2f", entry.getKey(), entry.getValue())));
+        lines.add("");
+        lines.add("BY PAYMENT METHOD");
+        lines.add("=================");
+        methodTotals.forEach((method, amount) -> lines.add(String.format("%-20s $%10.2f", method, amount)));
+        return lines;
+    }
+}
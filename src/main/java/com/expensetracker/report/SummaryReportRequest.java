@@ -0,0 +1,28 @@
+package com.expensetracker.report;
+
+import java.time.LocalDate;
+
+/**
+ * Request object for generating range summary reports
+ */
+public class SummaryReportRequest {
+
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+
+    public SummaryReportRequest(LocalDate startDate, LocalDate endDate) {
+        if (endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("End date must not be before start date");
+        }
+        this.startDate = startDate;
+        this.endDate = endDate;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+}
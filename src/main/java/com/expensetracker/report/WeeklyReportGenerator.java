@@ -35,40 +35,51 @@ public class WeeklyReportGenerator implements ReportGenerator<WeeklyReport, Week
             LocalDate weekEnd = request.getEndDate();
 
             List<Expense> expenses = expenseDAO.findByDateRange(weekStart, weekEnd);
+            return buildReport(weekStart, weekEnd, expenses);
 
-            // Calculate totals
-            BigDecimal total = expenses.stream()
-                    .map(Expense::getAmount)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+        } catch (Exception e) {
+            LoggerUtil.error("Failed to generate weekly report", e);
+            throw new RuntimeException("Failed to generate weekly report", e);
+        }
+    }
 
-            int count = expenses.size();
+    /**
+     * Accumulator producing the same report from a shared batch scan.
+     */
+    public ReportAccumulator<WeeklyReport> accumulator(WeeklyReportRequest request) {
+        return new CollectingAccumulator<>(request.getStartDate(), request.getEndDate(),
+                rows -> buildReport(request.getStartDate(), request.getEndDate(), rows));
+    }
 
-            // Group by category
-            Map<String, BigDecimal> categoryTotals = expenses.stream()
-                    .collect(Collectors.groupingBy(
-                            expense -> expense.getCategory().getName(),
-                            Collectors.reducing(BigDecimal.ZERO, Expense::getAmount, BigDecimal::add)
-                    ));
+    private WeeklyReport buildReport(LocalDate weekStart, LocalDate weekEnd, List<Expense> expenses) {
+        // Calculate totals
+        BigDecimal total = expenses.stream()
+                .map(Expense::getAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
 
-            // Group by day
-            Map<LocalDate, BigDecimal> dailyTotals = expenses.stream()
-                    .collect(Collectors.groupingBy(
-                            Expense::getDate,
-                            Collectors.reducing(BigDecimal.ZERO, Expense::getAmount, BigDecimal::add)
-                    ));
+        int count = expenses.size();
 
-            // Generate report lines
-            List<String> lines = generateReportLines(weekStart, weekEnd, expenses, total, count, categoryTotals, dailyTotals);
+        // Group by category
+        Map<String, BigDecimal> categoryTotals = expenses.stream()
+                .collect(Collectors.groupingBy(
+                        expense -> expense.getCategory().getName(),
+                        Collectors.reducing(BigDecimal.ZERO, Expense::getAmount, BigDecimal::add)
+                ));
 
-            WeeklyReport report = new WeeklyReport(weekStart, weekEnd, total, count, categoryTotals, dailyTotals, lines);
+        // Group by day
+        Map<LocalDate, BigDecimal> dailyTotals = expenses.stream()
+                .collect(Collectors.groupingBy(
+                        Expense::getDate,
+                        Collectors.reducing(BigDecimal.ZERO, Expense::getAmount, BigDecimal::add)
+                ));
 
-            LoggerUtil.info("Weekly report generated successfully with " + count + " expenses totaling $" + total);
-            return report;
+        // Generate report lines
+        List<String> lines = generateReportLines(weekStart, weekEnd, expenses, total, count, categoryTotals, dailyTotals);
 
-        } catch (Exception e) {
-            LoggerUtil.error("Failed to generate weekly report", e);
-            throw new RuntimeException("Failed to generate weekly report", e);
-        }
+        WeeklyReport report = new WeeklyReport(weekStart, weekEnd, total, count, categoryTotals, dailyTotals, lines);
+
+        LoggerUtil.info("Weekly report generated successfully with " + count + " expenses totaling $" + total);
+        return report;
     }
 
     /**
@@ -0,0 +1,44 @@
+package com.expensetracker.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * The original single-round {@code SHA-256(salt + ":" + password)} hash,
+ * stored as 64 hex digits. Kept only so existing accounts can still sign in;
+ * every such hash needs a rehash.
+ */
+public class LegacySha256HashScheme implements PasswordHashScheme {
+
+    private static final HexFormat HEX = HexFormat.of();
+
+    @Override
+    public String hash(String rawPassword, String salt) {
+        return HEX.formatHex(digest(rawPassword, salt));
+    }
+
+    @Override
+    public boolean recognizes(String storedHash) {
+        return storedHash.length() == 64 && storedHash.chars().allMatch(HexFormat::isHexDigit);
+    }
+
+    @Override
+    public boolean verify(String rawPassword, String salt, String storedHash) {
+        return MessageDigest.isEqual(HEX.parseHex(storedHash), digest(rawPassword, salt));
+    }
+
+    @Override
+    public boolean needsRehash(String storedHash) {
+        return true;
+    }
+
+    private static byte[] digest(String rawPassword, String salt) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest((salt + ":" + rawPassword).getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 algorithm not available", e);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.expensetracker.security;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Counts failed logins per username and rejects further attempts once too
+ * many have piled up, before any database lookup or password hash is done.
+ * <p>
+ * Each failure adds one to the username's score and the score halves every
+ * {@code halfLife}; {@code maxFailures} failures in quick succession block
+ * the name. A burst is therefore stopped quickly while a user who mistypes
+ * now and then never is. Rejected attempts are not counted. Counters are
+ * spread over lock stripes so concurrent logins for different names rarely
+ * contend.
+ */
+public class LoginAttemptLimiter {
+
+    private static final int STRIPES = 32;
+    // Per stripe; above this, decayed entries are dropped on the next failure
+    private static final int PRUNE_THRESHOLD = 1024;
+    private static final double FORGOTTEN_SCORE = 0.5;
+
+    private static LoginAttemptLimiter INSTANCE;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final int maxFailures;
+    private final double halfLifeNanos;
+    private final LongSupplier nanoClock;
+
+    public LoginAttemptLimiter(int maxFailures, Duration halfLife) {
+        this(maxFailures, halfLife, System::nanoTime);
+    }
+
+    /**
+     * @param nanoClock monotonic time source, {@link System#nanoTime} outside tests
+     */
+    public LoginAttemptLimiter(int maxFailures, Duration halfLife, LongSupplier nanoClock) {
+        if (maxFailures < 1) {
+            throw new IllegalArgumentException("maxFailures must be positive");
+        }
+        this.maxFailures = maxFailures;
+        this.halfLifeNanos = halfLife.toNanos();
+        this.nanoClock = nanoClock;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Shared instance: {@code -Dexpensetracker.login.maxFailures} (default 5)
+     * failures, halving every {@code -Dexpensetracker.login.failureHalfLifeSeconds}
+     * (default 300).
+     */
+    public static synchronized LoginAttemptLimiter getInstance() {
+        if (INSTANCE == null) {
+            int maxFailures = Integer.getInteger("expensetracker.login.maxFailures", 5);
+            long halfLifeSeconds = Long.getLong("expensetracker.login.failureHalfLifeSeconds", 300);
+            INSTANCE = new LoginAttemptLimiter(maxFailures, Duration.ofSeconds(halfLifeSeconds));
+        }
+        return INSTANCE;
+    }
+
+    public boolean isBlocked(String username) {
+        String key = key(username);
+        Stripe stripe = stripeFor(key);
+        synchronized (stripe) {
+            Score score = stripe.scores.get(key);
+            // Above maxFailures - 1 so a quick burst of maxFailures blocks despite the sliver of decay
+            return score != null && score.decayedTo(nanoClock.getAsLong(), halfLifeNanos) > maxFailures - 1;
+        }
+    }
+
+    public void recordFailure(String username) {
+        String key = key(username);
+        Stripe stripe = stripeFor(key);
+        long now = nanoClock.getAsLong();
+        synchronized (stripe) {
+            if (stripe.scores.size() > PRUNE_THRESHOLD) {
+                stripe.scores.values().removeIf(s -> s.decayedTo(now, halfLifeNanos) < FORGOTTEN_SCORE);
+            }
+            Score score = stripe.scores.computeIfAbsent(key, k -> new Score());
+            score.value = score.decayedTo(now, halfLifeNanos) + 1;
+            score.updatedAt = now;
+        }
+    }
+
+    public void recordSuccess(String username) {
+        String key = key(username);
+        Stripe stripe = stripeFor(key);
+        synchronized (stripe) {
+            stripe.scores.remove(key);
+        }
+    }
+
+    private Stripe stripeFor(String key) {
+        int h = key.hashCode();
+        return stripes[(h ^ (h >>> 16)) & (STRIPES - 1)];
+    }
+
+    private static String key(String username) {
+        return username == null ? "" : username.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Stripe {
+        final Map<String, Score> scores = new HashMap<>();
+    }
+
+    private static final class Score {
+        double value;
+        long updatedAt;
+
+        double decayedTo(long now, double halfLifeNanos) {
+            if (value == 0) {
+                return 0;
+            }
+            return value * Math.pow(0.5, (now - updatedAt) / halfLifeNanos);
+        }
+    }
+}
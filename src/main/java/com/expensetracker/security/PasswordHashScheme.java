@@ -0,0 +1,31 @@
+package com.expensetracker.security;
+
+/**
+ * A way of turning a password and salt into the string stored in
+ * {@code user_account.password_hash}. Implementations must be thread-safe.
+ * <p>
+ * Extra schemes can be plugged in through {@link java.util.ServiceLoader}
+ * ({@code META-INF/services/com.expensetracker.security.PasswordHashScheme});
+ * they are then recognized when verifying stored hashes.
+ */
+public interface PasswordHashScheme {
+
+    String hash(String rawPassword, String salt);
+
+    /**
+     * Whether the stored hash was produced by this scheme.
+     */
+    boolean recognizes(String storedHash);
+
+    /**
+     * Check a password against a hash this scheme recognizes, in time
+     * independent of where the two differ.
+     */
+    boolean verify(String rawPassword, String salt, String storedHash);
+
+    /**
+     * Whether a hash this scheme recognizes is weaker than what it produces
+     * now and should be replaced at the next successful login.
+     */
+    boolean needsRehash(String storedHash);
+}
@@ -0,0 +1,116 @@
+package com.expensetracker.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.HexFormat;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+import com.expensetracker.util.LoggerUtil;
+
+/**
+ * PBKDF2-HMAC-SHA256 with a configurable iteration count. Hashes are stored
+ * as {@code pbkdf2-sha256$<iterations>$<hex>}, so they can be verified after
+ * the cost changes. Each call uses its own SecretKeyFactory, so one instance
+ * can serve concurrent logins.
+ */
+public class Pbkdf2HashScheme implements PasswordHashScheme {
+
+    public static final String ID = "pbkdf2-sha256";
+    /**
+     * Floor applied by {@link #calibrated}, whatever the target latency.
+     */
+    public static final int MIN_ITERATIONS = 100_000;
+
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final int KEY_BITS = 256;
+    private static final int PROBE_ITERATIONS = 20_000;
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final int iterations;
+
+    public Pbkdf2HashScheme(int iterations) {
+        if (iterations < 1) {
+            throw new IllegalArgumentException("iterations must be positive");
+        }
+        this.iterations = iterations;
+    }
+
+    /**
+     * Scheme whose iteration count makes one hash take about {@code target}
+     * on this machine (never fewer than {@value #MIN_ITERATIONS}
+     * iterations). Measures a few probe hashes, so it costs a few tens of
+     * milliseconds.
+     */
+    public static Pbkdf2HashScheme calibrated(Duration target) {
+        derive("calibration", "salt", PROBE_ITERATIONS); // warm-up
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long started = System.nanoTime();
+            derive("calibration", "salt", PROBE_ITERATIONS);
+            best = Math.min(best, System.nanoTime() - started);
+        }
+        long scaled = PROBE_ITERATIONS * target.toNanos() / Math.max(1, best);
+        // Round to 10,000 so repeated calibrations agree and do not trigger rehashes
+        int iterations = (int) Math.max(MIN_ITERATIONS, Math.min(Integer.MAX_VALUE, (scaled + 9_999) / 10_000 * 10_000));
+        LoggerUtil.info("Password hashing calibrated to {} PBKDF2 iterations (target {} ms)", iterations, target.toMillis());
+        return new Pbkdf2HashScheme(iterations);
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    @Override
+    public String hash(String rawPassword, String salt) {
+        return ID + "$" + iterations + "$" + HEX.formatHex(derive(rawPassword, salt, iterations));
+    }
+
+    @Override
+    public boolean recognizes(String storedHash) {
+        return storedHash.startsWith(ID + "$");
+    }
+
+    @Override
+    public boolean verify(String rawPassword, String salt, String storedHash) {
+        String[] parts = storedHash.split("\\$");
+        if (parts.length != 3 || !ID.equals(parts[0])) {
+            return false;
+        }
+        try {
+            int storedIterations = Integer.parseInt(parts[1]);
+            byte[] expected = HEX.parseHex(parts[2]);
+            return storedIterations > 0 && MessageDigest.isEqual(expected, derive(rawPassword, salt, storedIterations));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Hashes made with less than half the current cost are upgraded; smaller
+     * differences are calibration noise.
+     */
+    @Override
+    public boolean needsRehash(String storedHash) {
+        String[] parts = storedHash.split("\\$");
+        try {
+            return parts.length != 3 || Integer.parseInt(parts[1]) < iterations / 2;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    private static byte[] derive(String rawPassword, String salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(rawPassword.toCharArray(), salt.getBytes(StandardCharsets.UTF_8), iterations, KEY_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " not available", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+}
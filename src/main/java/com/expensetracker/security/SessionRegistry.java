@@ -0,0 +1,145 @@
+package com.expensetracker.security;
+
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.expensetracker.model.UserAccount;
+
+/**
+ * Signed-in sessions keyed by an unguessable token, for callers that serve
+ * several users at once. The desktop UI keeps using the single user in
+ * {@link com.expensetracker.util.SessionContext}. Sessions idle for longer
+ * than the timeout are dropped when next looked up or by {@link #evictIdle}.
+ * Thread-safe.
+ */
+public class SessionRegistry {
+
+    private static final int TOKEN_BYTES = 32;
+
+    private static SessionRegistry INSTANCE;
+
+    private final ConcurrentMap<String, Session> sessions = new ConcurrentHashMap<>();
+    private final SecureRandom random = new SecureRandom();
+    private final Duration idleTimeout;
+    private final Clock clock;
+
+    public SessionRegistry(Duration idleTimeout) {
+        this(idleTimeout, Clock.systemUTC());
+    }
+
+    public SessionRegistry(Duration idleTimeout, Clock clock) {
+        this.idleTimeout = idleTimeout;
+        this.clock = clock;
+    }
+
+    /**
+     * Shared instance; sessions expire after
+     * {@code -Dexpensetracker.session.idleMinutes} (default 30) without use.
+     */
+    public static synchronized SessionRegistry getInstance() {
+        if (INSTANCE == null) {
+            long idleMinutes = Long.getLong("expensetracker.session.idleMinutes", 30);
+            INSTANCE = new SessionRegistry(Duration.ofMinutes(idleMinutes));
+        }
+        return INSTANCE;
+    }
+
+    public Session open(UserAccount user) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        Session session = new Session(token, user, clock.instant());
+        sessions.put(token, session);
+        return session;
+    }
+
+    /**
+     * The live session for a token, marking it as used.
+     */
+    public Optional<Session> find(String token) {
+        if (token == null) {
+            return Optional.empty();
+        }
+        Session session = sessions.get(token);
+        if (session == null) {
+            return Optional.empty();
+        }
+        Instant now = clock.instant();
+        if (isIdle(session, now)) {
+            sessions.remove(token, session);
+            return Optional.empty();
+        }
+        session.lastUsedAt = now;
+        return Optional.of(session);
+    }
+
+    public boolean close(String token) {
+        return token != null && sessions.remove(token) != null;
+    }
+
+    /**
+     * Ends every session of a user, e.g. after a password change.
+     *
+     * @return number of sessions closed
+     */
+    public int closeAll(int userId) {
+        int before = sessions.size();
+        sessions.values().removeIf(s -> s.getUser().getId() == userId);
+        return Math.max(0, before - sessions.size());
+    }
+
+    /**
+     * @return number of sessions dropped
+     */
+    public int evictIdle() {
+        Instant now = clock.instant();
+        int before = sessions.size();
+        sessions.values().removeIf(s -> isIdle(s, now));
+        return Math.max(0, before - sessions.size());
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    private boolean isIdle(Session session, Instant now) {
+        return session.lastUsedAt.plus(idleTimeout).isBefore(now);
+    }
+
+    public static final class Session {
+
+        private final String token;
+        private final UserAccount user;
+        private final Instant createdAt;
+        private volatile Instant lastUsedAt;
+
+        Session(String token, UserAccount user, Instant createdAt) {
+            this.token = token;
+            this.user = user;
+            this.createdAt = createdAt;
+            this.lastUsedAt = createdAt;
+        }
+
+        public String getToken() {
+            return token;
+        }
+
+        public UserAccount getUser() {
+            return user;
+        }
+
+        public Instant getCreatedAt() {
+            return createdAt;
+        }
+
+        public Instant getLastUsedAt() {
+            return lastUsedAt;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.expensetracker.server;
+
+/**
+ * A request failure with the HTTP status to report it as.
+ */
+class ApiException extends RuntimeException {
+
+    private final int status;
+
+    ApiException(int status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    static ApiException notFound(String what) {
+        return new ApiException(404, what + " not found");
+    }
+
+    static ApiException methodNotAllowed(String method) {
+        return new ApiException(405, "Method " + method + " not allowed here");
+    }
+
+    int getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,204 @@
+package com.expensetracker.server;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+
+/**
+ * One API request: path segments below the handler's context, query
+ * parameters, the JSON body, and the JSON response. Responses are streamed
+ * with chunked encoding and gzip-compressed when the client accepts it, so
+ * large results never have to be held in memory.
+ */
+class ApiExchange {
+
+    static final int MAX_BODY_BYTES = 1024 * 1024;
+
+    private final HttpExchange exchange;
+    private final List<String> segments;
+    private final Map<String, String> query;
+
+    ApiExchange(HttpExchange exchange) {
+        this.exchange = exchange;
+        this.segments = pathSegments(exchange);
+        this.query = parseQuery(exchange.getRequestURI().getRawQuery());
+    }
+
+    String method() {
+        return exchange.getRequestMethod();
+    }
+
+    /**
+     * Path segments after the context path, e.g. {@code ["42"]} for
+     * {@code /api/expenses/42} under {@code /api/expenses}.
+     */
+    List<String> segments() {
+        return segments;
+    }
+
+    String bearerToken() {
+        String header = exchange.getRequestHeaders().getFirst("Authorization");
+        if (header == null || !header.regionMatches(true, 0, "Bearer ", 0, 7)) {
+            return null;
+        }
+        return header.substring(7).trim();
+    }
+
+    String query(String name) {
+        return query.get(name);
+    }
+
+    LocalDate requireDate(String name) {
+        String value = query.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Query parameter '" + name + "' (yyyy-MM-dd) is required");
+        }
+        return LocalDate.parse(value);
+    }
+
+    int intQuery(String name, int defaultValue) {
+        String value = query.get(name);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+
+    long idSegment(int index) {
+        try {
+            return Long.parseLong(segments.get(index));
+        } catch (NumberFormatException e) {
+            throw ApiException.notFound("'" + segments.get(index) + "'");
+        }
+    }
+
+    Map<String, Object> body() {
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] bytes = in.readNBytes(MAX_BODY_BYTES + 1);
+            if (bytes.length > MAX_BODY_BYTES) {
+                throw new ApiException(413, "Request body larger than " + MAX_BODY_BYTES + " bytes");
+            }
+            return JsonParser.parseObject(new String(bytes, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Send a JSON response written by {@code body} as it goes.
+     */
+    void respond(int status, Consumer<JsonWriter> body) {
+        Headers headers = exchange.getResponseHeaders();
+        headers.set("Content-Type", "application/json; charset=utf-8");
+        headers.add("Vary", "Accept-Encoding");
+        boolean gzip = acceptsGzip();
+        if (gzip) {
+            headers.set("Content-Encoding", "gzip");
+        }
+        try {
+            exchange.sendResponseHeaders(status, 0);
+            OutputStream out = exchange.getResponseBody();
+            if (gzip) {
+                out = new GZIPOutputStream(out, 8192);
+            }
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 16 * 1024)) {
+                body.accept(new JsonWriter(writer));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    void respondNoContent() {
+        try {
+            exchange.sendResponseHeaders(204, -1);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    void respondError(int status, String message) {
+        respond(status, json -> json.beginObject().name("error").value(message).endObject());
+    }
+
+    /**
+     * Whether the status line has gone out, after which errors can no longer
+     * be reported to the client.
+     */
+    boolean responseStarted() {
+        return exchange.getResponseCode() != -1;
+    }
+
+    static String string(Map<String, Object> body, String name) {
+        Object value = body.get(name);
+        if (value != null && !(value instanceof String)) {
+            throw new IllegalArgumentException("'" + name + "' must be a string");
+        }
+        return (String) value;
+    }
+
+    static String requireString(Map<String, Object> body, String name) {
+        String value = string(body, name);
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("'" + name + "' is required");
+        }
+        return value;
+    }
+
+    static BigDecimal decimal(Map<String, Object> body, String name) {
+        Object value = body.get(name);
+        if (value == null || value instanceof BigDecimal) {
+            return (BigDecimal) value;
+        }
+        if (value instanceof String s) {
+            return new BigDecimal(s);
+        }
+        throw new IllegalArgumentException("'" + name + "' must be a number");
+    }
+
+    private boolean acceptsGzip() {
+        String accept = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        return accept != null && accept.toLowerCase(Locale.ROOT).contains("gzip");
+    }
+
+    private static List<String> pathSegments(HttpExchange exchange) {
+        String path = exchange.getRequestURI().getPath();
+        String context = exchange.getHttpContext().getPath();
+        List<String> result = new ArrayList<>();
+        for (String part : path.substring(Math.min(context.length(), path.length())).split("/")) {
+            if (!part.isEmpty()) {
+                result.add(part);
+            }
+        }
+        return List.copyOf(result);
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> result = new HashMap<>();
+        if (rawQuery == null) {
+            return result;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            result.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,102 @@
+package com.expensetracker.server;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import com.expensetracker.security.SessionRegistry;
+import com.expensetracker.security.SessionRegistry.Session;
+import com.expensetracker.util.LoggerUtil;
+import com.expensetracker.util.SessionContext;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+
+/**
+ * Common request handling: bounds the number of requests doing work at once
+ * (each may hold a database connection), resolves the bearer token to a
+ * session and runs the handler as that session's user, and turns exceptions
+ * into JSON error responses.
+ */
+abstract class ApiHandler implements HttpHandler {
+
+    private static final long PERMIT_WAIT_SECONDS = 10;
+
+    private final Semaphore permits;
+    private final SessionRegistry sessions;
+
+    /**
+     * @param sessions registry to authenticate against, or null for
+     * handlers that manage authentication themselves
+     */
+    ApiHandler(Semaphore permits, SessionRegistry sessions) {
+        this.permits = permits;
+        this.sessions = sessions;
+    }
+
+    /**
+     * Serve one request; called as the session's user unless the handler
+     * was created without a registry.
+     */
+    abstract void serve(ApiExchange exchange);
+
+    @Override
+    public final void handle(HttpExchange httpExchange) throws IOException {
+        try (httpExchange) {
+            ApiExchange exchange = new ApiExchange(httpExchange);
+            if (!permits.tryAcquire(PERMIT_WAIT_SECONDS, TimeUnit.SECONDS)) {
+                exchange.respondError(503, "Server busy, try again");
+                return;
+            }
+            try {
+                dispatch(exchange);
+            } finally {
+                permits.release();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void dispatch(ApiExchange exchange) {
+        try {
+            if (sessions == null) {
+                serve(exchange);
+                return;
+            }
+            Optional<Session> session = sessions.find(exchange.bearerToken());
+            if (session.isEmpty()) {
+                exchange.respondError(401, "Sign in first (POST /api/session) and send 'Authorization: Bearer <token>'");
+                return;
+            }
+            SessionContext.getInstance().callAs(session.get().getUser(), () -> {
+                serve(exchange);
+                return null;
+            });
+        } catch (ApiException e) {
+            fail(exchange, e.getStatus(), e.getMessage());
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            fail(exchange, 400, e.getMessage());
+        } catch (UncheckedIOException e) {
+            LoggerUtil.debug("API client went away: {}", e.getMessage());
+        } catch (RuntimeException e) {
+            LoggerUtil.error("API request " + exchange.method() + " failed", e);
+            fail(exchange, 500, "Internal error");
+        }
+    }
+
+    private static void fail(ApiExchange exchange, int status, String message) {
+        if (exchange.responseStarted()) {
+            // Mid-stream: the client sees a truncated body
+            LoggerUtil.warn("API response aborted after headers were sent: {}", message);
+            return;
+        }
+        try {
+            exchange.respondError(status, message);
+        } catch (UncheckedIOException e) {
+            LoggerUtil.debug("API client went away: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.expensetracker.server;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.time.LocalDate;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import com.expensetracker.background.BackgroundTaskManager;
+import com.expensetracker.report.DailyReport;
+import com.expensetracker.report.MonthlyReport;
+import com.expensetracker.report.MonthlyReportRequest;
+import com.expensetracker.report.ReportGenerator;
+import com.expensetracker.report.SummaryReport;
+import com.expensetracker.report.SummaryReportRequest;
+import com.expensetracker.report.WeeklyReport;
+import com.expensetracker.report.WeeklyReportRequest;
+import com.expensetracker.security.SessionRegistry;
+import com.expensetracker.service.AuthService;
+import com.expensetracker.service.CategoryService;
+import com.expensetracker.service.ExpenseService;
+import com.expensetracker.util.LoggerUtil;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * JSON API over the services, on the JDK's built-in HTTP server with one
+ * virtual thread per request. Clients sign in with {@code POST /api/session}
+ * and send the returned token as {@code Authorization: Bearer <token>};
+ * every other request runs as that token's user. At most
+ * {@code maxConcurrent} requests do work at once, since each may hold a
+ * database connection; the rest wait briefly and then get 503.
+ */
+public class ApiServer {
+
+    private static final long SESSION_EVICTION_MINUTES = 5;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final SessionRegistry sessions;
+    private ScheduledFuture<?> evictionTask;
+
+    private ApiServer(InetSocketAddress address, SessionRegistry sessions) {
+        try {
+            this.server = HttpServer.create(address, 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not bind API server to " + address, e);
+        }
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.server.setExecutor(executor);
+        this.sessions = sessions;
+    }
+
+    public static ApiServer create(InetSocketAddress address, int maxConcurrent,
+            AuthService authService, SessionRegistry sessions,
+            CategoryService categoryService, ExpenseService expenseService,
+            ReportGenerator<DailyReport, LocalDate> daily,
+            ReportGenerator<WeeklyReport, WeeklyReportRequest> weekly,
+            ReportGenerator<MonthlyReport, MonthlyReportRequest> monthly,
+            ReportGenerator<SummaryReport, SummaryReportRequest> summary) {
+        ApiServer api = new ApiServer(address, sessions);
+        Semaphore permits = new Semaphore(maxConcurrent);
+        api.server.createContext("/api/session", new SessionHandler(permits, authService));
+        api.server.createContext("/api/categories", new CategoryHandler(permits, sessions, categoryService));
+        api.server.createContext("/api/expenses", new ExpenseHandler(permits, sessions, expenseService, categoryService));
+        api.server.createContext("/api/reports", new ReportHandler(permits, sessions, daily, weekly, monthly, summary));
+        return api;
+    }
+
+    public void start() {
+        server.start();
+        evictionTask = BackgroundTaskManager.getInstance().scheduleAtFixedRate(() -> {
+            int evicted = sessions.evictIdle();
+            if (evicted > 0) {
+                LoggerUtil.debug("Evicted {} idle API sessions", evicted);
+            }
+        }, SESSION_EVICTION_MINUTES, SESSION_EVICTION_MINUTES, TimeUnit.MINUTES);
+        LoggerUtil.info("API server listening on {}", server.getAddress());
+    }
+
+    /**
+     * Stop accepting requests and wait up to {@code delaySeconds} for
+     * running ones to finish.
+     */
+    public void stop(int delaySeconds) {
+        if (evictionTask != null) {
+            evictionTask.cancel(false);
+        }
+        server.stop(delaySeconds);
+        executor.shutdown();
+        LoggerUtil.info("API server stopped");
+    }
+
+    /**
+     * Bound port (useful when created on port 0).
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+}
@@ -0,0 +1,84 @@
+package com.expensetracker.server;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+
+import com.expensetracker.model.Category;
+import com.expensetracker.security.SessionRegistry;
+import com.expensetracker.service.CategoryService;
+
+/**
+ * {@code /api/categories}: list and create; {@code /api/categories/{id}}:
+ * read, update ({@code {"name", "monthlyBudgetLimit"}}) and delete.
+ */
+class CategoryHandler extends ApiHandler {
+
+    private final CategoryService categoryService;
+
+    CategoryHandler(Semaphore permits, SessionRegistry sessions, CategoryService categoryService) {
+        super(permits, sessions);
+        this.categoryService = categoryService;
+    }
+
+    @Override
+    void serve(ApiExchange exchange) {
+        List<String> segments = exchange.segments();
+        String method = exchange.method();
+        if (segments.isEmpty()) {
+            switch (method) {
+                case "GET" -> {
+                    List<Category> categories = categoryService.listCategories();
+                    exchange.respond(200, json -> {
+                        json.beginArray();
+                        categories.forEach(c -> ModelJson.category(json, c));
+                        json.endArray();
+                    });
+                }
+                case "POST" -> {
+                    Map<String, Object> body = exchange.body();
+                    Category created = categoryService.createCategory(ApiExchange.requireString(body, "name").trim(),
+                            ApiExchange.decimal(body, "monthlyBudgetLimit"));
+                    exchange.respond(201, json -> ModelJson.category(json, created));
+                }
+                default -> throw ApiException.methodNotAllowed(method);
+            }
+            return;
+        }
+        if (segments.size() != 1) {
+            throw ApiException.notFound("Resource");
+        }
+        int id = (int) exchange.idSegment(0);
+        switch (method) {
+            case "GET" -> {
+                Category category = find(id);
+                exchange.respond(200, json -> ModelJson.category(json, category));
+            }
+            case "PUT" -> {
+                Map<String, Object> body = exchange.body();
+                Category category = find(id);
+                if (body.containsKey("name")) {
+                    category.setName(ApiExchange.requireString(body, "name").trim());
+                }
+                if (body.containsKey("monthlyBudgetLimit")) {
+                    category.setMonthlyBudgetLimit(ApiExchange.decimal(body, "monthlyBudgetLimit"));
+                }
+                if (!categoryService.updateCategory(category)) {
+                    throw ApiException.notFound("Category " + id);
+                }
+                exchange.respond(200, json -> ModelJson.category(json, category));
+            }
+            case "DELETE" -> {
+                if (!categoryService.deleteCategory(id)) {
+                    throw ApiException.notFound("Category " + id);
+                }
+                exchange.respondNoContent();
+            }
+            default -> throw ApiException.methodNotAllowed(method);
+        }
+    }
+
+    private Category find(int id) {
+        return categoryService.findById(id).orElseThrow(() -> ApiException.notFound("Category " + id));
+    }
+}
@@ -0,0 +1,162 @@
+package com.expensetracker.server;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+
+import com.expensetracker.model.Category;
+import com.expensetracker.model.Expense;
+import com.expensetracker.model.PaymentMethod;
+import com.expensetracker.security.SessionRegistry;
+import com.expensetracker.service.CategoryService;
+import com.expensetracker.service.ExpenseService;
+
+/**
+ * Expense endpoints:
+ * <ul>
+ * <li>{@code GET /api/expenses?from=&to=} streams every expense in the range
+ * straight from the database cursor; {@code &categoryId=} or {@code &q=}
+ * narrow it to one category or a description search</li>
+ * <li>{@code GET /api/expenses/recent?limit=}</li>
+ * <li>{@code POST /api/expenses} with {@code {"categoryId", "date",
+ * "amount", "paymentMethod", "description"}}</li>
+ * <li>{@code GET|PUT|DELETE /api/expenses/{id}}; PUT changes only the fields
+ * given</li>
+ * </ul>
+ */
+class ExpenseHandler extends ApiHandler {
+
+    private static final int DEFAULT_RECENT = 20;
+    private static final int MAX_RECENT = 1000;
+
+    private final ExpenseService expenseService;
+    private final CategoryService categoryService;
+
+    ExpenseHandler(Semaphore permits, SessionRegistry sessions, ExpenseService expenseService, CategoryService categoryService) {
+        super(permits, sessions);
+        this.expenseService = expenseService;
+        this.categoryService = categoryService;
+    }
+
+    @Override
+    void serve(ApiExchange exchange) {
+        List<String> segments = exchange.segments();
+        String method = exchange.method();
+        if (segments.isEmpty()) {
+            switch (method) {
+                case "GET" -> listRange(exchange);
+                case "POST" -> create(exchange);
+                default -> throw ApiException.methodNotAllowed(method);
+            }
+            return;
+        }
+        if (segments.size() != 1) {
+            throw ApiException.notFound("Resource");
+        }
+        if (segments.get(0).equals("recent")) {
+            if (!method.equals("GET")) {
+                throw ApiException.methodNotAllowed(method);
+            }
+            int limit = Math.min(exchange.intQuery("limit", DEFAULT_RECENT), MAX_RECENT);
+            writeList(exchange, expenseService.listRecent(limit));
+            return;
+        }
+        long id = exchange.idSegment(0);
+        switch (method) {
+            case "GET" -> {
+                Expense expense = find(id);
+                exchange.respond(200, json -> ModelJson.expense(json, expense));
+            }
+            case "PUT" -> update(exchange, find(id));
+            case "DELETE" -> {
+                if (!expenseService.deleteExpense(id)) {
+                    throw ApiException.notFound("Expense " + id);
+                }
+                exchange.respondNoContent();
+            }
+            default -> throw ApiException.methodNotAllowed(method);
+        }
+    }
+
+    private void listRange(ApiExchange exchange) {
+        LocalDate from = exchange.requireDate("from");
+        LocalDate to = exchange.requireDate("to");
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("'to' is before 'from'");
+        }
+        String keyword = exchange.query("q");
+        String categoryId = exchange.query("categoryId");
+        if (keyword != null && !keyword.isBlank()) {
+            writeList(exchange, expenseService.search(keyword, from, to));
+        } else if (categoryId != null) {
+            writeList(exchange, expenseService.findByCategory(Integer.parseInt(categoryId), from, to));
+        } else {
+            exchange.respond(200, json -> {
+                json.beginArray();
+                expenseService.forEachInDateRange(from, to, e -> ModelJson.expense(json, e));
+                json.endArray();
+            });
+        }
+    }
+
+    private void create(ApiExchange exchange) {
+        Map<String, Object> body = exchange.body();
+        Category category = category(body);
+        LocalDate date = LocalDate.parse(ApiExchange.requireString(body, "date"));
+        BigDecimal amount = ApiExchange.decimal(body, "amount");
+        PaymentMethod method = paymentMethod(ApiExchange.requireString(body, "paymentMethod"));
+        Expense created = expenseService.addExpense(category, date, amount, method, ApiExchange.string(body, "description"));
+        exchange.respond(201, json -> ModelJson.expense(json, created));
+    }
+
+    private void update(ApiExchange exchange, Expense expense) {
+        Map<String, Object> body = exchange.body();
+        if (body.containsKey("categoryId")) {
+            expense.setCategory(category(body));
+        }
+        if (body.containsKey("date")) {
+            expense.setDate(LocalDate.parse(ApiExchange.requireString(body, "date")));
+        }
+        if (body.containsKey("amount")) {
+            expense.setAmount(ApiExchange.decimal(body, "amount"));
+        }
+        if (body.containsKey("paymentMethod")) {
+            expense.setPaymentMethod(paymentMethod(ApiExchange.requireString(body, "paymentMethod")));
+        }
+        if (body.containsKey("description")) {
+            expense.setDescription(ApiExchange.string(body, "description"));
+        }
+        if (!expenseService.updateExpense(expense)) {
+            throw ApiException.notFound("Expense " + expense.getId());
+        }
+        exchange.respond(200, json -> ModelJson.expense(json, expense));
+    }
+
+    private Category category(Map<String, Object> body) {
+        BigDecimal id = ApiExchange.decimal(body, "categoryId");
+        if (id == null) {
+            throw new IllegalArgumentException("'categoryId' is required");
+        }
+        return categoryService.findById(id.intValue())
+                .orElseThrow(() -> new IllegalArgumentException("Category " + id + " does not exist"));
+    }
+
+    private Expense find(long id) {
+        return expenseService.findById(id).orElseThrow(() -> ApiException.notFound("Expense " + id));
+    }
+
+    private static PaymentMethod paymentMethod(String value) {
+        return PaymentMethod.valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+
+    private static void writeList(ApiExchange exchange, List<Expense> expenses) {
+        exchange.respond(200, json -> {
+            json.beginArray();
+            expenses.forEach(e -> ModelJson.expense(json, e));
+            json.endArray();
+        });
+    }
+}
@@ -0,0 +1,184 @@
+package com.expensetracker.server;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Minimal streaming JSON writer: values go straight to the underlying writer,
+ * so arrays of any length are written without being held in memory. Commas
+ * are inserted automatically; callers only pair begin/end calls and put a
+ * {@link #name} before each object member. I/O errors surface as
+ * {@link UncheckedIOException} so writers can be used from lambdas.
+ */
+public class JsonWriter {
+
+    private final Writer out;
+    // One entry per open object/array: whether it already has a member
+    private final Deque<Boolean> hasMember = new ArrayDeque<>();
+    private boolean afterName;
+
+    public JsonWriter(Writer out) {
+        this.out = out;
+    }
+
+    public JsonWriter beginObject() {
+        beforeValue();
+        write('{');
+        hasMember.push(false);
+        return this;
+    }
+
+    public JsonWriter endObject() {
+        hasMember.pop();
+        write('}');
+        return this;
+    }
+
+    public JsonWriter beginArray() {
+        beforeValue();
+        write('[');
+        hasMember.push(false);
+        return this;
+    }
+
+    public JsonWriter endArray() {
+        hasMember.pop();
+        write(']');
+        return this;
+    }
+
+    public JsonWriter name(String name) {
+        separate();
+        string(name);
+        write(':');
+        afterName = true;
+        return this;
+    }
+
+    public JsonWriter value(String value) {
+        beforeValue();
+        if (value == null) {
+            write("null");
+        } else {
+            string(value);
+        }
+        return this;
+    }
+
+    public JsonWriter value(BigDecimal value) {
+        beforeValue();
+        write(value == null ? "null" : value.toPlainString());
+        return this;
+    }
+
+    public JsonWriter value(long value) {
+        beforeValue();
+        write(Long.toString(value));
+        return this;
+    }
+
+    /**
+     * Boxed integers such as not-yet-assigned ids; null is written as null.
+     */
+    public JsonWriter value(Number value) {
+        if (value instanceof BigDecimal decimal) {
+            return value(decimal);
+        }
+        beforeValue();
+        write(value == null ? "null" : value.toString());
+        return this;
+    }
+
+    public JsonWriter value(boolean value) {
+        beforeValue();
+        write(value ? "true" : "false");
+        return this;
+    }
+
+    /**
+     * Write {@code toString()} of a value as a string, or null.
+     */
+    public JsonWriter valueOf(Object value) {
+        return value(value == null ? null : value.toString());
+    }
+
+    public JsonWriter nullValue() {
+        beforeValue();
+        write("null");
+        return this;
+    }
+
+    public void flush() {
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void beforeValue() {
+        if (afterName) {
+            afterName = false;
+        } else {
+            separate();
+        }
+    }
+
+    private void separate() {
+        if (!hasMember.isEmpty()) {
+            if (hasMember.peek()) {
+                write(',');
+            } else {
+                hasMember.pop();
+                hasMember.push(true);
+            }
+        }
+    }
+
+    private void string(String s) {
+        write('"');
+        int start = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            String escape = switch (c) {
+                case '"' -> "\\\"";
+                case '\\' -> "\\\\";
+                case '\n' -> "\\n";
+                case '\r' -> "\\r";
+                case '\t' -> "\\t";
+                default -> c < 0x20 ? String.format("\\u%04x", (int) c) : null;
+            };
+            if (escape != null) {
+                write(s, start, i);
+                write(escape);
+                start = i + 1;
+            }
+        }
+        write(s, start, s.length());
+        write('"');
+    }
+
+    private void write(String s, int from, int to) {
+        try {
+            out.write(s, from, to - from);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void write(String s) {
+        write(s, 0, s.length());
+    }
+
+    private void write(char c) {
+        try {
+            out.write(c);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
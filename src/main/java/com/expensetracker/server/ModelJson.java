@@ -0,0 +1,99 @@
+package com.expensetracker.server;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import com.expensetracker.model.Category;
+import com.expensetracker.model.Expense;
+import com.expensetracker.model.UserAccount;
+import com.expensetracker.report.AbstractReport;
+import com.expensetracker.report.DailyReport;
+import com.expensetracker.report.MonthlyReport;
+import com.expensetracker.report.SummaryReport;
+import com.expensetracker.report.WeeklyReport;
+
+/**
+ * JSON shapes of the model and report types served by the API (and printed
+ * by the command line with {@code --format json}).
+ */
+public final class ModelJson {
+
+    private ModelJson() {
+    }
+
+    public static void user(JsonWriter json, UserAccount user) {
+        json.beginObject()
+                .name("id").value(user.getId())
+                .name("username").value(user.getUsername())
+                .name("role").valueOf(user.getRole())
+                .endObject();
+    }
+
+    public static void category(JsonWriter json, Category category) {
+        json.beginObject()
+                .name("id").value(category.getId())
+                .name("name").value(category.getName())
+                .name("monthlyBudgetLimit").value(category.getMonthlyBudgetLimit())
+                .endObject();
+    }
+
+    public static void expense(JsonWriter json, Expense expense) {
+        json.beginObject()
+                .name("id").value(expense.getId())
+                .name("date").valueOf(expense.getDate())
+                .name("amount").value(expense.getAmount())
+                .name("categoryId").value(expense.getCategory().getId())
+                .name("category").value(expense.getCategory().getName())
+                .name("paymentMethod").valueOf(expense.getPaymentMethod())
+                .name("description").value(expense.getDescription())
+                .endObject();
+    }
+
+    public static void report(JsonWriter json, AbstractReport report) {
+        json.beginObject()
+                .name("title").value(report.getTitle())
+                .name("generatedAt").valueOf(report.getGeneratedAt());
+        switch (report) {
+            case DailyReport r -> {
+                json.name("type").value("daily").name("date").valueOf(r.getDate())
+                        .name("total").value(r.getTotal()).name("count").value(r.getCount());
+                totals(json, "categoryTotals", r.getCategoryTotals());
+            }
+            case WeeklyReport r -> {
+                json.name("type").value("weekly").name("startDate").valueOf(r.getWeekStartDate())
+                        .name("endDate").valueOf(r.getWeekEndDate())
+                        .name("total").value(r.getTotal()).name("count").value(r.getCount())
+                        .name("dailyAverage").value(r.getDailyAverage());
+                totals(json, "categoryTotals", r.getCategoryTotals());
+                totals(json, "dailyTotals", r.getDailyTotals());
+            }
+            case MonthlyReport r -> {
+                json.name("type").value("monthly").name("year").value(r.getYear()).name("month").value(r.getMonth())
+                        .name("total").value(r.getTotal()).name("count").value(r.getCount())
+                        .name("dailyAverage").value(r.getDailyAverage())
+                        .name("weeklyAverage").value(r.getWeeklyAverage());
+                totals(json, "categoryTotals", r.getCategoryTotals());
+                totals(json, "weeklyTotals", r.getWeeklyTotals());
+            }
+            case SummaryReport r -> {
+                json.name("type").value("summary").name("startDate").valueOf(r.getStartDate())
+                        .name("endDate").valueOf(r.getEndDate())
+                        .name("total").value(r.getTotal()).name("count").value(r.getCount());
+                totals(json, "categoryTotals", r.getCategoryTotals());
+                totals(json, "paymentMethodTotals", r.getPaymentMethodTotals());
+                totals(json, "dailyTotals", r.getDailyTotals());
+            }
+            default -> {
+            }
+        }
+        json.name("lines").beginArray();
+        report.getLines().forEach(json::value);
+        json.endArray().endObject();
+    }
+
+    private static void totals(JsonWriter json, String name, Map<?, BigDecimal> totals) {
+        json.name(name).beginObject();
+        totals.forEach((key, total) -> json.name(String.valueOf(key)).value(total));
+        json.endObject();
+    }
+}
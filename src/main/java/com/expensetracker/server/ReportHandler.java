@@ -0,0 +1,69 @@
+package com.expensetracker.server;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+
+import com.expensetracker.report.AbstractReport;
+import com.expensetracker.report.DailyReport;
+import com.expensetracker.report.MonthlyReport;
+import com.expensetracker.report.MonthlyReportRequest;
+import com.expensetracker.report.ReportGenerator;
+import com.expensetracker.report.SummaryReport;
+import com.expensetracker.report.SummaryReportRequest;
+import com.expensetracker.report.WeeklyReport;
+import com.expensetracker.report.WeeklyReportRequest;
+import com.expensetracker.security.SessionRegistry;
+
+/**
+ * {@code GET /api/reports/daily?date=}, {@code /weekly?date=} (the week
+ * containing it) or {@code ?from=&to=}, {@code /monthly?month=yyyy-MM} and
+ * {@code /summary?from=&to=}.
+ */
+class ReportHandler extends ApiHandler {
+
+    private final ReportGenerator<DailyReport, LocalDate> daily;
+    private final ReportGenerator<WeeklyReport, WeeklyReportRequest> weekly;
+    private final ReportGenerator<MonthlyReport, MonthlyReportRequest> monthly;
+    private final ReportGenerator<SummaryReport, SummaryReportRequest> summary;
+
+    ReportHandler(Semaphore permits, SessionRegistry sessions,
+            ReportGenerator<DailyReport, LocalDate> daily,
+            ReportGenerator<WeeklyReport, WeeklyReportRequest> weekly,
+            ReportGenerator<MonthlyReport, MonthlyReportRequest> monthly,
+            ReportGenerator<SummaryReport, SummaryReportRequest> summary) {
+        super(permits, sessions);
+        this.daily = daily;
+        this.weekly = weekly;
+        this.monthly = monthly;
+        this.summary = summary;
+    }
+
+    @Override
+    void serve(ApiExchange exchange) {
+        if (!exchange.method().equals("GET")) {
+            throw ApiException.methodNotAllowed(exchange.method());
+        }
+        List<String> segments = exchange.segments();
+        if (segments.size() != 1) {
+            throw ApiException.notFound("Report");
+        }
+        AbstractReport report = switch (segments.get(0)) {
+            case "daily" -> daily.generate(exchange.requireDate("date"));
+            case "weekly" -> weekly.generate(exchange.query("date") != null
+                    ? new WeeklyReportRequest(exchange.requireDate("date"))
+                    : new WeeklyReportRequest(exchange.requireDate("from"), exchange.requireDate("to")));
+            case "monthly" -> {
+                String month = exchange.query("month");
+                if (month == null) {
+                    throw new IllegalArgumentException("Query parameter 'month' (yyyy-MM) is required");
+                }
+                yield monthly.generate(new MonthlyReportRequest(YearMonth.parse(month)));
+            }
+            case "summary" -> summary.generate(new SummaryReportRequest(exchange.requireDate("from"), exchange.requireDate("to")));
+            default -> throw ApiException.notFound("Report '" + segments.get(0) + "'");
+        };
+        exchange.respond(200, json -> ModelJson.report(json, report));
+    }
+}
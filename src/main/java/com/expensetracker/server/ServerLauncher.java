@@ -0,0 +1,48 @@
+package com.expensetracker.server;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.CountDownLatch;
+
+import com.expensetracker.controller.HeadlessServices;
+import com.expensetracker.security.SessionRegistry;
+import com.expensetracker.util.FileManager;
+import com.expensetracker.util.LoggerUtil;
+
+/**
+ * Headless entry point serving the JSON API instead of the Swing UI. Binds to
+ * {@code -Dexpensetracker.server.host} (default 127.0.0.1) and
+ * {@code -Dexpensetracker.server.port} (default 8765); at most
+ * {@code -Dexpensetracker.server.maxConcurrent} (default 32) requests hit the
+ * database at once.
+ * <p>
+ * Requests for many users are served side by side, so the single-user
+ * desktop layers (write-behind buffer, offline store, in-memory search
+ * index) are left out: every request reads and writes the database directly.
+ */
+public class ServerLauncher {
+
+    public static void main(String[] args) throws InterruptedException {
+        String host = System.getProperty("expensetracker.server.host", "127.0.0.1");
+        int port = Integer.getInteger("expensetracker.server.port", 8765);
+        int maxConcurrent = Integer.getInteger("expensetracker.server.maxConcurrent", 32);
+
+        if (Boolean.parseBoolean(System.getProperty("expensetracker.log.async", "true"))) {
+            LoggerUtil.enableAsyncFileLogging(FileManager.getInstance().getLogsDir());
+        }
+
+        HeadlessServices services = new HeadlessServices();
+        ApiServer server = ApiServer.create(new InetSocketAddress(host, port), maxConcurrent,
+                services.getAuthService(), SessionRegistry.getInstance(),
+                services.getCategoryService(), services.getExpenseService(),
+                services.getDailyReportGenerator(), services.getWeeklyReportGenerator(),
+                services.getMonthlyReportGenerator(), services.getSummaryReportGenerator());
+
+        CountDownLatch stopped = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop(2);
+            stopped.countDown();
+        }, "ExpenseTracker-ApiShutdown"));
+        server.start();
+        stopped.await();
+    }
+}
@@ -0,0 +1,43 @@
+package com.expensetracker.server;
+
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+
+import com.expensetracker.security.SessionRegistry.Session;
+import com.expensetracker.service.AuthService;
+
+/**
+ * {@code POST /api/session} signs in with {@code {"username", "password"}}
+ * and returns a bearer token; {@code DELETE /api/session} signs out.
+ */
+class SessionHandler extends ApiHandler {
+
+    private final AuthService authService;
+
+    SessionHandler(Semaphore permits, AuthService authService) {
+        super(permits, null);
+        this.authService = authService;
+    }
+
+    @Override
+    void serve(ApiExchange exchange) {
+        switch (exchange.method()) {
+            case "POST" -> {
+                Map<String, Object> body = exchange.body();
+                Session session = authService.openSession(ApiExchange.requireString(body, "username"),
+                        ApiExchange.requireString(body, "password"))
+                        .orElseThrow(() -> new ApiException(401, "Invalid username or password"));
+                exchange.respond(201, json -> {
+                    json.beginObject().name("token").value(session.getToken()).name("user");
+                    ModelJson.user(json, session.getUser());
+                    json.endObject();
+                });
+            }
+            case "DELETE" -> {
+                authService.closeSession(exchange.bearerToken());
+                exchange.respondNoContent();
+            }
+            default -> throw ApiException.methodNotAllowed(exchange.method());
+        }
+    }
+}
@@ -3,6 +3,10 @@ package com.expensetracker.service;
 import com.expensetracker.dao.UserAccountDAO;
 import com.expensetracker.model.Role;
 import com.expensetracker.model.UserAccount;
+import com.expensetracker.security.LoginAttemptLimiter;
+import com.expensetracker.security.SessionRegistry;
+import com.expensetracker.security.SessionRegistry.Session;
+import com.expensetracker.util.LoggerUtil;
 import com.expensetracker.util.PasswordHasher;
 import com.expensetracker.util.SessionContext;
 import java.security.SecureRandom;
@@ -11,39 +15,102 @@ import java.util.Optional;
 
 public class AuthService {
 
+    // Hashed against for unknown usernames, so they take as long as a wrong password
+    private static final String UNKNOWN_USER_SALT = "unknown-user";
+
     private final UserAccountDAO userAccountDAO;
+    private final PasswordHasher passwordHasher;
+    private final LoginAttemptLimiter attemptLimiter;
+    private final SessionRegistry sessionRegistry;
     private final SecureRandom random = new SecureRandom();
 
     public AuthService(UserAccountDAO userAccountDAO) {
+        this(userAccountDAO, PasswordHasher.getInstance());
+    }
+
+    public AuthService(UserAccountDAO userAccountDAO, PasswordHasher passwordHasher) {
+        this(userAccountDAO, passwordHasher, LoginAttemptLimiter.getInstance(), SessionRegistry.getInstance());
+    }
+
+    public AuthService(UserAccountDAO userAccountDAO, PasswordHasher passwordHasher,
+            LoginAttemptLimiter attemptLimiter, SessionRegistry sessionRegistry) {
         this.userAccountDAO = userAccountDAO;
+        this.passwordHasher = passwordHasher;
+        this.attemptLimiter = attemptLimiter;
+        this.sessionRegistry = sessionRegistry;
     }
 
     public UserAccount register(String username, String rawPassword, Role role) {
         String salt = generateSalt();
-        String hash = PasswordHasher.hash(rawPassword, salt);
+        String hash = passwordHasher.hash(rawPassword, salt);
         UserAccount account = new UserAccount(username, hash, salt, role);
         return userAccountDAO.insert(account);
     }
 
+    /**
+     * Sign in as the application-wide user.
+     */
     public boolean login(String username, String rawPassword) {
+        Optional<UserAccount> user = authenticate(username, rawPassword);
+        user.ifPresent(SessionContext.getInstance()::setCurrentUser);
+        return user.isPresent();
+    }
+
+    /**
+     * Sign in as one of several concurrent sessions, leaving the
+     * application-wide user alone.
+     */
+    public Optional<Session> openSession(String username, String rawPassword) {
+        return authenticate(username, rawPassword).map(sessionRegistry::open);
+    }
+
+    public boolean closeSession(String token) {
+        return sessionRegistry.close(token);
+    }
+
+    /**
+     * Check credentials without signing anyone in. Names with too many recent
+     * failures are rejected before any lookup or hashing. Hashes made with an
+     * outdated scheme or cost are replaced after a successful check.
+     */
+    public Optional<UserAccount> authenticate(String username, String rawPassword) {
+        if (attemptLimiter.isBlocked(username)) {
+            LoggerUtil.warn("Login for '{}' rejected: too many failed attempts", username);
+            return Optional.empty();
+        }
         Optional<UserAccount> opt = userAccountDAO.findByUsername(username);
         if (opt.isEmpty()) {
-            return false;
+            passwordHasher.hash(rawPassword, UNKNOWN_USER_SALT);
+            attemptLimiter.recordFailure(username);
+            return Optional.empty();
         }
         UserAccount user = opt.get();
-        String expected = user.getPasswordHash();
-        String actual = PasswordHasher.hash(rawPassword, user.getSalt());
-        if (expected.equals(actual) && user.isActive()) {
-            SessionContext.getInstance().setCurrentUser(user);
-            return true;
+        if (passwordHasher.verify(rawPassword, user.getSalt(), user.getPasswordHash()) && user.isActive()) {
+            attemptLimiter.recordSuccess(username);
+            if (passwordHasher.needsRehash(user.getPasswordHash())) {
+                upgradeHash(user, rawPassword);
+            }
+            return Optional.of(user);
         }
-        return false;
+        attemptLimiter.recordFailure(username);
+        return Optional.empty();
     }
 
     public void logout() {
         SessionContext.getInstance().clear();
     }
 
+    private void upgradeHash(UserAccount user, String rawPassword) {
+        String salt = generateSalt();
+        try {
+            userAccountDAO.updatePasswordHash(user.getId(), passwordHasher.hash(rawPassword, salt), salt);
+            LoggerUtil.info("Upgraded password hash for user {}", user.getId());
+        } catch (RuntimeException e) {
+            // The old hash still works; try again next login
+            LoggerUtil.warn("Could not upgrade password hash for user {}: {}", user.getId(), e.getMessage());
+        }
+    }
+
     private String generateSalt() {
         byte[] b = new byte[24];
         random.nextBytes(b);
@@ -1,6 +1,11 @@
 package com.expensetracker.service;
 
 import com.expensetracker.dao.CategoryDAO;
+import com.expensetracker.dao.ExpenseDAO;
+import com.expensetracker.dao.UnitOfWork;
+import com.expensetracker.event.ChangeEvent;
+import com.expensetracker.event.ChangeEvent.CategoryChanged;
+import com.expensetracker.event.ChangeEventBus;
 import com.expensetracker.model.Category;
 import java.math.BigDecimal;
 import java.util.List;
@@ -13,9 +18,40 @@ import java.util.Optional;
 public class CategoryService {
 
     private final CategoryDAO categoryDAO;
+    private final ExpenseDAO expenseDAO;
+    private final DataVersion dataVersion;
+    private final ChangeEventBus eventBus;
+    private final UnitOfWork unitOfWork;
 
     public CategoryService(CategoryDAO categoryDAO) {
+        this(categoryDAO, new DataVersion());
+    }
+
+    public CategoryService(CategoryDAO categoryDAO, DataVersion dataVersion) {
+        this(categoryDAO, dataVersion, null);
+    }
+
+    public CategoryService(CategoryDAO categoryDAO, DataVersion dataVersion, ChangeEventBus eventBus) {
+        this(categoryDAO, dataVersion, eventBus, UnitOfWork.NONE);
+    }
+
+    public CategoryService(CategoryDAO categoryDAO, DataVersion dataVersion, ChangeEventBus eventBus, UnitOfWork unitOfWork) {
+        this(categoryDAO, null, dataVersion, eventBus, unitOfWork);
+    }
+
+    /**
+     * @param expenseDAO optional; when given, categories that still have
+     * expenses (archived ones included) cannot be deleted
+     * @param eventBus optional bus every write made through this service is
+     * published on
+     * @param unitOfWork groups the writes of multi-step operations
+     */
+    public CategoryService(CategoryDAO categoryDAO, ExpenseDAO expenseDAO, DataVersion dataVersion, ChangeEventBus eventBus, UnitOfWork unitOfWork) {
         this.categoryDAO = categoryDAO;
+        this.expenseDAO = expenseDAO;
+        this.dataVersion = dataVersion;
+        this.eventBus = eventBus;
+        this.unitOfWork = unitOfWork;
     }
 
     public Category createCategory(String name, BigDecimal monthlyLimit) {
@@ -24,23 +60,94 @@ public class CategoryService {
         }
         Category category = new Category(name);
         category.setMonthlyBudgetLimit(monthlyLimit);
-        return categoryDAO.insert(category);
+        Category saved = categoryDAO.insert(category);
+        publish(saved.getId(), saved, CategoryChanged.Change.CREATED);
+        return saved;
     }
 
     public boolean updateCategory(Category category) {
-        return categoryDAO.update(category);
+        boolean updated = categoryDAO.update(category);
+        if (updated) {
+            // Reports embed category names and limits
+            dataVersion.increment();
+            publish(category.getId(), category, CategoryChanged.Change.UPDATED);
+        }
+        return updated;
     }
 
     public boolean deleteCategory(int id) {
-        // TODO: Add check for existing expenses referencing the category
-        return categoryDAO.delete(id);
+        // The expense table has no foreign key to stop this once partitioned,
+        // and archived expenses never had one
+        if (expenseDAO != null && expenseDAO.existsInCategory(id)) {
+            throw new IllegalArgumentException("Category still has expenses; move or delete them first");
+        }
+        boolean deleted = categoryDAO.delete(id);
+        if (deleted) {
+            dataVersion.increment();
+            publish(id, null, CategoryChanged.Change.DELETED);
+        }
+        return deleted;
+    }
+
+    /**
+     * Move part of one category's monthly limit to another. Both limits are
+     * written in one unit of work, so a failure leaves neither changed.
+     *
+     * @return both categories as stored, source first
+     */
+    public List<Category> reallocateBudget(int fromId, int toId, BigDecimal amount) {
+        if (fromId == toId) {
+            throw new IllegalArgumentException("Cannot move a budget within one category");
+        }
+        if (amount == null || amount.signum() <= 0) {
+            throw new IllegalArgumentException("Amount to move must be positive");
+        }
+        List<Category> moved = unitOfWork.execute(() -> {
+            // Lock both rows for the read-modify-write, lower id first so two opposite moves cannot deadlock
+            Category lower = lock(Math.min(fromId, toId));
+            Category higher = lock(Math.max(fromId, toId));
+            Category from = fromId < toId ? lower : higher;
+            Category to = fromId < toId ? higher : lower;
+            BigDecimal available = from.getMonthlyBudgetLimit();
+            if (available == null || available.compareTo(amount) < 0) {
+                throw new IllegalArgumentException("Category '" + from.getName() + "' has only "
+                        + (available == null ? "no limit" : available) + " to move");
+            }
+            from.setMonthlyBudgetLimit(available.subtract(amount));
+            to.setMonthlyBudgetLimit(to.getMonthlyBudgetLimit() == null ? amount : to.getMonthlyBudgetLimit().add(amount));
+            if (!categoryDAO.update(from) || !categoryDAO.update(to)) {
+                // Rolls back the other update
+                throw new IllegalStateException("Category deleted while its budget was moved");
+            }
+            return List.of(from, to);
+        });
+        dataVersion.increment();
+        // Only after the commit, so subscribers never see a rolled-back limit
+        for (Category category : moved) {
+            publish(category.getId(), category, CategoryChanged.Change.UPDATED);
+        }
+        return moved;
+    }
+
+    private Category lock(int id) {
+        return categoryDAO.lockById(id).orElseThrow(() -> new IllegalArgumentException("Category not found: " + id));
     }
 
     public List<Category> listCategories() {
         return categoryDAO.findAll();
     }
 
+    public Optional<Category> findById(int id) {
+        return categoryDAO.findById(id);
+    }
+
     public Optional<Category> findByName(String name) {
         return categoryDAO.findByName(name);
     }
+
+    private void publish(Integer categoryId, Category category, CategoryChanged.Change change) {
+        if (eventBus != null && categoryId != null) {
+            eventBus.publish(new CategoryChanged(ChangeEvent.currentUserId(), categoryId, category, change));
+        }
+    }
 }
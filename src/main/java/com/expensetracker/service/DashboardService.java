@@ -0,0 +1,307 @@
+package com.expensetracker.service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import com.expensetracker.background.BackgroundTaskManager;
+import com.expensetracker.dao.CategoryDAO;
+import com.expensetracker.dao.DailyRollupDAO;
+import com.expensetracker.event.ChangeEvent;
+import com.expensetracker.model.Category;
+import com.expensetracker.model.DailyRollup;
+import com.expensetracker.model.Expense;
+import com.expensetracker.util.LoggerUtil;
+import com.expensetracker.util.SessionContext;
+
+/**
+ * Keeps the dashboard tiles (month-to-date total, top categories, budget
+ * utilization, 7-day trend) precomputed for the signed-in user, so that
+ * showing them is a field read and never a query.
+ * <p>
+ * A refresh reads the categories and the daily rollup from the start of the
+ * month (or of the trend, if earlier) through today, keeps the per-day and
+ * per-category sums, and derives the tiles from them. Added expenses are
+ * folded into those sums directly. Updates and deletes do not carry the old
+ * amount, so they schedule a refresh instead; so do category changes, bulk
+ * writes and the periodic timer (which also moves the window past
+ * midnight). Refreshes
+ * requested while one is running are coalesced into one more run.
+ */
+public class DashboardService {
+
+    public static final int TOP_CATEGORIES = 5;
+    public static final int TREND_DAYS = 7;
+
+    private final CategoryDAO categoryDAO;
+    private final DailyRollupDAO rollupDAO;
+    private final Supplier<LocalDate> today;
+    private final Executor executor;
+    private final List<Consumer<DashboardTiles>> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile DashboardTiles tiles = DashboardTiles.EMPTY;
+    private ScheduledFuture<?> refreshTask;
+
+    // Guarded by this
+    private Totals totals;
+    private boolean refreshRunning;
+    private boolean refreshAgain;
+
+    public DashboardService(CategoryDAO categoryDAO, DailyRollupDAO rollupDAO) {
+        this(categoryDAO, rollupDAO, LocalDate::now, BackgroundTaskManager.getInstance()::execute);
+    }
+
+    /**
+     * @param executor runs requested refreshes off the calling thread
+     */
+    public DashboardService(CategoryDAO categoryDAO, DailyRollupDAO rollupDAO, Supplier<LocalDate> today, Executor executor) {
+        this.categoryDAO = categoryDAO;
+        this.rollupDAO = rollupDAO;
+        this.today = today;
+        this.executor = executor;
+    }
+
+    /**
+     * Latest tiles; {@link DashboardTiles#EMPTY} until the first refresh.
+     */
+    public DashboardTiles getTiles() {
+        return tiles;
+    }
+
+    /**
+     * Called with the new tiles after every change, on the thread that made
+     * it.
+     */
+    public void addListener(Consumer<DashboardTiles> listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Consumer<DashboardTiles> listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Refresh now in the background and then at the given interval.
+     */
+    public synchronized void startRefreshing(Duration interval) {
+        if (refreshTask == null) {
+            refreshTask = BackgroundTaskManager.getInstance().scheduleAtFixedRate(
+                    this::requestRefresh, 0, interval.toSeconds(), TimeUnit.SECONDS);
+            LoggerUtil.info("Dashboard tiles refreshing every {} minutes", interval.toMinutes());
+        }
+    }
+
+    public synchronized void stopRefreshing() {
+        if (refreshTask != null) {
+            refreshTask.cancel(false);
+            refreshTask = null;
+        }
+    }
+
+    /**
+     * Apply an accepted change: additions are folded in, anything else
+     * (including category limits and names) requests a refresh.
+     */
+    public void apply(ChangeEvent event) {
+        if (event instanceof ChangeEvent.ExpenseCreated created) {
+            expenseAdded(created.expense());
+        } else {
+            requestRefresh();
+        }
+    }
+
+    /**
+     * Fold a newly stored expense into the tiles without a query.
+     */
+    public void expenseAdded(Expense expense) {
+        DashboardTiles updated;
+        synchronized (this) {
+            if (refreshRunning) {
+                // The running refresh may have read the rollup before this expense
+                refreshAgain = true;
+            }
+            if (totals == null || !totals.today.equals(today.get())) {
+                // Not built yet, or the window is a day behind
+                updated = null;
+            } else if (totals.add(expense)) {
+                updated = totals.toTiles();
+                tiles = updated;
+            } else {
+                return;
+            }
+        }
+        if (updated == null) {
+            requestRefresh();
+        } else {
+            publish(updated);
+        }
+    }
+
+    /**
+     * Recompute the tiles on the executor. Calls made while a refresh is
+     * running result in one more refresh after it.
+     */
+    public void requestRefresh() {
+        synchronized (this) {
+            if (refreshRunning) {
+                refreshAgain = true;
+                return;
+            }
+            refreshRunning = true;
+        }
+        try {
+            executor.execute(this::runRefreshes);
+        } catch (RejectedExecutionException | IllegalStateException e) {
+            synchronized (this) {
+                refreshRunning = false;
+            }
+            LoggerUtil.warn("Dashboard refresh not scheduled: {}", e.getMessage());
+        }
+    }
+
+    private void runRefreshes() {
+        while (true) {
+            try {
+                refresh();
+            } catch (RuntimeException e) {
+                // Keep showing the last tiles (e.g. while the database is unreachable)
+                LoggerUtil.error("Dashboard refresh failed", e);
+            }
+            synchronized (this) {
+                if (!refreshAgain) {
+                    refreshRunning = false;
+                    return;
+                }
+                refreshAgain = false;
+            }
+        }
+    }
+
+    /**
+     * Recompute the tiles from the database on the calling thread.
+     */
+    public void refresh() {
+        // Tiles belong to the signed-in user; nothing to read without one
+        if (!SessionContext.getInstance().isAuthenticated()) {
+            return;
+        }
+        LocalDate asOf = today.get();
+        Totals fresh = new Totals(asOf);
+        for (Category category : categoryDAO.findAll()) {
+            fresh.categories.put(category.getId(), category);
+        }
+        for (DailyRollup rollup : rollupDAO.findByDateRange(fresh.windowStart, asOf)) {
+            fresh.add(rollup.getDate(), rollup.getCategoryId(), rollup.getTotal());
+        }
+        DashboardTiles updated = fresh.toTiles();
+        synchronized (this) {
+            totals = fresh;
+            tiles = updated;
+        }
+        LoggerUtil.debug("Dashboard tiles refreshed as of {}", asOf);
+        publish(updated);
+    }
+
+    private void publish(DashboardTiles updated) {
+        for (Consumer<DashboardTiles> listener : listeners) {
+            try {
+                listener.accept(updated);
+            } catch (RuntimeException e) {
+                LoggerUtil.error("Dashboard listener failed", e);
+            }
+        }
+    }
+
+    /**
+     * Sums the tiles are derived from: per day across the window and per
+     * category for the month so far.
+     */
+    private static final class Totals {
+
+        final LocalDate today;
+        final LocalDate monthStart;
+        final LocalDate trendStart;
+        final LocalDate windowStart;
+        final Map<Integer, Category> categories = new HashMap<>();
+        final Map<LocalDate, BigDecimal> byDay = new TreeMap<>();
+        final Map<Integer, BigDecimal> monthByCategory = new HashMap<>();
+
+        Totals(LocalDate today) {
+            this.today = today;
+            this.monthStart = today.withDayOfMonth(1);
+            this.trendStart = today.minusDays(TREND_DAYS - 1);
+            this.windowStart = monthStart.isBefore(trendStart) ? monthStart : trendStart;
+        }
+
+        boolean add(Expense expense) {
+            if (expense.getCategory().getId() != null) {
+                // Picks up categories created since the last refresh
+                categories.putIfAbsent(expense.getCategory().getId(), expense.getCategory());
+            }
+            return add(expense.getDate(), expense.getCategory().getId(), expense.getAmount());
+        }
+
+        boolean add(LocalDate date, Integer categoryId, BigDecimal amount) {
+            if (date.isBefore(windowStart) || date.isAfter(today)) {
+                return false;
+            }
+            byDay.merge(date, amount, BigDecimal::add);
+            if (!date.isBefore(monthStart) && categoryId != null) {
+                monthByCategory.merge(categoryId, amount, BigDecimal::add);
+            }
+            return true;
+        }
+
+        DashboardTiles toTiles() {
+            BigDecimal monthToDate = BigDecimal.ZERO;
+            for (Map.Entry<LocalDate, BigDecimal> day : byDay.entrySet()) {
+                if (!day.getKey().isBefore(monthStart)) {
+                    monthToDate = monthToDate.add(day.getValue());
+                }
+            }
+
+            List<DashboardTiles.CategoryTotal> top = monthByCategory.entrySet().stream()
+                    .filter(e -> e.getValue().signum() > 0)
+                    .sorted(Map.Entry.<Integer, BigDecimal>comparingByValue().reversed())
+                    .limit(TOP_CATEGORIES)
+                    .map(e -> new DashboardTiles.CategoryTotal(name(e.getKey()), e.getValue()))
+                    .toList();
+
+            List<DashboardTiles.BudgetUse> budgets = new ArrayList<>();
+            for (Category category : categories.values()) {
+                BigDecimal limit = category.getMonthlyBudgetLimit();
+                if (limit != null && limit.signum() > 0) {
+                    budgets.add(new DashboardTiles.BudgetUse(category.getName(),
+                            monthByCategory.getOrDefault(category.getId(), BigDecimal.ZERO), limit));
+                }
+            }
+            budgets.sort(Comparator.comparingDouble(DashboardTiles.BudgetUse::ratio).reversed());
+
+            List<DashboardTiles.DayTotal> trend = new ArrayList<>(TREND_DAYS);
+            for (LocalDate day = trendStart; !day.isAfter(today); day = day.plusDays(1)) {
+                trend.add(new DashboardTiles.DayTotal(day, byDay.getOrDefault(day, BigDecimal.ZERO)));
+            }
+
+            return new DashboardTiles(today, monthToDate, top, List.copyOf(budgets), List.copyOf(trend), LocalDateTime.now());
+        }
+
+        private String name(int categoryId) {
+            Category category = categories.get(categoryId);
+            return category != null ? category.getName() : "#" + categoryId;
+        }
+    }
+}
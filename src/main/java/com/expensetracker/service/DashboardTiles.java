@@ -0,0 +1,47 @@
+package com.expensetracker.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Immutable snapshot of the dashboard figures for the signed-in user, as of
+ * {@code asOf} (today when computed).
+ *
+ * @param monthToDate total spent from the first of the month through asOf
+ * @param topCategories month-to-date totals of the largest categories,
+ * largest first
+ * @param budgetUtilization month-to-date spend of every category with a
+ * budget limit, most used first
+ * @param trend daily totals of the last days up to asOf, oldest first
+ */
+public record DashboardTiles(LocalDate asOf, BigDecimal monthToDate, List<CategoryTotal> topCategories,
+        List<BudgetUse> budgetUtilization, List<DayTotal> trend, LocalDateTime computedAt) {
+
+    /**
+     * Nothing computed yet.
+     */
+    public static final DashboardTiles EMPTY = new DashboardTiles(null, BigDecimal.ZERO, List.of(), List.of(), List.of(), null);
+
+    public boolean isEmpty() {
+        return asOf == null;
+    }
+
+    public record CategoryTotal(String category, BigDecimal total) {
+    }
+
+    public record BudgetUse(String category, BigDecimal spent, BigDecimal limit) {
+
+        /**
+         * Share of the limit spent (1.0 = fully used).
+         */
+        public double ratio() {
+            return spent.divide(limit, 4, RoundingMode.HALF_UP).doubleValue();
+        }
+    }
+
+    public record DayTotal(LocalDate date, BigDecimal total) {
+    }
+}
@@ -0,0 +1,21 @@
+package com.expensetracker.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monotonic counter bumped by every successful expense or category write.
+ * Readers that cache derived data (reports, summaries) tag their entries with
+ * the version they were computed at and treat any other version as stale.
+ */
+public class DataVersion {
+
+    private final AtomicLong version = new AtomicLong();
+
+    public long current() {
+        return version.get();
+    }
+
+    public long increment() {
+        return version.incrementAndGet();
+    }
+}
@@ -0,0 +1,405 @@
+package com.expensetracker.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntSupplier;
+
+import com.expensetracker.dao.ExpenseDAO;
+import com.expensetracker.event.ChangeEvent;
+import com.expensetracker.model.Category;
+import com.expensetracker.model.Expense;
+import com.expensetracker.util.LoggerUtil;
+
+/**
+ * In-memory inverted index over expense descriptions. Descriptions are split
+ * into lower-cased alphanumeric tokens; every token maps to a sorted posting
+ * list of expense ids. Queries treat each whitespace-separated term as a
+ * token prefix and AND them together, then filter by date range.
+ * <p>
+ * Note the semantics differ slightly from the SQL LIKE '%kw%' scan: a term
+ * matches the start of a word, not an arbitrary substring.
+ * <p>
+ * The index holds one user's expenses at a time. It is only ready while that
+ * user is the one signed in; a rebuild for a different user starts from an
+ * empty index.
+ */
+public class ExpenseSearchIndex {
+
+    // Earliest value MySQL accepts for a DATE column
+    private static final LocalDate MIN_DATE = LocalDate.of(1000, 1, 1);
+
+    private final NavigableMap<String, PostingList> terms = new TreeMap<>();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final IntSupplier ownerSupplier;
+    private volatile boolean ready;
+    private volatile int owner;
+
+    // Writes (expenses, removed ids, renamed categories) that happen while a rebuild scan is running,
+    // replayed on swap (guarded by lock)
+    private List<Object> pendingDuringRebuild;
+
+    public ExpenseSearchIndex() {
+        this(() -> 0);
+    }
+
+    /**
+     * @param ownerSupplier id of the signed-in user, whose expenses the
+     * DAO returns
+     */
+    public ExpenseSearchIndex(IntSupplier ownerSupplier) {
+        this.ownerSupplier = ownerSupplier;
+    }
+
+    /**
+     * Rebuild the whole index from the database with one streaming scan.
+     */
+    public void rebuild(ExpenseDAO expenseDAO) {
+        long started = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            int user = ownerSupplier.getAsInt();
+            if (user != owner) {
+                // Never serve the previous user's postings while scanning
+                ready = false;
+                terms.clear();
+                documents.clear();
+                owner = user;
+            }
+            pendingDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        NavigableMap<String, PostingList> newTerms = new TreeMap<>();
+        Map<Long, Document> newDocuments = new HashMap<>();
+        try {
+            expenseDAO.forEachInDateRange(MIN_DATE, LocalDate.now(), expense -> {
+                Set<String> tokens = tokenize(expense.getDescription());
+                newDocuments.put(expense.getId(), new Document(expense, tokens));
+                for (String token : tokens) {
+                    newTerms.computeIfAbsent(token, t -> new PostingList()).add(expense.getId());
+                }
+            });
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendingDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            terms.clear();
+            terms.putAll(newTerms);
+            documents.clear();
+            documents.putAll(newDocuments);
+            for (Object change : pendingDuringRebuild) {
+                if (change instanceof Expense expense) {
+                    addInternal(expense);
+                } else if (change instanceof Category category) {
+                    recategorizeInternal(category);
+                } else {
+                    removeInternal((Long) change);
+                }
+            }
+            pendingDuringRebuild = null;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        LoggerUtil.info("Search index built: {} expenses, {} terms in {} ms",
+                newDocuments.size(), newTerms.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * True once a build for the signed-in user has completed; callers should
+     * fall back to the database otherwise.
+     */
+    public boolean isReady() {
+        return ready && owner == ownerSupplier.getAsInt();
+    }
+
+    public void add(Expense expense) {
+        if (expense.getId() == null || owner != ownerSupplier.getAsInt()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            addInternal(expense);
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.add(expense);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void update(Expense expense) {
+        add(expense);
+    }
+
+    /**
+     * Apply an accepted change. Subscribe synchronously so a search right
+     * after a write already sees it.
+     */
+    public void apply(ChangeEvent event) {
+        switch (event) {
+            case ChangeEvent.ExpenseCreated created -> add(created.expense());
+            case ChangeEvent.ExpenseUpdated updated -> update(updated.expense());
+            case ChangeEvent.ExpenseDeleted deleted -> remove(deleted.expenseId());
+            case ChangeEvent.CategoryChanged changed -> {
+                if (changed.change() == ChangeEvent.CategoryChanged.Change.UPDATED) {
+                    recategorize(changed.category());
+                }
+            }
+        }
+    }
+
+    /**
+     * Point indexed expenses of the category at its updated version, so
+     * search results show the new name rather than the one they were
+     * indexed with.
+     */
+    public void recategorize(Category category) {
+        if (category.getId() == null || owner != ownerSupplier.getAsInt()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            recategorizeInternal(category);
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.add(category);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        if (owner != ownerSupplier.getAsInt()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Expenses in [start, end] whose description contains a word starting
+     * with every term of the query, ordered by date.
+     */
+    public List<Expense> search(String query, LocalDate start, LocalDate end) {
+        Set<String> queryTerms = tokenize(query);
+        if (queryTerms.isEmpty()) {
+            return List.of();
+        }
+
+        List<Expense> results = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            long[] matches = null;
+            for (String term : queryTerms) {
+                long[] postings = prefixPostings(term);
+                matches = matches == null ? postings : intersect(matches, postings);
+                if (matches.length == 0) {
+                    return List.of();
+                }
+            }
+            for (long id : matches) {
+                Document document = documents.get(id);
+                if (document != null) {
+                    Expense expense = document.expense();
+                    if (!expense.getDate().isBefore(start) && !expense.getDate().isAfter(end)) {
+                        results.add(expense);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        results.sort(Comparator.comparing(Expense::getDate));
+        return results;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void addInternal(Expense expense) {
+        removeInternal(expense.getId());
+        Set<String> tokens = tokenize(expense.getDescription());
+        documents.put(expense.getId(), new Document(expense, tokens));
+        for (String token : tokens) {
+            terms.computeIfAbsent(token, t -> new PostingList()).add(expense.getId());
+        }
+    }
+
+    private void recategorizeInternal(Category category) {
+        for (Document document : documents.values()) {
+            Expense expense = document.expense();
+            if (category.getId().equals(expense.getCategory().getId())) {
+                expense.setCategory(category);
+            }
+        }
+    }
+
+    private void removeInternal(long id) {
+        Document old = documents.remove(id);
+        if (old == null) {
+            return;
+        }
+        for (String token : old.tokens()) {
+            PostingList list = terms.get(token);
+            if (list != null && list.remove(id) && list.size == 0) {
+                terms.remove(token);
+            }
+        }
+    }
+
+    /**
+     * Sorted union of the posting lists of every term starting with prefix.
+     */
+    private long[] prefixPostings(String prefix) {
+        NavigableMap<String, PostingList> range = terms.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+        if (range.isEmpty()) {
+            return new long[0];
+        }
+        if (range.size() == 1) {
+            return range.firstEntry().getValue().toArray();
+        }
+        long[] merged = null;
+        for (PostingList list : range.values()) {
+            merged = merged == null ? list.toArray() : union(merged, list.toArray());
+        }
+        return merged;
+    }
+
+    static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null) {
+            return tokens;
+        }
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            while (i < length && !Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+            }
+            int startIdx = i;
+            while (i < length && Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+            }
+            if (i > startIdx) {
+                tokens.add(text.substring(startIdx, i).toLowerCase());
+            }
+        }
+        return tokens;
+    }
+
+    static long[] intersect(long[] a, long[] b) {
+        long[] out = new long[Math.min(a.length, b.length)];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                out[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    static long[] union(long[] a, long[] b) {
+        long[] out = new long[a.length + b.length];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length || j < b.length) {
+            long next;
+            if (j >= b.length || (i < a.length && a[i] < b[j])) {
+                next = a[i++];
+            } else if (i >= a.length || b[j] < a[i]) {
+                next = b[j++];
+            } else {
+                next = a[i];
+                i++;
+                j++;
+            }
+            out[n++] = next;
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    /**
+     * Indexed expense with the tokens it was posted under. Callers edit
+     * Expense objects in place, so the old description cannot be re-read
+     * when the entry is replaced.
+     */
+    private record Document(Expense expense, Set<String> tokens) {
+    }
+
+    /**
+     * Growable sorted array of expense ids. New ids are almost always the
+     * largest so far (auto-increment), making adds an append.
+     */
+    private static final class PostingList {
+
+        private long[] ids = new long[4];
+        private int size;
+
+        void add(long id) {
+            int pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos >= 0) {
+                return;
+            }
+            int insertAt = -pos - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            size++;
+        }
+
+        boolean remove(long id) {
+            int pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos < 0) {
+                return false;
+            }
+            System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+            size--;
+            return true;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(ids, size);
+        }
+    }
+}
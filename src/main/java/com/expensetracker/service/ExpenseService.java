@@ -1,6 +1,8 @@
 package com.expensetracker.service;
 
 import com.expensetracker.dao.ExpenseDAO;
+import com.expensetracker.event.ChangeEvent;
+import com.expensetracker.event.ChangeEventBus;
 import com.expensetracker.model.Category;
 import com.expensetracker.model.Expense;
 import com.expensetracker.model.PaymentMethod;
@@ -8,6 +10,7 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Service layer orchestrating expense validation and DAO operations.
@@ -15,22 +18,55 @@ import java.util.Optional;
 public class ExpenseService {
 
     private final ExpenseDAO expenseDAO;
+    private final DataVersion dataVersion;
+    private final ExpenseSearchIndex searchIndex;
+    private final ChangeEventBus eventBus;
 
     public ExpenseService(ExpenseDAO expenseDAO) {
+        this(expenseDAO, new DataVersion());
+    }
+
+    public ExpenseService(ExpenseDAO expenseDAO, DataVersion dataVersion) {
+        this(expenseDAO, dataVersion, null, null);
+    }
+
+    /**
+     * @param searchIndex optional in-memory description index answering
+     * searches once ready; it must be subscribed to the bus to stay current
+     * @param eventBus optional bus every write made through this service is
+     * published on
+     */
+    public ExpenseService(ExpenseDAO expenseDAO, DataVersion dataVersion, ExpenseSearchIndex searchIndex, ChangeEventBus eventBus) {
         this.expenseDAO = expenseDAO;
+        this.dataVersion = dataVersion;
+        this.searchIndex = searchIndex;
+        this.eventBus = eventBus;
     }
 
     public Expense addExpense(Category category, LocalDate date, BigDecimal amount, PaymentMethod method, String description) {
         Expense expense = Expense.create(category, date, amount, method, description);
-        return expenseDAO.insert(expense);
+        Expense saved = expenseDAO.insert(expense);
+        dataVersion.increment();
+        publish(new ChangeEvent.ExpenseCreated(ChangeEvent.currentUserId(), saved));
+        return saved;
     }
 
     public boolean updateExpense(Expense expense) {
-        return expenseDAO.update(expense);
+        boolean updated = expenseDAO.update(expense);
+        if (updated) {
+            dataVersion.increment();
+            publish(new ChangeEvent.ExpenseUpdated(ChangeEvent.currentUserId(), expense));
+        }
+        return updated;
     }
 
     public boolean deleteExpense(long id) {
-        return expenseDAO.delete(id);
+        boolean deleted = expenseDAO.delete(id);
+        if (deleted) {
+            dataVersion.increment();
+            publish(new ChangeEvent.ExpenseDeleted(ChangeEvent.currentUserId(), id));
+        }
+        return deleted;
     }
 
     public List<Expense> listRecent(int limit) {
@@ -41,15 +77,36 @@ public class ExpenseService {
         return expenseDAO.findByDateRange(start, end);
     }
 
+    /**
+     * Visit every expense in the range in date order without building a list
+     * (API range queries stream straight to the client).
+     */
+    public void forEachInDateRange(LocalDate start, LocalDate end, Consumer<Expense> consumer) {
+        expenseDAO.forEachInDateRange(start, end, consumer);
+    }
+
     public List<Expense> findByCategory(int categoryId, LocalDate start, LocalDate end) {
         return expenseDAO.findByCategory(categoryId, start, end);
     }
 
     public List<Expense> search(String keyword, LocalDate start, LocalDate end) {
+        if (searchIndex != null && searchIndex.isReady()) {
+            return searchIndex.search(keyword, start, end);
+        }
         return expenseDAO.search(keyword, start, end);
     }
 
     public Optional<Expense> findById(long id) {
         return expenseDAO.findById(id);
     }
+
+    public DataVersion getDataVersion() {
+        return dataVersion;
+    }
+
+    private void publish(ChangeEvent event) {
+        if (eventBus != null) {
+            eventBus.publish(event);
+        }
+    }
 }
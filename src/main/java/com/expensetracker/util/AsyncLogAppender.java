@@ -0,0 +1,357 @@
+package com.expensetracker.util;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.event.Level;
+import org.slf4j.helpers.FormattingTuple;
+import org.slf4j.helpers.MessageFormatter;
+
+/**
+ * Asynchronous file appender backed by a fixed-size ring buffer. Producers
+ * only copy the raw format and arguments into a pre-allocated slot; message
+ * formatting, timestamp rendering and I/O happen on a single daemon writer
+ * thread that drains the buffer in batches into a rolling log file.
+ */
+public class AsyncLogAppender {
+
+    private static final String FILE_PREFIX = "expense-tracker";
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS")
+            .withZone(ZoneId.systemDefault());
+    private static final DateTimeFormatter ROLL_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    public static final int DEFAULT_CAPACITY = 8192;
+    public static final int DEFAULT_BATCH_SIZE = 512;
+    public static final long DEFAULT_MAX_FILE_BYTES = 10L * 1024 * 1024;
+
+    private final Path logsDir;
+    private final long maxFileBytes;
+    private final int batchSize;
+
+    // Ring buffer state, guarded by lock
+    private final Slot[] ring;
+    private final int mask;
+    private long head; // next slot to consume
+    private long tail; // next slot to publish
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+
+    private final AtomicLong dropped = new AtomicLong();
+    private final Thread writerThread;
+    private volatile boolean running = true;
+
+    // Writer-thread-only state
+    private final StringBuilder batch = new StringBuilder(16 * 1024);
+    private Writer out;
+    private long currentFileBytes;
+    private LocalDate currentFileDate;
+
+    public AsyncLogAppender(Path logsDir) {
+        this(logsDir, DEFAULT_CAPACITY, DEFAULT_BATCH_SIZE, DEFAULT_MAX_FILE_BYTES);
+    }
+
+    public AsyncLogAppender(Path logsDir, int capacity, int batchSize, long maxFileBytes) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two");
+        }
+        this.logsDir = logsDir;
+        this.maxFileBytes = maxFileBytes;
+        this.batchSize = batchSize;
+        this.ring = new Slot[capacity];
+        for (int i = 0; i < capacity; i++) {
+            ring[i] = new Slot();
+        }
+        this.mask = capacity - 1;
+
+        this.writerThread = new Thread(this::drainLoop, "ExpenseTracker-AsyncLogger");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /**
+     * Enqueue a log event. Events below WARN are dropped when the buffer is
+     * full; WARN and ERROR wait for space so they are never lost.
+     *
+     * @return false if the appender is closed (or its writer thread ended)
+     * and the event was not taken, so the caller can log it elsewhere
+     */
+    public boolean append(Level level, String format, int argCount, Object arg1, Object arg2, Object[] args, Throwable throwable) {
+        if (!running) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        String threadName = Thread.currentThread().getName();
+        boolean mustDeliver = level.toInt() >= Level.WARN.toInt();
+
+        lock.lock();
+        try {
+            while (tail - head == ring.length) {
+                if (!mustDeliver) {
+                    dropped.incrementAndGet();
+                    return true;
+                }
+                notFull.awaitUninterruptibly();
+                if (!running) {
+                    return false;
+                }
+            }
+            Slot slot = ring[(int) (tail & mask)];
+            slot.level = level;
+            slot.timestamp = now;
+            slot.threadName = threadName;
+            slot.format = format;
+            slot.argCount = argCount;
+            slot.arg1 = arg1;
+            slot.arg2 = arg2;
+            slot.args = args;
+            slot.throwable = throwable;
+            tail++;
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+        return true;
+    }
+
+    /**
+     * Number of low-priority events discarded because the buffer was full.
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Stop accepting events, drain everything already queued and close the
+     * current file.
+     */
+    public void close() {
+        running = false;
+        lock.lock();
+        try {
+            notEmpty.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void drainLoop() {
+        try {
+            while (true) {
+                int drained = drainBatch();
+                if (drained > 0) {
+                    writeBatch();
+                } else if (!running) {
+                    break;
+                }
+            }
+        } finally {
+            // Whether closed, interrupted or failed: WARN/ERROR producers waiting for space would otherwise wait forever
+            lock.lock();
+            try {
+                running = false;
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            closeQuietly();
+        }
+    }
+
+    /**
+     * Render up to batchSize queued events into the batch buffer, waiting for
+     * at least one event while the appender is running. Slots between head and
+     * the observed tail are not reused by producers until head advances, so
+     * rendering happens outside the lock.
+     */
+    private int drainBatch() {
+        long start;
+        long end;
+        lock.lock();
+        try {
+            while (head == tail && running) {
+                try {
+                    notEmpty.await(1, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    running = false;
+                }
+            }
+            start = head;
+            end = Math.min(tail, head + batchSize);
+        } finally {
+            lock.unlock();
+        }
+        if (start == end) {
+            return 0;
+        }
+
+        for (long seq = start; seq < end; seq++) {
+            Slot slot = ring[(int) (seq & mask)];
+            int mark = batch.length();
+            try {
+                render(slot);
+            } catch (RuntimeException e) {
+                // e.g. an argument's toString() threw; one bad event must not end the writer thread
+                batch.setLength(mark);
+                renderLine(slot, "[unrenderable event] " + slot.format + ": " + e);
+            }
+            slot.clear();
+        }
+
+        lock.lock();
+        try {
+            head = end;
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        return (int) (end - start);
+    }
+
+    private void render(Slot slot) {
+        String message;
+        switch (slot.argCount) {
+            case 0 ->
+                message = slot.format;
+            case 1 ->
+                message = MessageFormatter.format(slot.format, slot.arg1).getMessage();
+            case 2 ->
+                message = MessageFormatter.format(slot.format, slot.arg1, slot.arg2).getMessage();
+            default -> {
+                FormattingTuple tuple = MessageFormatter.arrayFormat(slot.format, slot.args);
+                message = tuple.getMessage();
+                if (slot.throwable == null) {
+                    slot.throwable = tuple.getThrowable();
+                }
+            }
+        }
+        renderLine(slot, message);
+        if (slot.throwable != null) {
+            StringWriter sw = new StringWriter();
+            slot.throwable.printStackTrace(new PrintWriter(sw));
+            batch.append(sw);
+        }
+    }
+
+    private void renderLine(Slot slot, String message) {
+        TIMESTAMP_FORMAT.formatTo(Instant.ofEpochMilli(slot.timestamp), batch);
+        batch.append(" [").append(slot.threadName).append("] ")
+                .append(slot.level).append(' ')
+                .append(message).append(System.lineSeparator());
+    }
+
+    private void writeBatch() {
+        try {
+            long lost = dropped.getAndSet(0);
+            if (lost > 0) {
+                batch.append("... ").append(lost).append(" low-priority log events dropped (buffer full)")
+                        .append(System.lineSeparator());
+            }
+            rollIfNeeded();
+            String text = batch.toString();
+            out.write(text);
+            out.flush();
+            // Bytes as written, to match Files.size() when the file is reopened
+            currentFileBytes += text.getBytes(StandardCharsets.UTF_8).length;
+        } catch (IOException e) {
+            System.err.println("[WARN] Async log write failed: " + e.getMessage());
+        } finally {
+            batch.setLength(0);
+        }
+    }
+
+    private Path activeFile() {
+        return logsDir.resolve(FILE_PREFIX + ".log");
+    }
+
+    private void rollIfNeeded() throws IOException {
+        LocalDate today = LocalDate.now();
+        if (out != null && currentFileBytes < maxFileBytes && today.equals(currentFileDate)) {
+            return;
+        }
+        Path active = activeFile();
+        if (out != null) {
+            out.close();
+            out = null;
+            roll(active, currentFileDate);
+        } else if (Files.exists(active)) {
+            LocalDate lastModified = LocalDate.ofInstant(Files.getLastModifiedTime(active).toInstant(), ZoneId.systemDefault());
+            if (!lastModified.equals(today) || Files.size(active) >= maxFileBytes) {
+                roll(active, lastModified);
+            }
+        }
+        Files.createDirectories(logsDir);
+        out = Files.newBufferedWriter(active, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        currentFileBytes = Files.size(active);
+        currentFileDate = today;
+    }
+
+    private void roll(Path active, LocalDate fileDate) throws IOException {
+        String stamp = fileDate.format(ROLL_DATE_FORMAT);
+        int index = 1;
+        Path target;
+        do {
+            target = logsDir.resolve(FILE_PREFIX + "-" + stamp + "-" + index + ".log");
+            index++;
+        } while (Files.exists(target));
+        Files.move(active, target, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void closeQuietly() {
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException e) {
+                System.err.println("[WARN] Failed closing async log file: " + e.getMessage());
+            }
+            out = null;
+        }
+    }
+
+    /**
+     * Pre-allocated, reusable ring buffer entry.
+     */
+    private static final class Slot {
+
+        Level level;
+        long timestamp;
+        String threadName;
+        String format;
+        int argCount; // 0, 1, 2 or -1 for the varargs array
+        Object arg1;
+        Object arg2;
+        Object[] args;
+        Throwable throwable;
+
+        void clear() {
+            threadName = null;
+            format = null;
+            arg1 = null;
+            arg2 = null;
+            args = null;
+            throwable = null;
+        }
+    }
+}
@@ -20,6 +20,7 @@ public class DBConnectionManager {
     private String url;
     private String user;
     private String password;
+    private final TransactionScope transactions = new TransactionScope(this::openConnection);
 
     private DBConnectionManager() {
         loadConfig();
@@ -89,7 +90,31 @@ public class DBConnectionManager {
         }
     }
 
+    /**
+     * A connection for one DAO call; inside a unit of work, the unit's shared
+     * connection (see {@link TransactionScope}).
+     */
     public Connection getConnection() throws SQLException {
+        return transactions.getConnection();
+    }
+
+    public TransactionScope getTransactionScope() {
+        return transactions;
+    }
+
+    private Connection openConnection() throws SQLException {
         return DriverManager.getConnection(url, user, password);
     }
+
+    /**
+     * Whether a connection can be opened and answers within a few seconds;
+     * used to detect the end of offline mode.
+     */
+    public boolean isReachable() {
+        try (Connection con = openConnection()) {
+            return con.isValid(3);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
 }
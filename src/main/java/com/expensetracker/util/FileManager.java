@@ -138,7 +138,7 @@ public class FileManager {
         // Write content
         Files.writeString(filePath, content, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
 
-        LoggerUtil.debug("File written successfully: " + filePath);
+        LoggerUtil.debug("File written successfully: {}", filePath);
     }
 
     /**
@@ -151,7 +151,7 @@ public class FileManager {
         // Append content
         Files.writeString(filePath, content, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
 
-        LoggerUtil.debug("Content appended to file: " + filePath);
+        LoggerUtil.debug("Content appended to file: {}", filePath);
     }
 
     /**
@@ -182,7 +182,7 @@ public class FileManager {
                     .forEach(file -> {
                         try {
                             Files.delete(file);
-                            LoggerUtil.debug("Deleted old file: " + file);
+                            LoggerUtil.debug("Deleted old file: {}", file);
                         } catch (IOException e) {
                             LoggerUtil.warn("Could not delete old file: " + file, e);
                         }
@@ -0,0 +1,49 @@
+package com.expensetracker.util;
+
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Value built on first use and kept afterwards. Callers racing the first
+ * {@link #get()} wait for the one initialization rather than running their
+ * own; if it throws, the next call tries again.
+ */
+public final class Lazy<T> implements Supplier<T> {
+
+    private final Supplier<? extends T> initializer;
+    private volatile T value;
+
+    public Lazy(Supplier<? extends T> initializer) {
+        this.initializer = initializer;
+    }
+
+    @Override
+    public T get() {
+        T current = value;
+        if (current == null) {
+            synchronized (this) {
+                current = value;
+                if (current == null) {
+                    current = initializer.get();
+                    value = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    public boolean isInitialized() {
+        return value != null;
+    }
+
+    /**
+     * Runs the action only if the value was already built, without building
+     * it (e.g. shutting down a subsystem that was never used).
+     */
+    public void ifInitialized(Consumer<? super T> action) {
+        T current = value;
+        if (current != null) {
+            action.accept(current);
+        }
+    }
+}
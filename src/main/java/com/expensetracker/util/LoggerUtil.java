@@ -1,15 +1,25 @@
 package com.expensetracker.util;
 
+import java.nio.file.Path;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
 
 /**
  * Enhanced logging utility with support for all logging levels and convenience
- * methods
+ * methods.
+ * <p>
+ * The parameterised overloads use SLF4J-style {@code {}} placeholders and check
+ * the level before doing any work, so disabled debug/trace calls on hot paths
+ * cost a single branch. Once {@link #enableAsyncFileLogging(Path)} has been
+ * called, enabled events are handed to an {@link AsyncLogAppender} instead of
+ * being written synchronously to stderr.
  */
 public final class LoggerUtil {
 
     private static final Logger logger = LoggerFactory.getLogger(LoggerUtil.class);
+    private static volatile AsyncLogAppender asyncAppender;
 
     private LoggerUtil() {
     }
@@ -18,45 +28,182 @@ public final class LoggerUtil {
         return LoggerFactory.getLogger(cls);
     }
 
+    /**
+     * Route all subsequent log events through an asynchronous, batched,
+     * rolling file appender in the given directory. Calling it again is a
+     * no-op.
+     */
+    public static synchronized void enableAsyncFileLogging(Path logsDir) {
+        if (asyncAppender == null) {
+            asyncAppender = new AsyncLogAppender(logsDir);
+            Runtime.getRuntime().addShutdownHook(new Thread(LoggerUtil::disableAsyncFileLogging, "ExpenseTracker-LogFlush"));
+            logger.info("Asynchronous file logging enabled in {}", logsDir);
+        }
+    }
+
+    /**
+     * Flush and close the asynchronous appender, reverting to direct SLF4J
+     * output.
+     */
+    public static synchronized void disableAsyncFileLogging() {
+        AsyncLogAppender appender = asyncAppender;
+        if (appender != null) {
+            asyncAppender = null;
+            appender.close();
+        }
+    }
+
+    public static boolean isAsyncFileLoggingEnabled() {
+        return asyncAppender != null;
+    }
+
+    public static boolean isTraceEnabled() {
+        return logger.isTraceEnabled();
+    }
+
+    public static boolean isDebugEnabled() {
+        return logger.isDebugEnabled();
+    }
+
     // Convenience methods for common logging operations
     public static void trace(String message) {
-        logger.trace(message);
+        if (logger.isTraceEnabled()) {
+            dispatch(Level.TRACE, message, 0, null, null, null, null);
+        }
     }
 
     public static void trace(String message, Throwable throwable) {
-        logger.trace(message, throwable);
+        if (logger.isTraceEnabled()) {
+            dispatch(Level.TRACE, message, 0, null, null, null, throwable);
+        }
+    }
+
+    public static void trace(String format, Object arg) {
+        if (logger.isTraceEnabled()) {
+            dispatch(Level.TRACE, format, 1, arg, null, null, null);
+        }
+    }
+
+    public static void trace(String format, Object arg1, Object arg2) {
+        if (logger.isTraceEnabled()) {
+            dispatch(Level.TRACE, format, 2, arg1, arg2, null, null);
+        }
+    }
+
+    public static void trace(String format, Object... args) {
+        if (logger.isTraceEnabled()) {
+            dispatch(Level.TRACE, format, -1, null, null, args, null);
+        }
     }
 
     public static void debug(String message) {
-        logger.debug(message);
+        if (logger.isDebugEnabled()) {
+            dispatch(Level.DEBUG, message, 0, null, null, null, null);
+        }
     }
 
     public static void debug(String message, Throwable throwable) {
-        logger.debug(message, throwable);
+        if (logger.isDebugEnabled()) {
+            dispatch(Level.DEBUG, message, 0, null, null, null, throwable);
+        }
+    }
+
+    public static void debug(String format, Object arg) {
+        if (logger.isDebugEnabled()) {
+            dispatch(Level.DEBUG, format, 1, arg, null, null, null);
+        }
+    }
+
+    public static void debug(String format, Object arg1, Object arg2) {
+        if (logger.isDebugEnabled()) {
+            dispatch(Level.DEBUG, format, 2, arg1, arg2, null, null);
+        }
+    }
+
+    public static void debug(String format, Object... args) {
+        if (logger.isDebugEnabled()) {
+            dispatch(Level.DEBUG, format, -1, null, null, args, null);
+        }
     }
 
     public static void info(String message) {
-        logger.info(message);
+        if (logger.isInfoEnabled()) {
+            dispatch(Level.INFO, message, 0, null, null, null, null);
+        }
     }
 
     public static void info(String message, Throwable throwable) {
-        logger.info(message, throwable);
+        if (logger.isInfoEnabled()) {
+            dispatch(Level.INFO, message, 0, null, null, null, throwable);
+        }
+    }
+
+    public static void info(String format, Object arg) {
+        if (logger.isInfoEnabled()) {
+            dispatch(Level.INFO, format, 1, arg, null, null, null);
+        }
+    }
+
+    public static void info(String format, Object arg1, Object arg2) {
+        if (logger.isInfoEnabled()) {
+            dispatch(Level.INFO, format, 2, arg1, arg2, null, null);
+        }
+    }
+
+    public static void info(String format, Object... args) {
+        if (logger.isInfoEnabled()) {
+            dispatch(Level.INFO, format, -1, null, null, args, null);
+        }
     }
 
     public static void warn(String message) {
-        logger.warn(message);
+        if (logger.isWarnEnabled()) {
+            dispatch(Level.WARN, message, 0, null, null, null, null);
+        }
     }
 
     public static void warn(String message, Throwable throwable) {
-        logger.warn(message, throwable);
+        if (logger.isWarnEnabled()) {
+            dispatch(Level.WARN, message, 0, null, null, null, throwable);
+        }
+    }
+
+    public static void warn(String format, Object arg) {
+        if (logger.isWarnEnabled()) {
+            dispatch(Level.WARN, format, 1, arg, null, null, null);
+        }
+    }
+
+    public static void warn(String format, Object arg1, Object arg2) {
+        if (logger.isWarnEnabled()) {
+            dispatch(Level.WARN, format, 2, arg1, arg2, null, null);
+        }
+    }
+
+    public static void warn(String format, Object... args) {
+        if (logger.isWarnEnabled()) {
+            dispatch(Level.WARN, format, -1, null, null, args, null);
+        }
     }
 
     public static void error(String message) {
-        logger.error(message);
+        dispatch(Level.ERROR, message, 0, null, null, null, null);
     }
 
     public static void error(String message, Throwable throwable) {
-        logger.error(message, throwable);
+        dispatch(Level.ERROR, message, 0, null, null, null, throwable);
+    }
+
+    public static void error(String format, Object arg) {
+        dispatch(Level.ERROR, format, 1, arg, null, null, null);
+    }
+
+    public static void error(String format, Object arg1, Object arg2) {
+        dispatch(Level.ERROR, format, 2, arg1, arg2, null, null);
+    }
+
+    public static void error(String format, Object... args) {
+        dispatch(Level.ERROR, format, -1, null, null, args, null);
     }
 
     // Legacy methods for backward compatibility
@@ -67,4 +214,44 @@ public final class LoggerUtil {
     public static void logError(String message, Throwable throwable) {
         error(message, throwable);
     }
+
+    private static void dispatch(Level level, String format, int argCount, Object arg1, Object arg2, Object[] args, Throwable throwable) {
+        AsyncLogAppender appender = asyncAppender;
+        // A closed appender (or one whose writer thread ended) hands the event back to SLF4J
+        if (appender != null && appender.append(level, format, argCount, arg1, arg2, args, throwable)) {
+            return;
+        }
+        if (argCount == 1) {
+            args = new Object[]{arg1};
+        } else if (argCount == 2) {
+            args = new Object[]{arg1, arg2};
+        }
+        if (argCount != 0) {
+            switch (level) {
+                case TRACE ->
+                    logger.trace(format, args);
+                case DEBUG ->
+                    logger.debug(format, args);
+                case INFO ->
+                    logger.info(format, args);
+                case WARN ->
+                    logger.warn(format, args);
+                case ERROR ->
+                    logger.error(format, args);
+            }
+            return;
+        }
+        switch (level) {
+            case TRACE ->
+                logger.trace(format, throwable);
+            case DEBUG ->
+                logger.debug(format, throwable);
+            case INFO ->
+                logger.info(format, throwable);
+            case WARN ->
+                logger.warn(format, throwable);
+            case ERROR ->
+                logger.error(format, throwable);
+        }
+    }
 }
@@ -1,22 +1,69 @@
 package com.expensetracker.util;
 
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ServiceLoader;
 
+import com.expensetracker.security.LegacySha256HashScheme;
+import com.expensetracker.security.PasswordHashScheme;
+import com.expensetracker.security.Pbkdf2HashScheme;
+
+/**
+ * Hashes new passwords with the current {@link PasswordHashScheme} and
+ * verifies stored hashes with whichever known scheme produced them: the
+ * current one, any registered through ServiceLoader, and the legacy SHA-256
+ * hash. Thread-safe.
+ */
 public class PasswordHasher {
 
-    public static String hash(String raw, String salt) {
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] bytes = digest.digest((salt + ":" + raw).getBytes(StandardCharsets.UTF_8));
-            StringBuilder sb = new StringBuilder();
-            for (byte b : bytes) {
-                sb.append(String.format("%02x", b));
+    private static PasswordHasher INSTANCE;
+
+    private final PasswordHashScheme current;
+    private final List<PasswordHashScheme> schemes;
+
+    public PasswordHasher(PasswordHashScheme current) {
+        this.current = current;
+        List<PasswordHashScheme> known = new ArrayList<>();
+        known.add(current);
+        ServiceLoader.load(PasswordHashScheme.class).forEach(known::add);
+        known.add(new LegacySha256HashScheme());
+        this.schemes = List.copyOf(known);
+    }
+
+    /**
+     * Shared instance using PBKDF2, calibrated on first use so one hash takes
+     * about {@code -Dexpensetracker.password.targetMillis} (default 250 ms).
+     */
+    public static synchronized PasswordHasher getInstance() {
+        if (INSTANCE == null) {
+            long targetMillis = Long.getLong("expensetracker.password.targetMillis", 250);
+            INSTANCE = new PasswordHasher(Pbkdf2HashScheme.calibrated(Duration.ofMillis(targetMillis)));
+        }
+        return INSTANCE;
+    }
+
+    public String hash(String raw, String salt) {
+        return current.hash(raw, salt);
+    }
+
+    /**
+     * False for a wrong password and for hashes no known scheme recognizes.
+     */
+    public boolean verify(String raw, String salt, String storedHash) {
+        for (PasswordHashScheme scheme : schemes) {
+            if (scheme.recognizes(storedHash)) {
+                return scheme.verify(raw, salt, storedHash);
             }
-            return sb.toString();
-        } catch (NoSuchAlgorithmException e) {
-            throw new IllegalStateException("SHA-256 algorithm not available", e);
         }
+        return false;
+    }
+
+    /**
+     * Whether a stored hash should be replaced by {@link #hash} after the
+     * user next signs in.
+     */
+    public boolean needsRehash(String storedHash) {
+        return !current.recognizes(storedHash) || current.needsRehash(storedHash);
     }
 }
@@ -1,14 +1,21 @@
 package com.expensetracker.util;
 
+import java.util.function.Supplier;
+
 import com.expensetracker.model.UserAccount;
 
 /**
- * Holds the currently authenticated user for the running application.
+ * Holds the currently authenticated user for the running application. Code
+ * serving another user on the current thread (one of several sessions in
+ * {@link com.expensetracker.security.SessionRegistry}) binds that user with
+ * {@link #callAs}; it takes precedence over the application-wide user for the
+ * duration of the call.
  */
 public class SessionContext {
 
     private static SessionContext INSTANCE;
-    private UserAccount currentUser;
+    private final ThreadLocal<UserAccount> boundUser = new ThreadLocal<>();
+    private volatile UserAccount currentUser;
 
     private SessionContext() {
     }
@@ -21,7 +28,38 @@ public class SessionContext {
     }
 
     public UserAccount getCurrentUser() {
-        return currentUser;
+        UserAccount bound = boundUser.get();
+        return bound != null ? bound : currentUser;
+    }
+
+    /**
+     * Run an action as the given user on this thread only.
+     */
+    public <T> T callAs(UserAccount user, Supplier<T> action) {
+        UserAccount previous = boundUser.get();
+        boundUser.set(user);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                boundUser.remove();
+            } else {
+                boundUser.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Id of the signed-in user; every user-owned query is scoped by it.
+     *
+     * @throws IllegalStateException if nobody is signed in
+     */
+    public int requireCurrentUserId() {
+        UserAccount user = getCurrentUser();
+        if (user == null || user.getId() == null) {
+            throw new IllegalStateException("No user signed in");
+        }
+        return user.getId();
     }
 
     public void setCurrentUser(UserAccount user) {
@@ -29,7 +67,7 @@ public class SessionContext {
     }
 
     public boolean isAuthenticated() {
-        return currentUser != null;
+        return getCurrentUser() != null;
     }
 
     public void clear() {
@@ -0,0 +1,245 @@
+package com.expensetracker.util;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransactionRollbackException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Binds one connection to the calling thread for the duration of a unit of
+ * work, so every DAO call made inside {@link #execute} shares it and the
+ * work commits once at the end (or rolls back if it throws).
+ * <p>
+ * DAOs need no changes: inside a unit {@link #getConnection} hands out the
+ * bound connection wrapped so that {@code close()} leaves it open and a
+ * DAO's own transaction ({@code setAutoCommit(false)} ... {@code commit()}
+ * or {@code rollback()}) becomes a savepoint within the unit. Nested units
+ * join the outer one. The connection is opened on first use, so a unit that
+ * never reaches the database opens none. Work handed to other threads (the
+ * write-behind flusher, import workers) is not part of the unit.
+ * Side effects outside the database (e.g. the offline mirror) register
+ * with {@link #afterCommit} so a rolled-back unit leaves no trace of them.
+ */
+public class TransactionScope {
+
+    @FunctionalInterface
+    public interface ConnectionSource {
+
+        Connection open() throws SQLException;
+    }
+
+    private final ConnectionSource source;
+    private final ThreadLocal<Unit> current = new ThreadLocal<>();
+
+    public TransactionScope(ConnectionSource source) {
+        this.source = source;
+    }
+
+    /**
+     * The current unit's connection, or a new auto-commit connection outside
+     * of one. Either way the caller closes it.
+     */
+    public Connection getConnection() throws SQLException {
+        Unit unit = current.get();
+        return unit == null ? source.open() : unit.share();
+    }
+
+    public boolean isActive() {
+        return current.get() != null;
+    }
+
+    /**
+     * Run the work as one transaction, or as part of the enclosing one.
+     */
+    public <T> T execute(Supplier<T> work) {
+        if (current.get() != null) {
+            return work.get();
+        }
+        Unit unit = new Unit();
+        current.set(unit);
+        T result;
+        try {
+            result = work.get();
+        } catch (RuntimeException | Error e) {
+            current.remove();
+            unit.rollback(e);
+            throw e;
+        }
+        current.remove();
+        unit.commit();
+        unit.runAfterCommit();
+        return result;
+    }
+
+    /**
+     * Run the action once the current unit has committed; it is dropped if
+     * the unit rolls back. Outside of a unit it runs right away. A failing
+     * action is logged and does not affect the (already committed) unit.
+     */
+    public void afterCommit(Runnable action) {
+        Unit unit = current.get();
+        if (unit == null) {
+            action.run();
+        } else {
+            unit.afterCommit.add(action);
+        }
+    }
+
+    public void run(Runnable work) {
+        execute(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Whether the failure rolled back the whole database transaction (a
+     * deadlock or lock wait timeout), not just the failing statement.
+     */
+    public static boolean isTransactionRollback(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLTransactionRollbackException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private final class Unit {
+
+        private Connection connection;
+        private int shares;
+        // Set when a DAO rolled back outside a savepoint, or a savepoint could not be restored
+        private boolean rollbackOnly;
+        private final List<Runnable> afterCommit = new ArrayList<>();
+
+        Connection share() throws SQLException {
+            if (connection == null) {
+                connection = source.open();
+                connection.setAutoCommit(false);
+            }
+            shares++;
+            SharedConnection handler = new SharedConnection();
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, handler::invoke);
+        }
+
+        void commit() {
+            if (connection == null) {
+                return;
+            }
+            try {
+                if (rollbackOnly) {
+                    connection.rollback();
+                    throw new IllegalStateException("Transaction rolled back by one of its statements; nothing was committed");
+                }
+                connection.commit();
+                LoggerUtil.debug("Committed unit of work: {} DAO calls on one connection", shares);
+            } catch (SQLException e) {
+                throw new RuntimeException("Error committing transaction", e);
+            } finally {
+                close();
+            }
+        }
+
+        void runAfterCommit() {
+            for (Runnable action : afterCommit) {
+                try {
+                    action.run();
+                } catch (RuntimeException e) {
+                    LoggerUtil.warn("After-commit action failed: {}", e.getMessage());
+                }
+            }
+        }
+
+        void rollback(Throwable cause) {
+            if (connection == null) {
+                return;
+            }
+            try {
+                connection.rollback();
+            } catch (SQLException e) {
+                cause.addSuppressed(e);
+            } finally {
+                close();
+            }
+        }
+
+        private void close() {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                LoggerUtil.warn("Error closing transaction connection: {}", e.getMessage());
+            }
+        }
+
+        /**
+         * What a DAO sees: the unit's connection, with its own transaction
+         * demarcation mapped onto a savepoint.
+         */
+        private final class SharedConnection {
+
+            private Savepoint savepoint;
+
+            Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                switch (method.getName()) {
+                    case "close" -> {
+                        return null;
+                    }
+                    case "setAutoCommit" -> {
+                        if (!(Boolean) args[0] && savepoint == null) {
+                            savepoint = connection.setSavepoint();
+                        }
+                        return null;
+                    }
+                    case "commit" -> {
+                        // Becomes durable with the unit
+                        savepoint = null;
+                        return null;
+                    }
+                    case "rollback" -> {
+                        if (args == null) {
+                            rollbackToSavepoint();
+                            return null;
+                        }
+                    }
+                    case "equals" -> {
+                        return proxy == args[0];
+                    }
+                    case "hashCode" -> {
+                        return System.identityHashCode(proxy);
+                    }
+                    default -> {
+                    }
+                }
+                try {
+                    return method.invoke(connection, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            }
+
+            private void rollbackToSavepoint() throws SQLException {
+                if (savepoint == null) {
+                    rollbackOnly = true;
+                    return;
+                }
+                try {
+                    connection.rollback(savepoint);
+                } catch (SQLException e) {
+                    // e.g. the server already rolled back the whole transaction
+                    rollbackOnly = true;
+                    throw e;
+                } finally {
+                    savepoint = null;
+                }
+            }
+        }
+    }
+}
@@ -1,13 +1,49 @@
 package com.expensetracker.view;
 
+import java.awt.GraphicsEnvironment;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.time.Duration;
+import java.time.Instant;
+
 import javax.swing.SwingUtilities;
 
+import com.expensetracker.util.LoggerUtil;
+
 /**
  * Application launcher selecting login first.
+ * <p>
+ * Logs the time from JVM start to the first window on screen. With
+ * {@code -Dexpensetracker.startup.trainingRun=true} the launcher exits as soon
+ * as that window is shown, which is how the {@code cds} build profile records
+ * the classes loaded during startup into a class data sharing archive.
  */
 public class AppLauncher {
 
     public static void main(String[] args) {
-        SwingUtilities.invokeLater(() -> new LoginFrame().setVisible(true));
+        boolean trainingRun = Boolean.getBoolean("expensetracker.startup.trainingRun");
+        if (trainingRun && GraphicsEnvironment.isHeadless()) {
+            // No window to wait for; archive what has been loaded so far
+            LoggerUtil.warn("Headless training run, archiving launcher classes only");
+            System.exit(0);
+        }
+        SwingUtilities.invokeLater(() -> {
+            LoginFrame loginFrame = new LoginFrame();
+            loginFrame.addWindowListener(new WindowAdapter() {
+                @Override
+                public void windowOpened(WindowEvent e) {
+                    LoggerUtil.info("First window shown {} ms after JVM start", sinceJvmStart().toMillis());
+                    if (trainingRun) {
+                        System.exit(0);
+                    }
+                }
+            });
+            loginFrame.setVisible(true);
+        });
+    }
+
+    private static Duration sinceJvmStart() {
+        Instant jvmStart = ProcessHandle.current().info().startInstant().orElse(Instant.now());
+        return Duration.between(jvmStart, Instant.now());
     }
 }
@@ -8,6 +8,7 @@ import java.awt.GridBagLayout;
 import java.awt.Insets;
 import java.awt.event.ActionEvent;
 import java.awt.event.KeyEvent;
+import java.time.Duration;
 
 import javax.swing.AbstractAction;
 import javax.swing.BorderFactory;
@@ -25,6 +26,7 @@ import javax.swing.KeyStroke;
 import javax.swing.SwingConstants;
 import javax.swing.SwingUtilities;
 
+import com.expensetracker.dao.impl.CachingUserAccountDAO;
 import com.expensetracker.dao.impl.UserAccountJdbcDAO;
 import com.expensetracker.model.Role;
 import com.expensetracker.service.AuthService;
@@ -36,7 +38,8 @@ public class LoginFrame extends JFrame {
 
     public LoginFrame() {
         super("Expense Tracker - Login");
-        this.authService = new AuthService(new UserAccountJdbcDAO());
+        this.authService = new AuthService(new CachingUserAccountDAO(new UserAccountJdbcDAO(),
+                Duration.ofSeconds(Long.getLong("expensetracker.userCache.ttlSeconds", 60))));
         initUI();
     }
 
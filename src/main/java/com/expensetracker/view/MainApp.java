@@ -10,8 +10,13 @@ import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
 import java.awt.GridLayout;
 import java.awt.Insets;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.io.FileWriter;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.util.function.Supplier;
 
 import javax.swing.BorderFactory;
 import javax.swing.Box;
@@ -23,24 +28,54 @@ import javax.swing.JScrollPane;
 import javax.swing.JTabbedPane;
 import javax.swing.JTextArea;
 import javax.swing.JTextField;
+import javax.swing.SwingUtilities;
 
+import com.expensetracker.background.BackgroundTaskManager;
 import com.expensetracker.controller.AppController;
 import com.expensetracker.report.CsvExportStrategy;
 import com.expensetracker.report.DailyReport;
+import com.expensetracker.service.DashboardService;
+import com.expensetracker.service.DashboardTiles;
+import com.expensetracker.util.Lazy;
+import com.expensetracker.util.LoggerUtil;
 import com.expensetracker.util.SessionContext;
 import com.expensetracker.view.theme.AppTheme;
 
 /**
  * Main application window with tabbed interface for expense management.
+ * <p>
+ * The window is shown before the controller exists: the controller is built
+ * in the background once the window opens, and the Expenses, Categories and
+ * Reports tabs are only built the first time they are selected.
  */
 public class MainApp extends JFrame {
 
-    private final AppController controller;
+    // Trend sparkline, lowest to highest day of the week
+    private static final String SPARK_BARS = "▁▂▃▄▅▆▇█";
+
+    private final Lazy<AppController> controller = new Lazy<>(AppController::new);
+
+    // Dashboard tiles, filled in from DashboardService's precomputed values
+    private final JLabel monthToDateLabel = new JLabel("…");
+    private final JLabel topCategoriesLabel = new JLabel("…");
+    private final JLabel budgetLabel = new JLabel("…");
+    private final JLabel trendLabel = new JLabel("…");
 
     public MainApp() {
         super("Expense Tracker");
-        this.controller = new AppController();
+        long started = System.nanoTime();
         initUI();
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowOpened(WindowEvent e) {
+                LoggerUtil.info("Main window shown in {} ms", (System.nanoTime() - started) / 1_000_000);
+                // Build the controller off the EDT, then start its schedulers (recurring, partitions, archive, budget)
+                BackgroundTaskManager.getInstance().execute(() -> {
+                    bindDashboard(controller.get().getDashboardService());
+                    controller.get().startBackgroundServices();
+                });
+            }
+        });
     }
 
     private void initUI() {
@@ -59,9 +94,9 @@ public class MainApp extends JFrame {
         // Create main content with tabs
         JTabbedPane tabs = createStyledTabbedPane();
         tabs.addTab("📊 Dashboard", createDashboardPanel());
-        tabs.addTab("💰 Expenses", new ExpensePanel(controller));
-        tabs.addTab("📁 Categories", new CategoryPanel(controller));
-        tabs.addTab("📈 Reports", createReportsPanel());
+        addLazyTab(tabs, "💰 Expenses", () -> new ExpensePanel(controller.get()));
+        addLazyTab(tabs, "📁 Categories", () -> new CategoryPanel(controller.get()));
+        addLazyTab(tabs, "📈 Reports", this::createReportsPanel);
 
         // Layout
         add(headerPanel, BorderLayout.NORTH);
@@ -96,7 +131,8 @@ public class MainApp extends JFrame {
         logoutBtn.setFocusPainted(false);
         logoutBtn.setCursor(new Cursor(Cursor.HAND_CURSOR));
         logoutBtn.addActionListener(e -> {
-            SessionContext.getInstance().clear();
+            // Waits for a controller still being built, which may hold buffered writes to flush
+            controller.get().signOut();
             dispose();
             new LoginFrame().setVisible(true);
         });
@@ -111,6 +147,22 @@ public class MainApp extends JFrame {
         return header;
     }
 
+    /**
+     * Adds a tab holding an empty placeholder that is replaced by the real
+     * panel the first time the tab is selected.
+     */
+    private void addLazyTab(JTabbedPane tabs, String title, Supplier<? extends JPanel> panelFactory) {
+        JPanel placeholder = new JPanel(new BorderLayout());
+        placeholder.setBackground(AppTheme.BACKGROUND_COLOR);
+        tabs.addTab(title, placeholder);
+        tabs.addChangeListener(e -> {
+            if (tabs.getSelectedComponent() == placeholder && placeholder.getComponentCount() == 0) {
+                placeholder.add(panelFactory.get(), BorderLayout.CENTER);
+                placeholder.revalidate();
+            }
+        });
+    }
+
     private JTabbedPane createStyledTabbedPane() {
         JTabbedPane tabs = new JTabbedPane();
         tabs.setFont(AppTheme.LABEL_FONT);
@@ -128,11 +180,11 @@ public class MainApp extends JFrame {
         JPanel welcomeCard = AppTheme.createTitledCard("Dashboard Overview");
         welcomeCard.setLayout(new GridLayout(2, 2, 15, 15));
 
-        // Quick stats cards (placeholder for now)
-        welcomeCard.add(createStatCard("Total Expenses", "$0.00", AppTheme.ACCENT_COLOR));
-        welcomeCard.add(createStatCard("This Month", "$0.00", AppTheme.PRIMARY_COLOR));
-        welcomeCard.add(createStatCard("Categories", "0", AppTheme.SUCCESS_COLOR));
-        welcomeCard.add(createStatCard("Last Transaction", "None", AppTheme.WARNING_COLOR));
+        // Quick stats cards, filled in once the tiles are computed
+        welcomeCard.add(createStatCard("This Month", monthToDateLabel, AppTheme.PRIMARY_COLOR));
+        welcomeCard.add(createStatCard("Top Categories", topCategoriesLabel, AppTheme.ACCENT_COLOR));
+        welcomeCard.add(createStatCard("Budget Utilization", budgetLabel, AppTheme.WARNING_COLOR));
+        welcomeCard.add(createStatCard("Last 7 Days", trendLabel, AppTheme.SUCCESS_COLOR));
 
         dashboard.add(welcomeCard, BorderLayout.NORTH);
 
@@ -170,7 +222,52 @@ public class MainApp extends JFrame {
         return dashboard;
     }
 
-    private JPanel createStatCard(String title, String value, Color accentColor) {
+    /**
+     * Show the current tiles and follow later changes. Reads only the
+     * service's precomputed snapshot; never queries.
+     */
+    private void bindDashboard(DashboardService dashboard) {
+        dashboard.addListener(tiles -> SwingUtilities.invokeLater(() -> showTiles(tiles)));
+        DashboardTiles current = dashboard.getTiles();
+        SwingUtilities.invokeLater(() -> showTiles(current));
+    }
+
+    private void showTiles(DashboardTiles tiles) {
+        if (tiles.isEmpty()) {
+            return;
+        }
+        monthToDateLabel.setText(String.format("$%.2f", tiles.monthToDate()));
+
+        StringBuilder top = new StringBuilder("<html>");
+        tiles.topCategories().stream().limit(3).forEach(c ->
+                top.append(String.format("%s $%.2f<br>", escapeHtml(c.category()), c.total())));
+        topCategoriesLabel.setText(tiles.topCategories().isEmpty() ? "None" : top.append("</html>").toString());
+
+        StringBuilder budgets = new StringBuilder("<html>");
+        tiles.budgetUtilization().stream().limit(3).forEach(b ->
+                budgets.append(String.format("%s %.0f%%<br>", escapeHtml(b.category()), b.ratio() * 100)));
+        budgetLabel.setText(tiles.budgetUtilization().isEmpty() ? "No limits set" : budgets.append("</html>").toString());
+
+        BigDecimal weekTotal = BigDecimal.ZERO;
+        BigDecimal peak = BigDecimal.ZERO;
+        for (DashboardTiles.DayTotal day : tiles.trend()) {
+            weekTotal = weekTotal.add(day.total());
+            peak = peak.max(day.total());
+        }
+        StringBuilder bars = new StringBuilder();
+        for (DashboardTiles.DayTotal day : tiles.trend()) {
+            int level = peak.signum() == 0 ? 0
+                    : day.total().multiply(BigDecimal.valueOf(SPARK_BARS.length() - 1)).divide(peak, 0, RoundingMode.HALF_UP).intValue();
+            bars.append(SPARK_BARS.charAt(level));
+        }
+        trendLabel.setText(String.format("<html>$%.2f<br>%s</html>", weekTotal, bars));
+    }
+
+    private static String escapeHtml(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+
+    private JPanel createStatCard(String title, JLabel valueLabel, Color accentColor) {
         JPanel card = new JPanel(new BorderLayout());
         card.setBackground(Color.WHITE);
         card.setBorder(BorderFactory.createCompoundBorder(
@@ -182,7 +279,6 @@ public class MainApp extends JFrame {
         titleLabel.setFont(AppTheme.LABEL_FONT);
         titleLabel.setForeground(AppTheme.TEXT_SECONDARY);
 
-        JLabel valueLabel = new JLabel(value);
         valueLabel.setFont(new Font("Segoe UI", Font.BOLD, 18));
         valueLabel.setForeground(accentColor);
 
@@ -241,7 +337,7 @@ public class MainApp extends JFrame {
         genBtn.addActionListener(e -> {
             try {
                 LocalDate date = LocalDate.parse(dateField.getText().trim());
-                DailyReport report = controller.generateDailyReport(date);
+                DailyReport report = controller.get().generateDailyReport(date);
 
                 StringBuilder sb = new StringBuilder();
                 sb.append(report.getTitle()).append("\n");
@@ -1,14 +1,20 @@
 package com.expensetracker;
 
 import com.expensetracker.dao.CategoryDAO;
+import com.expensetracker.dao.ExpenseDAO;
+import com.expensetracker.dao.UnitOfWork;
 import com.expensetracker.model.Category;
+import com.expensetracker.model.Expense;
 import com.expensetracker.service.CategoryService;
+import com.expensetracker.service.DataVersion;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.*;
+import java.util.function.Supplier;
 
 /**
  * Simple in-memory stubbed test for CategoryService logic (does not hit DB).
@@ -16,6 +22,10 @@ import java.util.*;
 public class CategoryServiceTest {
 
     private CategoryService categoryService;
+    private int unitsOfWork;
+    // Categories the stub expense DAO reports expenses for
+    private final Set<Integer> categoriesInUse = new HashSet<>();
+    private final List<Integer> lockedIds = new ArrayList<>();
 
     @BeforeEach
     void setup() {
@@ -46,6 +56,12 @@ public class CategoryServiceTest {
                 return Optional.ofNullable(store.get(id));
             }
 
+            @Override
+            public Optional<Category> lockById(int id) {
+                lockedIds.add(id);
+                return findById(id);
+            }
+
             @Override
             public Optional<Category> findByName(String name) {
                 return store.values().stream().filter(c -> c.getName().equalsIgnoreCase(name)).findFirst();
@@ -61,7 +77,65 @@ public class CategoryServiceTest {
                 return store.size();
             }
         };
-        categoryService = new CategoryService(stubDao);
+        UnitOfWork countingUnitOfWork = new UnitOfWork() {
+            @Override
+            public <T> T execute(Supplier<T> work) {
+                unitsOfWork++;
+                return work.get();
+            }
+        };
+        ExpenseDAO stubExpenseDao = new ExpenseDAO() {
+            @Override
+            public boolean existsInCategory(int categoryId) {
+                return categoriesInUse.contains(categoryId);
+            }
+
+            @Override
+            public Expense insert(Expense expense) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public boolean update(Expense expense) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public boolean delete(long id) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public Optional<Expense> findById(long id) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public List<Expense> findByDateRange(LocalDate start, LocalDate end) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public List<Expense> findByCategory(int categoryId, LocalDate start, LocalDate end) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public List<Expense> search(String keyword, LocalDate start, LocalDate end) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public List<Expense> listRecent(int limit) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public long count() {
+                throw new UnsupportedOperationException();
+            }
+        };
+        categoryService = new CategoryService(stubDao, stubExpenseDao, new DataVersion(), null, countingUnitOfWork);
     }
 
     @Test
@@ -76,4 +150,57 @@ public class CategoryServiceTest {
         categoryService.createCategory("Travel", null);
         Assertions.assertThrows(IllegalArgumentException.class, () -> categoryService.createCategory("Travel", null));
     }
+
+    @Test
+    void testReallocateBudget_MovesLimitInOneUnitOfWork() {
+        Category food = categoryService.createCategory("Food", new BigDecimal("300"));
+        Category travel = categoryService.createCategory("Travel", null);
+
+        List<Category> moved = categoryService.reallocateBudget(food.getId(), travel.getId(), new BigDecimal("120"));
+
+        Assertions.assertEquals(1, unitsOfWork);
+        Assertions.assertEquals(new BigDecimal("180"), moved.get(0).getMonthlyBudgetLimit());
+        Assertions.assertEquals(new BigDecimal("120"), moved.get(1).getMonthlyBudgetLimit());
+        Assertions.assertEquals(new BigDecimal("120"), categoryService.findById(travel.getId()).orElseThrow().getMonthlyBudgetLimit());
+    }
+
+    @Test
+    void testReallocateBudget_ToLowerId_LocksBothRowsInIdOrder() {
+        Category food = categoryService.createCategory("Food", null);
+        Category travel = categoryService.createCategory("Travel", new BigDecimal("200"));
+
+        categoryService.reallocateBudget(travel.getId(), food.getId(), new BigDecimal("50"));
+
+        Assertions.assertEquals(List.of(food.getId(), travel.getId()), lockedIds);
+        Assertions.assertEquals(new BigDecimal("50"), categoryService.findById(food.getId()).orElseThrow().getMonthlyBudgetLimit());
+        Assertions.assertEquals(new BigDecimal("150"), categoryService.findById(travel.getId()).orElseThrow().getMonthlyBudgetLimit());
+    }
+
+    @Test
+    void testReallocateBudget_MoreThanLimitThrows_NothingChanged() {
+        Category food = categoryService.createCategory("Food", new BigDecimal("100"));
+        Category travel = categoryService.createCategory("Travel", new BigDecimal("50"));
+
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> categoryService.reallocateBudget(food.getId(), travel.getId(), new BigDecimal("150")));
+        Assertions.assertEquals(new BigDecimal("100"), categoryService.findById(food.getId()).orElseThrow().getMonthlyBudgetLimit());
+        Assertions.assertEquals(new BigDecimal("50"), categoryService.findById(travel.getId()).orElseThrow().getMonthlyBudgetLimit());
+    }
+
+    @Test
+    void testDeleteCategory_Unused_Deleted() {
+        Category travel = categoryService.createCategory("Travel", null);
+
+        Assertions.assertTrue(categoryService.deleteCategory(travel.getId()));
+        Assertions.assertTrue(categoryService.findById(travel.getId()).isEmpty());
+    }
+
+    @Test
+    void testDeleteCategory_StillHasExpenses_ThrowsAndKeepsCategory() {
+        Category food = categoryService.createCategory("Food", null);
+        categoriesInUse.add(food.getId());
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> categoryService.deleteCategory(food.getId()));
+        Assertions.assertTrue(categoryService.findById(food.getId()).isPresent());
+    }
 }
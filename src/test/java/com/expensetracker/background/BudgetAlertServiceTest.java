@@ -0,0 +1,80 @@
+package com.expensetracker.background;
+
+import com.expensetracker.dao.CategoryDAO;
+import com.expensetracker.event.ChangeEvent;
+import com.expensetracker.event.ChangeEvent.CategoryChanged;
+import com.expensetracker.model.Category;
+import com.expensetracker.util.SessionContext;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for BudgetAlertService reacting to change events
+ */
+public class BudgetAlertServiceTest {
+
+    // User each budget check ran as
+    private final List<Integer> checkedAs = new ArrayList<>();
+
+    private final CategoryDAO stubDao = new CategoryDAO() {
+        @Override
+        public Category insert(Category category) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean update(Category category) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean delete(int id) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Optional<Category> findById(int id) {
+            return Optional.empty();
+        }
+
+        @Override
+        public Optional<Category> findByName(String name) {
+            return Optional.empty();
+        }
+
+        @Override
+        public List<Category> findAll() {
+            checkedAs.add(SessionContext.getInstance().requireCurrentUserId());
+            return List.of();
+        }
+
+        @Override
+        public long count() {
+            return 0;
+        }
+    };
+
+    @Test
+    void testOnChanges_SeveralUsers_ChecksOncePerUserAsThatUser() {
+        // Arrange: nobody is signed in on the delivering thread
+        BudgetAlertService service = new BudgetAlertService(stubDao, null);
+        List<ChangeEvent> batch = List.of(
+                new ChangeEvent.ExpenseDeleted(7, 1L),
+                new ChangeEvent.ExpenseDeleted(8, 2L),
+                new CategoryChanged(9, 3, new Category("Gifts"), CategoryChanged.Change.CREATED),
+                new ChangeEvent.ExpenseDeleted(7, 4L),
+                new ChangeEvent.ExpenseDeleted(0, 5L));
+
+        // Act
+        service.onChanges(batch);
+
+        // Assert
+        assertEquals(List.of(7, 8), checkedAs);
+        assertFalse(SessionContext.getInstance().isAuthenticated());
+    }
+}
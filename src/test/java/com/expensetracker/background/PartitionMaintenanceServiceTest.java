@@ -0,0 +1,76 @@
+package com.expensetracker.background;
+
+import com.expensetracker.dao.ExpensePartitionDAO;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PartitionMaintenanceService
+ */
+public class PartitionMaintenanceServiceTest {
+
+    private final List<LocalDate> bounds = new ArrayList<>();
+    private final List<String> created = new ArrayList<>();
+
+    private final ExpensePartitionDAO stubDao = new ExpensePartitionDAO() {
+        @Override
+        public List<LocalDate> findPartitionBounds() {
+            return List.copyOf(bounds);
+        }
+
+        @Override
+        public void addPartition(String name, LocalDate upperBound) {
+            created.add(name + "<" + upperBound);
+            bounds.add(upperBound);
+        }
+    };
+
+    @Test
+    void testEnsureUpcomingPartitions_Monthly_CreatesMissingMonthsAfterYearlyHistory() {
+        // Arrange
+        bounds.add(LocalDate.of(2024, 1, 1));
+        bounds.add(LocalDate.of(2025, 1, 1));
+        PartitionMaintenanceService service = new PartitionMaintenanceService(stubDao, PartitionMaintenanceService.Interval.MONTH, 2);
+
+        // Act
+        int first = service.ensureUpcomingPartitions(LocalDate.of(2025, 2, 14));
+        int second = service.ensureUpcomingPartitions(LocalDate.of(2025, 2, 28));
+
+        // Assert
+        assertEquals(4, first);
+        assertEquals(0, second);
+        assertEquals(List.of("p202501<2025-02-01", "p202502<2025-03-01", "p202503<2025-04-01", "p202504<2025-05-01"), created);
+    }
+
+    @Test
+    void testEnsureUpcomingPartitions_Yearly_AlignsToYearBoundary() {
+        // Arrange
+        bounds.add(LocalDate.of(2025, 7, 1));
+        PartitionMaintenanceService service = new PartitionMaintenanceService(stubDao, PartitionMaintenanceService.Interval.YEAR, 1);
+
+        // Act
+        int count = service.ensureUpcomingPartitions(LocalDate.of(2025, 8, 1));
+
+        // Assert
+        assertEquals(2, count);
+        assertEquals(List.of("p2025<2026-01-01", "p2026<2027-01-01"), created);
+    }
+
+    @Test
+    void testEnsureUpcomingPartitions_NotPartitioned_DoesNothing() {
+        // Arrange
+        PartitionMaintenanceService service = new PartitionMaintenanceService(stubDao, PartitionMaintenanceService.Interval.MONTH, 3);
+
+        // Act
+        int count = service.ensureUpcomingPartitions(LocalDate.of(2025, 2, 14));
+
+        // Assert
+        assertEquals(0, count);
+        assertTrue(created.isEmpty());
+    }
+}
@@ -0,0 +1,246 @@
+package com.expensetracker.cli;
+
+import com.expensetracker.controller.HeadlessServices;
+import com.expensetracker.dao.CategoryDAO;
+import com.expensetracker.dao.ExpenseDAO;
+import com.expensetracker.dao.UserAccountDAO;
+import com.expensetracker.model.Category;
+import com.expensetracker.model.Expense;
+import com.expensetracker.model.PaymentMethod;
+import com.expensetracker.model.Role;
+import com.expensetracker.model.UserAccount;
+import com.expensetracker.security.LoginAttemptLimiter;
+import com.expensetracker.security.Pbkdf2HashScheme;
+import com.expensetracker.security.SessionRegistry;
+import com.expensetracker.service.AuthService;
+import com.expensetracker.util.PasswordHasher;
+import com.expensetracker.util.SessionContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the command line against in-memory DAOs
+ */
+public class ExpenseCliTest {
+
+    private final Map<String, UserAccount> users = new HashMap<>();
+    private final List<Expense> expenses = new ArrayList<>();
+    private final Category food = new Category(1, "Food, drinks", null, null);
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream err = new ByteArrayOutputStream();
+    private int servicesCreated;
+
+    @TempDir
+    Path tempDir;
+
+    private final UserAccountDAO stubUserDao = new UserAccountDAO() {
+        @Override
+        public UserAccount insert(UserAccount user) {
+            user.setId(users.size() + 1);
+            users.put(user.getUsername(), user);
+            return user;
+        }
+
+        @Override
+        public Optional<UserAccount> findByUsername(String username) {
+            return Optional.ofNullable(users.get(username));
+        }
+
+        @Override
+        public boolean updatePasswordHash(int userId, String passwordHash, String salt) {
+            return true;
+        }
+    };
+
+    private final CategoryDAO stubCategoryDao = new CategoryDAO() {
+        @Override
+        public Category insert(Category category) {
+            return category;
+        }
+
+        @Override
+        public boolean update(Category category) {
+            return false;
+        }
+
+        @Override
+        public boolean delete(int id) {
+            return false;
+        }
+
+        @Override
+        public Optional<Category> findById(int id) {
+            return id == 1 ? Optional.of(food) : Optional.empty();
+        }
+
+        @Override
+        public Optional<Category> findByName(String name) {
+            return Optional.empty();
+        }
+
+        @Override
+        public List<Category> findAll() {
+            return List.of(food);
+        }
+
+        @Override
+        public long count() {
+            return 1;
+        }
+    };
+
+    private final ExpenseDAO stubExpenseDao = new ExpenseDAO() {
+        @Override
+        public Expense insert(Expense expense) {
+            return expense;
+        }
+
+        @Override
+        public boolean update(Expense expense) {
+            return false;
+        }
+
+        @Override
+        public boolean delete(long id) {
+            return false;
+        }
+
+        @Override
+        public Optional<Expense> findById(long id) {
+            return Optional.empty();
+        }
+
+        @Override
+        public List<Expense> findByDateRange(LocalDate start, LocalDate end) {
+            return expenses.stream()
+                    .filter(e -> !e.getDate().isBefore(start) && !e.getDate().isAfter(end))
+                    .sorted(Comparator.comparing(Expense::getDate))
+                    .toList();
+        }
+
+        @Override
+        public List<Expense> findByCategory(int categoryId, LocalDate start, LocalDate end) {
+            return findByDateRange(start, end);
+        }
+
+        @Override
+        public List<Expense> search(String keyword, LocalDate start, LocalDate end) {
+            return List.of();
+        }
+
+        @Override
+        public List<Expense> listRecent(int limit) {
+            return List.of();
+        }
+
+        @Override
+        public long count() {
+            return expenses.size();
+        }
+    };
+
+    private HeadlessServices services;
+
+    @BeforeEach
+    void setUp() {
+        AuthService authService = new AuthService(stubUserDao, new PasswordHasher(new Pbkdf2HashScheme(1_000)),
+                new LoginAttemptLimiter(5, Duration.ofMinutes(5)), new SessionRegistry(Duration.ofMinutes(30)));
+        authService.register("alice", "pw-alice", Role.USER);
+        services = new HeadlessServices(stubCategoryDao, stubExpenseDao, null, authService);
+        expenses.add(Expense.create(food, LocalDate.of(2024, 3, 5), new BigDecimal("12.50"), PaymentMethod.CARD, "Lunch\nwith \"team\""));
+        expenses.add(Expense.create(food, LocalDate.of(2024, 3, 6), new BigDecimal("7.25"), PaymentMethod.CASH, null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SessionContext.getInstance().clear();
+    }
+
+    private int run(Map<String, String> env, String... args) {
+        ExpenseCli cli = new ExpenseCli(() -> {
+            servicesCreated++;
+            return services;
+        }, env, new PrintStream(out, true, StandardCharsets.UTF_8), new PrintStream(err, true, StandardCharsets.UTF_8));
+        return cli.run(args);
+    }
+
+    private static Map<String, String> credentials(String password) {
+        return Map.of("EXPENSETRACKER_USER", "alice", "EXPENSETRACKER_PASSWORD", password);
+    }
+
+    @Test
+    void testRun_BadUsage_ExitsTwoWithoutServices() {
+        // Act
+        int unknown = run(credentials("pw-alice"), "report", "yearly");
+        int badDate = run(credentials("pw-alice"), "report", "daily", "--date", "yesterday");
+        int missingValue = run(credentials("pw-alice"), "report", "daily", "--date");
+        int noCommand = run(credentials("pw-alice"));
+
+        // Assert
+        assertEquals(ExpenseCli.EXIT_USAGE, unknown);
+        assertEquals(ExpenseCli.EXIT_USAGE, badDate);
+        assertEquals(ExpenseCli.EXIT_USAGE, missingValue);
+        assertEquals(ExpenseCli.EXIT_USAGE, noCommand);
+        assertEquals(0, servicesCreated);
+        assertTrue(err.toString(StandardCharsets.UTF_8).contains("Usage:"));
+    }
+
+    @Test
+    void testRun_WrongPassword_ExitsThree() {
+        // Act
+        int code = run(credentials("nope"), "report", "daily", "--date", "2024-03-05");
+
+        // Assert
+        assertEquals(ExpenseCli.EXIT_AUTH, code);
+        assertEquals("", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testRun_WeeklyReportCsv_WritesReportToStdout() {
+        // Act
+        int code = run(credentials("pw-alice"), "report", "weekly", "--from", "2024-03-04", "--to", "2024-03-10", "--format", "csv");
+
+        // Assert
+        assertEquals(ExpenseCli.EXIT_OK, code);
+        String csv = out.toString(StandardCharsets.UTF_8);
+        assertTrue(csv.startsWith("# "));
+        assertTrue(csv.contains("19.75"));
+        assertNull(SessionContext.getInstance().getCurrentUser());
+    }
+
+    @Test
+    void testRun_ExportSnapshotToFile_WritesImportFormat() throws Exception {
+        // Arrange
+        Path target = tempDir.resolve("snapshot.csv");
+
+        // Act
+        int code = run(credentials("pw-alice"), "export", "snapshot", "--out", target.toString());
+
+        // Assert
+        assertEquals(ExpenseCli.EXIT_OK, code);
+        assertEquals(List.of(
+                "date,category,amount,payment_method,description",
+                "2024-03-05,\"Food, drinks\",12.50,CARD,\"Lunch with \"\"team\"\"\"",
+                "2024-03-06,\"Food, drinks\",7.25,CASH,"), Files.readAllLines(target));
+        assertFalse(Files.exists(tempDir.resolve("snapshot.csv.partial")));
+    }
+}
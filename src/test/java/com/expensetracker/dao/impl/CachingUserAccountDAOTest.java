@@ -0,0 +1,104 @@
+package com.expensetracker.dao.impl;
+
+import com.expensetracker.dao.UserAccountDAO;
+import com.expensetracker.model.Role;
+import com.expensetracker.model.UserAccount;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the username lookup cache
+ */
+public class CachingUserAccountDAOTest {
+
+    private final Map<String, UserAccount> rows = new HashMap<>();
+    private final AtomicInteger lookups = new AtomicInteger();
+    private final AtomicLong now = new AtomicLong();
+
+    private final UserAccountDAO stubDao = new UserAccountDAO() {
+        @Override
+        public UserAccount insert(UserAccount user) {
+            user.setId(rows.size() + 1);
+            rows.put(user.getUsername().toLowerCase(), user);
+            return user;
+        }
+
+        @Override
+        public Optional<UserAccount> findByUsername(String username) {
+            lookups.incrementAndGet();
+            return Optional.ofNullable(rows.get(username.toLowerCase()));
+        }
+
+        @Override
+        public boolean updatePasswordHash(int userId, String passwordHash, String salt) {
+            for (UserAccount user : rows.values()) {
+                if (user.getId() == userId) {
+                    rows.put(user.getUsername().toLowerCase(), new UserAccount(userId, user.getUsername(), passwordHash, salt,
+                            user.getRole(), user.isActive(), user.getCreatedAt()));
+                    return true;
+                }
+            }
+            return false;
+        }
+    };
+
+    private final CachingUserAccountDAO dao = new CachingUserAccountDAO(stubDao, Duration.ofSeconds(60), now::get);
+
+    @Test
+    void testFindByUsername_RepeatedAnyCase_HitsDatabaseOnceUntilExpiry() {
+        // Arrange
+        rows.put("alice", new UserAccount(1, "Alice", "h1", "s", Role.USER, true, LocalDateTime.now()));
+
+        // Act
+        UserAccount first = dao.findByUsername("alice").orElseThrow();
+        first.setId(99);
+        UserAccount second = dao.findByUsername("ALICE").orElseThrow();
+        int lookupsBeforeExpiry = lookups.get();
+        now.addAndGet(Duration.ofSeconds(61).toNanos());
+        dao.findByUsername("alice");
+
+        // Assert
+        assertEquals(1, lookupsBeforeExpiry);
+        assertEquals(1, second.getId());
+        assertEquals(2, lookups.get());
+    }
+
+    @Test
+    void testFindByUsername_UnknownOrInactive_NotCached() {
+        // Arrange
+        rows.put("carol", new UserAccount(2, "carol", "h", "s", Role.USER, false, LocalDateTime.now()));
+
+        // Act
+        dao.findByUsername("nobody");
+        dao.findByUsername("nobody");
+        dao.findByUsername("carol");
+        dao.findByUsername("carol");
+
+        // Assert
+        assertEquals(4, lookups.get());
+    }
+
+    @Test
+    void testUpdatePasswordHash_DropsCachedEntry() {
+        // Arrange
+        rows.put("alice", new UserAccount(1, "alice", "old", "s", Role.USER, true, LocalDateTime.now()));
+        dao.findByUsername("alice");
+
+        // Act
+        dao.updatePasswordHash(1, "new", "s2");
+        UserAccount reloaded = dao.findByUsername("alice").orElseThrow();
+
+        // Assert
+        assertEquals("new", reloaded.getPasswordHash());
+        assertEquals(2, lookups.get());
+    }
+}
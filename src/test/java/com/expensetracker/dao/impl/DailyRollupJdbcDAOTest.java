@@ -0,0 +1,81 @@
+package com.expensetracker.dao.impl;
+
+import com.expensetracker.archive.ExpenseArchive;
+import com.expensetracker.background.ExpenseArchiveService;
+import com.expensetracker.model.Category;
+import com.expensetracker.model.Expense;
+import com.expensetracker.model.PaymentMethod;
+import com.expensetracker.model.Role;
+import com.expensetracker.model.UserAccount;
+import com.expensetracker.report.SummaryReport;
+import com.expensetracker.report.SummaryReportGenerator;
+import com.expensetracker.report.SummaryReportRequest;
+import com.expensetracker.test.FakeExpenseDatabase;
+import com.expensetracker.util.SessionContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for rebuilding the daily rollup around archived months (no database required)
+ */
+public class DailyRollupJdbcDAOTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final Category food = new Category(1, "Food", null, null);
+    private final FakeExpenseDatabase database = new FakeExpenseDatabase();
+    private final ExpenseJdbcDAO expenseDao = new ExpenseJdbcDAO(false, database);
+    private final DailyRollupJdbcDAO rollupDao = new DailyRollupJdbcDAO(database);
+
+    @BeforeEach
+    void setUp() {
+        SessionContext.getInstance().setCurrentUser(new UserAccount(7, "tester", "hash", "salt", Role.USER, true, LocalDateTime.now()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SessionContext.getInstance().clear();
+    }
+
+    private Expense expense(LocalDate date, String amount) {
+        return Expense.create(food, date, new BigDecimal(amount), PaymentMethod.CARD, null);
+    }
+
+    @Test
+    void testRebuild_AfterArchival_SummaryStillCoversArchivedMonths() throws Exception {
+        // Arrange
+        expenseDao.insertBatch(List.of(expense(LocalDate.of(2023, 1, 15), "10.00"), expense(LocalDate.of(2023, 2, 20), "20.00"),
+                expense(LocalDate.of(2024, 6, 1), "5.00")));
+        ExpenseArchive archive = new ExpenseArchive(tempDir);
+        new ExpenseArchiveService(expenseDao, archive, 12).archiveOlderThanHorizon(LocalDate.of(2024, 6, 10));
+        // A later archival run copied June but was interrupted before the purge
+        archive.write(7, YearMonth.of(2024, 6), expenseDao.findByDateRange(LocalDate.of(2024, 6, 1), LocalDate.of(2024, 6, 30)));
+        SummaryReportGenerator summary = new SummaryReportGenerator(rollupDao);
+        SummaryReportRequest period = new SummaryReportRequest(LocalDate.of(2023, 1, 1), LocalDate.of(2024, 12, 31));
+        SummaryReport beforeRebuild = summary.generate(period);
+
+        // Act
+        int rows = rollupDao.rebuild(archive.readAll(7));
+        SummaryReport afterRebuild = summary.generate(period);
+
+        // Assert
+        assertEquals(1, database.expenseCount());
+        assertEquals(3, rows);
+        assertEquals(new BigDecimal("35.00"), beforeRebuild.getTotal());
+        assertEquals(new BigDecimal("35.00"), afterRebuild.getTotal());
+        assertEquals(3, afterRebuild.getCount());
+        assertEquals(new BigDecimal("10.00"), afterRebuild.getDailyTotals().get(LocalDate.of(2023, 1, 15)));
+    }
+}
@@ -0,0 +1,96 @@
+package com.expensetracker.dao.impl;
+
+import com.expensetracker.model.Category;
+import com.expensetracker.model.Expense;
+import com.expensetracker.model.PaymentMethod;
+import com.expensetracker.model.Role;
+import com.expensetracker.model.UserAccount;
+import com.expensetracker.test.FakeExpenseDatabase;
+import com.expensetracker.util.SessionContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ExpenseJdbcDAO query building and batch accounting (no database required)
+ */
+public class ExpenseJdbcDAOTest {
+
+    private final Category food = new Category(1, "Food", null, null);
+    private final FakeExpenseDatabase database = new FakeExpenseDatabase();
+    private final ExpenseJdbcDAO dao = new ExpenseJdbcDAO(false, database);
+
+    @BeforeEach
+    void setUp() {
+        SessionContext.getInstance().setCurrentUser(new UserAccount(7, "tester", "hash", "salt", Role.USER, true, LocalDateTime.now()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SessionContext.getInstance().clear();
+    }
+
+    private Expense expense(String amount, String description) {
+        return Expense.create(food, LocalDate.of(2024, 3, 5), new BigDecimal(amount), PaymentMethod.CARD, description);
+    }
+
+    @Test
+    void testToBooleanModeQuery_Words_RequiredPrefixTerms() {
+        // Act
+        String result = ExpenseJdbcDAO.toBooleanModeQuery("Coffee  team");
+
+        // Assert
+        assertEquals("+Coffee* +team*", result);
+    }
+
+    @Test
+    void testToBooleanModeQuery_OperatorCharacters_Stripped() {
+        // Act
+        String result = ExpenseJdbcDAO.toBooleanModeQuery("-taxi \"airport\" (ride)*");
+
+        // Assert
+        assertEquals("+taxi* +airport* +ride*", result);
+    }
+
+    @Test
+    void testToBooleanModeQuery_ShortOrEmpty_NullForLikeFallback() {
+        // Act & Assert
+        assertNull(ExpenseJdbcDAO.toBooleanModeQuery("tv repair"));
+        assertNull(ExpenseJdbcDAO.toBooleanModeQuery("  !! "));
+        assertNull(ExpenseJdbcDAO.toBooleanModeQuery(null));
+    }
+
+    @Test
+    void testUpsertBatch_ExistingFingerprint_NotCountedOrAddedToRollup() {
+        // Arrange
+        dao.upsertBatch(List.of(expense("10.00", "Lunch")), List.of("fp-lunch"));
+
+        // Act: update counts are SUCCESS_NO_INFO for every row, as with rewritten batches
+        int inserted = dao.upsertBatch(List.of(expense("10.00", "Lunch"), expense("4.50", "Coffee"), expense("4.50", "Coffee")),
+                List.of("fp-lunch", "fp-coffee", "fp-coffee"));
+
+        // Assert
+        assertEquals(1, inserted);
+        assertEquals(2, database.expenseCount());
+        assertEquals(2, database.rollupCount());
+        assertEquals(new BigDecimal("14.50"), database.rollupTotal());
+    }
+
+    @Test
+    void testInsertBatch_NoFingerprints_EveryRowCounted() {
+        // Act
+        int inserted = dao.insertBatch(List.of(expense("10.00", "Lunch"), expense("10.00", "Lunch")));
+
+        // Assert
+        assertEquals(2, inserted);
+        assertEquals(2, database.rollupCount());
+        assertEquals(new BigDecimal("20.00"), database.rollupTotal());
+    }
+}
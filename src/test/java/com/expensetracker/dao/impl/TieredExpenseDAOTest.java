@@ -0,0 +1,280 @@
+package com.expensetracker.dao.impl;
+
+import com.expensetracker.archive.ExpenseArchive;
+import com.expensetracker.background.ExpenseArchiveService;
+import com.expensetracker.dao.CategoryDAO;
+import com.expensetracker.dao.ExpenseDAO;
+import com.expensetracker.model.Category;
+import com.expensetracker.model.Expense;
+import com.expensetracker.model.PaymentMethod;
+import com.expensetracker.model.Role;
+import com.expensetracker.model.UserAccount;
+import com.expensetracker.test.FakeExpenseDatabase;
+import com.expensetracker.util.SessionContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the archive tier: archival job, archive files and the
+ * federating TieredExpenseDAO
+ */
+public class TieredExpenseDAOTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final Category food = new Category(1, "Food", null, null);
+    private final List<Expense> liveRows = new ArrayList<>();
+
+    private final ExpenseDAO stubLiveDao = new ExpenseDAO() {
+        @Override
+        public Expense insert(Expense expense) {
+            liveRows.add(expense);
+            return expense;
+        }
+
+        @Override
+        public int purgeArchived(List<Expense> archived) {
+            int before = liveRows.size();
+            liveRows.removeIf(e -> archived.stream().anyMatch(a -> a.getId().equals(e.getId())));
+            return before - liveRows.size();
+        }
+
+        @Override
+        public boolean update(Expense expense) {
+            return false;
+        }
+
+        @Override
+        public boolean delete(long id) {
+            return false;
+        }
+
+        @Override
+        public Optional<Expense> findById(long id) {
+            return Optional.empty();
+        }
+
+        @Override
+        public List<Expense> findByDateRange(LocalDate start, LocalDate end) {
+            return liveRows.stream()
+                    .filter(e -> !e.getDate().isBefore(start) && !e.getDate().isAfter(end))
+                    .sorted(Comparator.comparing(Expense::getDate))
+                    .toList();
+        }
+
+        @Override
+        public void forEachInDateRange(LocalDate start, LocalDate end, Consumer<Expense> consumer) {
+            findByDateRange(start, end).forEach(consumer);
+        }
+
+        @Override
+        public List<Expense> findByCategory(int categoryId, LocalDate start, LocalDate end) {
+            return findByDateRange(start, end).stream().filter(e -> e.getCategory().getId() == categoryId).toList();
+        }
+
+        @Override
+        public List<Expense> search(String keyword, LocalDate start, LocalDate end) {
+            return findByDateRange(start, end).stream()
+                    .filter(e -> e.getDescription() != null && e.getDescription().toLowerCase().contains(keyword.toLowerCase()))
+                    .toList();
+        }
+
+        @Override
+        public List<Expense> listRecent(int limit) {
+            return List.of();
+        }
+
+        @Override
+        public long count() {
+            return liveRows.size();
+        }
+    };
+
+    private final CategoryDAO stubCategoryDao = new CategoryDAO() {
+        @Override
+        public Category insert(Category category) {
+            return category;
+        }
+
+        @Override
+        public boolean update(Category category) {
+            return false;
+        }
+
+        @Override
+        public boolean delete(int id) {
+            return false;
+        }
+
+        @Override
+        public Optional<Category> findById(int id) {
+            return Optional.empty();
+        }
+
+        @Override
+        public Optional<Category> findByName(String name) {
+            return Optional.empty();
+        }
+
+        @Override
+        public List<Category> findAll() {
+            return List.of(new Category(1, "Groceries", null, null));
+        }
+
+        @Override
+        public long count() {
+            return 1;
+        }
+    };
+
+    @BeforeEach
+    void setUp() {
+        SessionContext.getInstance().setCurrentUser(new UserAccount(7, "tester", "hash", "salt", Role.USER, true, LocalDateTime.now()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SessionContext.getInstance().clear();
+    }
+
+    private void live(long id, LocalDate date, String description) {
+        Expense expense = Expense.create(food, date, new BigDecimal("10.00"), PaymentMethod.CARD, description);
+        expense.markPersisted(id, LocalDateTime.of(2020, 1, 1, 12, 0), null);
+        liveRows.add(expense);
+    }
+
+    @Test
+    void testArchiveOlderThanHorizon_MovesOldMonthsAndReadsMergeInDateOrder() throws Exception {
+        // Arrange
+        live(1, LocalDate.of(2023, 1, 15), "Old lunch");
+        live(2, LocalDate.of(2023, 1, 3), null);
+        live(3, LocalDate.of(2023, 2, 20), "Old coffee");
+        live(4, LocalDate.of(2024, 6, 1), "Recent lunch");
+        ExpenseArchive archive = new ExpenseArchive(tempDir);
+        ExpenseArchiveService service = new ExpenseArchiveService(stubLiveDao, archive, 12);
+        TieredExpenseDAO tiered = new TieredExpenseDAO(stubLiveDao, stubCategoryDao, archive);
+
+        // Act
+        int archived = service.archiveOlderThanHorizon(LocalDate.of(2024, 6, 10));
+        live(5, LocalDate.of(2023, 1, 10), "Late entry");
+        List<Expense> all = tiered.findByDateRange(LocalDate.of(2023, 1, 1), LocalDate.of(2024, 12, 31));
+
+        // Assert
+        assertEquals(3, archived);
+        assertEquals(List.of(YearMonth.of(2023, 1), YearMonth.of(2023, 2)), archive.months(7));
+        assertEquals(2, liveRows.size());
+        assertEquals(List.of(2L, 5L, 1L, 3L, 4L), all.stream().map(Expense::getId).toList());
+        Expense restored = all.get(2);
+        assertEquals(new BigDecimal("10.00"), restored.getAmount());
+        assertEquals(LocalDateTime.of(2020, 1, 1, 12, 0), restored.getCreatedAt());
+        assertEquals("Groceries", restored.getCategory().getName());
+        assertNull(all.get(0).getDescription());
+        assertEquals(List.of(1L, 4L), tiered.search("LUNCH", LocalDate.of(2023, 1, 1), LocalDate.of(2024, 12, 31))
+                .stream().map(Expense::getId).toList());
+        assertTrue(archive.months(8).isEmpty());
+    }
+
+    @Test
+    void testExistsInCategory_OnlyArchivedRows_StillInUse() throws Exception {
+        // Arrange
+        live(1, LocalDate.of(2023, 1, 15), "Old lunch");
+        ExpenseArchive archive = new ExpenseArchive(tempDir);
+        new ExpenseArchiveService(stubLiveDao, archive, 12).archiveOlderThanHorizon(LocalDate.of(2024, 6, 10));
+        TieredExpenseDAO tiered = new TieredExpenseDAO(stubLiveDao, stubCategoryDao, archive);
+
+        // Act & Assert
+        assertTrue(liveRows.isEmpty());
+        assertTrue(tiered.existsInCategory(1));
+        assertFalse(tiered.existsInCategory(2));
+    }
+
+    @Test
+    void testFindFingerprints_ArchivedRows_StoredFingerprintsOnly() throws Exception {
+        // Arrange
+        FakeExpenseDatabase database = new FakeExpenseDatabase();
+        ExpenseJdbcDAO jdbc = new ExpenseJdbcDAO(false, database);
+        jdbc.upsertBatch(List.of(Expense.create(food, LocalDate.of(2023, 1, 15), new BigDecimal("10.00"), PaymentMethod.CARD, "Imported")),
+                List.of("import-fingerprint"));
+        jdbc.insertBatch(List.of(Expense.create(food, LocalDate.of(2023, 1, 20), new BigDecimal("10.00"), PaymentMethod.CARD, "Typed in")));
+        Set<String> liveFingerprints = jdbc.findFingerprints(LocalDate.of(2023, 1, 1), LocalDate.of(2023, 1, 31));
+        ExpenseArchive archive = new ExpenseArchive(tempDir);
+        new ExpenseArchiveService(jdbc, archive, 12).archiveOlderThanHorizon(LocalDate.of(2024, 6, 10));
+        TieredExpenseDAO tiered = new TieredExpenseDAO(jdbc, stubCategoryDao, archive);
+
+        // Act
+        Set<String> fingerprints = tiered.findFingerprints(LocalDate.of(2023, 1, 1), LocalDate.of(2023, 1, 31));
+
+        // Assert
+        assertEquals(0, database.expenseCount());
+        assertEquals(Set.of("import-fingerprint"), liveFingerprints);
+        assertEquals(liveFingerprints, fingerprints);
+    }
+
+    @Test
+    void testArchiveOlderThanHorizon_RowEditedWhileArchiving_KeptLiveUntilNextRun() throws Exception {
+        // Arrange: another session edits the first expense after it was copied but before the purge
+        FakeExpenseDatabase database = new FakeExpenseDatabase();
+        boolean[] edited = {false};
+        ExpenseJdbcDAO jdbc = new ExpenseJdbcDAO(false, database) {
+            @Override
+            public int purgeArchived(List<Expense> archived) {
+                if (!edited[0]) {
+                    edited[0] = true;
+                    database.touch(archived.get(0).getId(), LocalDateTime.of(2024, 6, 10, 9, 0));
+                }
+                return super.purgeArchived(archived);
+            }
+        };
+        jdbc.insertBatch(List.of(Expense.create(food, LocalDate.of(2023, 1, 15), new BigDecimal("10.00"), PaymentMethod.CARD, "Lunch"),
+                Expense.create(food, LocalDate.of(2023, 1, 20), new BigDecimal("4.00"), PaymentMethod.CARD, "Coffee")));
+        ExpenseArchive archive = new ExpenseArchive(tempDir);
+        ExpenseArchiveService service = new ExpenseArchiveService(jdbc, archive, 12);
+
+        // Act
+        int firstRun = service.archiveOlderThanHorizon(LocalDate.of(2024, 6, 10));
+        int liveAfterFirstRun = database.expenseCount();
+        int secondRun = service.archiveOlderThanHorizon(LocalDate.of(2024, 6, 10));
+
+        // Assert
+        assertEquals(1, firstRun);
+        assertEquals(1, liveAfterFirstRun);
+        assertEquals(1, secondRun);
+        assertEquals(0, database.expenseCount());
+        assertEquals(List.of("Lunch (edited)", "Coffee"),
+                archive.read(7, YearMonth.of(2023, 1)).stream().map(Expense::getDescription).toList());
+    }
+
+    @Test
+    void testMerge_RowInBothTiers_TakenOnceFromArchive() {
+        // Arrange
+        Expense cold = Expense.create(food, LocalDate.of(2023, 1, 5), BigDecimal.ONE, PaymentMethod.CASH, "cold");
+        cold.markPersisted(1L, null, null);
+        Expense duplicate = Expense.create(food, LocalDate.of(2023, 1, 5), BigDecimal.ONE, PaymentMethod.CASH, "hot copy");
+        duplicate.markPersisted(1L, null, null);
+        Expense hot = Expense.create(food, LocalDate.of(2023, 1, 4), BigDecimal.ONE, PaymentMethod.CASH, "hot");
+        hot.markPersisted(2L, null, null);
+
+        // Act
+        List<Expense> merged = TieredExpenseDAO.merge(List.of(cold), List.of(hot, duplicate));
+
+        // Assert
+        assertEquals(List.of("hot", "cold"), merged.stream().map(Expense::getDescription).toList());
+    }
+}
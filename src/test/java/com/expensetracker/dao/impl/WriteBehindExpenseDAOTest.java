@@ -0,0 +1,243 @@
+package com.expensetracker.dao.impl;
+
+import com.expensetracker.dao.ExpenseDAO;
+import com.expensetracker.model.Category;
+import com.expensetracker.model.Expense;
+import com.expensetracker.model.PaymentMethod;
+import com.expensetracker.model.Role;
+import com.expensetracker.model.UserAccount;
+import com.expensetracker.test.FakeExpenseDatabase;
+import com.expensetracker.util.SessionContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the write-behind insert buffer and its journal
+ */
+public class WriteBehindExpenseDAOTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final Category food = new Category(1, "Food", null, null);
+    // Stored rows by fingerprint, like the unique key the real table upserts against
+    private final Map<String, Expense> storedRows = new LinkedHashMap<>();
+    private long nextId = 100;
+
+    private final ExpenseDAO stubDelegate = new ExpenseDAO() {
+        @Override
+        public Expense insert(Expense expense) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int upsertBatch(List<Expense> expenses, List<String> fingerprints) {
+            int inserted = 0;
+            for (int i = 0; i < expenses.size(); i++) {
+                if (!storedRows.containsKey(fingerprints.get(i))) {
+                    Expense src = expenses.get(i);
+                    Expense row = Expense.create(src.getCategory(), src.getDate(), src.getAmount(), src.getPaymentMethod(), src.getDescription());
+                    row.markPersisted(nextId++, src.getCreatedAt(), null);
+                    storedRows.put(fingerprints.get(i), row);
+                    inserted++;
+                }
+            }
+            return inserted;
+        }
+
+        @Override
+        public Map<String, Long> findIdsByFingerprint(List<String> fingerprints) {
+            Map<String, Long> ids = new HashMap<>();
+            for (String fingerprint : fingerprints) {
+                Expense row = storedRows.get(fingerprint);
+                if (row != null) {
+                    ids.put(fingerprint, row.getId());
+                }
+            }
+            return ids;
+        }
+
+        @Override
+        public boolean update(Expense expense) {
+            return storedRows.values().stream().anyMatch(e -> e.getId().equals(expense.getId()));
+        }
+
+        @Override
+        public boolean delete(long id) {
+            return storedRows.values().removeIf(e -> e.getId() == id);
+        }
+
+        @Override
+        public Optional<Expense> findById(long id) {
+            return storedRows.values().stream().filter(e -> e.getId() == id).findFirst();
+        }
+
+        @Override
+        public List<Expense> findByDateRange(LocalDate start, LocalDate end) {
+            return storedRows.values().stream()
+                    .filter(e -> !e.getDate().isBefore(start) && !e.getDate().isAfter(end))
+                    .sorted(Comparator.comparing(Expense::getDate))
+                    .toList();
+        }
+
+        @Override
+        public List<Expense> findByCategory(int categoryId, LocalDate start, LocalDate end) {
+            return findByDateRange(start, end).stream().filter(e -> e.getCategory().getId() == categoryId).toList();
+        }
+
+        @Override
+        public List<Expense> search(String keyword, LocalDate start, LocalDate end) {
+            return List.of();
+        }
+
+        @Override
+        public List<Expense> listRecent(int limit) {
+            return List.of();
+        }
+
+        @Override
+        public long count() {
+            return storedRows.size();
+        }
+    };
+
+    @BeforeEach
+    void setUp() {
+        SessionContext.getInstance().setCurrentUser(new UserAccount(7, "tester", "hash", "salt", Role.USER, true, LocalDateTime.now()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SessionContext.getInstance().clear();
+    }
+
+    private Expense expense(LocalDate date, String description) {
+        return Expense.create(food, date, new BigDecimal("12.50"), PaymentMethod.CARD, description);
+    }
+
+    @Test
+    void testInsert_BeforeFlush_ReadsSeeBufferedRows() {
+        // Arrange
+        WriteBehindExpenseDAO dao = new WriteBehindExpenseDAO(stubDelegate, tempDir.resolve("expense.journal"), 100, null);
+        stubDelegate.upsertBatch(List.of(expense(LocalDate.of(2024, 3, 2), "stored")), List.of("imported"));
+
+        // Act
+        Expense first = dao.insert(expense(LocalDate.of(2024, 3, 5), "Lunch"));
+        Expense second = dao.insert(expense(LocalDate.of(2024, 3, 1), "Coffee"));
+        List<Expense> march = dao.findByDateRange(LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 31));
+
+        // Assert
+        assertEquals(-1L, first.getId());
+        assertEquals(-2L, second.getId());
+        assertEquals(1, storedRows.size());
+        assertEquals(List.of("Coffee", "stored", "Lunch"), march.stream().map(Expense::getDescription).toList());
+        assertEquals(3, dao.count());
+        assertSame(first, dao.findById(-1).orElseThrow());
+        assertEquals(List.of(second, first), dao.listRecent(2));
+        assertEquals(1, dao.findByCategory(1, LocalDate.of(2024, 3, 4), LocalDate.of(2024, 3, 6)).size());
+    }
+
+    @Test
+    void testFlush_BufferedRows_WrittenOnceWithRealIds() {
+        // Arrange
+        Map<Long, Expense> flushed = new HashMap<>();
+        WriteBehindExpenseDAO dao = new WriteBehindExpenseDAO(stubDelegate, tempDir.resolve("expense.journal"), 100, flushed::putAll);
+        Expense buffered = dao.insert(expense(LocalDate.of(2024, 3, 5), "Lunch"));
+
+        // Act
+        int written = dao.flush();
+        int writtenAgain = dao.flush();
+
+        // Assert
+        assertEquals(1, written);
+        assertEquals(0, writtenAgain);
+        assertEquals(0, dao.pendingCount());
+        assertEquals(1, storedRows.size());
+        assertEquals(100L, buffered.getId());
+        assertSame(buffered, flushed.get(-1L));
+        assertEquals(1, dao.count());
+        assertEquals(100L, dao.findById(-1).orElseThrow().getId());
+        assertTrue(dao.delete(-1));
+        assertTrue(storedRows.isEmpty());
+    }
+
+    @Test
+    void testConstructor_JournalLeftByCrash_ReplaysWithoutDuplicates() throws Exception {
+        // Arrange
+        Path journal = tempDir.resolve("expense.journal");
+        WriteBehindExpenseDAO crashed = new WriteBehindExpenseDAO(stubDelegate, journal, 100, null);
+        crashed.insert(expense(LocalDate.of(2024, 3, 5), "Lunch"));
+        crashed.insert(expense(LocalDate.of(2024, 3, 6), null));
+        // First row already reached the database before the crash
+        ExpenseJournal reader = new ExpenseJournal(journal);
+        ExpenseJournal.Entry reachedDb = reader.open().get(0);
+        reader.close();
+        stubDelegate.upsertBatch(List.of(reachedDb.expense()), List.of(reachedDb.token()));
+        // Torn record at the tail
+        Files.write(journal, new byte[]{0, 0, 0, 42, 1, 2}, StandardOpenOption.APPEND);
+
+        // Act
+        WriteBehindExpenseDAO recovered = new WriteBehindExpenseDAO(stubDelegate, journal, 100, null);
+        int pendingAfterCrash = recovered.pendingCount();
+        long nextId = recovered.insert(expense(LocalDate.of(2024, 3, 7), "Dinner")).getId();
+        recovered.close();
+        WriteBehindExpenseDAO restarted = new WriteBehindExpenseDAO(stubDelegate, journal, 100, null);
+
+        // Assert
+        assertEquals(2, pendingAfterCrash);
+        assertEquals(-3L, nextId);
+        assertEquals(3, storedRows.size());
+        List<String> descriptions = new ArrayList<>();
+        storedRows.values().forEach(e -> descriptions.add(e.getDescription()));
+        assertEquals(Arrays.asList("Lunch", null, "Dinner"), descriptions);
+        assertEquals(0, restarted.pendingCount());
+        restarted.close();
+    }
+
+    @Test
+    void testFlush_ReplayedRowsAlreadyCommitted_RollupCountedOnce() throws Exception {
+        // Arrange
+        FakeExpenseDatabase database = new FakeExpenseDatabase();
+        ExpenseJdbcDAO jdbc = new ExpenseJdbcDAO(false, database);
+        Path journal = tempDir.resolve("expense.journal");
+        WriteBehindExpenseDAO crashed = new WriteBehindExpenseDAO(jdbc, journal, 100, null);
+        crashed.insert(expense(LocalDate.of(2024, 3, 5), "Lunch"));
+        crashed.insert(expense(LocalDate.of(2024, 3, 6), "Dinner"));
+        // The batch committed, then the process died before the journal was compacted
+        ExpenseJournal reader = new ExpenseJournal(journal);
+        List<ExpenseJournal.Entry> entries = reader.open();
+        reader.close();
+        jdbc.upsertBatch(entries.stream().map(ExpenseJournal.Entry::expense).toList(),
+                entries.stream().map(ExpenseJournal.Entry::token).toList());
+
+        // Act
+        WriteBehindExpenseDAO recovered = new WriteBehindExpenseDAO(jdbc, journal, 100, null);
+        int replayed = recovered.flush();
+        recovered.close();
+
+        // Assert
+        assertEquals(2, replayed);
+        assertEquals(2, database.expenseCount());
+        assertEquals(2, database.rollupCount());
+        assertEquals(new BigDecimal("25.00"), database.rollupTotal());
+    }
+}
@@ -0,0 +1,126 @@
+package com.expensetracker.event;
+
+import com.expensetracker.model.Category;
+import com.expensetracker.model.Expense;
+import com.expensetracker.model.PaymentMethod;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for ChangeEventBus
+ */
+public class ChangeEventBusTest {
+
+    private final List<Runnable> queued = new ArrayList<>();
+    private final ChangeEventBus bus = new ChangeEventBus(queued::add);
+
+    private ChangeEvent created(long id) {
+        Expense expense = Expense.create(new Category(1, "Food", null, null), LocalDate.of(2024, 5, 1),
+                new BigDecimal("10.00"), PaymentMethod.CASH, "Lunch");
+        expense.markPersisted(id, null, null);
+        return new ChangeEvent.ExpenseCreated(7, expense);
+    }
+
+    private void runQueued() {
+        while (!queued.isEmpty()) {
+            queued.remove(0).run();
+        }
+    }
+
+    @Test
+    void testPublish_SyncSubscriber_DeliveredBeforeReturn() {
+        // Arrange
+        List<ChangeEvent> received = new ArrayList<>();
+        bus.subscribe("sync", received::add);
+        ChangeEvent event = created(1);
+
+        // Act
+        bus.publish(event);
+
+        // Assert
+        assertEquals(List.of(event), received);
+        assertTrue(queued.isEmpty());
+        ChangeEventBus.SubscriberStats stats = bus.stats().get(0);
+        assertFalse(stats.async());
+        assertEquals(1, stats.delivered());
+        assertEquals(0, stats.pending());
+    }
+
+    @Test
+    void testPublish_AsyncSubscriber_BatchedInPublishOrder() {
+        // Arrange
+        List<List<ChangeEvent>> batches = new ArrayList<>();
+        bus.subscribeAsync("async", batches::add, 2);
+        ChangeEvent first = created(1);
+        ChangeEvent second = created(2);
+        ChangeEvent third = created(3);
+
+        // Act
+        bus.publish(first);
+        bus.publish(second);
+        bus.publish(third);
+
+        // Assert: one drain scheduled for all three, nothing delivered yet
+        assertEquals(1, queued.size());
+        assertTrue(batches.isEmpty());
+        assertEquals(3, bus.stats().get(0).pending());
+
+        // Act
+        runQueued();
+
+        // Assert
+        assertEquals(List.of(List.of(first, second), List.of(third)), batches);
+        ChangeEventBus.SubscriberStats stats = bus.stats().get(0);
+        assertTrue(stats.async());
+        assertEquals(3, stats.published());
+        assertEquals(3, stats.delivered());
+        assertEquals(0, stats.pending());
+        assertTrue(stats.maxLagMillis() >= stats.lastLagMillis());
+    }
+
+    @Test
+    void testPublish_FailingSubscriber_OthersStillReceive() {
+        // Arrange
+        List<ChangeEvent> received = new ArrayList<>();
+        bus.subscribe("broken", event -> {
+            throw new IllegalStateException("boom");
+        });
+        bus.subscribe("working", received::add);
+
+        // Act
+        bus.publish(created(1));
+        bus.publish(created(2));
+
+        // Assert
+        assertEquals(2, received.size());
+        assertEquals(2, bus.stats().get(0).failed());
+        assertEquals(0, bus.stats().get(1).failed());
+    }
+
+    @Test
+    void testClose_Unsubscribes_NoFurtherDelivery() {
+        // Arrange
+        List<ChangeEvent> received = new ArrayList<>();
+        List<List<ChangeEvent>> batches = new ArrayList<>();
+        ChangeEventBus.Subscription sync = bus.subscribe("sync", received::add);
+        ChangeEventBus.Subscription async = bus.subscribeAsync("async", batches::add);
+        bus.publish(created(1));
+
+        // Act
+        sync.close();
+        async.close();
+        bus.publish(created(2));
+        runQueued();
+
+        // Assert: the queued event is dropped, not handed to a closed subscriber
+        assertEquals(1, received.size());
+        assertTrue(batches.isEmpty());
+        assertTrue(bus.stats().isEmpty());
+    }
+}
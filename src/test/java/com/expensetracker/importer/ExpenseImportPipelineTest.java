@@ -0,0 +1,301 @@
+package com.expensetracker.importer;
+
+import com.expensetracker.dao.CategoryDAO;
+import com.expensetracker.dao.ExpenseDAO;
+import com.expensetracker.model.Category;
+import com.expensetracker.model.Expense;
+import com.expensetracker.model.PaymentMethod;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the CSV import pipeline and its line reader
+ */
+public class ExpenseImportPipelineTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final List<Expense> inserted = Collections.synchronizedList(new ArrayList<>());
+    private final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+    private final Map<String, LocalDate> storedFingerprints = new ConcurrentHashMap<>();
+
+    private final ExpenseDAO stubExpenseDao = new ExpenseDAO() {
+        @Override
+        public Expense insert(Expense expense) {
+            inserted.add(expense);
+            return expense;
+        }
+
+        @Override
+        public int insertBatch(List<Expense> expenses) {
+            batchSizes.add(expenses.size());
+            inserted.addAll(expenses);
+            return expenses.size();
+        }
+
+        @Override
+        public int upsertBatch(List<Expense> expenses, List<String> fingerprints) {
+            int count = 0;
+            for (int i = 0; i < expenses.size(); i++) {
+                if (storedFingerprints.putIfAbsent(fingerprints.get(i), expenses.get(i).getDate()) == null) {
+                    inserted.add(expenses.get(i));
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        @Override
+        public Set<String> findFingerprints(LocalDate start, LocalDate end) {
+            Set<String> result = new HashSet<>();
+            storedFingerprints.forEach((fingerprint, date) -> {
+                if (!date.isBefore(start) && !date.isAfter(end)) {
+                    result.add(fingerprint);
+                }
+            });
+            return result;
+        }
+
+        @Override
+        public boolean update(Expense expense) {
+            return false;
+        }
+
+        @Override
+        public boolean delete(long id) {
+            return false;
+        }
+
+        @Override
+        public Optional<Expense> findById(long id) {
+            return Optional.empty();
+        }
+
+        @Override
+        public List<Expense> findByDateRange(LocalDate start, LocalDate end) {
+            return List.of();
+        }
+
+        @Override
+        public List<Expense> findByCategory(int categoryId, LocalDate start, LocalDate end) {
+            return List.of();
+        }
+
+        @Override
+        public List<Expense> search(String keyword, LocalDate start, LocalDate end) {
+            return List.of();
+        }
+
+        @Override
+        public List<Expense> listRecent(int limit) {
+            return List.of();
+        }
+
+        @Override
+        public long count() {
+            return inserted.size();
+        }
+    };
+
+    private final CategoryDAO stubCategoryDao = new CategoryDAO() {
+        private final List<Category> categories = List.of(
+                new Category(1, "Food", null, null),
+                new Category(2, "Transport", null, null));
+
+        @Override
+        public Category insert(Category category) {
+            return category;
+        }
+
+        @Override
+        public boolean update(Category category) {
+            return false;
+        }
+
+        @Override
+        public boolean delete(int id) {
+            return false;
+        }
+
+        @Override
+        public Optional<Category> findById(int id) {
+            return categories.stream().filter(c -> c.getId() == id).findFirst();
+        }
+
+        @Override
+        public Optional<Category> findByName(String name) {
+            return categories.stream().filter(c -> c.getName().equalsIgnoreCase(name)).findFirst();
+        }
+
+        @Override
+        public List<Category> findAll() {
+            return categories;
+        }
+
+        @Override
+        public long count() {
+            return categories.size();
+        }
+    };
+
+    @Test
+    void testImportFile_MixedRows_ImportsValidAndRejectsBad() throws IOException {
+        // Arrange
+        Path input = tempDir.resolve("statement.csv");
+        Files.writeString(input, String.join("\n",
+                "Date,Category,Amount,Payment Method,Description",
+                "2024-03-01,food,12.50,card,\"Lunch, with team\"",
+                "# comment line",
+                "",
+                "2024-03-02,Transport,3.10,,Bus",
+                "2024-03-03,Rent,900.00,CASH,",
+                "not-a-date,Food,1.00",
+                "2024-03-04,Food,-5.00,CASH,Refund"), StandardCharsets.UTF_8);
+        Path rejects = tempDir.resolve("statement.rejected.csv");
+        ExpenseImportPipeline pipeline = new ExpenseImportPipeline(stubExpenseDao, new CategoryLookup(stubCategoryDao), 2, 1);
+
+        // Act
+        ImportResult result = pipeline.importFile(input, rejects, null);
+
+        // Assert
+        assertEquals(5, result.getRowsRead());
+        assertEquals(2, result.getImported());
+        assertEquals(3, result.getRejected());
+        assertEquals(rejects, result.getRejectFile());
+
+        Expense lunch = inserted.stream().filter(e -> e.getCategory().getId() == 1).findFirst().orElseThrow();
+        assertEquals("Lunch, with team", lunch.getDescription());
+        assertEquals(PaymentMethod.CARD, lunch.getPaymentMethod());
+        Expense bus = inserted.stream().filter(e -> e.getCategory().getId() == 2).findFirst().orElseThrow();
+        assertEquals(PaymentMethod.OTHER, bus.getPaymentMethod());
+
+        List<String> rejectLines = Files.readAllLines(rejects);
+        assertEquals(4, rejectLines.size());
+        assertTrue(rejectLines.get(0).startsWith("line,"));
+        assertTrue(rejectLines.stream().anyMatch(l -> l.startsWith("6,Unknown category: Rent")));
+        assertTrue(rejectLines.stream().anyMatch(l -> l.startsWith("7,Invalid date")));
+        assertTrue(rejectLines.stream().anyMatch(l -> l.startsWith("8,Amount must be positive")));
+    }
+
+    @Test
+    void testImportFile_ManyRows_BatchedWithProgress() throws IOException {
+        // Arrange
+        Path input = tempDir.resolve("large.csv");
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            csv.append("2024-01-").append(String.format("%02d", i % 28 + 1)).append(",Food,").append(i + 1).append(".00\n");
+        }
+        Files.writeString(input, csv, StandardCharsets.UTF_8);
+        List<ImportProgress> progress = Collections.synchronizedList(new ArrayList<>());
+        ExpenseImportPipeline pipeline = new ExpenseImportPipeline(stubExpenseDao, new CategoryLookup(stubCategoryDao), 3, 700);
+
+        // Act
+        ImportResult result = pipeline.importFile(input, tempDir.resolve("large.rejected.csv"), progress::add);
+
+        // Assert
+        assertEquals(5000, result.getImported());
+        assertNull(result.getRejectFile());
+        assertFalse(Files.exists(tempDir.resolve("large.rejected.csv")));
+        assertTrue(batchSizes.stream().allMatch(size -> size <= 700));
+        assertEquals(new BigDecimal("12502500.00"),
+                inserted.stream().map(Expense::getAmount).reduce(BigDecimal.ZERO, BigDecimal::add));
+        ImportProgress last = progress.get(progress.size() - 1);
+        assertEquals(100, last.getPercentRead());
+        assertEquals(5000, last.getImported());
+    }
+
+    @Test
+    void testImportFile_Deduplicate_OverlappingStatementSkipsStoredRows() throws IOException {
+        // Arrange
+        Path march = tempDir.resolve("march.csv");
+        Files.writeString(march, String.join("\n",
+                "2024-03-01,Food,3.50,CARD,Coffee",
+                "2024-03-01,Food,3.50,CARD,Coffee",
+                "2024-03-20,Transport,20.00,CASH,Taxi"), StandardCharsets.UTF_8);
+        Path overlap = tempDir.resolve("overlap.csv");
+        Files.writeString(overlap, String.join("\n",
+                "2024-03-01,Food,3.50,CASH,  coffee ",
+                "2024-03-01,Food,3.50,CARD,Coffee",
+                "2024-03-20,Transport,20.00,CASH,Taxi",
+                "2024-04-02,Food,8.00,CARD,Lunch"), StandardCharsets.UTF_8);
+        ExpenseImportPipeline pipeline = new ExpenseImportPipeline(stubExpenseDao, new CategoryLookup(stubCategoryDao), 2, 2, true);
+
+        // Act
+        ImportResult first = pipeline.importFile(march, tempDir.resolve("march.rejected.csv"), null);
+        ImportResult second = pipeline.importFile(overlap, tempDir.resolve("overlap.rejected.csv"), null);
+
+        // Assert
+        assertEquals(3, first.getImported());
+        assertEquals(0, first.getDuplicates());
+        assertEquals(1, second.getImported());
+        assertEquals(3, second.getDuplicates());
+        assertEquals(4, inserted.size());
+    }
+
+    @Test
+    void testExpenseFingerprint_NormalizesDescriptionAndCountsOccurrences() {
+        // Arrange
+        Category food = new Category(1, "Food", null, null);
+        LocalDate day = LocalDate.of(2024, 3, 1);
+        Expense a = Expense.create(food, day, new BigDecimal("3.5"), PaymentMethod.CARD, "Flat  White");
+        Expense b = Expense.create(food, day, new BigDecimal("3.50"), PaymentMethod.CASH, " flat white ");
+        Expense c = Expense.create(food, day, new BigDecimal("3.51"), PaymentMethod.CARD, "Flat White");
+
+        // Act
+        String fingerprint = ExpenseFingerprint.of(a);
+
+        // Assert
+        assertEquals(64, fingerprint.length());
+        assertEquals(fingerprint, ExpenseFingerprint.of(b));
+        assertNotEquals(fingerprint, ExpenseFingerprint.of(c));
+        assertEquals(fingerprint, ExpenseFingerprint.withOccurrence(fingerprint, 0));
+        assertNotEquals(fingerprint, ExpenseFingerprint.withOccurrence(fingerprint, 1));
+    }
+
+    @Test
+    void testChunkedLineReader_LinesAndMultiByteCharsAcrossChunks() throws IOException {
+        // Arrange
+        Path input = tempDir.resolve("chunks.txt");
+        Files.writeString(input, "\uFEFFcafé crème\r\n€uro\n\nlast", StandardCharsets.UTF_8);
+
+        // Act
+        List<String> lines = new ArrayList<>();
+        try (ChunkedLineReader reader = new ChunkedLineReader(input, 3)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+            assertEquals(reader.size(), reader.bytesRead());
+        }
+
+        // Assert
+        assertEquals(List.of("café crème", "€uro", "", "last"), lines);
+    }
+
+    @Test
+    void testCsvLineParser_QuotedFieldsAndQuoting() {
+        // Act & Assert
+        assertEquals(List.of("a", "b, c", "say \"hi\"", ""), CsvLineParser.parse("a,\"b, c\",\"say \"\"hi\"\"\","));
+        assertThrows(IllegalArgumentException.class, () -> CsvLineParser.parse("a,\"open"));
+        assertEquals("\"x,y\"", CsvLineParser.quote("x,y"));
+        assertEquals("plain", CsvLineParser.quote("plain"));
+    }
+}
@@ -0,0 +1,69 @@
+package com.expensetracker.model;
+
+import com.expensetracker.test.TestDataFactory;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for recurring template occurrence calculation
+ */
+public class RecurringExpenseTemplateTest {
+
+    private static RecurringExpenseTemplate template(RecurrenceFrequency frequency, LocalDate next) {
+        Category category = TestDataFactory.createTestCategory(TestDataFactory.UTILITIES_CATEGORY);
+        return new RecurringExpenseTemplate(category, new BigDecimal("12.00"), PaymentMethod.CARD, "Subscription", frequency, next);
+    }
+
+    @Test
+    void testDueOccurrences_MonthlyCatchUpIncludesAsOfDate() {
+        // Act
+        List<LocalDate> dates = template(RecurrenceFrequency.MONTHLY, LocalDate.of(2024, 1, 15))
+                .dueOccurrences(LocalDate.of(2024, 4, 15), 100);
+
+        // Assert
+        assertEquals(List.of(LocalDate.of(2024, 1, 15), LocalDate.of(2024, 2, 15),
+                LocalDate.of(2024, 3, 15), LocalDate.of(2024, 4, 15)), dates);
+    }
+
+    @Test
+    void testDueOccurrences_MonthEnd_ReturnsToAnchorDayAfterShortMonths() {
+        // Act
+        List<LocalDate> dates = template(RecurrenceFrequency.MONTHLY, LocalDate.of(2024, 1, 31))
+                .dueOccurrences(LocalDate.of(2025, 3, 31), 100);
+
+        // Assert
+        assertEquals(LocalDate.of(2024, 2, 29), dates.get(1));
+        assertEquals(LocalDate.of(2024, 3, 31), dates.get(2));
+        assertEquals(LocalDate.of(2024, 4, 30), dates.get(3));
+        assertEquals(LocalDate.of(2025, 2, 28), dates.get(13));
+        assertEquals(LocalDate.of(2025, 3, 31), dates.get(14));
+    }
+
+    @Test
+    void testNextAfter_LoadedFromShortMonth_UsesStoredAnchorDay() {
+        // Arrange: persisted after materializing Feb 28, anchored to the 31st
+        Category category = TestDataFactory.createTestCategory(TestDataFactory.UTILITIES_CATEGORY);
+        RecurringExpenseTemplate template = new RecurringExpenseTemplate(1, category, new BigDecimal("12.00"), PaymentMethod.CARD,
+                "Rent", RecurrenceFrequency.MONTHLY, LocalDate.of(2025, 2, 28), 31, true);
+
+        // Act & Assert
+        assertEquals(LocalDate.of(2025, 3, 31), template.nextAfter(LocalDate.of(2025, 2, 28)));
+    }
+
+    @Test
+    void testDueOccurrences_NotYetDue_ReturnsEmpty() {
+        assertTrue(template(RecurrenceFrequency.WEEKLY, LocalDate.of(2024, 5, 1))
+                .dueOccurrences(LocalDate.of(2024, 4, 30), 100).isEmpty());
+    }
+
+    @Test
+    void testDueOccurrences_RespectsCap() {
+        assertEquals(10, template(RecurrenceFrequency.DAILY, LocalDate.of(2020, 1, 1))
+                .dueOccurrences(LocalDate.of(2024, 1, 1), 10).size());
+    }
+}
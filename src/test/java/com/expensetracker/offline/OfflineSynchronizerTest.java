@@ -0,0 +1,437 @@
+package com.expensetracker.offline;
+
+import com.expensetracker.dao.CategoryDAO;
+import com.expensetracker.dao.ExpenseDAO;
+import com.expensetracker.dao.UnitOfWork;
+import com.expensetracker.dao.impl.FailoverCategoryDAO;
+import com.expensetracker.dao.impl.ExpenseJdbcDAO;
+import com.expensetracker.dao.impl.FailoverExpenseDAO;
+import com.expensetracker.model.Category;
+import com.expensetracker.model.Expense;
+import com.expensetracker.model.PaymentMethod;
+import com.expensetracker.model.Role;
+import com.expensetracker.model.UserAccount;
+import com.expensetracker.test.FakeExpenseDatabase;
+import com.expensetracker.util.SessionContext;
+import com.expensetracker.util.TransactionScope;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for offline mode: failover to the local store, journal replay
+ * and sync with conflict detection
+ */
+public class OfflineSynchronizerTest {
+
+    @TempDir
+    Path tempDir;
+
+    // Server state; "down" makes every call fail like an unreachable MySQL
+    private boolean down;
+    private final Map<Integer, Category> serverCategories = new LinkedHashMap<>();
+    private final Map<Long, Expense> serverExpenses = new LinkedHashMap<>();
+    private final Map<String, Long> serverTokens = new HashMap<>();
+    private int nextCategoryId = 10;
+    private long nextExpenseId = 100;
+
+    private void checkUp() {
+        if (down) {
+            throw new RuntimeException("Error talking to database", new SQLException("Communications link failure", "08S01"));
+        }
+    }
+
+    private final ExpenseDAO serverExpenseDao = new ExpenseDAO() {
+        @Override
+        public Expense insert(Expense expense) {
+            checkUp();
+            expense.markPersisted(nextExpenseId++, LocalDateTime.now(), null);
+            serverExpenses.put(expense.getId(), OfflineCodec.copy(expense));
+            return expense;
+        }
+
+        @Override
+        public int upsertBatch(List<Expense> expenses, List<String> fingerprints) {
+            checkUp();
+            int inserted = 0;
+            for (int i = 0; i < expenses.size(); i++) {
+                if (!serverTokens.containsKey(fingerprints.get(i))) {
+                    Expense row = OfflineCodec.copy(expenses.get(i));
+                    row.markPersisted(nextExpenseId++, null, null);
+                    serverExpenses.put(row.getId(), row);
+                    serverTokens.put(fingerprints.get(i), row.getId());
+                    inserted++;
+                }
+            }
+            return inserted;
+        }
+
+        @Override
+        public Map<String, Long> findIdsByFingerprint(List<String> fingerprints) {
+            checkUp();
+            Map<String, Long> ids = new HashMap<>();
+            fingerprints.stream().filter(serverTokens::containsKey).forEach(f -> ids.put(f, serverTokens.get(f)));
+            return ids;
+        }
+
+        @Override
+        public boolean update(Expense expense) {
+            checkUp();
+            return serverExpenses.replace(expense.getId(), OfflineCodec.copy(expense)) != null;
+        }
+
+        @Override
+        public boolean delete(long id) {
+            checkUp();
+            return serverExpenses.remove(id) != null;
+        }
+
+        @Override
+        public Optional<Expense> findById(long id) {
+            checkUp();
+            return Optional.ofNullable(serverExpenses.get(id)).map(OfflineCodec::copy);
+        }
+
+        @Override
+        public List<Expense> findByDateRange(LocalDate start, LocalDate end) {
+            checkUp();
+            return serverExpenses.values().stream()
+                    .filter(e -> !e.getDate().isBefore(start) && !e.getDate().isAfter(end))
+                    .sorted(Comparator.comparing(Expense::getDate))
+                    .map(OfflineCodec::copy)
+                    .toList();
+        }
+
+        @Override
+        public List<Expense> findByCategory(int categoryId, LocalDate start, LocalDate end) {
+            return findByDateRange(start, end).stream().filter(e -> e.getCategory().getId() == categoryId).toList();
+        }
+
+        @Override
+        public List<Expense> search(String keyword, LocalDate start, LocalDate end) {
+            checkUp();
+            return List.of();
+        }
+
+        @Override
+        public List<Expense> listRecent(int limit) {
+            checkUp();
+            return List.of();
+        }
+
+        @Override
+        public long count() {
+            checkUp();
+            return serverExpenses.size();
+        }
+    };
+
+    private final CategoryDAO serverCategoryDao = new CategoryDAO() {
+        @Override
+        public Category insert(Category category) {
+            checkUp();
+            category.setId(nextCategoryId++);
+            serverCategories.put(category.getId(), OfflineCodec.copy(category));
+            return category;
+        }
+
+        @Override
+        public boolean update(Category category) {
+            checkUp();
+            return serverCategories.replace(category.getId(), OfflineCodec.copy(category)) != null;
+        }
+
+        @Override
+        public boolean delete(int id) {
+            checkUp();
+            return serverCategories.remove(id) != null;
+        }
+
+        @Override
+        public Optional<Category> findById(int id) {
+            checkUp();
+            return Optional.ofNullable(serverCategories.get(id)).map(OfflineCodec::copy);
+        }
+
+        @Override
+        public Optional<Category> findByName(String name) {
+            checkUp();
+            return serverCategories.values().stream().filter(c -> c.getName().equalsIgnoreCase(name)).findFirst().map(OfflineCodec::copy);
+        }
+
+        @Override
+        public List<Category> findAll() {
+            checkUp();
+            return serverCategories.values().stream().map(OfflineCodec::copy).toList();
+        }
+
+        @Override
+        public long count() {
+            checkUp();
+            return serverCategories.size();
+        }
+    };
+
+    private Category food;
+    private OfflineStore store;
+    private ConnectivityState connectivity;
+    private FailoverExpenseDAO expenseDao;
+    private FailoverCategoryDAO categoryDao;
+    private OfflineSynchronizer synchronizer;
+
+    @BeforeEach
+    void setUp() {
+        SessionContext.getInstance().setCurrentUser(new UserAccount(7, "tester", "hash", "salt", Role.USER, true, LocalDateTime.now()));
+        food = serverCategoryDao.insert(new Category("Food"));
+        store = new OfflineStore(tempDir);
+        connectivity = new ConnectivityState();
+        expenseDao = new FailoverExpenseDAO(serverExpenseDao, store, connectivity);
+        categoryDao = new FailoverCategoryDAO(serverCategoryDao, store, connectivity);
+        synchronizer = new OfflineSynchronizer(serverExpenseDao, serverCategoryDao, store, 2, 12);
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.close();
+        SessionContext.getInstance().clear();
+    }
+
+    private Expense expense(Category category, LocalDate date, String amount, String description) {
+        return Expense.create(category, date, new BigDecimal(amount), PaymentMethod.CASH, description);
+    }
+
+    @Test
+    void testFailover_DatabaseDown_ReadsSnapshotAndJournalsWrites() {
+        // Arrange
+        Expense lunch = expenseDao.insert(expense(food, LocalDate.of(2024, 3, 5), "12.00", "Lunch"));
+        synchronizer.refreshSnapshot(LocalDate.of(2024, 3, 10));
+        down = true;
+
+        // Act
+        Expense coffee = expenseDao.insert(expense(food, LocalDate.of(2024, 3, 6), "3.50", "Coffee"));
+        List<Expense> march = expenseDao.findByDateRange(LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 31));
+        store.close();
+        OfflineStore reopened = new OfflineStore(tempDir);
+
+        // Assert
+        assertFalse(connectivity.isOnline());
+        assertTrue(coffee.getId() < 0);
+        assertEquals(List.of(lunch.getId(), coffee.getId()), march.stream().map(Expense::getId).toList());
+        assertEquals(1, serverExpenses.size());
+        assertEquals(1, reopened.pendingMutations().size());
+        assertEquals(2, reopened.expenses(LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 31), e -> true).size());
+        reopened.close();
+    }
+
+    @Test
+    void testFailover_ConnectionLostInsideUnit_RethrowsAndMirrorsNothing() {
+        // Arrange: the stub server never asks the scope for a connection
+        TransactionScope scope = new TransactionScope(() -> {
+            throw new SQLException("Not used");
+        });
+        ConnectivityState unitAware = new ConnectivityState(scope);
+        FailoverCategoryDAO categories = new FailoverCategoryDAO(serverCategoryDao, store, unitAware);
+        FailoverExpenseDAO expenses = new FailoverExpenseDAO(serverExpenseDao, store, unitAware);
+
+        // Act
+        RuntimeException failure = assertThrows(RuntimeException.class, () -> scope.run(() -> {
+            Category travel = categories.insert(new Category("Travel"));
+            down = true;
+            expenses.insert(expense(travel, LocalDate.of(2024, 3, 8), "40.00", "Train"));
+        }));
+
+        // Assert: no half of the unit finished offline, and the rolled-back category was not mirrored
+        assertTrue(ConnectivityState.isConnectionFailure(failure));
+        assertFalse(unitAware.isOnline());
+        assertTrue(store.pendingMutations().isEmpty());
+        assertTrue(store.categoryByName("Travel").isEmpty());
+    }
+
+    @Test
+    void testSync_AfterReconnect_AppliesInOrderAndReportsConflicts() {
+        // Arrange
+        Expense kept = expenseDao.insert(expense(food, LocalDate.of(2024, 3, 1), "5.00", "Bus"));
+        Expense contested = expenseDao.insert(expense(food, LocalDate.of(2024, 3, 2), "9.00", "Snack"));
+        synchronizer.refreshSnapshot(LocalDate.of(2024, 3, 10));
+        down = true;
+        Category travel = categoryDao.insert(new Category("Travel"));
+        Expense train = expenseDao.insert(expense(travel, LocalDate.of(2024, 3, 8), "40.00", "Train"));
+        train.setDescription("Train to Leeds");
+        expenseDao.update(train);
+        kept.setAmount(new BigDecimal("6.00"));
+        expenseDao.update(kept);
+        contested.setDescription("Snack (offline edit)");
+        expenseDao.update(contested);
+        // Meanwhile another device changes the same expense
+        serverExpenses.get(contested.getId()).setAmount(new BigDecimal("10.00"));
+
+        // Act
+        down = false;
+        SyncResult result = synchronizer.sync();
+
+        // Assert
+        assertEquals(4, result.getApplied());
+        assertEquals(1, result.getConflicts().size());
+        assertTrue(result.getConflicts().get(0).contains("changed on the server"));
+        int travelId = serverCategoryDao.findByName("Travel").orElseThrow().getId();
+        Expense syncedTrain = serverExpenses.values().stream().filter(e -> e.getDate().equals(LocalDate.of(2024, 3, 8))).findFirst().orElseThrow();
+        assertEquals("Train to Leeds", syncedTrain.getDescription());
+        assertEquals(travelId, syncedTrain.getCategory().getId());
+        assertEquals(new BigDecimal("6.00"), serverExpenses.get(kept.getId()).getAmount());
+        assertEquals("Snack", serverExpenses.get(contested.getId()).getDescription());
+        assertTrue(store.pendingMutations().isEmpty());
+        assertEquals("Travel", store.expense(syncedTrain.getId()).orElseThrow().getCategory().getName());
+    }
+
+    @Test
+    void testInsert_AcknowledgementLost_SyncDoesNotDuplicate() {
+        // Arrange: the insert commits, then the connection drops before the reply arrives
+        ExpenseDAO lostAck = new FailoverExpenseDAO(new FailoverExpenseDAO(serverExpenseDao, store, new ConnectivityState()) {
+            @Override
+            public int upsertBatch(List<Expense> expenses, List<String> fingerprints) {
+                int inserted = super.upsertBatch(expenses, fingerprints);
+                down = true;
+                checkUp();
+                return inserted;
+            }
+        }, store, connectivity);
+
+        // Act
+        Expense lunch = lostAck.insert(expense(food, LocalDate.of(2024, 3, 5), "12.00", "Lunch"));
+        down = false;
+        SyncResult result = synchronizer.sync();
+
+        // Assert
+        assertTrue(lunch.getId() < 0);
+        assertEquals(1, result.getApplied());
+        assertEquals(1, serverExpenses.size());
+        assertTrue(store.pendingMutations().isEmpty());
+    }
+
+    @Test
+    void testSync_ConnectionDropsMidway_ResumesWithoutDuplicates() {
+        // Arrange
+        synchronizer.refreshSnapshot(LocalDate.of(2024, 3, 10));
+        down = true;
+        for (int day = 1; day <= 5; day++) {
+            expenseDao.insert(expense(food, LocalDate.of(2024, 3, day), "1.00", "Day " + day));
+        }
+        // Connection drops after the second batch was inserted but before its ids were read back
+        ExpenseDAO flakyServer = new FailoverExpenseDAO(serverExpenseDao, store, new ConnectivityState()) {
+            private int calls;
+
+            @Override
+            public Map<String, Long> findIdsByFingerprint(List<String> fingerprints) {
+                if (++calls == 2) {
+                    down = true;
+                }
+                return super.findIdsByFingerprint(fingerprints);
+            }
+        };
+        OfflineSynchronizer flaky = new OfflineSynchronizer(flakyServer, serverCategoryDao, store, 2, 12);
+
+        // Act
+        down = false;
+        assertThrows(RuntimeException.class, flaky::sync);
+        int pendingAfterDrop = store.pendingMutations().size();
+        down = false;
+        SyncResult resumed = synchronizer.sync();
+
+        // Assert
+        assertEquals(3, pendingAfterDrop);
+        assertEquals(3, resumed.getApplied());
+        assertEquals(5, serverExpenses.size());
+        assertTrue(store.pendingMutations().isEmpty());
+    }
+
+    @Test
+    void testSync_TransactionalBatchFailsMidway_WholeBatchStaysPending() {
+        // Arrange
+        synchronizer.refreshSnapshot(LocalDate.of(2024, 3, 10));
+        down = true;
+        Category travel = categoryDao.insert(new Category("Travel"));
+        expenseDao.insert(expense(travel, LocalDate.of(2024, 3, 8), "40.00", "Train"));
+        int[] units = new int[1];
+        UnitOfWork transactional = new UnitOfWork() {
+            @Override
+            public <T> T execute(Supplier<T> work) {
+                units[0]++;
+                return work.get();
+            }
+        };
+        // Connection drops after the category was sent but before the expense
+        ExpenseDAO flakyServer = new FailoverExpenseDAO(serverExpenseDao, store, new ConnectivityState()) {
+            @Override
+            public int upsertBatch(List<Expense> expenses, List<String> fingerprints) {
+                down = true;
+                return super.upsertBatch(expenses, fingerprints);
+            }
+        };
+        OfflineSynchronizer flaky = new OfflineSynchronizer(flakyServer, serverCategoryDao, store, transactional, 2, 12);
+
+        // Act
+        down = false;
+        assertThrows(RuntimeException.class, flaky::sync);
+        int pendingAfterDrop = store.pendingMutations().size();
+        down = false;
+        SyncResult resumed = new OfflineSynchronizer(serverExpenseDao, serverCategoryDao, store, transactional, 2, 12).sync();
+
+        // Assert: the rolled-back category add is resent (and merges by name)
+        assertEquals(2, pendingAfterDrop);
+        assertEquals(2, resumed.getApplied());
+        assertEquals(2, units[0]);
+        assertEquals(1, serverExpenses.size());
+        assertTrue(store.pendingMutations().isEmpty());
+    }
+
+    @Test
+    void testSync_BatchResentAfterCommit_RollupCountedOnce() {
+        // Arrange
+        down = true;
+        expenseDao.insert(expense(food, LocalDate.of(2024, 3, 5), "12.00", "Lunch"));
+        expenseDao.insert(expense(food, LocalDate.of(2024, 3, 6), "3.50", "Coffee"));
+        expenseDao.insert(expense(food, LocalDate.of(2024, 3, 8), "40.00", "Train"));
+        FakeExpenseDatabase database = new FakeExpenseDatabase();
+        ExpenseJdbcDAO jdbc = new ExpenseJdbcDAO(false, database);
+        // Connection drops after the first batch committed but before it was acknowledged
+        ExpenseJdbcDAO flakyJdbc = new ExpenseJdbcDAO(false, database) {
+            @Override
+            public int upsertBatch(List<Expense> expenses, List<String> fingerprints) {
+                int inserted = super.upsertBatch(expenses, fingerprints);
+                database.setDown(true);
+                return inserted;
+            }
+        };
+        down = false;
+
+        // Act
+        assertThrows(RuntimeException.class, new OfflineSynchronizer(flakyJdbc, serverCategoryDao, store, 2, 12)::sync);
+        int pendingAfterDrop = store.pendingMutations().size();
+        database.setDown(false);
+        SyncResult resumed = new OfflineSynchronizer(jdbc, serverCategoryDao, store, 2, 12).sync();
+
+        // Assert
+        assertEquals(3, pendingAfterDrop);
+        assertEquals(3, resumed.getApplied());
+        assertEquals(3, database.expenseCount());
+        assertEquals(3, database.rollupCount());
+        assertEquals(new BigDecimal("55.50"), database.rollupTotal());
+        assertTrue(store.pendingMutations().isEmpty());
+    }
+}
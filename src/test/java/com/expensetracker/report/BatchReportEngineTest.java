@@ -0,0 +1,101 @@
+package com.expensetracker.report;
+
+import com.expensetracker.dao.ExpenseDAO;
+import com.expensetracker.model.Category;
+import com.expensetracker.model.Expense;
+import com.expensetracker.test.TestDataFactory;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for BatchReportEngine shared-scan fan-out
+ */
+public class BatchReportEngineTest {
+
+    private final AtomicInteger scans = new AtomicInteger();
+    private final List<Expense> rows = new ArrayList<>();
+
+    private final ExpenseDAO stubDao = new ExpenseDAO() {
+        @Override
+        public Expense insert(Expense expense) {
+            rows.add(expense);
+            return expense;
+        }
+
+        @Override
+        public boolean update(Expense expense) {
+            return false;
+        }
+
+        @Override
+        public boolean delete(long id) {
+            return false;
+        }
+
+        @Override
+        public Optional<Expense> findById(long id) {
+            return Optional.empty();
+        }
+
+        @Override
+        public List<Expense> findByDateRange(LocalDate start, LocalDate end) {
+            scans.incrementAndGet();
+            return rows.stream().filter(e -> !e.getDate().isBefore(start) && !e.getDate().isAfter(end)).toList();
+        }
+
+        @Override
+        public List<Expense> findByCategory(int categoryId, LocalDate start, LocalDate end) {
+            return List.of();
+        }
+
+        @Override
+        public List<Expense> search(String keyword, LocalDate start, LocalDate end) {
+            return List.of();
+        }
+
+        @Override
+        public List<Expense> listRecent(int limit) {
+            return List.of();
+        }
+
+        @Override
+        public long count() {
+            return rows.size();
+        }
+    };
+
+    @Test
+    void testRun_SingleScanFeedsEveryReport() {
+        // Arrange
+        Category food = TestDataFactory.createTestCategory(TestDataFactory.FOOD_CATEGORY);
+        food.setId(1);
+        LocalDate day = LocalDate.of(2024, 5, 15);
+        stubDao.insert(TestDataFactory.createTestExpense(food, new BigDecimal("10.00"), day, "Lunch"));
+        stubDao.insert(TestDataFactory.createTestExpense(food, new BigDecimal("4.00"), day.minusDays(1), "Coffee"));
+        stubDao.insert(TestDataFactory.createTestExpense(food, new BigDecimal("20.00"), LocalDate.of(2024, 5, 2), "Groceries"));
+
+        WeeklyReportRequest week = new WeeklyReportRequest(day.minusDays(2), day.plusDays(4));
+        MonthlyReportRequest month = new MonthlyReportRequest(2024, 5);
+
+        // Act
+        List<AbstractReport> reports = new BatchReportEngine(stubDao).run(List.of(
+                new DailyReportGenerator(stubDao).accumulator(day),
+                new WeeklyReportGenerator(stubDao).accumulator(week),
+                new MonthlyReportGenerator(null).accumulator(month)));
+
+        // Assert
+        assertEquals(1, scans.get());
+        assertEquals(new BigDecimal("10.00"), ((DailyReport) reports.get(0)).getTotal());
+        assertEquals(new BigDecimal("14.00"), ((WeeklyReport) reports.get(1)).getTotal());
+        assertEquals(new BigDecimal("34.00"), ((MonthlyReport) reports.get(2)).getTotal());
+        assertEquals(3, ((MonthlyReport) reports.get(2)).getCount());
+    }
+}
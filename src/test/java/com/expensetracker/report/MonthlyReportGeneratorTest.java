@@ -0,0 +1,70 @@
+package com.expensetracker.report;
+
+import com.expensetracker.dao.DailyRollupDAO;
+import com.expensetracker.model.DailyRollup;
+import com.expensetracker.model.Expense;
+import com.expensetracker.model.PaymentMethod;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.WeekFields;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for MonthlyReportGenerator using an in-memory rollup stub
+ */
+public class MonthlyReportGeneratorTest {
+
+    private final List<DailyRollup> rollups = List.of(
+            new DailyRollup(LocalDate.of(2024, 3, 1), 1, "Food", PaymentMethod.CASH, 2, new BigDecimal("20.00")),
+            new DailyRollup(LocalDate.of(2024, 3, 1), 2, "Transport", PaymentMethod.CARD, 1, new BigDecimal("5.50")),
+            new DailyRollup(LocalDate.of(2024, 3, 20), 1, "Food", PaymentMethod.UPI, 3, new BigDecimal("30.00")),
+            new DailyRollup(LocalDate.of(2024, 4, 2), 1, "Food", PaymentMethod.CASH, 1, new BigDecimal("99.00")));
+
+    private final DailyRollupDAO stubDao = new DailyRollupDAO() {
+        @Override
+        public List<DailyRollup> findByDateRange(LocalDate start, LocalDate end) {
+            return rollups.stream().filter(r -> !r.getDate().isBefore(start) && !r.getDate().isAfter(end)).toList();
+        }
+
+        @Override
+        public int rebuild(List<Expense> archived) {
+            return rollups.size();
+        }
+    };
+
+    @Test
+    void testGenerate_AggregatesCategoriesAndWeeksInMonth() {
+        // Act
+        MonthlyReport report = new MonthlyReportGenerator(stubDao).generate(new MonthlyReportRequest(2024, 3));
+
+        // Assert
+        assertEquals(new BigDecimal("55.50"), report.getTotal());
+        assertEquals(6, report.getCount());
+        assertEquals(new BigDecimal("50.00"), report.getCategoryTotals().get("Food"));
+        assertEquals(new BigDecimal("5.50"), report.getCategoryTotals().get("Transport"));
+
+        WeekFields weekFields = WeekFields.of(Locale.getDefault());
+        int firstWeek = LocalDate.of(2024, 3, 1).get(weekFields.weekOfMonth());
+        assertEquals(new BigDecimal("25.50"), report.getWeeklyTotals().get(firstWeek));
+        assertEquals(2, report.getWeeklyTotals().size());
+    }
+
+    @Test
+    void testGenerateYear_ReturnsTwelveMonthsInOrder() {
+        // Act
+        List<MonthlyReport> reports = new MonthlyReportGenerator(stubDao).generateYear(2024);
+
+        // Assert
+        assertEquals(12, reports.size());
+        for (int i = 0; i < 12; i++) {
+            assertEquals(i + 1, reports.get(i).getMonth());
+        }
+        assertEquals(new BigDecimal("99.00"), reports.get(3).getTotal());
+        assertEquals(BigDecimal.ZERO, reports.get(0).getTotal());
+    }
+}
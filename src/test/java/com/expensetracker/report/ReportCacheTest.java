@@ -0,0 +1,114 @@
+package com.expensetracker.report;
+
+import com.expensetracker.service.DataVersion;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ReportCache and CachingReportGenerator
+ */
+public class ReportCacheTest {
+
+    private static DailyReport report(LocalDate date, int lineCount) {
+        List<String> lines = Collections.nCopies(lineCount, "2024-01-01,Food,10.00,CASH,lunch");
+        return new DailyReport(date, BigDecimal.TEN, lineCount, Map.of(), lines);
+    }
+
+    @Test
+    void testGenerate_SameRangeAndVersion_ServedFromCache() {
+        // Arrange
+        DataVersion version = new DataVersion();
+        AtomicInteger calls = new AtomicInteger();
+        ReportGenerator<DailyReport, LocalDate> delegate = date -> {
+            calls.incrementAndGet();
+            return report(date, 1);
+        };
+        ReportCache cache = new ReportCache(version::current);
+        CachingReportGenerator<DailyReport, LocalDate> generator = new CachingReportGenerator<>(DailyReport.class, delegate,
+                date -> new ReportCache.Key("daily", date, date), cache);
+        LocalDate day = LocalDate.of(2024, 1, 1);
+
+        // Act
+        DailyReport first = generator.generate(day);
+        DailyReport second = generator.generate(day);
+
+        // Assert
+        assertSame(first, second);
+        assertEquals(1, calls.get());
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    void testGenerate_DataVersionChanged_Regenerates() {
+        // Arrange
+        DataVersion version = new DataVersion();
+        AtomicInteger calls = new AtomicInteger();
+        ReportGenerator<DailyReport, LocalDate> delegate = date -> {
+            calls.incrementAndGet();
+            return report(date, 1);
+        };
+        CachingReportGenerator<DailyReport, LocalDate> generator = new CachingReportGenerator<>(DailyReport.class, delegate,
+                date -> new ReportCache.Key("daily", date, date), new ReportCache(version::current));
+        LocalDate day = LocalDate.of(2024, 1, 1);
+
+        // Act
+        generator.generate(day);
+        version.increment();
+        generator.generate(day);
+
+        // Assert
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void testPut_OverBudget_EvictsLeastRecentlyUsed() {
+        // Arrange
+        DailyReport sample = report(LocalDate.of(2024, 1, 1), 10);
+        long entrySize = ReportCache.estimateBytes(sample);
+        ReportCache cache = new ReportCache(() -> 0L, entrySize * 2);
+        ReportCache.Key a = new ReportCache.Key("daily", LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 1));
+        ReportCache.Key b = new ReportCache.Key("daily", LocalDate.of(2024, 1, 2), LocalDate.of(2024, 1, 2));
+        ReportCache.Key c = new ReportCache.Key("daily", LocalDate.of(2024, 1, 3), LocalDate.of(2024, 1, 3));
+
+        // Act
+        cache.put(a, sample, 0);
+        cache.put(b, sample, 0);
+        cache.get(a); // a becomes most recently used
+        cache.put(c, sample, 0);
+
+        // Assert
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get(a));
+        assertNull(cache.get(b));
+        assertNotNull(cache.get(c));
+        assertTrue(cache.getCurrentBytes() <= entrySize * 2);
+    }
+
+    @Test
+    void testGet_DifferentOwner_Miss() {
+        // Arrange
+        AtomicInteger owner = new AtomicInteger(1);
+        ReportCache cache = new ReportCache(() -> 0L, owner::get, ReportCache.DEFAULT_MAX_BYTES);
+        LocalDate day = LocalDate.of(2024, 1, 1);
+        ReportCache.Key key = new ReportCache.Key("daily", day, day);
+        cache.put(key, report(day, 1), 0);
+
+        // Act
+        owner.set(2);
+        AbstractReport otherUser = cache.get(key);
+        owner.set(1);
+        AbstractReport sameUser = cache.get(key);
+
+        // Assert
+        assertNull(otherUser);
+        assertNotNull(sameUser);
+    }
+}
@@ -0,0 +1,63 @@
+package com.expensetracker.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the failed-login counter
+ */
+public class LoginAttemptLimiterTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final LoginAttemptLimiter limiter = new LoginAttemptLimiter(3, Duration.ofMinutes(5), now::get);
+
+    @Test
+    void testRecordFailure_Burst_BlocksOnlyThatName() {
+        // Act
+        limiter.recordFailure("alice");
+        limiter.recordFailure("Alice ");
+        boolean blockedAfterTwo = limiter.isBlocked("alice");
+        limiter.recordFailure("ALICE");
+
+        // Assert
+        assertFalse(blockedAfterTwo);
+        assertTrue(limiter.isBlocked("alice"));
+        assertFalse(limiter.isBlocked("bob"));
+    }
+
+    @Test
+    void testIsBlocked_AfterHalfLife_DecaysAndUnblocks() {
+        // Arrange
+        for (int i = 0; i < 4; i++) {
+            limiter.recordFailure("alice");
+        }
+
+        // Act
+        now.addAndGet(Duration.ofMinutes(5).toNanos());
+        boolean blockedAfterOneHalfLife = limiter.isBlocked("alice");
+        limiter.recordFailure("alice");
+        boolean blockedAfterAnotherFailure = limiter.isBlocked("alice");
+
+        // Assert
+        assertFalse(blockedAfterOneHalfLife);
+        assertTrue(blockedAfterAnotherFailure);
+    }
+
+    @Test
+    void testRecordSuccess_ClearsFailures() {
+        // Arrange
+        limiter.recordFailure("alice");
+        limiter.recordFailure("alice");
+
+        // Act
+        limiter.recordSuccess("alice");
+        limiter.recordFailure("alice");
+
+        // Assert
+        assertFalse(limiter.isBlocked("alice"));
+    }
+}
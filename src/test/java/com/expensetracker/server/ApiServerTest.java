@@ -0,0 +1,296 @@
+package com.expensetracker.server;
+
+import com.expensetracker.dao.CategoryDAO;
+import com.expensetracker.dao.ExpenseDAO;
+import com.expensetracker.dao.UserAccountDAO;
+import com.expensetracker.model.Category;
+import com.expensetracker.model.Expense;
+import com.expensetracker.model.Role;
+import com.expensetracker.model.UserAccount;
+import com.expensetracker.report.DailyReportGenerator;
+import com.expensetracker.report.WeeklyReportGenerator;
+import com.expensetracker.security.LoginAttemptLimiter;
+import com.expensetracker.security.Pbkdf2HashScheme;
+import com.expensetracker.security.SessionRegistry;
+import com.expensetracker.service.AuthService;
+import com.expensetracker.service.CategoryService;
+import com.expensetracker.service.DataVersion;
+import com.expensetracker.service.ExpenseService;
+import com.expensetracker.util.PasswordHasher;
+import com.expensetracker.util.SessionContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * End-to-end tests of the JSON API against in-memory DAOs that keep each
+ * user's rows apart, the way the JDBC DAOs scope by the session user
+ */
+public class ApiServerTest {
+
+    private final PasswordHasher hasher = new PasswordHasher(new Pbkdf2HashScheme(1_000));
+    private final Map<String, UserAccount> users = new HashMap<>();
+    private final Map<Integer, Map<Integer, Category>> categoriesByUser = new HashMap<>();
+    private final Map<Integer, Map<Long, Expense>> expensesByUser = new HashMap<>();
+    private int nextCategoryId = 1;
+    private long nextExpenseId = 1;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private ApiServer server;
+    private AuthService authService;
+
+    private Map<Integer, Category> categories() {
+        return categoriesByUser.computeIfAbsent(SessionContext.getInstance().requireCurrentUserId(), k -> new HashMap<>());
+    }
+
+    private Map<Long, Expense> expenses() {
+        return expensesByUser.computeIfAbsent(SessionContext.getInstance().requireCurrentUserId(), k -> new HashMap<>());
+    }
+
+    private final UserAccountDAO stubUserDao = new UserAccountDAO() {
+        @Override
+        public synchronized UserAccount insert(UserAccount user) {
+            user.setId(users.size() + 1);
+            users.put(user.getUsername(), user);
+            return user;
+        }
+
+        @Override
+        public synchronized Optional<UserAccount> findByUsername(String username) {
+            return Optional.ofNullable(users.get(username));
+        }
+
+        @Override
+        public boolean updatePasswordHash(int userId, String passwordHash, String salt) {
+            return true;
+        }
+    };
+
+    private final CategoryDAO stubCategoryDao = new CategoryDAO() {
+        @Override
+        public synchronized Category insert(Category category) {
+            category.setId(nextCategoryId++);
+            categories().put(category.getId(), category);
+            return category;
+        }
+
+        @Override
+        public synchronized boolean update(Category category) {
+            return categories().replace(category.getId(), category) != null;
+        }
+
+        @Override
+        public synchronized boolean delete(int id) {
+            return categories().remove(id) != null;
+        }
+
+        @Override
+        public synchronized Optional<Category> findById(int id) {
+            return Optional.ofNullable(categories().get(id));
+        }
+
+        @Override
+        public synchronized Optional<Category> findByName(String name) {
+            return categories().values().stream().filter(c -> c.getName().equalsIgnoreCase(name)).findFirst();
+        }
+
+        @Override
+        public synchronized List<Category> findAll() {
+            return new ArrayList<>(categories().values());
+        }
+
+        @Override
+        public synchronized long count() {
+            return categories().size();
+        }
+    };
+
+    private final ExpenseDAO stubExpenseDao = new ExpenseDAO() {
+        @Override
+        public synchronized Expense insert(Expense expense) {
+            expense.markPersisted(nextExpenseId++, LocalDateTime.now(), null);
+            expenses().put(expense.getId(), expense);
+            return expense;
+        }
+
+        @Override
+        public synchronized boolean update(Expense expense) {
+            return expenses().replace(expense.getId(), expense) != null;
+        }
+
+        @Override
+        public synchronized boolean delete(long id) {
+            return expenses().remove(id) != null;
+        }
+
+        @Override
+        public synchronized Optional<Expense> findById(long id) {
+            return Optional.ofNullable(expenses().get(id));
+        }
+
+        @Override
+        public synchronized List<Expense> findByDateRange(LocalDate start, LocalDate end) {
+            return expenses().values().stream()
+                    .filter(e -> !e.getDate().isBefore(start) && !e.getDate().isAfter(end))
+                    .sorted(Comparator.comparing(Expense::getDate))
+                    .toList();
+        }
+
+        @Override
+        public List<Expense> findByCategory(int categoryId, LocalDate start, LocalDate end) {
+            return findByDateRange(start, end).stream().filter(e -> e.getCategory().getId() == categoryId).toList();
+        }
+
+        @Override
+        public List<Expense> search(String keyword, LocalDate start, LocalDate end) {
+            return findByDateRange(start, end).stream()
+                    .filter(e -> e.getDescription() != null && e.getDescription().contains(keyword)).toList();
+        }
+
+        @Override
+        public List<Expense> listRecent(int limit) {
+            return List.of();
+        }
+
+        @Override
+        public synchronized long count() {
+            return expenses().size();
+        }
+    };
+
+    @BeforeEach
+    void setUp() {
+        SessionRegistry sessions = new SessionRegistry(Duration.ofMinutes(30));
+        authService = new AuthService(stubUserDao, hasher, new LoginAttemptLimiter(5, Duration.ofMinutes(5)), sessions);
+        authService.register("alice", "pw-alice", Role.USER);
+        authService.register("bob", "pw-bob", Role.USER);
+        DataVersion dataVersion = new DataVersion();
+        server = ApiServer.create(new InetSocketAddress("127.0.0.1", 0), 8, authService, sessions,
+                new CategoryService(stubCategoryDao, dataVersion), new ExpenseService(stubExpenseDao, dataVersion),
+                new DailyReportGenerator(stubExpenseDao), new WeeklyReportGenerator(stubExpenseDao), null, null);
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        SessionContext.getInstance().clear();
+    }
+
+    @Test
+    void testRequests_WithoutOrWithBadCredentials_Unauthorized() throws Exception {
+        // Act
+        HttpResponse<String> noToken = send("GET", "/api/categories", null, null);
+        HttpResponse<String> badToken = send("GET", "/api/categories", null, "not-a-token");
+        HttpResponse<String> badLogin = send("POST", "/api/session", "{\"username\":\"alice\",\"password\":\"nope\"}", null);
+
+        // Assert
+        assertEquals(401, noToken.statusCode());
+        assertEquals(401, badToken.statusCode());
+        assertEquals(401, badLogin.statusCode());
+        assertTrue(badLogin.body().contains("\"error\""));
+    }
+
+    @Test
+    void testExpenses_CreateThenStreamRange_ScopedToSessionUser() throws Exception {
+        // Arrange
+        String alice = login("alice", "pw-alice");
+        String bob = login("bob", "pw-bob");
+        HttpResponse<String> category = send("POST", "/api/categories", "{\"name\":\"Food\",\"monthlyBudgetLimit\":250.00}", alice);
+        int categoryId = Integer.parseInt(category.body().replaceAll(".*\"id\":(\\d+).*", "$1"));
+
+        // Act
+        HttpResponse<String> created = send("POST", "/api/expenses",
+                "{\"categoryId\":" + categoryId + ",\"date\":\"2024-03-05\",\"amount\":12.50,\"paymentMethod\":\"card\",\"description\":\"Lunch \\\"deluxe\\\"\"}", alice);
+        HttpResponse<byte[]> range = client.send(HttpRequest.newBuilder(uri("/api/expenses?from=2024-03-01&to=2024-03-31"))
+                .header("Authorization", "Bearer " + alice).header("Accept-Encoding", "gzip").build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        HttpResponse<String> bobsRange = send("GET", "/api/expenses?from=2024-03-01&to=2024-03-31", null, bob);
+        HttpResponse<String> report = send("GET", "/api/reports/daily?date=2024-03-05", null, alice);
+
+        // Assert
+        assertEquals(201, category.statusCode());
+        assertEquals(201, created.statusCode());
+        assertEquals(200, range.statusCode());
+        assertEquals("gzip", range.headers().firstValue("Content-Encoding").orElse(""));
+        String rangeJson = gunzip(range.body());
+        assertTrue(rangeJson.startsWith("[{\"id\":1,\"date\":\"2024-03-05\",\"amount\":12.50,\"categoryId\":" + categoryId));
+        assertTrue(rangeJson.contains("\"paymentMethod\":\"CARD\",\"description\":\"Lunch \\\"deluxe\\\"\"}]"));
+        assertEquals("[]", bobsRange.body());
+        assertTrue(report.body().contains("\"type\":\"daily\""));
+        assertTrue(report.body().contains("\"total\":12.50"));
+    }
+
+    @Test
+    void testRequests_BadInputOrUnknownIds_ClientErrors() throws Exception {
+        // Arrange
+        String alice = login("alice", "pw-alice");
+
+        // Act
+        HttpResponse<String> badDate = send("GET", "/api/expenses?from=yesterday&to=2024-03-31", null, alice);
+        HttpResponse<String> badJson = send("POST", "/api/categories", "{\"name\":", alice);
+        HttpResponse<String> unknownCategory = send("POST", "/api/expenses",
+                "{\"categoryId\":99,\"date\":\"2024-03-05\",\"amount\":1,\"paymentMethod\":\"CASH\"}", alice);
+        HttpResponse<String> missing = send("GET", "/api/expenses/42", null, alice);
+        HttpResponse<String> wrongMethod = send("PATCH", "/api/categories", "{}", alice);
+        HttpResponse<String> loggedOut = send("DELETE", "/api/session", null, alice);
+        HttpResponse<String> afterLogout = send("GET", "/api/categories", null, alice);
+
+        // Assert
+        assertEquals(400, badDate.statusCode());
+        assertEquals(400, badJson.statusCode());
+        assertEquals(400, unknownCategory.statusCode());
+        assertEquals(404, missing.statusCode());
+        assertEquals(405, wrongMethod.statusCode());
+        assertEquals(204, loggedOut.statusCode());
+        assertEquals(401, afterLogout.statusCode());
+    }
+
+    private String login(String username, String password) throws Exception {
+        HttpResponse<String> response = send("POST", "/api/session",
+                "{\"username\":\"" + username + "\",\"password\":\"" + password + "\"}", null);
+        assertEquals(201, response.statusCode());
+        return response.body().replaceAll(".*\"token\":\"([^\"]+)\".*", "$1");
+    }
+
+    private HttpResponse<String> send(String method, String path, String body, String token) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri(path))
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://127.0.0.1:" + server.getPort() + path);
+    }
+
+    private static String gunzip(byte[] body) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dao.UserAccountDAO;
+import com.expensetracker.model.Role;
+import com.expensetracker.model.UserAccount;
+import com.expensetracker.security.LegacySha256HashScheme;
+import com.expensetracker.security.LoginAttemptLimiter;
+import com.expensetracker.security.Pbkdf2HashScheme;
+import com.expensetracker.security.SessionRegistry;
+import com.expensetracker.security.SessionRegistry.Session;
+import com.expensetracker.util.PasswordHasher;
+import com.expensetracker.util.SessionContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for password hashing and login verification
+ */
+public class AuthServiceTest {
+
+    private final PasswordHasher hasher = new PasswordHasher(new Pbkdf2HashScheme(1_000));
+    private final Map<String, UserAccount> users = new HashMap<>();
+    private final AtomicInteger lookups = new AtomicInteger();
+
+    private final UserAccountDAO stubUserDao = new UserAccountDAO() {
+        @Override
+        public UserAccount insert(UserAccount user) {
+            user.setId(users.size() + 1);
+            users.put(user.getUsername(), user);
+            return user;
+        }
+
+        @Override
+        public Optional<UserAccount> findByUsername(String username) {
+            lookups.incrementAndGet();
+            return Optional.ofNullable(users.get(username));
+        }
+
+        @Override
+        public boolean updatePasswordHash(int userId, String passwordHash, String salt) {
+            for (UserAccount user : users.values()) {
+                if (user.getId() == userId) {
+                    users.put(user.getUsername(), new UserAccount(userId, user.getUsername(), passwordHash, salt, user.getRole(), user.isActive(), user.getCreatedAt()));
+                    return true;
+                }
+            }
+            return false;
+        }
+    };
+
+    @AfterEach
+    void tearDown() {
+        SessionContext.getInstance().clear();
+    }
+
+    @Test
+    void testHash_Pbkdf2_VerifiesOnlyMatchingPassword() {
+        // Act
+        String stored = hasher.hash("s3cret", "salt");
+
+        // Assert
+        assertTrue(stored.startsWith("pbkdf2-sha256$1000$"));
+        assertTrue(hasher.verify("s3cret", "salt", stored));
+        assertFalse(hasher.verify("s3cret!", "salt", stored));
+        assertFalse(hasher.verify("s3cret", "pepper", stored));
+        assertFalse(hasher.verify("s3cret", "salt", "pbkdf2-sha256$x$zz"));
+        assertFalse(hasher.verify("s3cret", "salt", "PLACEHOLDER_HASH"));
+        assertFalse(hasher.needsRehash(stored));
+        assertTrue(new PasswordHasher(new Pbkdf2HashScheme(4_000)).needsRehash(stored));
+    }
+
+    @Test
+    void testCalibrated_TinyTarget_UsesMinimumIterations() {
+        // Act
+        Pbkdf2HashScheme scheme = Pbkdf2HashScheme.calibrated(Duration.ofNanos(1));
+
+        // Assert
+        assertEquals(Pbkdf2HashScheme.MIN_ITERATIONS, scheme.getIterations());
+    }
+
+    @Test
+    void testLogin_LegacyHash_SucceedsAndUpgradesHash() {
+        // Arrange
+        String legacy = new LegacySha256HashScheme().hash("s3cret", "oldsalt");
+        users.put("alice", new UserAccount(1, "alice", legacy, "oldsalt", Role.USER, true, LocalDateTime.now()));
+        AuthService authService = new AuthService(stubUserDao, hasher);
+
+        // Act
+        boolean wrongPassword = authService.login("alice", "guess");
+        boolean loggedIn = authService.login("alice", "s3cret");
+
+        // Assert
+        assertFalse(wrongPassword);
+        assertTrue(loggedIn);
+        assertEquals(1, SessionContext.getInstance().requireCurrentUserId());
+        UserAccount upgraded = users.get("alice");
+        assertTrue(upgraded.getPasswordHash().startsWith("pbkdf2-sha256$"));
+        assertNotEquals("oldsalt", upgraded.getSalt());
+        assertTrue(hasher.verify("s3cret", upgraded.getSalt(), upgraded.getPasswordHash()));
+    }
+
+    @Test
+    void testLogin_UnknownUserOrInactive_Fails() {
+        // Arrange
+        AuthService authService = new AuthService(stubUserDao, hasher);
+        UserAccount bob = authService.register("bob", "pw", Role.USER);
+        users.put("carol", new UserAccount(2, "carol", hasher.hash("pw", "s"), "s", Role.USER, false, LocalDateTime.now()));
+
+        // Act
+        boolean unknown = authService.login("nobody", "pw");
+        boolean inactive = authService.login("carol", "pw");
+
+        // Assert
+        assertFalse(unknown);
+        assertFalse(inactive);
+        assertTrue(authService.login("bob", "pw"));
+        assertEquals(bob.getId(), SessionContext.getInstance().requireCurrentUserId());
+    }
+
+    @Test
+    void testLogin_RepeatedFailures_RejectedBeforeLookup() {
+        // Arrange
+        AuthService authService = new AuthService(stubUserDao, hasher,
+                new LoginAttemptLimiter(3, Duration.ofMinutes(5)), new SessionRegistry(Duration.ofMinutes(30)));
+        authService.register("dave", "pw", Role.USER);
+        for (int i = 0; i < 3; i++) {
+            authService.login("dave", "wrong");
+        }
+        int lookupsBefore = lookups.get();
+
+        // Act
+        boolean loggedIn = authService.login("dave", "pw");
+
+        // Assert
+        assertFalse(loggedIn);
+        assertEquals(lookupsBefore, lookups.get());
+        assertFalse(SessionContext.getInstance().isAuthenticated());
+    }
+
+    @Test
+    void testOpenSession_TwoUsers_KeepsSessionsApart() {
+        // Arrange
+        SessionRegistry registry = new SessionRegistry(Duration.ofMinutes(30));
+        AuthService authService = new AuthService(stubUserDao, hasher, new LoginAttemptLimiter(3, Duration.ofMinutes(5)), registry);
+        authService.register("erin", "pw1", Role.USER);
+        authService.register("frank", "pw2", Role.USER);
+
+        // Act
+        Session erin = authService.openSession("erin", "pw1").orElseThrow();
+        Session frank = authService.openSession("frank", "pw2").orElseThrow();
+        Optional<Session> wrong = authService.openSession("frank", "pw1");
+        int frankIdAsSeenByCall = SessionContext.getInstance().callAs(frank.getUser(),
+                () -> SessionContext.getInstance().requireCurrentUserId());
+        boolean closed = authService.closeSession(erin.getToken());
+
+        // Assert
+        assertTrue(wrong.isEmpty());
+        assertNotEquals(erin.getToken(), frank.getToken());
+        assertEquals(frank.getUser().getId(), frankIdAsSeenByCall);
+        assertFalse(SessionContext.getInstance().isAuthenticated());
+        assertTrue(closed);
+        assertTrue(registry.find(erin.getToken()).isEmpty());
+        assertSame(frank, registry.find(frank.getToken()).orElseThrow());
+        assertEquals(1, registry.size());
+    }
+}
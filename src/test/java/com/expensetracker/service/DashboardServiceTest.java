@@ -0,0 +1,178 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dao.CategoryDAO;
+import com.expensetracker.dao.DailyRollupDAO;
+import com.expensetracker.model.Category;
+import com.expensetracker.model.DailyRollup;
+import com.expensetracker.model.Expense;
+import com.expensetracker.model.PaymentMethod;
+import com.expensetracker.model.Role;
+import com.expensetracker.model.UserAccount;
+import com.expensetracker.util.SessionContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for DashboardService
+ */
+public class DashboardServiceTest {
+
+    // Early in the month, so the 7-day trend reaches back into February
+    private static final LocalDate TODAY = LocalDate.of(2024, 3, 3);
+
+    private final Category food = new Category(1, "Food", new BigDecimal("100.00"), null);
+    private final Category rent = new Category(2, "Rent", null, null);
+    private final Category travel = new Category(3, "Travel", new BigDecimal("50.00"), null);
+    private final List<DailyRollup> rollups = new ArrayList<>();
+    private final List<Runnable> queued = new ArrayList<>();
+    private int rollupQueries;
+    private int categoryQueries;
+
+    private final CategoryDAO stubCategoryDao = new CategoryDAO() {
+        @Override
+        public Category insert(Category category) {
+            return category;
+        }
+
+        @Override
+        public boolean update(Category category) {
+            return false;
+        }
+
+        @Override
+        public boolean delete(int id) {
+            return false;
+        }
+
+        @Override
+        public Optional<Category> findById(int id) {
+            return Optional.empty();
+        }
+
+        @Override
+        public Optional<Category> findByName(String name) {
+            return Optional.empty();
+        }
+
+        @Override
+        public List<Category> findAll() {
+            categoryQueries++;
+            return List.of(food, rent, travel);
+        }
+
+        @Override
+        public long count() {
+            return 3;
+        }
+    };
+
+    private final DailyRollupDAO stubRollupDao = new DailyRollupDAO() {
+        @Override
+        public List<DailyRollup> findByDateRange(LocalDate start, LocalDate end) {
+            rollupQueries++;
+            return rollups.stream().filter(r -> !r.getDate().isBefore(start) && !r.getDate().isAfter(end)).toList();
+        }
+
+        @Override
+        public int rebuild(List<Expense> archived) {
+            return 0;
+        }
+    };
+
+    private DashboardService service;
+
+    @BeforeEach
+    void setUp() {
+        SessionContext.getInstance().setCurrentUser(new UserAccount(7, "tester", "hash", "salt", Role.USER, true, LocalDateTime.now()));
+        service = new DashboardService(stubCategoryDao, stubRollupDao, () -> TODAY, queued::add);
+        rollups.add(rollup(LocalDate.of(2024, 2, 10), food, "99.00"));
+        rollups.add(rollup(LocalDate.of(2024, 2, 27), food, "10.00"));
+        rollups.add(rollup(LocalDate.of(2024, 3, 1), food, "40.00"));
+        rollups.add(rollup(LocalDate.of(2024, 3, 2), rent, "500.00"));
+        rollups.add(rollup(LocalDate.of(2024, 3, 3), travel, "45.00"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SessionContext.getInstance().clear();
+    }
+
+    @Test
+    void testRefresh_ComputesAllTiles_ReadsWithoutQueries() {
+        // Act
+        service.refresh();
+        int queriesAfterRefresh = rollupQueries + categoryQueries;
+        DashboardTiles tiles = service.getTiles();
+        service.getTiles();
+
+        // Assert
+        assertEquals(2, queriesAfterRefresh);
+        assertEquals(queriesAfterRefresh, rollupQueries + categoryQueries);
+        assertEquals(TODAY, tiles.asOf());
+        assertEquals(new BigDecimal("585.00"), tiles.monthToDate());
+        assertEquals(List.of("Rent", "Travel", "Food"), tiles.topCategories().stream().map(DashboardTiles.CategoryTotal::category).toList());
+        assertEquals(List.of("Travel", "Food"), tiles.budgetUtilization().stream().map(DashboardTiles.BudgetUse::category).toList());
+        assertEquals(0.9, tiles.budgetUtilization().get(0).ratio(), 1e-9);
+        assertEquals(7, tiles.trend().size());
+        assertEquals(LocalDate.of(2024, 2, 26), tiles.trend().get(0).date());
+        assertEquals(new BigDecimal("10.00"), tiles.trend().get(1).total());
+        assertEquals(BigDecimal.ZERO, tiles.trend().get(2).total());
+    }
+
+    @Test
+    void testExpenseAdded_AfterRefresh_FoldsInWithoutQueries() {
+        // Arrange
+        service.refresh();
+        List<DashboardTiles> published = new ArrayList<>();
+        service.addListener(published::add);
+        int queriesBefore = rollupQueries + categoryQueries;
+
+        // Act
+        service.expenseAdded(Expense.create(food, TODAY, new BigDecimal("50.00"), PaymentMethod.CARD, "groceries"));
+        service.expenseAdded(Expense.create(food, LocalDate.of(2024, 1, 5), new BigDecimal("8.00"), PaymentMethod.CARD, "old receipt"));
+
+        // Assert
+        DashboardTiles tiles = service.getTiles();
+        assertEquals(queriesBefore, rollupQueries + categoryQueries);
+        assertEquals(1, published.size());
+        assertEquals(new BigDecimal("635.00"), tiles.monthToDate());
+        assertEquals("Food", tiles.budgetUtilization().get(0).category());
+        assertEquals(new BigDecimal("90.00"), tiles.budgetUtilization().get(0).spent());
+        assertEquals(new BigDecimal("95.00"), tiles.trend().get(6).total());
+        assertTrue(queued.isEmpty());
+    }
+
+    @Test
+    void testRequestRefresh_WhileRunning_CoalescedIntoOneMoreRun() {
+        // Arrange
+        service.requestRefresh();
+        service.requestRefresh();
+        service.requestRefresh();
+
+        // Act
+        assertEquals(1, queued.size());
+        Runnable run = queued.remove(0);
+        service.requestRefresh();
+        run.run();
+        service.requestRefresh();
+
+        // Assert
+        assertEquals(2, rollupQueries);
+        assertEquals(1, queued.size());
+        assertFalse(service.getTiles().isEmpty());
+    }
+
+    private static DailyRollup rollup(LocalDate date, Category category, String total) {
+        return new DailyRollup(date, category.getId(), category.getName(), PaymentMethod.CARD, 1, new BigDecimal(total));
+    }
+}
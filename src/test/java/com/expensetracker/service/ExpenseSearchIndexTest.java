@@ -0,0 +1,130 @@
+package com.expensetracker.service;
+
+import com.expensetracker.event.ChangeEvent;
+import com.expensetracker.model.Category;
+import com.expensetracker.model.Expense;
+import com.expensetracker.test.TestDataFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the in-memory expense description index
+ */
+public class ExpenseSearchIndexTest {
+
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+    private static final LocalDate END = LocalDate.of(2024, 12, 31);
+
+    private ExpenseSearchIndex index;
+    private Category food;
+
+    @BeforeEach
+    void setUp() {
+        index = new ExpenseSearchIndex();
+        food = TestDataFactory.createTestCategory(TestDataFactory.FOOD_CATEGORY);
+    }
+
+    private Expense persisted(long id, LocalDate date, String description) {
+        Expense expense = TestDataFactory.createTestExpense(food, new BigDecimal("10.00"), date, description);
+        expense.markPersisted(id, LocalDateTime.now(), LocalDateTime.now());
+        return expense;
+    }
+
+    @Test
+    void testTokenize_MixedPunctuationAndCase_LowerCasedWords() {
+        // Act
+        Set<String> tokens = ExpenseSearchIndex.tokenize("Lunch @ Joe's Diner, TABLE-4");
+
+        // Assert
+        assertEquals(List.of("lunch", "joe", "s", "diner", "table", "4"), List.copyOf(tokens));
+    }
+
+    @Test
+    void testSearch_MultipleTerms_MatchesAllPrefixes() {
+        // Arrange
+        index.add(persisted(1, LocalDate.of(2024, 3, 1), "Coffee with team"));
+        index.add(persisted(2, LocalDate.of(2024, 2, 1), "Team lunch"));
+        index.add(persisted(3, LocalDate.of(2024, 1, 1), "Coffee beans"));
+
+        // Act
+        List<Expense> coffee = index.search("cof", START, END);
+        List<Expense> teamCoffee = index.search("TEAM coff", START, END);
+
+        // Assert
+        assertEquals(List.of(3L, 1L), coffee.stream().map(Expense::getId).toList());
+        assertEquals(List.of(1L), teamCoffee.stream().map(Expense::getId).toList());
+    }
+
+    @Test
+    void testSearch_OutsideDateRange_Excluded() {
+        // Arrange
+        index.add(persisted(1, LocalDate.of(2023, 12, 31), "Taxi"));
+        index.add(persisted(2, LocalDate.of(2024, 6, 1), "Taxi"));
+
+        // Act
+        List<Expense> result = index.search("taxi", START, END);
+
+        // Assert
+        assertEquals(1, result.size());
+        assertEquals(2L, result.get(0).getId());
+    }
+
+    @Test
+    void testUpdateAndRemove_ReindexesDescription() {
+        // Arrange
+        Expense expense = persisted(1, LocalDate.of(2024, 5, 1), "Groceries");
+        index.add(expense);
+
+        // Act
+        expense.setDescription("Pharmacy");
+        index.update(expense);
+
+        // Assert
+        assertTrue(index.search("groceries", START, END).isEmpty());
+        assertEquals(1, index.search("pharm", START, END).size());
+
+        // Act
+        index.remove(1);
+
+        // Assert
+        assertTrue(index.search("pharm", START, END).isEmpty());
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void testApply_CategoryRenamed_ResultsCarryNewName() {
+        // Arrange
+        Category groceries = new Category(4, "Groceries", null, null);
+        Expense expense = TestDataFactory.createTestExpense(groceries, new BigDecimal("10.00"), LocalDate.of(2024, 5, 1), "Market");
+        expense.markPersisted(1L, LocalDateTime.now(), LocalDateTime.now());
+        index.apply(new ChangeEvent.ExpenseCreated(7, expense));
+
+        // Act
+        Category renamed = new Category(4, "Supermarket", null, null);
+        index.apply(new ChangeEvent.CategoryChanged(7, 4, renamed, ChangeEvent.CategoryChanged.Change.UPDATED));
+
+        // Assert
+        List<Expense> results = index.search("market", START, END);
+        assertEquals(1, results.size());
+        assertEquals("Supermarket", results.get(0).getCategory().getName());
+    }
+
+    @Test
+    void testIntersectAndUnion_SortedArrays() {
+        // Arrange
+        long[] a = {1, 3, 5, 7};
+        long[] b = {3, 4, 5, 8};
+
+        // Act & Assert
+        assertArrayEquals(new long[]{3, 5}, ExpenseSearchIndex.intersect(a, b));
+        assertArrayEquals(new long[]{1, 3, 4, 5, 7, 8}, ExpenseSearchIndex.union(a, b));
+    }
+}
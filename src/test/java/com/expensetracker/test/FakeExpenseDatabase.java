@@ -0,0 +1,295 @@
+package com.expensetracker.test;
+
+import com.expensetracker.util.TransactionScope;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * In-memory stand-in for the expense and expense_daily_rollup tables, just
+ * enough for ExpenseJdbcDAO's batch writes, range reads and purges and for
+ * DailyRollupJdbcDAO. Batches report {@link Statement#SUCCESS_NO_INFO} for
+ * every row, as the MySQL driver does with rewriteBatchedStatements=true.
+ * Categories are named "Category &lt;id&gt;".
+ */
+public class FakeExpenseDatabase implements TransactionScope.ConnectionSource {
+
+    private static final Timestamp CREATED_AT = Timestamp.valueOf(LocalDateTime.of(2020, 1, 1, 12, 0));
+
+    private record Row(long id, int userId, int categoryId, Date date, BigDecimal amount, String paymentMethod,
+                       String description, String fingerprint, Timestamp updatedAt) {
+    }
+
+    private Map<Long, Row> expenses = new LinkedHashMap<>();
+    private Map<List<Object>, BigDecimal[]> rollup = new HashMap<>();
+    private long nextId = 1;
+    private boolean down;
+
+    @Override
+    public synchronized Connection open() throws SQLException {
+        if (down) {
+            throw new SQLException("Communications link failure", "08S01");
+        }
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new FakeConnection()::invoke);
+    }
+
+    public synchronized void setDown(boolean down) {
+        this.down = down;
+    }
+
+    /**
+     * Edit an expense as another session would, moving its updated_at on.
+     */
+    public synchronized void touch(long id, LocalDateTime updatedAt) {
+        Row row = expenses.get(id);
+        expenses.put(id, new Row(row.id(), row.userId(), row.categoryId(), row.date(), row.amount(), row.paymentMethod(),
+                row.description() + " (edited)", row.fingerprint(), Timestamp.valueOf(updatedAt)));
+    }
+
+    public synchronized int expenseCount() {
+        return expenses.size();
+    }
+
+    /** Sum of expense_count over every rollup bucket. */
+    public synchronized int rollupCount() {
+        return rollup.values().stream().mapToInt(bucket -> bucket[0].intValue()).sum();
+    }
+
+    /** Sum of total_amount over every rollup bucket. */
+    public synchronized BigDecimal rollupTotal() {
+        return rollup.values().stream().map(bucket -> bucket[1]).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    private synchronized int execute(String sql, Map<Integer, Object> params) throws SQLException {
+        int userId = (Integer) params.get(1);
+        if (sql.startsWith("INSERT INTO expense(")) {
+            String fingerprint = sql.contains("fingerprint") ? (String) params.get(7) : null;
+            if (fingerprint != null && idByFingerprint(userId, fingerprint) != null) {
+                return 1;
+            }
+            long id = nextId++;
+            expenses.put(id, new Row(id, userId, (Integer) params.get(2), (Date) params.get(3), (BigDecimal) params.get(4),
+                    (String) params.get(5), (String) params.get(6), fingerprint, null));
+            return 1;
+        }
+        if (sql.startsWith("INSERT INTO expense_daily_rollup") && sql.contains("SELECT")) {
+            int before = rollup.size();
+            for (Row row : expenses.values()) {
+                if (row.userId() == userId) {
+                    addToRollup(List.of(userId, row.date(), row.categoryId(), row.paymentMethod()), 1, row.amount());
+                }
+            }
+            return rollup.size() - before;
+        }
+        if (sql.startsWith("INSERT INTO expense_daily_rollup")) {
+            addToRollup(List.of(userId, params.get(2), params.get(3), params.get(4)), (Integer) params.get(5), (BigDecimal) params.get(6));
+            return 1;
+        }
+        if (sql.startsWith("DELETE FROM expense_daily_rollup WHERE user_id = ?")) {
+            int before = rollup.size();
+            rollup.keySet().removeIf(bucket -> bucket.get(0).equals(userId));
+            return before - rollup.size();
+        }
+        if (sql.startsWith("DELETE FROM expense WHERE user_id=? AND ((id=? AND updated_at <=> ?)")) {
+            int deleted = 0;
+            for (int i = 2; params.containsKey(i); i += 2) {
+                Row row = expenses.get((Long) params.get(i));
+                if (row != null && row.userId() == userId && Objects.equals(row.updatedAt(), params.get(i + 1))) {
+                    expenses.remove(row.id());
+                    deleted++;
+                }
+            }
+            return deleted;
+        }
+        throw new SQLFeatureNotSupportedException(sql);
+    }
+
+    private synchronized List<Object[]> query(String sql, Map<Integer, Object> params) throws SQLException {
+        int userId = (Integer) params.get(1);
+        List<Object[]> rows = new ArrayList<>();
+        if (sql.startsWith("SELECT fingerprint, id FROM expense")) {
+            for (int i = 2; params.containsKey(i); i++) {
+                Long id = idByFingerprint(userId, (String) params.get(i));
+                if (id != null) {
+                    rows.add(new Object[]{params.get(i), id});
+                }
+            }
+        } else if (sql.startsWith("SELECT fingerprint FROM expense WHERE user_id=? AND expense_date BETWEEN")) {
+            for (Row row : inRange(userId, (Date) params.get(2), (Date) params.get(3))) {
+                if (row.fingerprint() != null) {
+                    rows.add(new Object[]{row.fingerprint()});
+                }
+            }
+        } else if (sql.startsWith("SELECT e.id") && sql.contains("WHERE e.user_id=? AND e.expense_date BETWEEN ? AND ? ORDER BY")) {
+            for (Row row : inRange(userId, (Date) params.get(2), (Date) params.get(3))) {
+                rows.add(new Object[]{row.id(), row.categoryId(), row.date(), row.amount(), row.paymentMethod(), row.description(),
+                        CREATED_AT, row.updatedAt(), row.fingerprint(), "Category " + row.categoryId(), null, CREATED_AT});
+            }
+        } else if (sql.startsWith("SELECT id FROM expense WHERE user_id = ? AND expense_date BETWEEN")) {
+            for (Row row : inRange(userId, (Date) params.get(2), (Date) params.get(3))) {
+                rows.add(new Object[]{row.id()});
+            }
+        } else if (sql.startsWith("SELECT r.rollup_date")) {
+            Date start = (Date) params.get(2);
+            Date end = (Date) params.get(3);
+            rollup.forEach((bucket, totals) -> {
+                Date date = (Date) bucket.get(1);
+                if (bucket.get(0).equals(userId) && !date.before(start) && !date.after(end)) {
+                    rows.add(new Object[]{date, bucket.get(2), "Category " + bucket.get(2), bucket.get(3), totals[0].intValue(), totals[1]});
+                }
+            });
+            rows.sort(Comparator.comparing(row -> (Date) row[0]));
+        } else if (sql.startsWith("SELECT COUNT(*) FROM expense_daily_rollup")) {
+            rows.add(new Object[]{(int) rollup.keySet().stream().filter(bucket -> bucket.get(0).equals(userId)).count()});
+        } else {
+            throw new SQLFeatureNotSupportedException(sql);
+        }
+        return rows;
+    }
+
+    private Long idByFingerprint(int userId, String fingerprint) {
+        for (Row row : expenses.values()) {
+            if (row.userId() == userId && fingerprint.equals(row.fingerprint())) {
+                return row.id();
+            }
+        }
+        return null;
+    }
+
+    private List<Row> inRange(int userId, Date start, Date end) {
+        return expenses.values().stream()
+                .filter(row -> row.userId() == userId && !row.date().before(start) && !row.date().after(end))
+                .sorted(Comparator.comparing(Row::date))
+                .toList();
+    }
+
+    private void addToRollup(List<Object> bucket, int count, BigDecimal total) {
+        BigDecimal[] totals = rollup.computeIfAbsent(bucket, k -> new BigDecimal[]{BigDecimal.ZERO, BigDecimal.ZERO});
+        totals[0] = totals[0].add(BigDecimal.valueOf(count));
+        totals[1] = totals[1].add(total);
+    }
+
+    private final class FakeConnection {
+
+        // State to restore on rollback, taken when a transaction starts
+        private Map<Long, Row> savedExpenses;
+        private Map<List<Object>, BigDecimal[]> savedRollup;
+        private long savedNextId;
+
+        Object invoke(Object proxy, Method method, Object[] args) throws SQLException {
+            switch (method.getName()) {
+                case "prepareStatement" -> {
+                    return statement((String) args[0]);
+                }
+                case "setAutoCommit" -> {
+                    if (!(Boolean) args[0]) {
+                        begin();
+                    }
+                    return null;
+                }
+                case "commit" -> {
+                    savedExpenses = null;
+                    return null;
+                }
+                case "rollback" -> {
+                    restore();
+                    return null;
+                }
+                case "close" -> {
+                    return null;
+                }
+                default -> throw new UnsupportedOperationException(method.getName());
+            }
+        }
+
+        private void begin() {
+            synchronized (FakeExpenseDatabase.this) {
+                savedExpenses = new LinkedHashMap<>(expenses);
+                savedRollup = new HashMap<>();
+                rollup.forEach((bucket, totals) -> savedRollup.put(bucket, totals.clone()));
+                savedNextId = nextId;
+            }
+        }
+
+        private void restore() {
+            if (savedExpenses == null) {
+                return;
+            }
+            synchronized (FakeExpenseDatabase.this) {
+                expenses = savedExpenses;
+                rollup = savedRollup;
+                nextId = savedNextId;
+            }
+            savedExpenses = null;
+        }
+
+        private PreparedStatement statement(String sql) {
+            Map<Integer, Object> params = new HashMap<>();
+            List<Map<Integer, Object>> batch = new ArrayList<>();
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> switch (method.getName()) {
+                        case "setInt", "setLong", "setString", "setDate", "setBigDecimal", "setTimestamp" -> {
+                            params.put((Integer) args[0], args[1]);
+                            yield null;
+                        }
+                        case "addBatch" -> {
+                            batch.add(new HashMap<>(params));
+                            yield null;
+                        }
+                        case "executeBatch" -> {
+                            for (Map<Integer, Object> row : batch) {
+                                execute(sql, row);
+                            }
+                            int[] counts = new int[batch.size()];
+                            Arrays.fill(counts, Statement.SUCCESS_NO_INFO);
+                            batch.clear();
+                            yield counts;
+                        }
+                        case "executeUpdate" -> execute(sql, params);
+                        case "executeQuery" -> resultSet(sql, query(sql, params));
+                        case "setFetchSize", "close" -> null;
+                        default -> throw new UnsupportedOperationException(method.getName());
+                    });
+        }
+
+        private ResultSet resultSet(String sql, List<Object[]> rows) {
+            // Column labels in select-list order, for getters called by name
+            List<String> labels = new ArrayList<>();
+            for (String column : sql.substring("SELECT ".length(), sql.indexOf(" FROM ")).split(",")) {
+                String label = column.trim();
+                label = label.contains(" AS ") ? label.substring(label.indexOf(" AS ") + 4) : label;
+                labels.add(label.substring(label.indexOf('.') + 1));
+            }
+            int[] cursor = {-1};
+            return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+                    new Class<?>[]{ResultSet.class}, (proxy, method, args) -> switch (method.getName()) {
+                        case "next" -> ++cursor[0] < rows.size();
+                        case "close" -> null;
+                        case "getString", "getLong", "getInt", "getDate", "getBigDecimal", "getTimestamp" -> {
+                            int column = args[0] instanceof Integer index ? index - 1 : labels.indexOf((String) args[0]);
+                            yield rows.get(cursor[0])[column];
+                        }
+                        default -> throw new UnsupportedOperationException(method.getName());
+                    });
+        }
+    }
+}
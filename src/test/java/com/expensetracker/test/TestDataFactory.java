@@ -8,6 +8,7 @@ import com.expensetracker.model.Expense;
 import com.expensetracker.model.PaymentMethod;
 import com.expensetracker.model.UserAccount;
 import com.expensetracker.model.Role;
+import com.expensetracker.security.Pbkdf2HashScheme;
 import com.expensetracker.util.PasswordHasher;
 
 import java.math.BigDecimal;
@@ -27,6 +28,9 @@ public class TestDataFactory {
     public static final String TEST_ADMIN_USERNAME = "admin";
     public static final String TEST_ADMIN_PASSWORD = "admin123";
 
+    // Cheap cost keeps test data fast to build
+    private static final PasswordHasher HASHER = new PasswordHasher(new Pbkdf2HashScheme(1_000));
+
     // Test category constants
     public static final String FOOD_CATEGORY = "Food";
     public static final String TRANSPORT_CATEGORY = "Transportation";
@@ -45,7 +49,7 @@ public class TestDataFactory {
      */
     public static UserAccount createTestUser() {
         String salt = generateTestSalt();
-        String hashedPassword = PasswordHasher.hash(TEST_PASSWORD, salt);
+        String hashedPassword = HASHER.hash(TEST_PASSWORD, salt);
 
         return new UserAccount(TEST_USERNAME, hashedPassword, salt, Role.USER);
     }
@@ -55,7 +59,7 @@ public class TestDataFactory {
      */
     public static UserAccount createTestAdmin() {
         String salt = generateTestSalt();
-        String hashedPassword = PasswordHasher.hash(TEST_ADMIN_PASSWORD, salt);
+        String hashedPassword = HASHER.hash(TEST_ADMIN_PASSWORD, salt);
 
         return new UserAccount(TEST_ADMIN_USERNAME, hashedPassword, salt, Role.ADMIN);
     }
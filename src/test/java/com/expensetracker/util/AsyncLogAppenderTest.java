@@ -0,0 +1,103 @@
+package com.expensetracker.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.event.Level;
+
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the ring-buffer backed asynchronous log appender
+ */
+public class AsyncLogAppenderTest {
+
+    @TempDir
+    Path logsDir;
+
+    @Test
+    void testAppend_FormatsPlaceholdersAndFlushesOnClose() throws Exception {
+        // Arrange
+        AsyncLogAppender appender = new AsyncLogAppender(logsDir);
+
+        // Act
+        appender.append(Level.INFO, "plain message", 0, null, null, null, null);
+        appender.append(Level.WARN, "one {}", 1, "arg", null, null, null);
+        appender.append(Level.ERROR, "two {} {}", 2, 1, null, null, null);
+        appender.append(Level.DEBUG, "many {} {} {}", -1, null, null, new Object[]{"a", "b", "c"}, null);
+        appender.close();
+
+        // Assert
+        List<String> lines = Files.readAllLines(logsDir.resolve("expense-tracker.log"));
+        assertEquals(4, lines.size());
+        assertTrue(lines.get(0).endsWith("INFO plain message"));
+        assertTrue(lines.get(1).endsWith("WARN one arg"));
+        assertTrue(lines.get(2).endsWith("ERROR two 1 null"));
+        assertTrue(lines.get(3).endsWith("DEBUG many a b c"));
+    }
+
+    @Test
+    void testAppend_RollsFileWhenSizeLimitReached() throws Exception {
+        // Arrange
+        AsyncLogAppender appender = new AsyncLogAppender(logsDir, 16, 1, 64);
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            appender.append(Level.WARN, "event number {} with some padding text", 1, i, null, null, null);
+        }
+        appender.close();
+
+        // Assert
+        try (Stream<Path> files = Files.list(logsDir)) {
+            assertTrue(files.count() > 1, "Expected rolled log files");
+        }
+    }
+
+    @Test
+    void testAppend_EventFailsToRender_WritesFallbackAndKeepsLogging() throws Exception {
+        // Arrange: rendering this event throws
+        AsyncLogAppender appender = new AsyncLogAppender(logsDir, 2, 1, 1024 * 1024);
+        Throwable unprintable = new RuntimeException("boom") {
+            @Override
+            public void printStackTrace(PrintWriter writer) {
+                throw new IllegalStateException("cannot render");
+            }
+        };
+
+        // Act: more WARNs than the buffer holds, all of which must still be written
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            assertTrue(appender.append(Level.ERROR, "failing", 0, null, null, null, unprintable));
+            for (int i = 0; i < 5; i++) {
+                assertTrue(appender.append(Level.WARN, "after {}", 1, i, null, null, null));
+            }
+        });
+        appender.close();
+
+        // Assert
+        List<String> lines = Files.readAllLines(logsDir.resolve("expense-tracker.log"));
+        assertEquals(6, lines.size());
+        assertTrue(lines.get(0).endsWith("ERROR [unrenderable event] failing: java.lang.IllegalStateException: cannot render"));
+        assertTrue(lines.get(5).endsWith("WARN after 4"));
+    }
+
+    @Test
+    void testAppend_AfterClose_ReturnsFalse() {
+        // Arrange
+        AsyncLogAppender appender = new AsyncLogAppender(logsDir);
+        appender.close();
+
+        // Act & Assert
+        assertFalse(appender.append(Level.ERROR, "too late", 0, null, null, null, null));
+    }
+
+    @Test
+    void testConstructor_NonPowerOfTwoCapacity_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> new AsyncLogAppender(logsDir, 100, 10, 1024));
+    }
+}
@@ -0,0 +1,78 @@
+package com.expensetracker.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for Lazy
+ */
+public class LazyTest {
+
+    @Test
+    void testGet_ConcurrentFirstCalls_InitializesOnce() throws Exception {
+        // Arrange
+        AtomicInteger builds = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        Lazy<Object> lazy = new Lazy<>(() -> {
+            builds.incrementAndGet();
+            return new Object();
+        });
+        List<Object> seen = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                Object value = lazy.get();
+                synchronized (seen) {
+                    seen.add(value);
+                }
+            }));
+        }
+
+        // Act
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // Assert
+        assertEquals(1, builds.get());
+        assertEquals(8, seen.size());
+        assertTrue(seen.stream().allMatch(v -> v == seen.get(0)));
+    }
+
+    @Test
+    void testGet_InitializerThrows_RetriedOnNextCall() {
+        // Arrange
+        AtomicInteger attempts = new AtomicInteger();
+        Lazy<String> lazy = new Lazy<>(() -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new IllegalStateException("database down");
+            }
+            return "ready";
+        });
+        List<String> visited = new ArrayList<>();
+
+        // Act
+        assertThrows(IllegalStateException.class, lazy::get);
+        lazy.ifInitialized(visited::add);
+        String value = lazy.get();
+        lazy.ifInitialized(visited::add);
+
+        // Assert
+        assertEquals("ready", value);
+        assertEquals(2, attempts.get());
+        assertEquals(List.of("ready"), visited);
+        assertTrue(lazy.isInitialized());
+    }
+}
@@ -0,0 +1,139 @@
+package com.expensetracker.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for TransactionScope, against connections that record the calls
+ * made on them
+ */
+public class TransactionScopeTest {
+
+    private final List<String> calls = new ArrayList<>();
+    private int opened;
+    private final TransactionScope scope = new TransactionScope(this::open);
+
+    private Connection open() {
+        opened++;
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    String name = method.getName();
+                    calls.add(name + (args == null || name.equals("prepareStatement") ? "" : "(" + args[0] + ")"));
+                    return name.equals("setSavepoint")
+                            ? Proxy.newProxyInstance(Savepoint.class.getClassLoader(), new Class<?>[]{Savepoint.class}, (p, m, a) -> null)
+                            : null;
+                });
+    }
+
+    // Shaped like the JDBC DAOs' write methods
+    private void daoWrite(boolean fail) {
+        try (Connection con = scope.getConnection()) {
+            con.setAutoCommit(false);
+            try {
+                con.prepareStatement("UPDATE category SET monthly_budget_limit = ?");
+                if (fail) {
+                    throw new SQLException("Check constraint violated");
+                }
+                con.commit();
+            } catch (SQLException | RuntimeException e) {
+                con.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error updating category", e);
+        }
+    }
+
+    @Test
+    void testExecute_TwoDaoWrites_ShareOneConnectionAndCommitOnce() {
+        // Act
+        scope.run(() -> {
+            daoWrite(false);
+            daoWrite(false);
+        });
+
+        // Assert
+        assertEquals(1, opened);
+        assertEquals(List.of("setAutoCommit(false)", "setSavepoint", "prepareStatement", "setSavepoint", "prepareStatement",
+                "commit", "close"), calls);
+        assertFalse(scope.isActive());
+    }
+
+    @Test
+    void testExecute_WorkThrows_RollsBackWithoutCommit() {
+        // Act
+        assertThrows(IllegalStateException.class, () -> scope.run(() -> {
+            daoWrite(false);
+            throw new IllegalStateException("Category deleted meanwhile");
+        }));
+
+        // Assert
+        assertFalse(calls.contains("commit"));
+        assertEquals(List.of("rollback", "close"), calls.subList(calls.size() - 2, calls.size()));
+        assertFalse(scope.isActive());
+    }
+
+    @Test
+    void testExecute_DaoRollsBackOwnWrite_RestoresSavepointAndCommitsRest() {
+        // Act
+        scope.run(() -> {
+            daoWrite(false);
+            assertThrows(RuntimeException.class, () -> daoWrite(true));
+        });
+
+        // Assert
+        assertTrue(calls.stream().anyMatch(call -> call.startsWith("rollback(")));
+        assertEquals(List.of("commit", "close"), calls.subList(calls.size() - 2, calls.size()));
+    }
+
+    @Test
+    void testExecute_NestedAndUnused_JoinsOuterAndOpensNothing() {
+        // Act
+        int result = scope.execute(() -> scope.execute(() -> 42));
+
+        // Assert
+        assertEquals(42, result);
+        assertEquals(0, opened);
+    }
+
+    @Test
+    void testAfterCommit_RunsOnceCommitted_DroppedOnRollback() {
+        // Arrange
+        List<String> mirrored = new ArrayList<>();
+
+        // Act
+        scope.run(() -> {
+            daoWrite(false);
+            scope.afterCommit(() -> mirrored.add("committed:" + calls.contains("commit")));
+        });
+        assertThrows(IllegalStateException.class, () -> scope.run(() -> {
+            daoWrite(false);
+            scope.afterCommit(() -> mirrored.add("rolled back"));
+            throw new IllegalStateException("Category deleted meanwhile");
+        }));
+        scope.afterCommit(() -> mirrored.add("no unit"));
+
+        // Assert
+        assertEquals(List.of("committed:true", "no unit"), mirrored);
+    }
+
+    @Test
+    void testGetConnection_OutsideUnit_NewConnectionEachTime() throws SQLException {
+        // Act
+        try (Connection first = scope.getConnection(); Connection second = scope.getConnection()) {
+            assertNotSame(first, second);
+        }
+
+        // Assert
+        assertEquals(2, opened);
+        assertEquals(List.of("close", "close"), calls);
+    }
+}